@@ -0,0 +1,91 @@
+package com.greenlink.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Compares a JMH JSON result file with a stored baseline and exits with 1 when any benchmark
+// present in both got worse by more than the threshold (relative). A missing baseline is not an error.
+//   args: <baseline.json> <result.json> [threshold, default 0.10]
+public final class BaselineCompare {
+
+    private BaselineCompare() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineCompare <baseline.json> <result.json> [threshold]");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[0]);
+        File resultFile = new File(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+        if (!baselineFile.isFile()) {
+            System.out.println("No baseline at " + baselineFile + ", skipping comparison.");
+            return;
+        }
+        if (!resultFile.isFile()) {
+            System.err.println("No benchmark result at " + resultFile);
+            System.exit(2);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Score> baseline = read(objectMapper.readTree(baselineFile));
+        Map<String, Score> current = read(objectMapper.readTree(resultFile));
+
+        int regressions = 0;
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            if (before == null || before.value() == 0) {
+                System.out.printf(Locale.ROOT, "NEW   %-80s %12.3f %s%n",
+                        entry.getKey(), entry.getValue().value(), entry.getValue().unit());
+                continue;
+            }
+            Score after = entry.getValue();
+            // Throughput: higher is better; time modes (avgt, sample, ss): lower is better
+            double change = (after.value() - before.value()) / before.value();
+            double worse = after.higherIsBetter() ? -change : change;
+            boolean regressed = worse > threshold;
+            if (regressed) {
+                regressions++;
+            }
+            System.out.printf(Locale.ROOT, "%-5s %-80s %12.3f -> %12.3f %s (%+.1f%%)%n",
+                    regressed ? "WORSE" : "OK", entry.getKey(), before.value(), after.value(), after.unit(), change * 100);
+        }
+
+        if (regressions > 0) {
+            System.out.printf(Locale.ROOT, "%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    // Key: benchmark method plus its @Param values, e.g. "...SolverBenchmark.fullSolve[orders=1000]".
+    private static Map<String, Score> read(JsonNode results) {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : results) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            JsonNode params = run.path("params");
+            if (params.isObject() && !params.isEmpty()) {
+                key.append('[');
+                params.fields().forEachRemaining(param ->
+                        key.append(param.getKey()).append('=').append(param.getValue().asText()).append(','));
+                key.setCharAt(key.length() - 1, ']');
+            }
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(key.toString(), new Score(
+                    metric.path("score").asDouble(),
+                    metric.path("scoreUnit").asText(),
+                    "thrpt".equals(run.path("mode").asText())
+            ));
+        }
+        return scores;
+    }
+
+    private record Score(double value, String unit, boolean higherIsBetter) {}
+}
@@ -0,0 +1,100 @@
+package com.greenlink.bench;
+
+import com.greenlink.dto.OrderDTO;
+import com.greenlink.dto.VehicleDTO;
+import com.greenlink.model.DeliveryOrder;
+import com.greenlink.model.Vehicle;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+// Deterministic benchmark inputs: orders spread over a ~30 x 30 km box around Manhattan,
+// one vehicle per 50 orders with enough capacity for that share of the demand.
+public final class SyntheticFleet {
+
+    public static final int ORDERS_PER_VEHICLE = 50;
+
+    private static final double MIN_LAT = 40.58;
+    private static final double MIN_LON = -74.10;
+    private static final double SPAN = 0.27;
+
+    public final List<DeliveryOrder> orders;
+    public final List<Vehicle> vehicles;
+
+    private SyntheticFleet(List<DeliveryOrder> orders, List<Vehicle> vehicles) {
+        this.orders = orders;
+        this.vehicles = vehicles;
+    }
+
+    public static SyntheticFleet of(int orderCount) {
+        return of(orderCount, Math.max(1, orderCount / ORDERS_PER_VEHICLE), 42L);
+    }
+
+    public static SyntheticFleet of(int orderCount, int vehicleCount, long seed) {
+        Random random = new Random(seed);
+        UUID organizationId = new UUID(seed, seed);
+
+        List<DeliveryOrder> orders = new ArrayList<>(orderCount);
+        int totalWeight = 0;
+        for (int i = 0; i < orderCount; i++) {
+            DeliveryOrder order = new DeliveryOrder();
+            order.setId(new UUID(seed, i + 1L));
+            order.setOrganizationId(organizationId);
+            order.setLatitude(MIN_LAT + random.nextDouble() * SPAN);
+            order.setLongitude(MIN_LON + random.nextDouble() * SPAN);
+            order.setAddress("Synthetic stop " + i);
+            order.setWeightKg(1 + random.nextInt(20));
+            order.setServiceDurationMin(5 + random.nextInt(10));
+            order.setStatus("UNASSIGNED");
+            totalWeight += order.getWeightKg();
+            orders.add(order);
+        }
+
+        // 20% headroom so the savings merge has some freedom
+        int capacity = (int) Math.ceil(totalWeight * 1.2 / vehicleCount) + 20;
+        List<Vehicle> vehicles = new ArrayList<>(vehicleCount);
+        for (int v = 0; v < vehicleCount; v++) {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setId(new UUID(~seed, v + 1L));
+            vehicle.setOrganizationId(organizationId);
+            vehicle.setName("Van " + v);
+            vehicle.setCapacityKg(capacity);
+            vehicle.setStartShiftMinutes(480);
+            vehicle.setEndShiftMinutes(1080);
+            // A few shared depots, as in a real fleet
+            int depot = v % 4;
+            vehicle.setStartLat(MIN_LAT + SPAN * (0.25 + 0.5 * (depot / 2)));
+            vehicle.setStartLon(MIN_LON + SPAN * (0.25 + 0.5 * (depot % 2)));
+            vehicles.add(vehicle);
+        }
+        return new SyntheticFleet(orders, vehicles);
+    }
+
+    public List<OrderDTO> orderDTOs() {
+        List<OrderDTO> result = new ArrayList<>(orders.size());
+        for (DeliveryOrder order : orders) {
+            result.add(new OrderDTO(order.getId().toString(), order.getLatitude(), order.getLongitude(),
+                    order.getWeightKg().doubleValue(), order.getServiceDurationMin().doubleValue()));
+        }
+        return result;
+    }
+
+    public List<VehicleDTO> vehicleDTOs() {
+        List<VehicleDTO> result = new ArrayList<>(vehicles.size());
+        for (Vehicle vehicle : vehicles) {
+            result.add(new VehicleDTO(vehicle.getId().toString(), vehicle.getCapacityKg().doubleValue(),
+                    vehicle.getStartLat(), vehicle.getStartLon()));
+        }
+        return result;
+    }
+
+    public double[] latitudes() {
+        return orders.stream().mapToDouble(DeliveryOrder::getLatitude).toArray();
+    }
+
+    public double[] longitudes() {
+        return orders.stream().mapToDouble(DeliveryOrder::getLongitude).toArray();
+    }
+}
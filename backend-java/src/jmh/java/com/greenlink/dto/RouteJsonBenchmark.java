@@ -0,0 +1,134 @@
+package com.greenlink.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greenlink.bench.SyntheticFleet;
+import com.greenlink.service.CompactSolverCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Solver payloads as exchanged with the Python solver: request out, response back in, as JSON and
+// in the compact binary protocol.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RouteJsonBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int orders;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RouteRequest request;
+    private byte[] requestJson;
+    private RouteResponse response;
+    private byte[] responseJson;
+    private byte[] compactResponse;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        SyntheticFleet fleet = SyntheticFleet.of(orders);
+        request = new RouteRequest(fleet.orderDTOs(), fleet.vehicleDTOs());
+        requestJson = objectMapper.writeValueAsBytes(request);
+
+        // Orders dealt to vehicles in sequence; the shape matters here, not the plan
+        response = new RouteResponse();
+        response.setRoutes(new ArrayList<>());
+        List<OrderDTO> orderDTOs = request.getOrders();
+        List<List<Map<String, Object>>> echoedStops = new ArrayList<>();
+        for (int v = 0; v < request.getVehicles().size(); v++) {
+            echoedStops.add(new ArrayList<>());
+            RouteResponse.RoutePlan plan = new RouteResponse.RoutePlan();
+            plan.setVehicleId(request.getVehicles().get(v).getId());
+            plan.setStops(new ArrayList<>());
+            response.getRoutes().add(plan);
+        }
+        for (int o = 0; o < orderDTOs.size(); o++) {
+            OrderDTO order = orderDTOs.get(o);
+            Map<String, Object> stop = new LinkedHashMap<>();
+            stop.put("id", order.getId());
+            stop.put("latitude", order.getLatitude());
+            stop.put("longitude", order.getLongitude());
+            stop.put("weightKg", order.getWeightKg());
+            stop.put("serviceDurationMin", order.getServiceDurationMin());
+            echoedStops.get(o % echoedStops.size()).add(stop);
+            response.getRoutes().get(o % response.getRoutes().size()).getStops().add(new RouteResponse.Stop(order.getId()));
+        }
+        // The Python solver echoes every order field per stop
+        List<Map<String, Object>> echoed = new ArrayList<>();
+        for (int v = 0; v < echoedStops.size(); v++) {
+            Map<String, Object> plan = new LinkedHashMap<>();
+            plan.put("vehicleId", response.getRoutes().get(v).getVehicleId());
+            plan.put("stops", echoedStops.get(v));
+            echoed.add(plan);
+        }
+        responseJson = objectMapper.writeValueAsBytes(Map.of("routes", echoed));
+        compactResponse = compactResponse(response.getRoutes().size(), orderDTOs.size());
+    }
+
+    @Benchmark
+    public byte[] writeRequest() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(request);
+    }
+
+    @Benchmark
+    public RouteRequest readRequest() throws IOException {
+        return objectMapper.readValue(requestJson, RouteRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public RouteResponse readResponse() throws IOException {
+        return objectMapper.readValue(responseJson, RouteResponse.class);
+    }
+
+    @Benchmark
+    public byte[] writeCompactRequest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(requestJson.length / 8);
+        CompactSolverCodec.writeRequest(request, out);
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public RouteResponse readCompactResponse() throws IOException {
+        return CompactSolverCodec.readResponse(new ByteArrayInputStream(compactResponse), request);
+    }
+
+    // Same dealing as the JSON response: order o on vehicle o % vehicles
+    private static byte[] compactResponse(int vehicles, int orders) {
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 8 * vehicles + 4 * orders);
+        buffer.putInt(0x474C5331).putInt(vehicles);
+        for (int v = 0; v < vehicles; v++) {
+            buffer.putInt(v).putInt((orders - v + vehicles - 1) / vehicles);
+            for (int o = v; o < orders; o += vehicles) {
+                buffer.putInt(o);
+            }
+        }
+        return buffer.array();
+    }
+}
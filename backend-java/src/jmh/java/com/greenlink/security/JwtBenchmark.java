@@ -0,0 +1,53 @@
+package com.greenlink.security;
+
+import com.greenlink.model.Role;
+import com.greenlink.model.User;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Per-request token work done by JwtAuthenticationFilter: one signed parse plus the claim checks.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService("BenchmarkSecretKeyThatIsAtLeast32BytesLong", 3_600_000L);
+        user = new User();
+        user.setUsername("driver@greenlink.local");
+        user.setRole(Role.DRIVER);
+        user.setOrganizationId(UUID.randomUUID());
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean parseAndValidate() {
+        Claims claims = jwtService.parseClaims(token);
+        return jwtService.isTokenValid(claims, user);
+    }
+}
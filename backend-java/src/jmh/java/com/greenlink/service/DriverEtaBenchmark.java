@@ -0,0 +1,69 @@
+package com.greenlink.service;
+
+import com.greenlink.bench.SyntheticFleet;
+import com.greenlink.model.DeliveryOrder;
+import com.greenlink.repository.RouteStopRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Remaining-time estimate on a driver-portal poll: full computation from the route_stops rows
+// versus a RouteEtaCache hit (fingerprint check only).
+// A third of the stops are already delivered, as in the middle of a shift.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DriverEtaBenchmark {
+
+    @Param({"25", "100", "500"})
+    int stops;
+
+    private List<RouteStopRepository.StopView> route;
+    private UUID routeId;
+    private RouteEtaCache cache;
+
+    @Setup
+    public void setUp() {
+        List<DeliveryOrder> orders = SyntheticFleet.of(stops).orders;
+        routeId = UUID.randomUUID();
+        route = new ArrayList<>(orders.size());
+        int arrival = 0;
+        for (int i = 0; i < orders.size(); i++) {
+            DeliveryOrder order = orders.get(i);
+            double legSeconds = 120 + (i % 7) * 30;
+            arrival += (int) legSeconds;
+            route.add(new RouteStopRepository.StopView(routeId, i, order.getId(), order.getAddress(),
+                    order.getLatitude(), order.getLongitude(), i < stops / 3 ? "DELIVERED" : "ASSIGNED",
+                    order.getServiceDurationMin(), arrival, legSeconds * 8, legSeconds));
+            arrival += order.getServiceDurationMin() * 60;
+        }
+        cache = new RouteEtaCache(16);
+        cache.remainingMinutes(routeId, route);
+    }
+
+    @Benchmark
+    public int estimateRemainingMinutes() {
+        return RouteEtaCache.estimateRemainingMinutes(route);
+    }
+
+    @Benchmark
+    public int cachedRemainingMinutes() {
+        return cache.remainingMinutes(routeId, route);
+    }
+}
@@ -0,0 +1,50 @@
+package com.greenlink.service;
+
+import com.greenlink.bench.SyntheticFleet;
+import com.greenlink.dto.OrderDTO;
+import com.greenlink.dto.VehicleDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Entity -> solver DTO mapping done by RoutingService before every optimization.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoutingMappingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    int orders;
+
+    private SyntheticFleet fleet;
+
+    @Setup
+    public void setUp() {
+        fleet = SyntheticFleet.of(orders);
+    }
+
+    @Benchmark
+    public List<OrderDTO> mapOrders() {
+        return fleet.orders.stream().map(RoutingService::toOrderDTO).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<VehicleDTO> mapVehicles() {
+        return fleet.vehicles.stream().map(RoutingService::toVehicleDTO).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,110 @@
+package com.greenlink.service;
+
+import com.greenlink.bench.SyntheticFleet;
+import com.greenlink.config.IoThreads;
+import com.greenlink.dto.RouteRequest;
+import com.greenlink.dto.RouteResponse;
+import com.greenlink.dto.VehicleDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Native solver stages on a fixed instance: neighbour lists, savings construction, local search,
+// and the whole solve() including the (warm, haversine) matrix lookup, in one piece and decomposed into
+// sweep clusters solved in parallel (compare with -t / different core counts).
+// Capped at 2000 orders: the undecomposed matrix is O(n^2) doubles (~32 MB at 2000, ~800 MB at 10000).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class SolverBenchmark {
+
+    @Param({"100", "1000", "2000"})
+    int orders;
+
+    private TravelMatrixService travelMatrixService;
+    private SavingsRouteSolver solver;
+    private SavingsRouteSolver decomposedSolver;
+    private RouteRequest request;
+    private VrpInstance instance;
+    private int[][] initialRoutes;
+
+    @Setup
+    public void setUp() {
+        SyntheticFleet fleet = SyntheticFleet.of(orders);
+        // No OSRM: straight-line fallback, so the numbers measure the solver, not the network
+        travelMatrixService = new TravelMatrixService("", 100, 1, 4096, new IoThreads(false), new SimpleMeterRegistry());
+        solver = new SavingsRouteSolver(travelMatrixService, Integer.MAX_VALUE, 0, 0);
+        decomposedSolver = new SavingsRouteSolver(travelMatrixService, 250, 1200, 0);
+        request = new RouteRequest(fleet.orderDTOs(), fleet.vehicleDTOs());
+
+        List<VehicleDTO> vehicles = request.getVehicles();
+        int vehicleCount = vehicles.size();
+        int size = vehicleCount + orders;
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        double[] demand = new double[size];
+        double[] capacity = new double[vehicleCount];
+        for (int v = 0; v < vehicleCount; v++) {
+            latitudes[v] = vehicles.get(v).getStartLat();
+            longitudes[v] = vehicles.get(v).getStartLon();
+            capacity[v] = vehicles.get(v).getCapacityKg();
+        }
+        for (int o = 0; o < orders; o++) {
+            latitudes[vehicleCount + o] = request.getOrders().get(o).getLatitude();
+            longitudes[vehicleCount + o] = request.getOrders().get(o).getLongitude();
+            demand[vehicleCount + o] = request.getOrders().get(o).getWeightKg();
+        }
+        double[] distance = travelMatrixService.build(latitudes, longitudes).distancesAsDouble();
+        instance = new VrpInstance(vehicleCount, orders, distance, demand, capacity);
+        initialRoutes = new ClarkeWrightBuilder(instance).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        solver.shutdown();
+        decomposedSolver.shutdown();
+        travelMatrixService.shutdown();
+    }
+
+    @Benchmark
+    public int[][] neighbourLists() {
+        return new VrpInstance(instance.vehicleCount, instance.orderCount, instance.distance,
+                instance.demand, instance.capacity).neighbours();
+    }
+
+    @Benchmark
+    public int[][] savingsConstruction() {
+        return new ClarkeWrightBuilder(instance).build();
+    }
+
+    @Benchmark
+    public int[][] localSearch() {
+        return new RouteLocalSearch(instance, initialRoutes).run(Long.MAX_VALUE);
+    }
+
+    @Benchmark
+    public RouteResponse fullSolve() {
+        return solver.solve(request);
+    }
+
+    @Benchmark
+    public RouteResponse decomposedSolve() {
+        return decomposedSolver.solve(request);
+    }
+}
@@ -0,0 +1,87 @@
+package com.greenlink.service;
+
+import com.greenlink.bench.SyntheticFleet;
+import com.greenlink.config.IoThreads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Square matrix builds with the haversine fallback: cold (every cell computed and written to the
+// cache) versus warm (every cell served from TravelMatrixCache).
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+public class TravelMatrixBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Points {
+        @Param({"100", "1000", "2000"})
+        int points;
+
+        double[] latitudes;
+        double[] longitudes;
+
+        @Setup
+        public void setUp() {
+            SyntheticFleet fleet = SyntheticFleet.of(points);
+            latitudes = fleet.latitudes();
+            longitudes = fleet.longitudes();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class WarmService {
+        TravelMatrixService service;
+
+        @Setup(Level.Trial)
+        public void setUp(Points points) {
+            service = new TravelMatrixService("", 100, 1, 4096, new IoThreads(false), new SimpleMeterRegistry());
+            service.build(points.latitudes, points.longitudes);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            service.shutdown();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ColdService {
+        TravelMatrixService service;
+
+        @Setup(Level.Invocation)
+        public void setUp() {
+            service = new TravelMatrixService("", 100, 1, 4096, new IoThreads(false), new SimpleMeterRegistry());
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            service.shutdown();
+        }
+    }
+
+    @Benchmark
+    public TravelMatrix cold(Points points, ColdService cold) {
+        return cold.service.build(points.latitudes, points.longitudes);
+    }
+
+    @Benchmark
+    public TravelMatrix warm(Points points, WarmService warm) {
+        return warm.service.build(points.latitudes, points.longitudes);
+    }
+}
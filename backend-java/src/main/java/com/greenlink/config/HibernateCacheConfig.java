@@ -0,0 +1,74 @@
+package com.greenlink.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+// Regions of the Hibernate second-level and query cache (JCache on Caffeine, in-process) for the
+// read-mostly fleet data: vehicles, drivers and users. Entity regions are keyed by id; query regions by
+// query and parameters, and every cached query is filtered by organization (or by the globally unique
+// username), so no region entry spans tenants. Hibernate drops changed entities and invalidates the
+// query regions of a table on every write it flushes; writes to these tables must go through JPA,
+// JDBC writes would have to evict the regions themselves.
+@Configuration
+public class HibernateCacheConfig {
+
+    static final List<String> ENTITY_REGIONS = List.of("vehicles", "drivers", "users");
+    static final List<String> QUERY_REGIONS = List.of("vehicles.queries", "drivers.queries", "users.queries");
+    // Last write time per table, checked before a cached query result is used; must never be evicted
+    static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+    static final String DEFAULT_QUERY_REGION = "default-query-results-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${app.cache.entity-ttl-seconds:600}") long entityTtlSeconds,
+            @Value("${app.cache.entity-max-size:50000}") long entityMaxSize,
+            @Value("${app.cache.query-ttl-seconds:300}") long queryTtlSeconds,
+            @Value("${app.cache.query-max-size:10000}") long queryMaxSize
+    ) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        for (String region : ENTITY_REGIONS) {
+            createRegion(cacheManager, region, regionConfiguration(entityTtlSeconds, entityMaxSize));
+        }
+        for (String region : QUERY_REGIONS) {
+            createRegion(cacheManager, region, regionConfiguration(queryTtlSeconds, queryMaxSize));
+        }
+        createRegion(cacheManager, DEFAULT_QUERY_REGION, regionConfiguration(queryTtlSeconds, queryMaxSize));
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    // Regions are created here with bounds; an unknown region name fails at startup instead of
+    // silently getting an unbounded cache (hibernate.javax.cache.missing_cache_strategy=fail).
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long ttlSeconds, long maxSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setExpireAfterWrite(OptionalLong.of(Duration.ofSeconds(ttlSeconds).toNanos()));
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+
+    // The default cache manager is shared per class loader, so a second context (tests) finds them created
+    private static void createRegion(CacheManager cacheManager, String name,
+                                     CaffeineConfiguration<Object, Object> configuration) {
+        if (cacheManager.getCache(name) == null) {
+            cacheManager.createCache(name, configuration);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.greenlink.config;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+// Threads for blocking I/O outside the servlet container (OSRM, Nominatim, solver HTTP calls).
+// With spring.threads.virtual.enabled=true Spring Boot already runs Tomcat requests on virtual
+// threads; this extends the same mode to our own pools and to the JDK HttpClient's executor.
+@Component
+public class IoThreads {
+
+    private final boolean virtual;
+    // Shared by every HttpClient in virtual mode; null means the JDK default executor
+    private final ExecutorService httpExecutor;
+
+    public IoThreads(@Value("${spring.threads.virtual.enabled:false}") boolean virtual) {
+        this.virtual = virtual;
+        this.httpExecutor = virtual
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("http-client-", 1).factory())
+                : null;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (httpExecutor != null) {
+            httpExecutor.shutdownNow();
+        }
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    public HttpClient.Builder httpClientBuilder() {
+        HttpClient.Builder builder = HttpClient.newBuilder();
+        if (httpExecutor != null) {
+            builder.executor(httpExecutor);
+        }
+        return builder;
+    }
+
+    // The pool size still bounds concurrency (e.g. parallel OSRM requests) in both modes.
+    public ExecutorService fixedPool(String name, int size) {
+        ThreadFactory factory = virtual
+                ? Thread.ofVirtual().name(name + "-", 1).factory()
+                : Thread.ofPlatform().name(name + "-", 1).daemon(true).factory();
+        return Executors.newFixedThreadPool(Math.max(1, size), factory);
+    }
+}
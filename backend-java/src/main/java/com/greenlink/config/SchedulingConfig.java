@@ -0,0 +1,10 @@
+package com.greenlink.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables @Scheduled jobs (order archiving).
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -6,6 +6,7 @@ import com.greenlink.model.Driver;
 import com.greenlink.model.User;
 import com.greenlink.repository.DriverRepository;
 import com.greenlink.repository.UserRepository;
+import com.greenlink.security.AuthenticatedUserCache;
 import com.greenlink.security.CurrentUserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -19,11 +20,18 @@ public class AccountController {
     private final CurrentUserService currentUserService;
     private final UserRepository userRepository;
     private final DriverRepository driverRepository;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
-    public AccountController(CurrentUserService currentUserService, UserRepository userRepository, DriverRepository driverRepository) {
+    public AccountController(
+            CurrentUserService currentUserService,
+            UserRepository userRepository,
+            DriverRepository driverRepository,
+            AuthenticatedUserCache authenticatedUserCache
+    ) {
         this.currentUserService = currentUserService;
         this.userRepository = userRepository;
         this.driverRepository = driverRepository;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     @GetMapping
@@ -34,7 +42,9 @@ public class AccountController {
 
     @PutMapping
     public AccountResponse updateAccount(@RequestBody AccountUpdateRequest request) {
-        User user = currentUserService.requireUser();
+        // The principal is shared through the authentication cache, so edit a fresh copy
+        User user = userRepository.findById(currentUserService.requireUser().getId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Unauthorized"));
         String previousEmail = user.getUsername();
 
         if (request.getEmail() != null && !request.getEmail().equalsIgnoreCase(user.getUsername())) {
@@ -53,6 +63,8 @@ public class AccountController {
         }
 
         User savedUser = userRepository.save(user);
+        authenticatedUserCache.invalidate(previousEmail);
+        authenticatedUserCache.invalidate(savedUser.getUsername());
 
         if (savedUser.getRole() == com.greenlink.model.Role.DRIVER) {
             driverRepository.findByEmailAndOrganizationId(previousEmail, savedUser.getOrganizationId())
@@ -73,6 +85,7 @@ public class AccountController {
                     });
         }
         userRepository.delete(user);
+        authenticatedUserCache.invalidate(user.getUsername());
         return ResponseEntity.noContent().build();
     }
 
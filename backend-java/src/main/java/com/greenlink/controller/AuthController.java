@@ -7,6 +7,7 @@ import com.greenlink.model.Role;
 import com.greenlink.model.User;
 import com.greenlink.repository.DriverRepository;
 import com.greenlink.repository.UserRepository;
+import com.greenlink.security.AuthenticatedUserCache;
 import com.greenlink.security.JwtService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -27,19 +28,22 @@ public class AuthController {
     private final DriverRepository driverRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final AuthenticatedUserCache authenticatedUserCache;
 
     public AuthController(
             AuthenticationManager authenticationManager,
             UserRepository userRepository,
             DriverRepository driverRepository,
             PasswordEncoder passwordEncoder,
-            JwtService jwtService
+            JwtService jwtService,
+            AuthenticatedUserCache authenticatedUserCache
     ) {
         this.authenticationManager = authenticationManager;
         this.userRepository = userRepository;
         this.driverRepository = driverRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
+        this.authenticatedUserCache = authenticatedUserCache;
     }
 
     @PostMapping("/register")
@@ -79,11 +83,13 @@ public class AuthController {
             if (matchingDriver.isPresent() && !matchingDriver.get().getOrganizationId().equals(user.getOrganizationId())) {
                 user.setOrganizationId(matchingDriver.get().getOrganizationId());
                 user = userRepository.save(user);
+                authenticatedUserCache.invalidate(user.getUsername());
             }
         }
         if (user.getOrganizationId() == null) {
             user.setOrganizationId(java.util.UUID.randomUUID());
             user = userRepository.save(user);
+            authenticatedUserCache.invalidate(user.getUsername());
         }
         String token = jwtService.generateToken(user);
 
@@ -0,0 +1,33 @@
+package com.greenlink.controller;
+
+import com.greenlink.security.CurrentUserService;
+import com.greenlink.service.LiveUpdateBroadcaster;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/live")
+public class LiveUpdateController {
+
+    private final LiveUpdateBroadcaster liveUpdateBroadcaster;
+    private final CurrentUserService currentUserService;
+
+    public LiveUpdateController(LiveUpdateBroadcaster liveUpdateBroadcaster, CurrentUserService currentUserService) {
+        this.liveUpdateBroadcaster = liveUpdateBroadcaster;
+        this.currentUserService = currentUserService;
+    }
+
+    // Server-sent events with the organization's order and route changes (see LiveUpdate for the event types).
+    // Clients reload their full state on connect and on a resync event, and apply deltas in between.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(HttpServletResponse response) {
+        // Tells nginx not to buffer the stream
+        response.setHeader("X-Accel-Buffering", "no");
+        response.setHeader("Cache-Control", "no-cache");
+        return liveUpdateBroadcaster.subscribe(currentUserService.requireOrganizationId());
+    }
+}
@@ -1,32 +1,92 @@
 package com.greenlink.controller;
 
+import com.greenlink.dto.OrderCounts;
+import com.greenlink.dto.OrderImportResponse;
+import com.greenlink.dto.OrderSummary;
 import com.greenlink.model.DeliveryOrder;
+import com.greenlink.service.OrderImportService;
 import com.greenlink.service.OrderService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final OrderService orderService;
+    private final OrderImportService orderImportService;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService, OrderImportService orderImportService) {
         this.orderService = orderService;
+        this.orderImportService = orderImportService;
     }
 
+    // Keyset-paginated, oldest first. The body stays a plain array; when more rows follow, X-Next-Cursor
+    // holds the value to pass as ?cursor= for the next page.
     @GetMapping
-    public List<DeliveryOrder> getAllOrders() {
-        return orderService.getAllOrders();
+    public ResponseEntity<List<OrderSummary>> getOrders(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) UUID routeId,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLon,
+            @RequestParam(required = false) Double maxLon,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        OrderService.OrderPage page = orderService.listOrders(status, routeId, minLat, maxLat, minLon, maxLon, cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.orders());
+    }
+
+    // Exact totals per status for the dashboard, which only loads the first page of orders
+    @GetMapping("/counts")
+    public OrderCounts getOrderCounts() {
+        return orderService.countOrders();
+    }
+
+    // Orders near a point (lat/lon) or near a vehicle's start location (vehicleId), nearest first.
+    @GetMapping("/nearby")
+    public List<OrderSummary> getOrdersNear(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lon,
+            @RequestParam(required = false) UUID vehicleId,
+            @RequestParam double radiusMeters,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return orderService.findOrdersNear(lat, lon, vehicleId, radiusMeters, status, limit);
     }
 
     @PostMapping
-    public DeliveryOrder createOrder(@RequestBody DeliveryOrder order) {
+    public CompletableFuture<DeliveryOrder> createOrder(@RequestBody DeliveryOrder order) {
         return orderService.createOrder(order);
     }
 
+    // Bulk import: text/csv (with header row) or application/x-ndjson, streamed from the request body.
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    public OrderImportResponse importOrders(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) {
+        String format = "csv".equalsIgnoreCase(MediaType.parseMediaType(contentType).getSubtype())
+                ? OrderImportService.CSV
+                : OrderImportService.NDJSON;
+        return orderImportService.importOrders(body, format);
+    }
+
     @DeleteMapping("/{id}")
     public void deleteOrder(@PathVariable UUID id) {
         orderService.deleteOrder(id);
@@ -1,34 +1,70 @@
 package com.greenlink.controller;
 
-import com.greenlink.repository.RouteRepository;
-import com.greenlink.service.RoutingService;
+import com.greenlink.dto.OptimizationJobResponse;
+import com.greenlink.dto.RouteStopResponse;
+import com.greenlink.dto.RouteSummary;
+import com.greenlink.service.OptimizationJobService;
+import com.greenlink.service.RouteQueryService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import com.greenlink.model.Route;
 
+import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/routes")
 public class RouteController {
 
-    private final RoutingService routingService;
-    private final RouteRepository routeRepository;
+    private final OptimizationJobService optimizationJobService;
+    private final RouteQueryService routeQueryService;
 
-    public RouteController(RoutingService routingService, RouteRepository routeRepository) {
-        this.routingService = routingService;
-        this.routeRepository = routeRepository;
+    public RouteController(OptimizationJobService optimizationJobService, RouteQueryService routeQueryService) {
+        this.optimizationJobService = optimizationJobService;
+        this.routeQueryService = routeQueryService;
     }
 
+    // The organization's routes with vehicle and orders, paginated like GET /api/orders: the body is a
+    // plain array and X-Next-Cursor is set when more routes follow.
     @GetMapping
-    public List<Route> getAllRoutes() {
-        return routeRepository.findAll();
+    public ResponseEntity<List<RouteSummary>> getRoutes(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        RouteQueryService.RoutePage page = routeQueryService.listRoutes(cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(OrderController.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.routes());
     }
 
+    // Stops in driving order with planned arrival and leg data, as written by the last optimization.
+    @GetMapping("/{routeId}/stops")
+    public List<RouteStopResponse> getRouteStops(@PathVariable UUID routeId) {
+        return routeQueryService.getStops(routeId);
+    }
+
+    // Optimization runs in the background; poll the returned job for progress and the resulting routes.
+    // incremental=true keeps existing routes and only inserts orders that have no route yet.
     @PostMapping("/optimize")
-    public List<Route> optimizeRoutes() {
-        return routingService.optimizeRoutes();
+    public ResponseEntity<OptimizationJobResponse> optimizeRoutes(
+            @RequestParam(defaultValue = "false") boolean incremental,
+            @RequestParam(required = false) Long timeBudgetMs
+    ) {
+        OptimizationJobResponse job = optimizationJobService.submit(incremental, timeBudgetMs);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/routes/optimize/" + job.getJobId()))
+                .body(job);
+    }
+
+    @GetMapping("/optimize/{jobId}")
+    public OptimizationJobResponse getOptimizationJob(@PathVariable UUID jobId) {
+        return optimizationJobService.getJob(jobId);
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/vehicles")
@@ -24,9 +25,19 @@ public class VehicleController {
         return vehicleService.getAllVehicles();
     }
 
+    // GET /api/vehicles/nearby?lat=&lon=&radiusMeters= - Vehicles starting near a point, nearest first
+    @GetMapping("/nearby")
+    public List<Vehicle> getVehiclesNear(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam double radiusMeters
+    ) {
+        return vehicleService.findVehiclesNear(lat, lon, radiusMeters);
+    }
+
     // POST /api/vehicles - Create a new vehicle
     @PostMapping
-    public Vehicle createVehicle(@RequestBody Vehicle vehicle) {
+    public CompletableFuture<Vehicle> createVehicle(@RequestBody Vehicle vehicle) {
         return vehicleService.createVehicle(vehicle);
     }
 
@@ -50,6 +50,8 @@ public class DriverRouteResponse {
         private final Double longitude;
         private final String status;
         private final Integer serviceDurationMin;
+        // Minutes after leaving the depot, as planned by the last optimization
+        private final Integer plannedArrivalMin;
 
         public DriverStop(
                 String id,
@@ -57,7 +59,8 @@ public class DriverRouteResponse {
                 Double latitude,
                 Double longitude,
                 String status,
-                Integer serviceDurationMin
+                Integer serviceDurationMin,
+                Integer plannedArrivalMin
         ) {
             this.id = id;
             this.address = address;
@@ -65,6 +68,7 @@ public class DriverRouteResponse {
             this.longitude = longitude;
             this.status = status;
             this.serviceDurationMin = serviceDurationMin;
+            this.plannedArrivalMin = plannedArrivalMin;
         }
 
         public String getId() {
@@ -90,5 +94,9 @@ public class DriverRouteResponse {
         public Integer getServiceDurationMin() {
             return serviceDurationMin;
         }
+
+        public Integer getPlannedArrivalMin() {
+            return plannedArrivalMin;
+        }
     }
 }
@@ -0,0 +1,70 @@
+package com.greenlink.dto;
+
+import com.greenlink.model.Route;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public class OptimizationJobResponse {
+    private final UUID jobId;
+    private final String status;
+    private final int progress;
+    private final String message;
+    private final LocalDateTime submittedAt;
+    private final LocalDateTime startedAt;
+    private final LocalDateTime finishedAt;
+    private final List<Route> routes;
+
+    public OptimizationJobResponse(
+            UUID jobId,
+            String status,
+            int progress,
+            String message,
+            LocalDateTime submittedAt,
+            LocalDateTime startedAt,
+            LocalDateTime finishedAt,
+            List<Route> routes
+    ) {
+        this.jobId = jobId;
+        this.status = status;
+        this.progress = progress;
+        this.message = message;
+        this.submittedAt = submittedAt;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.routes = routes;
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getProgress() {
+        return progress;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+}
@@ -0,0 +1,21 @@
+package com.greenlink.dto;
+
+import java.util.Map;
+
+public class OrderCounts {
+    private final long total;
+    private final Map<String, Long> byStatus;
+
+    public OrderCounts(long total, Map<String, Long> byStatus) {
+        this.total = total;
+        this.byStatus = byStatus;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public Map<String, Long> getByStatus() {
+        return byStatus;
+    }
+}
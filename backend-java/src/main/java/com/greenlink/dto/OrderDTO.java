@@ -15,4 +15,10 @@ public class OrderDTO {
     private Double longitude;
     private Double weightKg;  // Changed to Double to match Python float
     private Double serviceDurationMin;  // Changed to Double to match Python float
+    private Double windowStartMin;  // Minutes after midnight, null = no bound (native solver only)
+    private Double windowEndMin;
+
+    public OrderDTO(String id, Double latitude, Double longitude, Double weightKg, Double serviceDurationMin) {
+        this(id, latitude, longitude, weightKg, serviceDurationMin, null, null);
+    }
 }
@@ -0,0 +1,51 @@
+package com.greenlink.dto;
+
+import java.util.List;
+
+public class OrderImportResponse {
+    private final int totalRows;
+    private final int imported;
+    private final int failed;
+    private final List<RowError> errors;
+
+    public OrderImportResponse(int totalRows, int imported, int failed, List<RowError> errors) {
+        this.totalRows = totalRows;
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+    }
+
+    public int getTotalRows() {
+        return totalRows;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public static class RowError {
+        private final int line;
+        private final String message;
+
+        public RowError(int line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.greenlink.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One line of a bulk order import (CSV row or NDJSON object)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderImportRow {
+    private String address;
+    private Double latitude;
+    private Double longitude;
+    private Integer weightKg;
+    private Integer serviceDurationMin;
+    private Integer windowStartMin;
+    private Integer windowEndMin;
+}
@@ -0,0 +1,103 @@
+package com.greenlink.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Row of GET /api/orders: the order columns plus its route id, read without loading entities.
+public class OrderSummary {
+    private final UUID id;
+    private final UUID organizationId;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final Double latitude;
+    private final Double longitude;
+    private final String address;
+    private final Integer weightKg;
+    private final Integer serviceDurationMin;
+    private final Integer windowStartMin;
+    private final Integer windowEndMin;
+    private final String status;
+    private final UUID routeId;
+
+    public OrderSummary(
+            UUID id,
+            UUID organizationId,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt,
+            Double latitude,
+            Double longitude,
+            String address,
+            Integer weightKg,
+            Integer serviceDurationMin,
+            Integer windowStartMin,
+            Integer windowEndMin,
+            String status,
+            UUID routeId
+    ) {
+        this.id = id;
+        this.organizationId = organizationId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.address = address;
+        this.weightKg = weightKg;
+        this.serviceDurationMin = serviceDurationMin;
+        this.windowStartMin = windowStartMin;
+        this.windowEndMin = windowEndMin;
+        this.status = status;
+        this.routeId = routeId;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getOrganizationId() {
+        return organizationId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public Integer getWeightKg() {
+        return weightKg;
+    }
+
+    public Integer getServiceDurationMin() {
+        return serviceDurationMin;
+    }
+
+    public Integer getWindowStartMin() {
+        return windowStartMin;
+    }
+
+    public Integer getWindowEndMin() {
+        return windowEndMin;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public UUID getRouteId() {
+        return routeId;
+    }
+}
@@ -13,4 +13,12 @@ public class RouteRequest {
     // Use DTOs instead of entity objects to avoid JPA serialization issues
     private List<OrderDTO> orders;
     private List<VehicleDTO> vehicles;
-}
\ No newline at end of file
+    // Wall-clock budget for the solve in milliseconds; the best plan found so far is returned when it runs
+    // out. Null means no limit.
+    private Long timeLimitMs;
+
+    public RouteRequest(List<OrderDTO> orders, List<VehicleDTO> vehicles) {
+        this.orders = orders;
+        this.vehicles = vehicles;
+    }
+}
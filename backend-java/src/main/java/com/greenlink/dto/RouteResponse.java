@@ -1,9 +1,9 @@
 package com.greenlink.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.util.List;
-import java.util.Map;
 
 @Data
 @NoArgsConstructor
@@ -15,6 +15,10 @@ public class RouteResponse {
     @NoArgsConstructor
     public static class RoutePlan {
         private String vehicleId;
-        private List<Map<String, Object>> stops;
+        private List<Stop> stops;
     }
-}
\ No newline at end of file
+
+    // Only the order id is read back; the order fields the JSON solver echoes per stop are skipped
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Stop(String id) {}
+}
@@ -0,0 +1,78 @@
+package com.greenlink.dto;
+
+public class RouteStopResponse {
+    private final int stopIndex;
+    private final String orderId;
+    private final String address;
+    private final Double latitude;
+    private final Double longitude;
+    private final String status;
+    private final Integer serviceDurationMin;
+    private final Integer plannedArrivalMin;
+    private final Double legDistanceKm;
+    private final Integer legDurationMin;
+
+    public RouteStopResponse(
+            int stopIndex,
+            String orderId,
+            String address,
+            Double latitude,
+            Double longitude,
+            String status,
+            Integer serviceDurationMin,
+            Integer plannedArrivalMin,
+            Double legDistanceKm,
+            Integer legDurationMin
+    ) {
+        this.stopIndex = stopIndex;
+        this.orderId = orderId;
+        this.address = address;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.status = status;
+        this.serviceDurationMin = serviceDurationMin;
+        this.plannedArrivalMin = plannedArrivalMin;
+        this.legDistanceKm = legDistanceKm;
+        this.legDurationMin = legDurationMin;
+    }
+
+    public int getStopIndex() {
+        return stopIndex;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public Double getLatitude() {
+        return latitude;
+    }
+
+    public Double getLongitude() {
+        return longitude;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public Integer getServiceDurationMin() {
+        return serviceDurationMin;
+    }
+
+    public Integer getPlannedArrivalMin() {
+        return plannedArrivalMin;
+    }
+
+    public Double getLegDistanceKm() {
+        return legDistanceKm;
+    }
+
+    public Integer getLegDurationMin() {
+        return legDurationMin;
+    }
+}
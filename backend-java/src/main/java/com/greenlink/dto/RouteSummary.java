@@ -0,0 +1,71 @@
+package com.greenlink.dto;
+
+import com.greenlink.model.Vehicle;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// Row of GET /api/routes: the route with its vehicle and its orders in stop order, read in a fixed
+// number of queries per page instead of walking the entity graph.
+public class RouteSummary {
+    private final UUID id;
+    private final UUID organizationId;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+    private final String status;
+    private final UUID vehicleId;
+    private final Vehicle vehicle;
+    private final List<OrderSummary> orders;
+
+    public RouteSummary(
+            UUID id,
+            UUID organizationId,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt,
+            String status,
+            Vehicle vehicle,
+            List<OrderSummary> orders
+    ) {
+        this.id = id;
+        this.organizationId = organizationId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.status = status;
+        this.vehicleId = vehicle != null ? vehicle.getId() : null;
+        this.vehicle = vehicle;
+        this.orders = orders;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getOrganizationId() {
+        return organizationId;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public UUID getVehicleId() {
+        return vehicleId;
+    }
+
+    public Vehicle getVehicle() {
+        return vehicle;
+    }
+
+    public List<OrderSummary> getOrders() {
+        return orders;
+    }
+}
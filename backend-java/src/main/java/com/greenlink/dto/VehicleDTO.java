@@ -12,4 +12,10 @@ public class VehicleDTO {
     private Double capacityKg;  // Python expects float
     private Double startLat;  // Python expects float
     private Double startLon;  // Python expects float
+    private Double shiftStartMin;  // Minutes after midnight, null = no bound (native solver only)
+    private Double shiftEndMin;
+
+    public VehicleDTO(String id, Double capacityKg, Double startLat, Double startLon) {
+        this(id, capacityKg, startLat, startLon, null, null);
+    }
 }
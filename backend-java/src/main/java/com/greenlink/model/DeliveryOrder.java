@@ -4,6 +4,8 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "delivery_orders")
 @Getter
@@ -28,10 +30,17 @@ public class DeliveryOrder extends BaseEntity {
     @Column(nullable = false)
     private Integer serviceDurationMin;
 
+    // Delivery window in minutes after midnight (e.g., 600 = 10:00 AM); null = no bound
+    private Integer windowStartMin;
+    private Integer windowEndMin;
+
     // Status: "UNASSIGNED" (Waiting), "ASSIGNED" (On a truck), "COMPLETED"
     @Column(nullable = false)
     private String status = "UNASSIGNED";
 
+    // Set when the driver marks the order delivered; delivered orders are archived after a while
+    private LocalDateTime deliveredAt;
+
     // ... existing fields ...
     @ManyToOne
     @JoinColumn(name = "route_id", nullable = true)
@@ -1,7 +1,10 @@
 package com.greenlink.repository;
 
 import com.greenlink.model.Driver;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,8 +13,24 @@ import java.util.UUID;
 
 @Repository
 public interface DriverRepository extends JpaRepository<Driver, UUID> {
+	// Cached queries (HibernateCacheConfig): results are keyed by organization and invalidated on driver writes
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+		@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "drivers.queries")
+	})
 	List<Driver> findByOrganizationId(UUID organizationId);
+
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+		@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "drivers.queries")
+	})
 	Optional<Driver> findByIdAndOrganizationId(UUID id, UUID organizationId);
+
+	@QueryHints({
+		@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+		@QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "drivers.queries")
+	})
 	Optional<Driver> findByEmailAndOrganizationId(String email, UUID organizationId);
+
 	Optional<Driver> findFirstByEmailIgnoreCase(String email);
 }
@@ -0,0 +1,84 @@
+package com.greenlink.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+// Persistent tier of the geocoding cache. Rows older than the caller's cutoff are treated as missing
+// and are overwritten by the next successful lookup.
+@Repository
+public class GeocodeCacheRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RepositoryMetrics metrics;
+
+    public GeocodeCacheRepository(JdbcTemplate jdbcTemplate, RepositoryMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+    }
+
+    public Optional<ForwardEntry> findForward(String addressKey, LocalDateTime notBefore) {
+        return metrics.record("GeocodeCacheRepository", "findForward", () -> {
+            List<ForwardEntry> rows = jdbcTemplate.query(
+                    "SELECT latitude, longitude, formatted_address FROM geocode_forward_cache "
+                            + "WHERE address_key = ? AND resolved_at >= ?",
+                    (rs, rowNum) -> new ForwardEntry(
+                            rs.getDouble("latitude"),
+                            rs.getDouble("longitude"),
+                            rs.getString("formatted_address")
+                    ),
+                    addressKey,
+                    Timestamp.valueOf(notBefore)
+            );
+            return rows.stream().findFirst();
+        });
+    }
+
+    public void saveForward(String addressKey, ForwardEntry entry) {
+        metrics.record("GeocodeCacheRepository", "saveForward", () -> {
+            jdbcTemplate.update(
+                    "INSERT INTO geocode_forward_cache (address_key, latitude, longitude, formatted_address, resolved_at) "
+                            + "VALUES (?, ?, ?, ?, now()) "
+                            + "ON CONFLICT (address_key) DO UPDATE SET latitude = EXCLUDED.latitude, "
+                            + "longitude = EXCLUDED.longitude, formatted_address = EXCLUDED.formatted_address, "
+                            + "resolved_at = EXCLUDED.resolved_at",
+                    addressKey,
+                    entry.latitude(),
+                    entry.longitude(),
+                    entry.address()
+            );
+        });
+    }
+
+    public Optional<String> findReverse(int latKey, int lonKey, LocalDateTime notBefore) {
+        return metrics.record("GeocodeCacheRepository", "findReverse", () -> {
+            List<String> rows = jdbcTemplate.queryForList(
+                    "SELECT address FROM geocode_reverse_cache WHERE lat_key = ? AND lon_key = ? AND resolved_at >= ?",
+                    String.class,
+                    latKey,
+                    lonKey,
+                    Timestamp.valueOf(notBefore)
+            );
+            return rows.stream().findFirst();
+        });
+    }
+
+    public void saveReverse(int latKey, int lonKey, String address) {
+        metrics.record("GeocodeCacheRepository", "saveReverse", () -> {
+            jdbcTemplate.update(
+                    "INSERT INTO geocode_reverse_cache (lat_key, lon_key, address, resolved_at) VALUES (?, ?, ?, now()) "
+                            + "ON CONFLICT (lat_key, lon_key) DO UPDATE SET address = EXCLUDED.address, "
+                            + "resolved_at = EXCLUDED.resolved_at",
+                    latKey,
+                    lonKey,
+                    address
+            );
+        });
+    }
+
+    public record ForwardEntry(double latitude, double longitude, String address) {}
+}
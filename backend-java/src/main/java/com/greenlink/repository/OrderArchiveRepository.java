@@ -0,0 +1,81 @@
+package com.greenlink.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+// Moves delivered orders from delivery_orders into delivery_orders_history (see V14). The history table
+// is range-partitioned by month of delivery; each month is hash-partitioned by organization.
+@Repository
+public class OrderArchiveRepository {
+
+    static final int ORGANIZATION_PARTITIONS = 8;
+
+    private static final String HISTORY_TABLE = "delivery_orders_history";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RepositoryMetrics metrics;
+
+    public OrderArchiveRepository(JdbcTemplate jdbcTemplate, RepositoryMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+    }
+
+    // Months that have orders waiting to be archived.
+    public List<YearMonth> findArchivableMonths(LocalDateTime deliveredBefore) {
+        return metrics.record("OrderArchiveRepository", "findArchivableMonths", () -> jdbcTemplate.query(
+                "SELECT DISTINCT date_trunc('month', delivered_at) AS month FROM delivery_orders "
+                        + "WHERE status = 'DELIVERED' AND delivered_at < ?",
+                (rs, rowNum) -> YearMonth.from(rs.getTimestamp("month").toLocalDateTime()),
+                Timestamp.valueOf(deliveredBefore)
+        ));
+    }
+
+    // Idempotent; safe to run from several instances.
+    public void createMonthPartition(YearMonth month) {
+        metrics.record("OrderArchiveRepository", "createMonthPartition", () -> {
+            for (String statement : monthPartitionStatements(month)) {
+                jdbcTemplate.execute(statement);
+            }
+        });
+    }
+
+    // Moves up to batchSize orders delivered before the cutoff in one statement and returns how many
+    // moved. Rows locked by a concurrent delivery or archiver run are skipped and picked up next time.
+    // Their route_stops rows go with them (ON DELETE CASCADE).
+    public int moveDelivered(LocalDateTime deliveredBefore, int batchSize) {
+        return metrics.record("OrderArchiveRepository", "moveDelivered", () -> jdbcTemplate.update(
+                "WITH moved AS ("
+                        + "DELETE FROM delivery_orders WHERE id IN ("
+                        + "SELECT id FROM delivery_orders WHERE status = 'DELIVERED' AND delivered_at < ? "
+                        + "ORDER BY delivered_at LIMIT ? FOR UPDATE SKIP LOCKED) "
+                        + "RETURNING id, organization_id, created_at, updated_at, delivered_at, latitude, longitude, "
+                        + "address, weight_kg, service_duration_min, window_start_min, window_end_min, status, route_id) "
+                        + "INSERT INTO " + HISTORY_TABLE + " (id, organization_id, created_at, updated_at, delivered_at, "
+                        + "archived_at, latitude, longitude, address, weight_kg, service_duration_min, window_start_min, "
+                        + "window_end_min, status, route_id) "
+                        + "SELECT id, organization_id, created_at, updated_at, delivered_at, now(), latitude, longitude, "
+                        + "address, weight_kg, service_duration_min, window_start_min, window_end_min, status, route_id FROM moved",
+                Timestamp.valueOf(deliveredBefore),
+                batchSize
+        ));
+    }
+
+    static List<String> monthPartitionStatements(YearMonth month) {
+        String monthTable = HISTORY_TABLE + "_" + month.getYear() + "_" + String.format("%02d", month.getMonthValue());
+        List<String> statements = new ArrayList<>(ORGANIZATION_PARTITIONS + 1);
+        statements.add("CREATE TABLE IF NOT EXISTS " + monthTable + " PARTITION OF " + HISTORY_TABLE
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')"
+                + " PARTITION BY HASH (organization_id)");
+        for (int remainder = 0; remainder < ORGANIZATION_PARTITIONS; remainder++) {
+            statements.add("CREATE TABLE IF NOT EXISTS " + monthTable + "_h" + remainder + " PARTITION OF " + monthTable
+                    + " FOR VALUES WITH (MODULUS " + ORGANIZATION_PARTITIONS + ", REMAINDER " + remainder + ")");
+        }
+        return statements;
+    }
+}
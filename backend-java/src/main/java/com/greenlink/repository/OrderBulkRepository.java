@@ -0,0 +1,51 @@
+package com.greenlink.repository;
+
+import com.greenlink.model.DeliveryOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+// JDBC batch inserts for bulk order import.
+@Repository
+public class OrderBulkRepository {
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RepositoryMetrics metrics;
+
+    public OrderBulkRepository(JdbcTemplate jdbcTemplate, RepositoryMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+    }
+
+    // Orders must already carry their id, organization, status and timestamps.
+    public void insertOrders(List<DeliveryOrder> orders) {
+        metrics.record("OrderBulkRepository", "insertOrders", () -> {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO delivery_orders (id, organization_id, created_at, updated_at, latitude, longitude, "
+                            + "address, weight_kg, service_duration_min, window_start_min, window_end_min, status) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    orders,
+                    INSERT_BATCH_SIZE,
+                    (ps, order) -> {
+                        ps.setObject(1, order.getId());
+                        ps.setObject(2, order.getOrganizationId());
+                        ps.setTimestamp(3, Timestamp.valueOf(order.getCreatedAt()));
+                        ps.setTimestamp(4, Timestamp.valueOf(order.getUpdatedAt()));
+                        ps.setDouble(5, order.getLatitude());
+                        ps.setDouble(6, order.getLongitude());
+                        ps.setString(7, order.getAddress());
+                        ps.setInt(8, order.getWeightKg());
+                        ps.setInt(9, order.getServiceDurationMin());
+                        ps.setObject(10, order.getWindowStartMin(), Types.INTEGER);
+                        ps.setObject(11, order.getWindowEndMin(), Types.INTEGER);
+                        ps.setString(12, order.getStatus());
+                    }
+            );
+        });
+    }
+}
@@ -0,0 +1,197 @@
+package com.greenlink.repository;
+
+import com.greenlink.dto.OrderSummary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Order listing and proximity queries. The listing is keyset-paginated: pages are ordered by (created_at, id)
+// and continue strictly after the cursor row, so page loads cost the same at any depth and never skip or
+// repeat rows when orders are added meanwhile. Location filters use the spatial index (V15).
+// Rows are mapped straight to OrderSummary, no entities or routes are loaded.
+@Repository
+public class OrderQueryRepository {
+
+    private static final RowMapper<OrderSummary> ORDER_SUMMARY = (rs, rowNum) -> {
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new OrderSummary(
+                rs.getObject("id", UUID.class),
+                rs.getObject("organization_id", UUID.class),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                updatedAt != null ? updatedAt.toLocalDateTime() : null,
+                rs.getDouble("latitude"),
+                rs.getDouble("longitude"),
+                rs.getString("address"),
+                rs.getInt("weight_kg"),
+                rs.getInt("service_duration_min"),
+                rs.getObject("window_start_min", Integer.class),
+                rs.getObject("window_end_min", Integer.class),
+                rs.getString("status"),
+                rs.getObject("route_id", UUID.class)
+        );
+    };
+
+    private static final String COLUMNS = "id, organization_id, created_at, updated_at, latitude, longitude, address, "
+            + "weight_kg, service_duration_min, window_start_min, window_end_min, status, route_id";
+    // Same expression as idx_orders_location (V15); parameters are minLon, minLat, maxLon, maxLat
+    private static final String IN_BOX = "point(longitude, latitude) <@ box(point(?, ?), point(?, ?))";
+    // Haversine distance in meters; parameters are latitude, latitude, longitude of the center
+    private static final String DISTANCE = "2 * 6371000 * asin(least(1, sqrt("
+            + "power(sin(radians(latitude - ?) / 2), 2) "
+            + "+ cos(radians(?)) * cos(radians(latitude)) * power(sin(radians(longitude - ?) / 2), 2))))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RepositoryMetrics metrics;
+
+    public OrderQueryRepository(JdbcTemplate jdbcTemplate, RepositoryMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+    }
+
+    // Returns up to filter.limit() rows after the cursor (if any) matching every non-null filter.
+    public List<OrderSummary> findPage(Filter filter) {
+        return metrics.record("OrderQueryRepository", "findPage", () -> {
+            StringBuilder sql = new StringBuilder(
+                    "SELECT " + COLUMNS + " FROM delivery_orders WHERE organization_id = ?");
+            List<Object> args = new ArrayList<>();
+            args.add(filter.organizationId());
+
+            if (filter.status() != null) {
+                sql.append(" AND status = ?");
+                args.add(filter.status());
+            }
+            if (filter.routeId() != null) {
+                sql.append(" AND route_id = ?");
+                args.add(filter.routeId());
+            }
+            if (filter.box() != null) {
+                sql.append(" AND ").append(IN_BOX);
+                addBox(args, filter.box());
+            }
+            if (filter.after() != null) {
+                sql.append(" AND (created_at, id) > (?, ?)");
+                args.add(Timestamp.valueOf(filter.after().createdAt()));
+                args.add(filter.after().id());
+            }
+            sql.append(" ORDER BY created_at, id LIMIT ?");
+            args.add(filter.limit());
+
+            return jdbcTemplate.query(sql.toString(), ORDER_SUMMARY, args.toArray());
+        });
+    }
+
+    // Order count per status. Reads only idx_orders_org_status_created (V13), not the table rows.
+    public Map<String, Long> countByStatus(UUID organizationId) {
+        return metrics.record("OrderQueryRepository", "countByStatus", () -> {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            jdbcTemplate.query(
+                    "SELECT status, count(*) AS orders FROM delivery_orders WHERE organization_id = ? "
+                            + "GROUP BY status ORDER BY status",
+                    rs -> {
+                        counts.put(rs.getString("status"), rs.getLong("orders"));
+                    },
+                    organizationId
+            );
+            return counts;
+        });
+    }
+
+    // Orders within radiusMeters of the point, nearest first. The bounding box of the circle is matched
+    // on the spatial index, the exact great-circle distance filters and sorts the remaining rows.
+    public List<OrderSummary> findWithinRadius(UUID organizationId, double latitude, double longitude,
+                                               double radiusMeters, String status, int limit) {
+        return metrics.record("OrderQueryRepository", "findWithinRadius", () -> {
+            StringBuilder sql = new StringBuilder("SELECT * FROM (SELECT " + COLUMNS + ", " + DISTANCE
+                    + " AS distance_m FROM delivery_orders WHERE organization_id = ? AND " + IN_BOX);
+            List<Object> args = new ArrayList<>();
+            args.add(latitude);
+            args.add(latitude);
+            args.add(longitude);
+            args.add(organizationId);
+            addBox(args, BoundingBox.around(latitude, longitude, radiusMeters));
+            if (status != null) {
+                sql.append(" AND status = ?");
+                args.add(status);
+            }
+            sql.append(") o WHERE distance_m <= ? ORDER BY distance_m, id LIMIT ?");
+            args.add(radiusMeters);
+            args.add(limit);
+
+            return jdbcTemplate.query(sql.toString(), ORDER_SUMMARY, args.toArray());
+        });
+    }
+
+    // Orders of the given routes in one query, grouped by route and in stop order within each route.
+    // Orders without a route_stops row come after the planned stops of their route.
+    public List<OrderSummary> findByRoutes(UUID organizationId, UUID[] routeIds) {
+        return metrics.record("OrderQueryRepository", "findByRoutes", () -> {
+            if (routeIds.length == 0) {
+                return List.<OrderSummary>of();
+            }
+            return jdbcTemplate.execute(
+                    "SELECT o.id, o.organization_id, o.created_at, o.updated_at, o.latitude, o.longitude, o.address, "
+                            + "o.weight_kg, o.service_duration_min, o.window_start_min, o.window_end_min, o.status, o.route_id "
+                            + "FROM delivery_orders o "
+                            + "LEFT JOIN route_stops s ON s.order_id = o.id AND s.route_id = o.route_id "
+                            + "WHERE o.organization_id = ? AND o.route_id = ANY(?) "
+                            + "ORDER BY o.route_id, s.stop_index NULLS LAST, o.created_at, o.id",
+                    (PreparedStatement ps) -> {
+                        Array routes = ps.getConnection().createArrayOf("uuid", routeIds);
+                        try {
+                            ps.setObject(1, organizationId);
+                            ps.setArray(2, routes);
+                            List<OrderSummary> orders = new ArrayList<>();
+                            try (var rs = ps.executeQuery()) {
+                                while (rs.next()) {
+                                    orders.add(ORDER_SUMMARY.mapRow(rs, orders.size()));
+                                }
+                            }
+                            return orders;
+                        } finally {
+                            routes.free();
+                        }
+                    }
+            );
+        });
+    }
+
+    private static void addBox(List<Object> args, BoundingBox box) {
+        args.add(box.minLongitude());
+        args.add(box.minLatitude());
+        args.add(box.maxLongitude());
+        args.add(box.maxLatitude());
+    }
+
+    public record Filter(UUID organizationId, String status, UUID routeId, BoundingBox box, Cursor after, int limit) {}
+
+    public record BoundingBox(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+
+        private static final double METERS_PER_DEGREE = 111_195.0;
+
+        // Smallest box containing the circle (all longitudes near the poles or across the antimeridian)
+        public static BoundingBox around(double latitude, double longitude, double radiusMeters) {
+            double dLat = radiusMeters / METERS_PER_DEGREE;
+            double minLat = Math.max(-90, latitude - dLat);
+            double maxLat = Math.min(90, latitude + dLat);
+            double cos = Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat))));
+            double dLon = cos > 1e-9 ? dLat / cos : 180;
+            if (longitude - dLon < -180 || longitude + dLon > 180) {
+                return new BoundingBox(minLat, maxLat, -180, 180);
+            }
+            return new BoundingBox(minLat, maxLat, longitude - dLon, longitude + dLon);
+        }
+    }
+
+    // Position of the last row of the previous page
+    public record Cursor(LocalDateTime createdAt, UUID id) {}
+}
@@ -2,6 +2,8 @@ package com.greenlink.repository;
 
 import com.greenlink.model.DeliveryOrder;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,5 +17,15 @@ public interface OrderRepository extends JpaRepository<DeliveryOrder, UUID> {
 
     List<DeliveryOrder> findByOrganizationId(UUID organizationId);
 
+    // Full optimization input: every order still to be delivered
+    @Query("select o from DeliveryOrder o where o.organizationId = :organizationId and o.status <> 'DELIVERED'")
+    List<DeliveryOrder> findOpenByOrganizationId(@Param("organizationId") UUID organizationId);
+
+    // Incremental optimization input: open orders plus delivered stops of current routes (they lock the
+    // route prefix). Delivered orders leave the table when archived.
+    @Query("select o from DeliveryOrder o where o.organizationId = :organizationId "
+            + "and (o.status <> 'DELIVERED' or o.route is not null)")
+    List<DeliveryOrder> findOpenOrRoutedByOrganizationId(@Param("organizationId") UUID organizationId);
+
     java.util.Optional<DeliveryOrder> findByIdAndOrganizationId(UUID id, UUID organizationId);
 }
@@ -0,0 +1,46 @@
+package com.greenlink.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// Latency of the JdbcTemplate repositories as greenlink.repository.invocations{repository,method,outcome}.
+// Spring Data repositories are timed by Spring Boot itself (spring.data.repository.invocations).
+@Component
+public class RepositoryMetrics {
+
+    private static final String METRIC = "greenlink.repository.invocations";
+
+    private final MeterRegistry meterRegistry;
+
+    public RepositoryMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String repository, String method, Supplier<T> call) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            Timer.builder(METRIC)
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void record(String repository, String method, Runnable call) {
+        record(repository, method, () -> {
+            call.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package com.greenlink.repository;
+
+import com.greenlink.model.Route;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.UUID;
+
+// Set-based writes used when replacing an organization's routes after optimization.
+// Each method is a single statement (or one JDBC batch), independent of the number of orders.
+@Repository
+public class RouteBulkRepository {
+
+    private static final int INSERT_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RepositoryMetrics metrics;
+
+    public RouteBulkRepository(JdbcTemplate jdbcTemplate, RepositoryMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+    }
+
+    // Detaches every order of the organization from its route. Open orders become UNASSIGNED again,
+    // delivered ones stay DELIVERED.
+    public int resetAssignments(UUID organizationId) {
+        return metrics.record("RouteBulkRepository", "resetAssignments", () -> jdbcTemplate.update(
+                "UPDATE delivery_orders SET route_id = NULL, updated_at = now(), "
+                        + "status = CASE WHEN status = 'DELIVERED' THEN status ELSE 'UNASSIGNED' END "
+                        + "WHERE organization_id = ? AND (route_id IS NOT NULL OR status NOT IN ('UNASSIGNED', 'DELIVERED'))",
+                organizationId
+        ));
+    }
+
+    // Orders must be detached first (route_id foreign key).
+    public int deleteRoutes(UUID organizationId) {
+        return metrics.record("RouteBulkRepository", "deleteRoutes",
+                () -> jdbcTemplate.update("DELETE FROM routes WHERE organization_id = ?", organizationId));
+    }
+
+    // Routes must already carry their id, organization, status and timestamps.
+    public void insertRoutes(List<Route> routes) {
+        metrics.record("RouteBulkRepository", "insertRoutes", () -> {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO routes (id, organization_id, status, vehicle_id, created_at, updated_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?)",
+                    routes,
+                    INSERT_BATCH_SIZE,
+                    (ps, route) -> {
+                        ps.setObject(1, route.getId());
+                        ps.setObject(2, route.getOrganizationId());
+                        ps.setString(3, route.getStatus());
+                        ps.setObject(4, route.getVehicle() != null ? route.getVehicle().getId() : null);
+                        ps.setTimestamp(5, Timestamp.valueOf(route.getCreatedAt()));
+                        ps.setTimestamp(6, Timestamp.valueOf(route.getUpdatedAt()));
+                    }
+            );
+        });
+    }
+
+    // orderIds[i] is assigned to routeIds[i]. Only open orders of the organization that are still without
+    // a route are touched, so orders deleted, delivered or planned elsewhere in the meantime are skipped.
+    public int assignOrders(UUID organizationId, UUID[] orderIds, UUID[] routeIds, String status) {
+        return metrics.record("RouteBulkRepository", "assignOrders", () -> {
+            if (orderIds.length == 0) {
+                return 0;
+            }
+            Integer updated = jdbcTemplate.execute(
+                    "UPDATE delivery_orders o SET route_id = a.route_id, status = ?, updated_at = now() "
+                            + "FROM unnest(?, ?) AS a(order_id, route_id) "
+                            + "WHERE o.id = a.order_id AND o.organization_id = ? AND o.route_id IS NULL "
+                            + "AND o.status <> 'DELIVERED'",
+                    (PreparedStatement ps) -> {
+                        Array orders = ps.getConnection().createArrayOf("uuid", orderIds);
+                        Array routes = ps.getConnection().createArrayOf("uuid", routeIds);
+                        try {
+                            ps.setString(1, status);
+                            ps.setArray(2, orders);
+                            ps.setArray(3, routes);
+                            ps.setObject(4, organizationId);
+                            return ps.executeUpdate();
+                        } finally {
+                            orders.free();
+                            routes.free();
+                        }
+                    }
+            );
+            return updated != null ? updated : 0;
+        });
+    }
+}
@@ -1,7 +1,10 @@
 package com.greenlink.repository;
 
 import com.greenlink.model.Route;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,4 +17,16 @@ public interface RouteRepository extends JpaRepository<Route, UUID> {
     List<Route> findByVehicleIdAndOrganizationId(UUID vehicleId, UUID organizationId);
 
     List<Route> findByOrganizationId(UUID organizationId);
-}
\ No newline at end of file
+
+    boolean existsByIdAndOrganizationId(UUID id, UUID organizationId);
+
+    // Route listing pages ordered by id, vehicle fetched in the same query (orders stay unloaded).
+    // Only the pageable's size is meant to be used; pages continue after the last id of the previous one.
+    @Query("select r from Route r left join fetch r.vehicle where r.organizationId = :organizationId order by r.id")
+    List<Route> findPageByOrganizationId(@Param("organizationId") UUID organizationId, Pageable pageable);
+
+    @Query("select r from Route r left join fetch r.vehicle "
+            + "where r.organizationId = :organizationId and r.id > :after order by r.id")
+    List<Route> findPageByOrganizationIdAfter(@Param("organizationId") UUID organizationId,
+                                              @Param("after") UUID after, Pageable pageable);
+}
@@ -0,0 +1,190 @@
+package com.greenlink.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+// route_stops read model: stop sequence, planned arrival and leg data written once per optimization,
+// read by the driver portal and dispatcher with a single indexed query. Writes are single statements.
+@Repository
+public class RouteStopRepository {
+
+    private static final String STOP_COLUMNS =
+            "s.route_id, s.stop_index, s.order_id, s.planned_arrival_s, s.leg_distance_m, s.leg_duration_s, "
+                    + "o.address, o.latitude, o.longitude, o.status, o.service_duration_min";
+
+    private static final RowMapper<StopView> STOP_VIEW = (rs, rowNum) -> new StopView(
+            rs.getObject("route_id", UUID.class),
+            rs.getInt("stop_index"),
+            rs.getObject("order_id", UUID.class),
+            rs.getString("address"),
+            rs.getDouble("latitude"),
+            rs.getDouble("longitude"),
+            rs.getString("status"),
+            rs.getInt("service_duration_min"),
+            rs.getInt("planned_arrival_s"),
+            rs.getDouble("leg_distance_m"),
+            rs.getDouble("leg_duration_s")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RepositoryMetrics metrics;
+
+    public RouteStopRepository(JdbcTemplate jdbcTemplate, RepositoryMetrics metrics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.metrics = metrics;
+    }
+
+    // One statement for all rows. Only orders that are (still) assigned to the stop's route are written,
+    // so orders deleted or re-planned since the solve leave a gap in stop_index instead of failing.
+    public int insertStops(UUID organizationId, List<StopRow> stops) {
+        return metrics.record("RouteStopRepository", "insertStops", () -> {
+            if (stops.isEmpty()) {
+                return 0;
+            }
+            int size = stops.size();
+            UUID[] routeIds = new UUID[size];
+            Integer[] stopIndexes = new Integer[size];
+            UUID[] orderIds = new UUID[size];
+            Integer[] arrivals = new Integer[size];
+            Double[] legDistances = new Double[size];
+            Double[] legDurations = new Double[size];
+            for (int i = 0; i < size; i++) {
+                StopRow stop = stops.get(i);
+                routeIds[i] = stop.routeId();
+                stopIndexes[i] = stop.stopIndex();
+                orderIds[i] = stop.orderId();
+                arrivals[i] = stop.plannedArrivalSeconds();
+                legDistances[i] = stop.legDistanceMeters();
+                legDurations[i] = stop.legDurationSeconds();
+            }
+            Integer inserted = jdbcTemplate.execute(
+                    "INSERT INTO route_stops (route_id, stop_index, order_id, organization_id, planned_arrival_s, "
+                            + "leg_distance_m, leg_duration_s) "
+                            + "SELECT s.route_id, s.stop_index, s.order_id, o.organization_id, s.planned_arrival_s, "
+                            + "s.leg_distance_m, s.leg_duration_s "
+                            + "FROM unnest(?, ?, ?, ?, ?, ?) AS s(route_id, stop_index, order_id, planned_arrival_s, "
+                            + "leg_distance_m, leg_duration_s) "
+                            + "JOIN delivery_orders o ON o.id = s.order_id AND o.route_id = s.route_id "
+                            + "WHERE o.organization_id = ?",
+                    (PreparedStatement ps) -> {
+                        Array[] arrays = {
+                                ps.getConnection().createArrayOf("uuid", routeIds),
+                                ps.getConnection().createArrayOf("int4", stopIndexes),
+                                ps.getConnection().createArrayOf("uuid", orderIds),
+                                ps.getConnection().createArrayOf("int4", arrivals),
+                                ps.getConnection().createArrayOf("float8", legDistances),
+                                ps.getConnection().createArrayOf("float8", legDurations)
+                        };
+                        try {
+                            for (int i = 0; i < arrays.length; i++) {
+                                ps.setArray(i + 1, arrays[i]);
+                            }
+                            ps.setObject(arrays.length + 1, organizationId);
+                            return ps.executeUpdate();
+                        } finally {
+                            for (Array array : arrays) {
+                                array.free();
+                            }
+                        }
+                    }
+            );
+            return inserted != null ? inserted : 0;
+        });
+    }
+
+    // Used before re-writing the sequences of routes that are kept (incremental planning).
+    public int deleteStops(UUID organizationId, UUID[] routeIds) {
+        return metrics.record("RouteStopRepository", "deleteStops", () -> {
+            if (routeIds.length == 0) {
+                return 0;
+            }
+            Integer deleted = jdbcTemplate.execute(
+                    "DELETE FROM route_stops WHERE organization_id = ? AND route_id = ANY(?)",
+                    (PreparedStatement ps) -> {
+                        Array routes = ps.getConnection().createArrayOf("uuid", routeIds);
+                        try {
+                            ps.setObject(1, organizationId);
+                            ps.setArray(2, routes);
+                            return ps.executeUpdate();
+                        } finally {
+                            routes.free();
+                        }
+                    }
+            );
+            return deleted != null ? deleted : 0;
+        });
+    }
+
+    // Persisted position of every planned order of the organization.
+    public Map<UUID, Integer> findStopIndexes(UUID organizationId) {
+        return metrics.record("RouteStopRepository", "findStopIndexes", () -> {
+            Map<UUID, Integer> indexes = new HashMap<>();
+            jdbcTemplate.query(
+                    "SELECT order_id, stop_index FROM route_stops WHERE organization_id = ?",
+                    rs -> {
+                        indexes.put(rs.getObject("order_id", UUID.class), rs.getInt("stop_index"));
+                    },
+                    organizationId
+            );
+            return indexes;
+        });
+    }
+
+    public List<StopView> findByRoute(UUID routeId, UUID organizationId) {
+        return metrics.record("RouteStopRepository", "findByRoute", () -> jdbcTemplate.query(
+                "SELECT " + STOP_COLUMNS + " FROM route_stops s JOIN delivery_orders o ON o.id = s.order_id "
+                        + "WHERE s.route_id = ? AND s.organization_id = ? ORDER BY s.stop_index",
+                STOP_VIEW,
+                routeId,
+                organizationId
+        ));
+    }
+
+    // The vehicle's oldest route with its stops in driving order; a route without stops yields one row
+    // with NULL stop columns.
+    public Optional<VehicleRoute> findByVehicle(UUID vehicleId, UUID organizationId) {
+        return metrics.record("RouteStopRepository", "findByVehicle", () -> {
+            List<VehicleRoute> routes = new ArrayList<>(1);
+            jdbcTemplate.query(
+                    "SELECT r.id AS route_id, r.status AS route_status, s.stop_index, s.order_id, s.planned_arrival_s, "
+                            + "s.leg_distance_m, s.leg_duration_s, o.address, o.latitude, o.longitude, o.status, "
+                            + "o.service_duration_min FROM routes r "
+                            + "LEFT JOIN route_stops s ON s.route_id = r.id "
+                            + "LEFT JOIN delivery_orders o ON o.id = s.order_id "
+                            + "WHERE r.id = (SELECT id FROM routes WHERE vehicle_id = ? AND organization_id = ? "
+                            + "ORDER BY created_at, id LIMIT 1) ORDER BY s.stop_index",
+                    rs -> {
+                        if (routes.isEmpty()) {
+                            routes.add(new VehicleRoute(rs.getObject("route_id", UUID.class),
+                                    rs.getString("route_status"), new ArrayList<>()));
+                        }
+                        if (rs.getObject("order_id") != null) {
+                            routes.get(0).stops().add(STOP_VIEW.mapRow(rs, rs.getRow()));
+                        }
+                    },
+                    vehicleId,
+                    organizationId
+            );
+            return routes.stream().findFirst();
+        });
+    }
+
+    public record StopRow(UUID routeId, int stopIndex, UUID orderId, int plannedArrivalSeconds,
+                          double legDistanceMeters, double legDurationSeconds) {}
+
+    public record StopView(UUID routeId, int stopIndex, UUID orderId, String address, double latitude,
+                           double longitude, String status, int serviceDurationMin, int plannedArrivalSeconds,
+                           double legDistanceMeters, double legDurationSeconds) {}
+
+    public record VehicleRoute(UUID routeId, String status, List<StopView> stops) {}
+}
@@ -1,12 +1,21 @@
 package com.greenlink.repository;
 
 import com.greenlink.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 import java.util.UUID;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
+    // Every authenticated request resolves its principal by username; cached (HibernateCacheConfig)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "users.queries")
+    })
     Optional<User> findByUsername(String username);
+
     boolean existsByUsername(String username);
 }
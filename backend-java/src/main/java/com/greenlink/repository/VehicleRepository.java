@@ -1,7 +1,12 @@
 package com.greenlink.repository;
 
 import com.greenlink.model.Vehicle;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -12,7 +17,29 @@ public interface VehicleRepository extends JpaRepository<Vehicle, UUID> {
 
     // Custom query: Find all vehicles for a specific company
     // This is CRITICAL for multi-tenancy security later.
+    // Cached queries (HibernateCacheConfig): results are keyed by organization and invalidated on vehicle writes
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "vehicles.queries")
+    })
     List<Vehicle> findByOrganizationId(UUID organizationId);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "vehicles.queries")
+    })
     java.util.Optional<Vehicle> findByIdAndOrganizationId(UUID id, UUID organizationId);
+
+    // Vehicles starting inside the box, matched on idx_vehicles_start_location (V15)
+    @Query(value = "SELECT * FROM vehicles WHERE organization_id = :organizationId "
+            + "AND start_lat IS NOT NULL AND start_lon IS NOT NULL "
+            + "AND point(start_lon, start_lat) <@ box(point(:minLon, :minLat), point(:maxLon, :maxLat))",
+            nativeQuery = true)
+    List<Vehicle> findStartingWithin(
+            @Param("organizationId") UUID organizationId,
+            @Param("minLat") double minLat,
+            @Param("maxLat") double maxLat,
+            @Param("minLon") double minLon,
+            @Param("maxLon") double maxLon
+    );
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package com.greenlink.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+// Short-lived cache of resolved principals keyed by JWT subject (username), so authenticated
+// requests do not query the users table every time. LRU-bounded to app.security.principal-cache-size;
+// entries expire after app.security.principal-cache-ttl-seconds and are dropped explicitly
+// whenever the account is changed through the API.
+@Component
+public class AuthenticatedUserCache {
+
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+
+    public AuthenticatedUserCache(
+            @Value("${app.security.principal-cache-ttl-seconds:60}") long ttlSeconds,
+            @Value("${app.security.principal-cache-size:10000}") int maxSize
+    ) {
+        this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    // Returns the cached principal or loads it (outside the lock) and caches it.
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        long now = System.nanoTime();
+        synchronized (entries) {
+            Entry entry = entries.get(username);
+            if (entry != null && now - entry.loadedAt < ttlNanos) {
+                return entry.user;
+            }
+        }
+
+        UserDetails user = loader.apply(username);
+        synchronized (entries) {
+            entries.put(username, new Entry(user, now));
+        }
+        return user;
+    }
+
+    public void invalidate(String username) {
+        if (username == null) {
+            return;
+        }
+        synchronized (entries) {
+            entries.remove(username);
+        }
+    }
+
+    private record Entry(UserDetails user, long loadedAt) {}
+}
@@ -0,0 +1,432 @@
+package com.greenlink.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Capacity-aware Clarke-Wright savings construction.
+// Vehicles sharing a start location form one depot group; every group is solved with the
+// parallel savings heuristic and the resulting routes are fitted onto the group's vehicles.
+// On timed instances routes are only joined tail to head (no reversal) and only when the head of
+// the second route is still reached within its latest start, checked in O(1) per candidate.
+final class ClarkeWrightBuilder {
+
+    // Two depots closer than this (round trip, meters) are treated as the same yard.
+    private static final double SAME_DEPOT_METERS = 1.0;
+
+    private final VrpInstance instance;
+
+    ClarkeWrightBuilder(VrpInstance instance) {
+        this.instance = instance;
+    }
+
+    // Returns one order-node sequence per vehicle (possibly empty). Orders that fit nowhere are left out.
+    int[][] build() {
+        int vehicleCount = instance.vehicleCount;
+        int[][] routes = new int[vehicleCount][];
+        Arrays.fill(routes, new int[0]);
+        double[] loads = new double[vehicleCount];
+
+        List<int[]> groups = groupVehiclesByDepot();
+        List<List<Integer>> groupOrders = assignOrdersToGroups(groups);
+        List<Integer> leftovers = new ArrayList<>();
+
+        for (int g = 0; g < groups.size(); g++) {
+            int[] vehicles = groups.get(g);
+            int[] orders = groupOrders.get(g).stream().mapToInt(Integer::intValue).toArray();
+            if (orders.length == 0) {
+                continue;
+            }
+
+            double maxCapacity = 0;
+            // Routes are built for the group's widest shift, then checked against each vehicle's own
+            double shiftStart = Double.POSITIVE_INFINITY;
+            double shiftEnd = Double.NEGATIVE_INFINITY;
+            for (int vehicle : vehicles) {
+                maxCapacity = Math.max(maxCapacity, instance.capacity[vehicle]);
+                if (instance.timed()) {
+                    shiftStart = Math.min(shiftStart, instance.windows.ready()[vehicle]);
+                    shiftEnd = Math.max(shiftEnd, instance.windows.due()[vehicle]);
+                }
+            }
+
+            List<int[]> groupRoutes = savings(vehicles[0], orders, maxCapacity, shiftStart, shiftEnd, leftovers);
+            fitRoutesToVehicles(groupRoutes, vehicles, shiftStart, shiftEnd, routes, loads, leftovers);
+        }
+
+        insertLeftovers(leftovers, routes, loads);
+        return routes;
+    }
+
+    private List<int[]> groupVehiclesByDepot() {
+        List<int[]> groups = new ArrayList<>();
+        List<Integer> representatives = new ArrayList<>();
+        List<List<Integer>> members = new ArrayList<>();
+
+        for (int vehicle = 0; vehicle < instance.vehicleCount; vehicle++) {
+            int match = -1;
+            for (int g = 0; g < representatives.size(); g++) {
+                int rep = representatives.get(g);
+                if (instance.dist(rep, vehicle) + instance.dist(vehicle, rep) < SAME_DEPOT_METERS) {
+                    match = g;
+                    break;
+                }
+            }
+            if (match < 0) {
+                representatives.add(vehicle);
+                members.add(new ArrayList<>());
+                match = representatives.size() - 1;
+            }
+            members.get(match).add(vehicle);
+        }
+
+        for (List<Integer> group : members) {
+            groups.add(group.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return groups;
+    }
+
+    // Each order goes to the nearest depot group that still has fleet capacity for it.
+    private List<List<Integer>> assignOrdersToGroups(List<int[]> groups) {
+        int groupCount = groups.size();
+        double[] remaining = new double[groupCount];
+        List<List<Integer>> result = new ArrayList<>(groupCount);
+        for (int g = 0; g < groupCount; g++) {
+            for (int vehicle : groups.get(g)) {
+                remaining[g] += instance.capacity[vehicle];
+            }
+            result.add(new ArrayList<>());
+        }
+
+        Integer[] groupOrder = new Integer[groupCount];
+        for (int o = 0; o < instance.orderCount; o++) {
+            int node = instance.orderNode(o);
+            for (int g = 0; g < groupCount; g++) {
+                groupOrder[g] = g;
+            }
+            if (groupCount > 1) {
+                Arrays.sort(groupOrder, (a, b) -> Double.compare(
+                        instance.dist(groups.get(a)[0], node),
+                        instance.dist(groups.get(b)[0], node)
+                ));
+            }
+
+            int chosen = groupOrder[0];
+            for (Integer g : groupOrder) {
+                if (remaining[g] >= instance.demand[node]) {
+                    chosen = g;
+                    break;
+                }
+            }
+            remaining[chosen] -= instance.demand[node];
+            result.get(chosen).add(node);
+        }
+        return result;
+    }
+
+    private List<int[]> savings(int depot, int[] orders, double maxCapacity, double shiftStart, double shiftEnd,
+                                List<Integer> leftovers) {
+        int size = instance.size;
+        int[] routeOf = new int[size];
+        int[] next = new int[size];
+        int[] prev = new int[size];
+        Arrays.fill(routeOf, -1);
+        boolean timed = instance.timed();
+        // Earliest and latest service start per order node within its current route
+        double[] startAt = timed ? new double[size] : null;
+        double[] latestAt = timed ? new double[size] : null;
+
+        int count = orders.length;
+        int[] head = new int[count];
+        int[] tail = new int[count];
+        int[] length = new int[count];
+        double[] load = new double[count];
+        boolean[] alive = new boolean[count];
+
+        for (int r = 0; r < count; r++) {
+            int node = orders[r];
+            if (instance.demand[node] > maxCapacity) {
+                leftovers.add(node);
+                continue;
+            }
+            if (timed) {
+                RouteSchedule.Windows windows = instance.windows;
+                startAt[node] = Math.max(windows.ready()[node], shiftStart + instance.time(depot, node));
+                latestAt[node] = Math.min(windows.due()[node],
+                        shiftEnd - windows.service()[node] - instance.time(node, depot));
+                if (startAt[node] > latestAt[node]) {
+                    leftovers.add(node);
+                    continue;
+                }
+            }
+            routeOf[node] = r;
+            next[node] = -1;
+            prev[node] = -1;
+            head[r] = node;
+            tail[r] = node;
+            length[r] = 1;
+            load[r] = instance.demand[node];
+            alive[r] = true;
+        }
+
+        // Savings are only evaluated on each order's nearest neighbours so the candidate list stays O(n*k).
+        int[][] neighbours = instance.neighbours();
+        int candidates = 0;
+        for (int node : orders) {
+            candidates += neighbours[node].length;
+        }
+        int[] fromNode = new int[candidates];
+        int[] toNode = new int[candidates];
+        long[] keys = new long[candidates];
+        int used = 0;
+
+        for (int i : orders) {
+            if (routeOf[i] < 0) {
+                continue;
+            }
+            for (int j : neighbours[i]) {
+                if (routeOf[j] < 0) {
+                    continue;
+                }
+                double saving = instance.dist(depot, i) + instance.dist(depot, j)
+                        - 0.5 * (instance.dist(i, j) + instance.dist(j, i));
+                if (saving <= 0) {
+                    continue;
+                }
+                fromNode[used] = i;
+                toNode[used] = j;
+                // Positive floats sort like their raw bits, so the pair index can ride in the low word.
+                keys[used] = ((long) Float.floatToIntBits((float) saving) << 32) | used;
+                used++;
+            }
+        }
+
+        Arrays.sort(keys, 0, used);
+
+        for (int k = used - 1; k >= 0; k--) {
+            int candidate = (int) keys[k];
+            int i = fromNode[candidate];
+            int j = toNode[candidate];
+            int a = routeOf[i];
+            int b = routeOf[j];
+            if (a == b || load[a] + load[b] > maxCapacity) {
+                continue;
+            }
+            boolean iEnd = head[a] == i || tail[a] == i;
+            boolean jEnd = head[b] == j || tail[b] == j;
+            if (!iEnd || !jEnd) {
+                continue;
+            }
+
+            if (timed) {
+                if (tail[a] == i && head[b] == j && onTime(i, j, startAt, latestAt)) {
+                    link(a, b, routeOf, next, prev, head, tail, length, load, alive);
+                    retime(i, j, next, prev, startAt, latestAt);
+                } else if (tail[b] == j && head[a] == i && onTime(j, i, startAt, latestAt)) {
+                    link(b, a, routeOf, next, prev, head, tail, length, load, alive);
+                    retime(j, i, next, prev, startAt, latestAt);
+                }
+                continue;
+            }
+
+            if (tail[a] == i && head[b] == j) {
+                link(a, b, routeOf, next, prev, head, tail, length, load, alive);
+            } else if (tail[b] == j && head[a] == i) {
+                link(b, a, routeOf, next, prev, head, tail, length, load, alive);
+            } else {
+                if (tail[a] != i) {
+                    reverse(a, next, prev, head, tail);
+                }
+                if (head[b] != j) {
+                    reverse(b, next, prev, head, tail);
+                }
+                link(a, b, routeOf, next, prev, head, tail, length, load, alive);
+            }
+        }
+
+        List<int[]> routes = new ArrayList<>();
+        for (int r = 0; r < count; r++) {
+            if (!alive[r]) {
+                continue;
+            }
+            int[] sequence = new int[length[r]];
+            int node = head[r];
+            for (int p = 0; p < sequence.length; p++) {
+                sequence[p] = node;
+                node = next[node];
+            }
+            routes.add(sequence);
+        }
+        return routes;
+    }
+
+    // Appends route b after route a; the shorter route is relabelled to keep merges amortised.
+    private static void link(int a, int b, int[] routeOf, int[] next, int[] prev, int[] head, int[] tail,
+                             int[] length, double[] load, boolean[] alive) {
+        next[tail[a]] = head[b];
+        prev[head[b]] = tail[a];
+
+        int keep = length[a] >= length[b] ? a : b;
+        int drop = keep == a ? b : a;
+        for (int node = head[drop]; node != -1; node = next[node]) {
+            routeOf[node] = keep;
+            if (node == tail[drop]) {
+                break;
+            }
+        }
+
+        int newHead = head[a];
+        int newTail = tail[b];
+        head[keep] = newHead;
+        tail[keep] = newTail;
+        length[keep] = length[a] + length[b];
+        load[keep] = load[a] + load[b];
+        alive[drop] = false;
+    }
+
+    // The head of the next route is still served in time when driven to straight after the tail
+    private boolean onTime(int tailNode, int headNode, double[] startAt, double[] latestAt) {
+        return startAt[tailNode] + instance.windows.service()[tailNode] + instance.time(tailNode, headNode)
+                <= latestAt[headNode];
+    }
+
+    // After tailNode -> headNode was linked: pushes earliest starts forward through the second route and
+    // latest starts back through the first, stopping where nothing changes.
+    private void retime(int tailNode, int headNode, int[] next, int[] prev, double[] startAt, double[] latestAt) {
+        RouteSchedule.Windows windows = instance.windows;
+        int previous = tailNode;
+        for (int node = headNode; node != -1; node = next[node]) {
+            double start = Math.max(windows.ready()[node],
+                    startAt[previous] + windows.service()[previous] + instance.time(previous, node));
+            if (start == startAt[node]) {
+                break;
+            }
+            startAt[node] = start;
+            previous = node;
+        }
+        int following = headNode;
+        for (int node = tailNode; node != -1; node = prev[node]) {
+            double latest = Math.min(windows.due()[node],
+                    latestAt[following] - windows.service()[node] - instance.time(node, following));
+            if (latest == latestAt[node]) {
+                break;
+            }
+            latestAt[node] = latest;
+            following = node;
+        }
+    }
+
+    private static void reverse(int r, int[] next, int[] prev, int[] head, int[] tail) {
+        int node = head[r];
+        while (node != -1) {
+            int following = next[node];
+            next[node] = prev[node];
+            prev[node] = following;
+            node = following;
+        }
+        int oldHead = head[r];
+        head[r] = tail[r];
+        tail[r] = oldHead;
+    }
+
+    // Best-fit decreasing: the heaviest route takes the smallest free vehicle that can carry it.
+    private void fitRoutesToVehicles(List<int[]> groupRoutes, int[] vehicles, double shiftStart, double shiftEnd,
+                                     int[][] routes, double[] loads, List<Integer> leftovers) {
+        double[] routeLoad = new double[groupRoutes.size()];
+        Integer[] byLoad = new Integer[groupRoutes.size()];
+        for (int r = 0; r < routeLoad.length; r++) {
+            for (int node : groupRoutes.get(r)) {
+                routeLoad[r] += instance.demand[node];
+            }
+            byLoad[r] = r;
+        }
+        Arrays.sort(byLoad, (x, y) -> Double.compare(routeLoad[y], routeLoad[x]));
+
+        boolean[] taken = new boolean[vehicles.length];
+        for (int r : byLoad) {
+            int best = -1;
+            for (int v = 0; v < vehicles.length; v++) {
+                double capacity = instance.capacity[vehicles[v]];
+                if (taken[v] || capacity < routeLoad[r]
+                        || !fitsShift(vehicles[v], groupRoutes.get(r), shiftStart, shiftEnd)) {
+                    continue;
+                }
+                if (best < 0 || capacity < instance.capacity[vehicles[best]]) {
+                    best = v;
+                }
+            }
+
+            if (best < 0) {
+                for (int node : groupRoutes.get(r)) {
+                    leftovers.add(node);
+                }
+                continue;
+            }
+            taken[best] = true;
+            routes[vehicles[best]] = groupRoutes.get(r);
+            loads[vehicles[best]] = routeLoad[r];
+        }
+    }
+
+    // Only vehicles with a shift narrower than the group's need the route re-simulated
+    private boolean fitsShift(int vehicle, int[] route, double shiftStart, double shiftEnd) {
+        if (!instance.timed()
+                || (instance.windows.ready()[vehicle] <= shiftStart && instance.windows.due()[vehicle] >= shiftEnd)) {
+            return true;
+        }
+        return instance.onTime(vehicle, route, route.length);
+    }
+
+    // Cheapest insertion of orders whose savings route could not be given a vehicle.
+    private void insertLeftovers(List<Integer> leftovers, int[][] routes, double[] loads) {
+        leftovers.sort((x, y) -> Double.compare(instance.demand[y], instance.demand[x]));
+        RouteSchedule[] schedules = null;
+        if (instance.timed() && !leftovers.isEmpty()) {
+            schedules = new RouteSchedule[routes.length];
+            for (int vehicle = 0; vehicle < routes.length; vehicle++) {
+                schedules[vehicle] = instance.schedule();
+                schedules[vehicle].update(vehicle, routes[vehicle], routes[vehicle].length);
+            }
+        }
+
+        for (int node : leftovers) {
+            int bestVehicle = -1;
+            int bestPosition = -1;
+            double bestCost = Double.POSITIVE_INFINITY;
+
+            for (int vehicle = 0; vehicle < routes.length; vehicle++) {
+                if (loads[vehicle] + instance.demand[node] > instance.capacity[vehicle]) {
+                    continue;
+                }
+                int[] route = routes[vehicle];
+                for (int position = 0; position <= route.length; position++) {
+                    int before = position == 0 ? vehicle : route[position - 1];
+                    int after = position == route.length ? vehicle : route[position];
+                    double cost = instance.dist(before, node) + instance.dist(node, after) - instance.dist(before, after);
+                    if (cost < bestCost && (schedules == null || schedules[vehicle].canInsert(position, node))) {
+                        bestCost = cost;
+                        bestVehicle = vehicle;
+                        bestPosition = position;
+                    }
+                }
+            }
+
+            if (bestVehicle < 0) {
+                continue;
+            }
+            routes[bestVehicle] = insertAt(routes[bestVehicle], bestPosition, node);
+            loads[bestVehicle] += instance.demand[node];
+            if (schedules != null) {
+                schedules[bestVehicle].update(bestVehicle, routes[bestVehicle], routes[bestVehicle].length);
+            }
+        }
+    }
+
+    static int[] insertAt(int[] route, int position, int node) {
+        int[] result = new int[route.length + 1];
+        System.arraycopy(route, 0, result, 0, position);
+        result[position] = node;
+        System.arraycopy(route, position, result, position + 1, route.length - position);
+        return result;
+    }
+}
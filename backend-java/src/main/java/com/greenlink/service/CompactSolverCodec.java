@@ -0,0 +1,113 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.OrderDTO;
+import com.greenlink.dto.RouteRequest;
+import com.greenlink.dto.RouteResponse;
+import com.greenlink.dto.VehicleDTO;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary solve protocol of POST /solve/compact (backend-python/compact.py). Orders and vehicles are
+// sent as big-endian columns and referenced by position, so no ids or field names travel and the
+// response is only order indexes. Coordinates are fixed-point microdegrees (about 0.1 m), as in OSRM.
+//
+// Request:  "GLR1", order count, vehicle count, int latitude[], int longitude[], float weightKg[],
+//           float serviceDurationMin[], int startLat[], int startLon[] (NO_COORDINATE when unset),
+//           float capacityKg[] (NaN when unlimited), optionally int timeLimitMs (omitted when unlimited)
+// Response: "GLS1", route count, then per route: vehicle index, stop count, int orderIndex[]
+public final class CompactSolverCodec {
+
+    public static final String CONTENT_TYPE = "application/octet-stream";
+
+    static final int REQUEST_MAGIC = 0x474C5231;  // "GLR1"
+    static final int RESPONSE_MAGIC = 0x474C5331; // "GLS1"
+    static final int NO_COORDINATE = Integer.MIN_VALUE;
+    private static final double MICRODEGREES = 1_000_000;
+
+    private CompactSolverCodec() {
+    }
+
+    // Streams the columns straight to the (request body) stream, which is flushed but not closed.
+    public static void writeRequest(RouteRequest request, OutputStream target) throws IOException {
+        List<OrderDTO> orders = request.getOrders() != null ? request.getOrders() : List.of();
+        List<VehicleDTO> vehicles = request.getVehicles() != null ? request.getVehicles() : List.of();
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(target, 64 * 1024));
+        out.writeInt(REQUEST_MAGIC);
+        out.writeInt(orders.size());
+        out.writeInt(vehicles.size());
+        for (OrderDTO order : orders) {
+            out.writeInt(microdegrees(order.getLatitude()));
+        }
+        for (OrderDTO order : orders) {
+            out.writeInt(microdegrees(order.getLongitude()));
+        }
+        for (OrderDTO order : orders) {
+            out.writeFloat(order.getWeightKg() != null ? order.getWeightKg().floatValue() : 0f);
+        }
+        for (OrderDTO order : orders) {
+            out.writeFloat(order.getServiceDurationMin() != null ? order.getServiceDurationMin().floatValue() : 0f);
+        }
+        for (VehicleDTO vehicle : vehicles) {
+            out.writeInt(microdegrees(vehicle.getStartLat()));
+        }
+        for (VehicleDTO vehicle : vehicles) {
+            out.writeInt(microdegrees(vehicle.getStartLon()));
+        }
+        for (VehicleDTO vehicle : vehicles) {
+            out.writeFloat(vehicle.getCapacityKg() != null ? vehicle.getCapacityKg().floatValue() : Float.NaN);
+        }
+        if (request.getTimeLimitMs() != null) {
+            out.writeInt((int) Math.min(request.getTimeLimitMs(), Integer.MAX_VALUE));
+        }
+        out.flush();
+    }
+
+    // Maps the indexes back to the request's order and vehicle ids; stops reuse the request's id strings.
+    public static RouteResponse readResponse(InputStream source, RouteRequest request) throws IOException {
+        List<OrderDTO> orders = request.getOrders() != null ? request.getOrders() : List.of();
+        List<VehicleDTO> vehicles = request.getVehicles() != null ? request.getVehicles() : List.of();
+        DataInputStream in = new DataInputStream(new BufferedInputStream(source, 16 * 1024));
+        if (in.readInt() != RESPONSE_MAGIC) {
+            throw new IOException("Not a compact solver response");
+        }
+        int routeCount = in.readInt();
+        if (routeCount < 0 || routeCount > vehicles.size()) {
+            throw new IOException("Compact solver response has " + routeCount + " routes for " + vehicles.size() + " vehicles");
+        }
+
+        RouteResponse response = new RouteResponse();
+        response.setRoutes(new ArrayList<>(routeCount));
+        for (int r = 0; r < routeCount; r++) {
+            int vehicle = in.readInt();
+            int stopCount = in.readInt();
+            if (vehicle < 0 || vehicle >= vehicles.size() || stopCount < 0 || stopCount > orders.size()) {
+                throw new IOException("Compact solver response references an unknown vehicle or too many stops");
+            }
+            List<RouteResponse.Stop> stops = new ArrayList<>(stopCount);
+            for (int s = 0; s < stopCount; s++) {
+                int order = in.readInt();
+                if (order < 0 || order >= orders.size()) {
+                    throw new IOException("Compact solver response references unknown order " + order);
+                }
+                stops.add(new RouteResponse.Stop(orders.get(order).getId()));
+            }
+            RouteResponse.RoutePlan plan = new RouteResponse.RoutePlan();
+            plan.setVehicleId(vehicles.get(vehicle).getId());
+            plan.setStops(stops);
+            response.getRoutes().add(plan);
+        }
+        return response;
+    }
+
+    private static int microdegrees(Double degrees) {
+        return degrees != null ? (int) Math.round(degrees * MICRODEGREES) : NO_COORDINATE;
+    }
+}
@@ -3,18 +3,17 @@ package com.greenlink.service;
 import com.greenlink.dto.DriverRouteResponse;
 import com.greenlink.model.DeliveryOrder;
 import com.greenlink.model.Driver;
-import com.greenlink.model.Route;
 import com.greenlink.repository.DriverRepository;
 import com.greenlink.repository.OrderRepository;
-import com.greenlink.repository.RouteRepository;
+import com.greenlink.repository.RouteStopRepository;
 import com.greenlink.security.CurrentUserService;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
-import org.springframework.web.client.RestClient;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -24,65 +23,60 @@ public class DriverPortalService {
 
     private final DriverRepository driverRepository;
     private final OrderRepository orderRepository;
-    private final RouteRepository routeRepository;
+    private final RouteStopRepository routeStopRepository;
     private final CurrentUserService currentUserService;
-    private final RestClient restClient;
+    private final RouteEtaCache routeEtaCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public DriverPortalService(
             DriverRepository driverRepository,
             OrderRepository orderRepository,
-            RouteRepository routeRepository,
+            RouteStopRepository routeStopRepository,
             CurrentUserService currentUserService,
-            @Value("${app.osrm.base-url:http://localhost:5000}") String osrmBaseUrl
+            RouteEtaCache routeEtaCache,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.driverRepository = driverRepository;
         this.orderRepository = orderRepository;
-        this.routeRepository = routeRepository;
+        this.routeStopRepository = routeStopRepository;
         this.currentUserService = currentUserService;
-        this.restClient = RestClient.builder()
-                .baseUrl(osrmBaseUrl)
-                .build();
+        this.routeEtaCache = routeEtaCache;
+        this.eventPublisher = eventPublisher;
     }
 
-    @Transactional(readOnly = true)
+    // Served from the route_stops read model: one query, no OSRM calls.
     public DriverRouteResponse getDriverRoute() {
         Driver driver = getCurrentDriver();
         if (driver.getAssignedVehicle() == null) {
             return new DriverRouteResponse(driver.getName(), null, null, List.of(), 0);
         }
 
-        Route route = routeRepository
-            .findByVehicleIdAndOrganizationId(
-                driver.getAssignedVehicle().getId(),
-                currentUserService.requireOrganizationId()
-            )
-            .stream()
-            .findFirst()
-            .orElse(null);
+        RouteStopRepository.VehicleRoute route = routeStopRepository
+                .findByVehicle(driver.getAssignedVehicle().getId(), currentUserService.requireOrganizationId())
+                .orElse(null);
 
         if (route == null) {
             return new DriverRouteResponse(driver.getName(), driver.getAssignedVehicle().getName(), null, List.of(), 0);
         }
 
-        List<DriverRouteResponse.DriverStop> stops = route.getOrders().stream()
-                .map(order -> new DriverRouteResponse.DriverStop(
-                        order.getId().toString(),
-                        order.getAddress(),
-                        order.getLatitude(),
-                        order.getLongitude(),
-                order.getStatus(),
-                order.getServiceDurationMin()
+        List<DriverRouteResponse.DriverStop> stops = route.stops().stream()
+                .map(stop -> new DriverRouteResponse.DriverStop(
+                        stop.orderId().toString(),
+                        stop.address(),
+                        stop.latitude(),
+                        stop.longitude(),
+                        stop.status(),
+                        stop.serviceDurationMin(),
+                        (int) Math.round(stop.plannedArrivalSeconds() / 60.0)
                 ))
                 .collect(Collectors.toList());
 
-        int estimatedRemainingMinutes = estimateRemainingMinutes(route.getOrders());
-
         return new DriverRouteResponse(
                 driver.getName(),
                 driver.getAssignedVehicle().getName(),
-                route.getStatus(),
-            stops,
-            estimatedRemainingMinutes
+                route.status(),
+                stops,
+                routeEtaCache.remainingMinutes(route.routeId(), route.stops())
         );
     }
 
@@ -106,7 +100,16 @@ public class DriverPortalService {
         }
 
         order.setStatus("DELIVERED");
+        order.setDeliveredAt(LocalDateTime.now());
         orderRepository.save(order);
+        routeEtaCache.delivered(order.getRoute().getId(), order.getId());
+
+        // The first delivery marks the route as being driven. Incremental re-planning still inserts new
+        // orders into it, but only after its last delivered stop.
+        if ("PLANNED".equals(order.getRoute().getStatus())) {
+            order.getRoute().setStatus("IN_PROGRESS");
+        }
+        eventPublisher.publishEvent(LiveUpdate.orderDelivered(order));
     }
 
     private Driver getCurrentDriver() {
@@ -115,75 +118,4 @@ public class DriverPortalService {
                 .findByEmailAndOrganizationId(email, currentUserService.requireOrganizationId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Driver profile not found."));
     }
-
-    private int estimateRemainingMinutes(List<DeliveryOrder> orders) {
-        List<DeliveryOrder> remaining = orders.stream()
-                .filter(order -> !"DELIVERED".equals(order.getStatus()))
-                .toList();
-
-        if (remaining.isEmpty()) {
-            return 0;
-        }
-
-        int serviceMinutes = remaining.stream()
-                .map(DeliveryOrder::getServiceDurationMin)
-                .filter(value -> value != null)
-                .mapToInt(Integer::intValue)
-                .sum();
-
-        int travelMinutes = 0;
-        for (int i = 0; i < remaining.size() - 1; i++) {
-            DeliveryOrder from = remaining.get(i);
-            DeliveryOrder to = remaining.get(i + 1);
-            if (from.getLongitude() == null || from.getLatitude() == null || to.getLongitude() == null || to.getLatitude() == null) {
-                continue;
-            }
-
-            Integer segmentMinutes = fetchOsrmMinutes(
-                    from.getLongitude(),
-                    from.getLatitude(),
-                    to.getLongitude(),
-                    to.getLatitude()
-            );
-            if (segmentMinutes != null) {
-                travelMinutes += segmentMinutes;
-            }
-        }
-
-        return serviceMinutes + travelMinutes;
-    }
-
-    private Integer fetchOsrmMinutes(double fromLon, double fromLat, double toLon, double toLat) {
-        try {
-            String routePath = String.format(
-                    "/route/v1/driving/%f,%f;%f,%f?overview=false",
-                    fromLon,
-                    fromLat,
-                    toLon,
-                    toLat
-            );
-
-            OsrmRouteResponse response = restClient.get()
-                    .uri(routePath)
-                    .retrieve()
-                    .body(OsrmRouteResponse.class);
-
-            if (response == null || response.routes == null || response.routes.isEmpty()) {
-                return null;
-            }
-
-            double seconds = response.routes.get(0).duration;
-            return (int) Math.round(seconds / 60.0);
-        } catch (Exception ex) {
-            return null;
-        }
-    }
-
-    private static class OsrmRouteResponse {
-        public List<OsrmRoute> routes;
-    }
-
-    private static class OsrmRoute {
-        public double duration;
-    }
 }
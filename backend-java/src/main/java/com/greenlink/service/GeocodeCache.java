@@ -0,0 +1,203 @@
+package com.greenlink.service;
+
+import com.greenlink.repository.GeocodeCacheRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Two-tier cache in front of Nominatim: an in-memory LRU backed by the geocode_*_cache tables.
+// Forward lookups are keyed by the normalized address, reverse lookups by coordinates rounded
+// to 4 decimals. Entries older than app.geocoding.cache.ttl-days count as misses.
+// Only successful lookups are stored; database errors degrade to a miss.
+// Exported as greenlink.geocoding.cache.lookups{result=memory_hit|database_hit|miss}.
+@Component
+public class GeocodeCache implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(GeocodeCache.class);
+
+    private static final double REVERSE_PRECISION = 1e4;
+    private static final int MAX_KEY_LENGTH = 500;
+
+    private final GeocodeCacheRepository repository;
+    private final Duration ttl;
+    private final Lru<String, GeocodingService.GeocodeResult> forward;
+    private final Lru<Long, String> reverse;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong databaseHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public GeocodeCache(
+            GeocodeCacheRepository repository,
+            @Value("${app.geocoding.cache.ttl-days:30}") long ttlDays,
+            @Value("${app.geocoding.cache.memory-size:10000}") int memorySize
+    ) {
+        this.repository = repository;
+        this.ttl = Duration.ofDays(ttlDays);
+        this.forward = new Lru<>(memorySize, ttl.toNanos());
+        this.reverse = new Lru<>(memorySize, ttl.toNanos());
+    }
+
+    // Lower-cased, whitespace-collapsed form used as the forward key; null if the address is unusable.
+    static String normalize(String address) {
+        if (address == null) {
+            return null;
+        }
+        String key = address.trim()
+                .toLowerCase(Locale.ROOT)
+                .replaceAll("\\s+", " ")
+                .replaceAll(" ?, ?", ", ")
+                .replaceAll("[.,;\\s]+$", "");
+        return key.isEmpty() || key.length() > MAX_KEY_LENGTH ? null : key;
+    }
+
+    public Optional<GeocodingService.GeocodeResult> getForward(String addressKey) {
+        GeocodingService.GeocodeResult cached = forward.get(addressKey);
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return Optional.of(cached);
+        }
+        try {
+            Optional<GeocodeCacheRepository.ForwardEntry> stored = repository.findForward(addressKey, cutoff());
+            if (stored.isPresent()) {
+                GeocodeCacheRepository.ForwardEntry entry = stored.get();
+                GeocodingService.GeocodeResult result =
+                        new GeocodingService.GeocodeResult(entry.latitude(), entry.longitude(), entry.address());
+                forward.put(addressKey, result);
+                databaseHits.incrementAndGet();
+                return Optional.of(result);
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Geocode cache read failed: {}", ex.getMessage());
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void putForward(String addressKey, GeocodingService.GeocodeResult result) {
+        forward.put(addressKey, result);
+        try {
+            repository.saveForward(addressKey, new GeocodeCacheRepository.ForwardEntry(
+                    result.latitude(), result.longitude(), result.address()));
+        } catch (DataAccessException ex) {
+            log.warn("Geocode cache write failed: {}", ex.getMessage());
+        }
+    }
+
+    public Optional<String> getReverse(double latitude, double longitude) {
+        int latKey = reverseKey(latitude);
+        int lonKey = reverseKey(longitude);
+        long key = packed(latKey, lonKey);
+        String cached = reverse.get(key);
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return Optional.of(cached);
+        }
+        try {
+            Optional<String> stored = repository.findReverse(latKey, lonKey, cutoff());
+            if (stored.isPresent()) {
+                reverse.put(key, stored.get());
+                databaseHits.incrementAndGet();
+                return stored;
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Geocode cache read failed: {}", ex.getMessage());
+        }
+        misses.incrementAndGet();
+        return Optional.empty();
+    }
+
+    public void putReverse(double latitude, double longitude, String address) {
+        int latKey = reverseKey(latitude);
+        int lonKey = reverseKey(longitude);
+        reverse.put(packed(latKey, lonKey), address);
+        try {
+            repository.saveReverse(latKey, lonKey, address);
+        } catch (DataAccessException ex) {
+            log.warn("Geocode cache write failed: {}", ex.getMessage());
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(memoryHits.get(), databaseHits.get(), misses.get());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        lookupCounter(registry, "memory_hit", memoryHits);
+        lookupCounter(registry, "database_hit", databaseHits);
+        lookupCounter(registry, "miss", misses);
+    }
+
+    private static void lookupCounter(MeterRegistry registry, String result, AtomicLong count) {
+        FunctionCounter.builder("greenlink.geocoding.cache.lookups", count, AtomicLong::doubleValue)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private LocalDateTime cutoff() {
+        return LocalDateTime.now().minus(ttl);
+    }
+
+    // Single long identifying the rounded coordinate pair used for reverse lookups.
+    static long coordinateKey(double latitude, double longitude) {
+        return packed(reverseKey(latitude), reverseKey(longitude));
+    }
+
+    private static int reverseKey(double coordinate) {
+        return (int) Math.round(coordinate * REVERSE_PRECISION);
+    }
+
+    private static long packed(int latKey, int lonKey) {
+        return ((long) latKey << 32) | (lonKey & 0xffffffffL);
+    }
+
+    public record Stats(long memoryHits, long databaseHits, long misses) {}
+
+    // Access-ordered map with per-entry expiry; small enough that one lock is fine.
+    private static final class Lru<K, V> {
+        private final long ttlNanos;
+        private final Map<K, Timed<V>> entries;
+
+        private Lru(int maxSize, long ttlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Timed<V>> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        private synchronized V get(K key) {
+            Timed<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.storedAt() >= ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+
+        private synchronized void put(K key, V value) {
+            entries.put(key, new Timed<>(value, System.nanoTime()));
+        }
+    }
+
+    private record Timed<V>(V value, long storedAt) {}
+}
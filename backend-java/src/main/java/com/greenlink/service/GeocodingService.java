@@ -1,22 +1,42 @@
 package com.greenlink.service;
 
+import com.greenlink.config.IoThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.net.http.HttpClient;
 import java.time.Duration;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
+// Nominatim lookups behind the two-tier GeocodeCache, run on virtual threads and paced by a token bucket.
 @Service
 public class GeocodingService {
 
+    private static final Logger log = LoggerFactory.getLogger(GeocodingService.class);
+
     private static final String NOMINATIM_URL =
             "https://nominatim.openstreetmap.org/reverse?format=json&lat={lat}&lon={lon}";
     private static final String NOMINATIM_SEARCH_URL =
@@ -26,9 +46,30 @@ public class GeocodingService {
     private static final Duration READ_TIMEOUT = Duration.ofSeconds(5);
 
     private final RestTemplate restTemplate;
+    private final GeocodeCache geocodeCache;
+    private final MeterRegistry meterRegistry;
+    // Time spent queued behind the Nominatim rate limit
+    private final Timer rateLimitWait;
+    // Nominatim usage policy: at most one request per second per application
+    private final TokenBucket rateLimiter;
+    // Lookups block on the limiter and on Nominatim, which is cheap on virtual threads
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    // Single-flight: concurrent lookups of the same key share one in-flight future
+    private final Map<String, CompletableFuture<GeocodeResult>> forwardInFlight = new ConcurrentHashMap<>();
+    private final Map<Long, CompletableFuture<String>> reverseInFlight = new ConcurrentHashMap<>();
 
-    public GeocodingService() {
-        HttpClient httpClient = HttpClient.newBuilder()
+    public GeocodingService(
+            GeocodeCache geocodeCache,
+            @Value("${app.geocoding.max-requests-per-second:1}") double maxRequestsPerSecond,
+            @Value("${app.geocoding.burst:1}") int burst,
+            IoThreads ioThreads,
+            MeterRegistry meterRegistry
+    ) {
+        this.geocodeCache = geocodeCache;
+        this.meterRegistry = meterRegistry;
+        this.rateLimitWait = meterRegistry.timer("greenlink.geocoding.rate_limit.wait");
+        this.rateLimiter = new TokenBucket(Math.max(0.01, maxRequestsPerSecond), burst);
+        HttpClient httpClient = ioThreads.httpClientBuilder()
                 .connectTimeout(CONNECT_TIMEOUT)
                 .build();
 
@@ -38,7 +79,97 @@ public class GeocodingService {
         this.restTemplate = new RestTemplate(requestFactory);
     }
 
-    public String getAddress(double lat, double lon) {
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // Completes with the display name, or formatted coordinates when Nominatim has no answer.
+    public CompletableFuture<String> getAddressAsync(double lat, double lon) {
+        return singleFlight(reverseInFlight, GeocodeCache.coordinateKey(lat, lon), () -> {
+            Optional<String> cached = geocodeCache.getReverse(lat, lon);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+
+            String address = fetchAddress(lat, lon);
+            if (address != null) {
+                geocodeCache.putReverse(lat, lon, address);
+                return address;
+            }
+            return formatCoordinates(lat, lon);
+        });
+    }
+
+    // Completes with null when the address cannot be resolved.
+    public CompletableFuture<GeocodeResult> geocodeAddressAsync(String address) {
+        String key = GeocodeCache.normalize(address);
+        if (key == null) {
+            return CompletableFuture.supplyAsync(() -> fetchGeocode(address), executor);
+        }
+
+        return singleFlight(forwardInFlight, key, () -> {
+            Optional<GeocodeResult> cached = geocodeCache.getForward(key);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+
+            GeocodeResult result = fetchGeocode(address);
+            if (result != null) {
+                geocodeCache.putForward(key, result);
+            }
+            return result;
+        });
+    }
+
+    private <K, V> CompletableFuture<V> singleFlight(Map<K, CompletableFuture<V>> inFlight, K key, Supplier<V> lookup) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing.copy();
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(lookup.get());
+                } catch (RuntimeException ex) {
+                    created.completeExceptionally(ex);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(ex);
+        }
+        return created.copy();
+    }
+
+    // An interrupted wait (shutdown) fails the lookup: calling Nominatim without a token would break its rate limit
+    private void awaitRequestSlot() {
+        long start = System.nanoTime();
+        try {
+            rateLimiter.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Geocoding was interrupted.");
+        } finally {
+            rateLimitWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordRequest(String type, String outcome, long startNanos) {
+        Timer.builder("greenlink.geocoding.requests")
+                .tag("type", type)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private String fetchAddress(double lat, double lon) {
+        awaitRequestSlot();
+        long start = System.nanoTime();
         HttpHeaders headers = new HttpHeaders();
         headers.set(HttpHeaders.USER_AGENT, USER_AGENT);
 
@@ -58,17 +189,23 @@ public class GeocodingService {
             if (body != null) {
                 Object displayName = body.get("display_name");
                 if (displayName instanceof String display && !display.isBlank()) {
+                    recordRequest("reverse", "found", start);
                     return display;
                 }
             }
+            recordRequest("reverse", "not_found", start);
         } catch (RestClientException ex) {
             // Fall back to coordinate string to avoid request failures breaking order creation.
+            recordRequest("reverse", "error", start);
+            log.warn("Nominatim reverse lookup failed: {}", ex.getMessage());
         }
 
-        return formatCoordinates(lat, lon);
+        return null;
     }
 
-    public GeocodeResult geocodeAddress(String address) {
+    private GeocodeResult fetchGeocode(String address) {
+        awaitRequestSlot();
+        long start = System.nanoTime();
         HttpHeaders headers = new HttpHeaders();
         headers.set(HttpHeaders.USER_AGENT, USER_AGENT);
 
@@ -96,12 +233,16 @@ public class GeocodingService {
 
                     if (lat != null && lon != null) {
                         String formattedAddress = display instanceof String value ? value : address;
+                        recordRequest("forward", "found", start);
                         return new GeocodeResult(lat, lon, formattedAddress);
                     }
                 }
             }
+            recordRequest("forward", "not_found", start);
         } catch (RestClientException ex) {
             // Fall back to null so the caller can handle failures gracefully.
+            recordRequest("forward", "error", start);
+            log.warn("Nominatim search failed: {}", ex.getMessage());
         }
 
         return null;
@@ -0,0 +1,69 @@
+package com.greenlink.service;
+
+import com.greenlink.model.DeliveryOrder;
+
+import java.util.List;
+import java.util.UUID;
+
+// State change pushed to an organization's live-update subscribers (see LiveUpdateBroadcaster).
+// Published as a Spring application event; delivered only once the surrounding transaction commits.
+// data is serialized as the SSE event payload, type becomes the SSE event name.
+public record LiveUpdate(UUID organizationId, String type, Object data) {
+
+    public static final String ORDER_CREATED = "order.created";
+    public static final String ORDER_DELETED = "order.deleted";
+    public static final String ORDER_DELIVERED = "order.delivered";
+    public static final String ORDERS_IMPORTED = "orders.imported";
+    public static final String ROUTES_CHANGED = "routes.changed";
+    // Sent instead of the dropped events when a subscriber falls behind: reload the full state
+    public static final String RESYNC = "resync";
+
+    public static LiveUpdate orderCreated(DeliveryOrder order) {
+        return new LiveUpdate(order.getOrganizationId(), ORDER_CREATED, OrderDelta.of(order));
+    }
+
+    public static LiveUpdate orderDeleted(UUID organizationId, UUID orderId) {
+        return new LiveUpdate(organizationId, ORDER_DELETED, new OrderRemoved(orderId));
+    }
+
+    public static LiveUpdate orderDelivered(DeliveryOrder order) {
+        return new LiveUpdate(order.getOrganizationId(), ORDER_DELIVERED, OrderDelta.of(order));
+    }
+
+    public static LiveUpdate ordersImported(UUID organizationId, int imported) {
+        return new LiveUpdate(organizationId, ORDERS_IMPORTED, new OrdersImported(imported));
+    }
+
+    public static LiveUpdate routesChanged(UUID organizationId, String mode, List<UUID> routeIds, int assignedOrders) {
+        return new LiveUpdate(organizationId, ROUTES_CHANGED, new RoutesChanged(mode, routeIds, assignedOrders));
+    }
+
+    // Same fields as an order in GET /api/orders, plus its route
+    public record OrderDelta(UUID id, UUID organizationId, Double latitude, Double longitude, String address,
+                             Integer weightKg, Integer serviceDurationMin, Integer windowStartMin,
+                             Integer windowEndMin, String status, UUID routeId) {
+
+        static OrderDelta of(DeliveryOrder order) {
+            return new OrderDelta(
+                    order.getId(),
+                    order.getOrganizationId(),
+                    order.getLatitude(),
+                    order.getLongitude(),
+                    order.getAddress(),
+                    order.getWeightKg(),
+                    order.getServiceDurationMin(),
+                    order.getWindowStartMin(),
+                    order.getWindowEndMin(),
+                    order.getStatus(),
+                    order.getRoute() != null ? order.getRoute().getId() : null
+            );
+        }
+    }
+
+    public record OrderRemoved(UUID id) {}
+
+    public record OrdersImported(int imported) {}
+
+    // mode is full (all routes replaced) or incremental (listed routes updated)
+    public record RoutesChanged(String mode, List<UUID> routeIds, int assignedOrders) {}
+}
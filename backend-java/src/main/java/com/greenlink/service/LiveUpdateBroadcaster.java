@@ -0,0 +1,221 @@
+package com.greenlink.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Server-sent events per organization. LiveUpdate events are serialized once after the publishing
+// transaction commits and fanned out to the organization's subscribers.
+// Each subscriber has a bounded buffer drained by its own virtual thread, so a slow client never
+// delays the publisher or other clients. When the buffer overflows, the pending events are replaced
+// by a single resync event and the client reloads its full state once.
+@Service
+public class LiveUpdateBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveUpdateBroadcaster.class);
+
+    private static final Outgoing HEARTBEAT = new Outgoing(0, null, null);
+
+    private final int bufferSize;
+    private final int maxSubscribersPerOrganization;
+    private final long timeoutMs;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat;
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Counter resyncs;
+
+    private final Map<UUID, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    public LiveUpdateBroadcaster(
+            MeterRegistry meterRegistry,
+            @Value("${app.live.buffer-size:256}") int bufferSize,
+            @Value("${app.live.max-subscribers-per-organization:200}") int maxSubscribersPerOrganization,
+            @Value("${app.live.timeout-minutes:30}") long timeoutMinutes,
+            @Value("${app.live.heartbeat-seconds:25}") long heartbeatSeconds
+    ) {
+        this.bufferSize = Math.max(2, bufferSize);
+        this.maxSubscribersPerOrganization = maxSubscribersPerOrganization;
+        this.timeoutMs = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+
+        Gauge.builder("greenlink.live.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+        this.resyncs = Counter.builder("greenlink.live.resyncs").register(meterRegistry);
+
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "live-update-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Keeps idle connections open through proxies
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeat.shutdownNow();
+        subscribers.values().forEach(list -> list.forEach(Subscriber::close));
+        senders.shutdownNow();
+    }
+
+    public SseEmitter subscribe(UUID organizationId) {
+        return subscribe(organizationId, new SseEmitter(timeoutMs));
+    }
+
+    SseEmitter subscribe(UUID organizationId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(organizationId, emitter);
+        subscribers.compute(organizationId, (id, list) -> {
+            List<Subscriber> current = list != null ? list : new CopyOnWriteArrayList<>();
+            if (current.size() >= maxSubscribersPerOrganization) {
+                throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many live connections.");
+            }
+            current.add(subscriber);
+            return current;
+        });
+        subscriberCount.incrementAndGet();
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        // First event flushes the response headers so the client knows it is connected
+        subscriber.offer(new Outgoing(sequence.incrementAndGet(), "ready", "{}"));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(LiveUpdate update) {
+        List<Subscriber> targets = subscribers.get(update.organizationId());
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(update.data());
+        } catch (JsonProcessingException ex) {
+            log.warn("Live update {} not serializable: {}", update.type(), ex.getMessage());
+            return;
+        }
+        Outgoing event = new Outgoing(sequence.incrementAndGet(), update.type(), json);
+        targets.forEach(subscriber -> subscriber.offer(event));
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(list -> list.forEach(subscriber -> {
+            if (subscriber.queue.isEmpty()) {
+                subscriber.offer(HEARTBEAT);
+            }
+        }));
+    }
+
+    private record Outgoing(long id, String name, String json) {}
+
+    private final class Subscriber {
+        private final UUID organizationId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<Outgoing> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscriber(UUID organizationId, SseEmitter emitter) {
+            this.organizationId = organizationId;
+            this.emitter = emitter;
+        }
+
+        private synchronized void offer(Outgoing event) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(event)) {
+                // Everything pending is now stale; one resync replaces it
+                queue.clear();
+                queue.offer(new Outgoing(sequence.incrementAndGet(), LiveUpdate.RESYNC, "{}"));
+                resyncs.increment();
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException ex) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Outgoing event;
+                while ((event = queue.poll()) != null) {
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away (or the emitter already completed)
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            // An event may have arrived between the last poll and releasing the flag
+            if (!queue.isEmpty()) {
+                scheduleDrain();
+            }
+        }
+
+        private void send(Outgoing event) throws IOException {
+            if (event.name() == null) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.id()))
+                    .name(event.name())
+                    .data(event.json(), MediaType.APPLICATION_JSON));
+        }
+
+        private void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            queue.clear();
+            subscribers.computeIfPresent(organizationId, (id, list) -> {
+                list.remove(this);
+                return list.isEmpty() ? null : list;
+            });
+            subscriberCount.decrementAndGet();
+            try {
+                emitter.complete();
+            } catch (RuntimeException ignored) {
+                // Already completed by the container
+            }
+        }
+    }
+}
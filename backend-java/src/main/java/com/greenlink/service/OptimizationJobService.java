@@ -0,0 +1,239 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.OptimizationJobResponse;
+import com.greenlink.model.Route;
+import com.greenlink.security.CurrentUserService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs route optimizations in the background.
+// Work goes to a bounded pool; each organization has at most one running job and one queued
+// job behind it (a second submit while one is queued returns the queued job, since it will
+// read the latest orders anyway; a full submit upgrades a queued incremental job to a full run,
+// which also covers the incremental request, and the queued job keeps its own time budget).
+// Finished jobs are kept for app.optimization.job-retention-minutes.
+@Service
+public class OptimizationJobService {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private final RoutingService routingService;
+    private final CurrentUserService currentUserService;
+    private final ThreadPoolExecutor executor;
+    private final Duration retention;
+
+    private final Map<UUID, OptimizationJob> jobs = new ConcurrentHashMap<>();
+    // Guarded by itself: head of each deque is the organization's running job, the rest are waiting
+    private final Map<UUID, Deque<OptimizationJob>> organizationQueues = new HashMap<>();
+
+    public OptimizationJobService(
+            RoutingService routingService,
+            CurrentUserService currentUserService,
+            @Value("${app.optimization.workers:2}") int workers,
+            @Value("${app.optimization.queue-capacity:50}") int queueCapacity,
+            @Value("${app.optimization.job-retention-minutes:60}") long retentionMinutes
+    ) {
+        this.routingService = routingService;
+        this.currentUserService = currentUserService;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                workers,
+                workers,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "route-optimizer-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // timeBudgetMs bounds the solve (app.solver.time-budget-ms when null), see RoutingService.timeBudget
+    public OptimizationJobResponse submit(boolean incremental, Long timeBudgetMs) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+        Long budget = routingService.timeBudget(timeBudgetMs);
+        purgeExpired();
+
+        OptimizationJob job;
+        synchronized (organizationQueues) {
+            Deque<OptimizationJob> queue = organizationQueues.get(organizationId);
+            if (queue != null) {
+                // The tail is either the running job or one still waiting behind it
+                OptimizationJob last = queue.peekLast();
+                if (last != null && QUEUED.equals(last.status)) {
+                    if (!incremental) {
+                        last.incremental = false;
+                    }
+                    return last.toResponse();
+                }
+            }
+
+            job = new OptimizationJob(UUID.randomUUID(), organizationId, incremental, budget);
+            jobs.put(job.id, job);
+
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                organizationQueues.put(organizationId, queue);
+                queue.add(job);
+                dispatch(job);
+            } else {
+                queue.add(job);
+            }
+        }
+        return job.toResponse();
+    }
+
+    public OptimizationJobResponse getJob(UUID jobId) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+        OptimizationJob job = jobs.get(jobId);
+        if (job == null || !job.organizationId.equals(organizationId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Optimization job not found.");
+        }
+        return job.toResponse();
+    }
+
+    // Caller holds organizationQueues.
+    private void dispatch(OptimizationJob job) {
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException ex) {
+            job.fail("Optimizer is busy, please retry shortly.");
+            finish(job);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Optimizer is busy, please retry shortly.");
+        }
+    }
+
+    private void run(OptimizationJob job) {
+        // Under the lock, so a submit either sees the job queued (and may upgrade it) or running
+        boolean incremental;
+        synchronized (organizationQueues) {
+            job.start();
+            incremental = job.incremental;
+        }
+        try {
+            List<Route> routes = incremental
+                    ? routingService.reoptimizeRoutes(job.organizationId, job.timeBudgetMs, job::setProgress)
+                    : routingService.optimizeRoutes(job.organizationId, job.timeBudgetMs, job::setProgress);
+            job.complete(routes);
+        } catch (Exception ex) {
+            job.fail(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName());
+        } finally {
+            synchronized (organizationQueues) {
+                finish(job);
+            }
+        }
+    }
+
+    // Removes the job from its organization queue and starts the next waiting one. Caller holds organizationQueues.
+    private void finish(OptimizationJob job) {
+        Deque<OptimizationJob> queue = organizationQueues.get(job.organizationId);
+        if (queue == null) {
+            return;
+        }
+        queue.remove(job);
+        OptimizationJob next = queue.peekFirst();
+        if (next == null) {
+            organizationQueues.remove(job.organizationId);
+            return;
+        }
+        try {
+            executor.execute(() -> run(next));
+        } catch (RejectedExecutionException ex) {
+            next.fail("Optimizer is busy, please retry shortly.");
+            finish(next);
+        }
+    }
+
+    private void purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static final class OptimizationJob {
+        private final UUID id;
+        private final UUID organizationId;
+        // Guarded by organizationQueues; only ever changes from incremental to full while queued
+        private boolean incremental;
+        private final Long timeBudgetMs;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private volatile String status = QUEUED;
+        private volatile int progress;
+        private volatile String message;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile List<Route> routes;
+
+        private OptimizationJob(UUID id, UUID organizationId, boolean incremental, Long timeBudgetMs) {
+            this.id = id;
+            this.organizationId = organizationId;
+            this.incremental = incremental;
+            this.timeBudgetMs = timeBudgetMs;
+        }
+
+        private void start() {
+            startedAt = LocalDateTime.now();
+            status = RUNNING;
+        }
+
+        private void setProgress(int value) {
+            progress = Math.max(progress, Math.min(100, value));
+        }
+
+        private void complete(List<Route> result) {
+            routes = result;
+            progress = 100;
+            message = "Created " + result.size() + " routes.";
+            finishedAt = LocalDateTime.now();
+            status = COMPLETED;
+        }
+
+        private void fail(String reason) {
+            message = reason;
+            finishedAt = LocalDateTime.now();
+            status = FAILED;
+        }
+
+        private OptimizationJobResponse toResponse() {
+            return new OptimizationJobResponse(
+                    id,
+                    status,
+                    progress,
+                    message,
+                    submittedAt,
+                    startedAt,
+                    finishedAt,
+                    routes
+            );
+        }
+    }
+}
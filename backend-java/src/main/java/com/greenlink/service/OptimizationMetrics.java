@@ -0,0 +1,140 @@
+package com.greenlink.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Timings of one optimization run, exported as
+//   greenlink.optimization{mode,engine,fleet_size,outcome}        whole run (with histogram buckets)
+//   greenlink.optimization.phase{mode,engine,fleet_size,phase}    load / solve / save
+// plus one key=value summary line per run in the log.
+@Component
+public class OptimizationMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(OptimizationMetrics.class);
+
+    public static final String FULL = "full";
+    public static final String INCREMENTAL = "incremental";
+    // Background continuation of a full run whose time budget ran out
+    public static final String IMPROVED = "improved";
+
+    private final MeterRegistry meterRegistry;
+
+    public OptimizationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Run start(UUID organizationId, String mode, String engine) {
+        return new Run(organizationId, mode, engine);
+    }
+
+    // Bucketed so the tag has a fixed, small set of values.
+    static String fleetSize(int orders) {
+        if (orders <= 100) {
+            return "le_100";
+        }
+        if (orders <= 500) {
+            return "le_500";
+        }
+        if (orders <= 1000) {
+            return "le_1000";
+        }
+        if (orders <= 5000) {
+            return "le_5000";
+        }
+        return "gt_5000";
+    }
+
+    // Not thread-safe: one run is driven by the job thread that executes it.
+    public final class Run {
+        private final UUID organizationId;
+        private final String mode;
+        private final String engine;
+        private final long startedAt = System.nanoTime();
+        private long phaseStartedAt = startedAt;
+        private final Map<String, Long> phaseNanos = new LinkedHashMap<>();
+        private int orders;
+        private int vehicles;
+        private int assigned;
+        private boolean finished;
+
+        private Run(UUID organizationId, String mode, String engine) {
+            this.organizationId = organizationId;
+            this.mode = mode;
+            this.engine = engine;
+        }
+
+        public void loaded(int orders, int vehicles) {
+            this.orders = orders;
+            this.vehicles = vehicles;
+            phase("load");
+        }
+
+        public void solved() {
+            phase("solve");
+        }
+
+        public void assigned(int assigned) {
+            this.assigned = assigned;
+        }
+
+        public void completed(int routes) {
+            phase("save");
+            finish("success", routes);
+        }
+
+        // Run that stopped early: "empty" (nothing to plan), "fallback" (handed over to a full run), "error",
+        // or for improvements "unchanged" (no better plan) and "stale" (the plan changed meanwhile).
+        public void ended(String outcome) {
+            finish(outcome, 0);
+        }
+
+        private void phase(String name) {
+            long now = System.nanoTime();
+            phaseNanos.put(name, now - phaseStartedAt);
+            phaseStartedAt = now;
+        }
+
+        private void finish(String outcome, int routes) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            long totalNanos = System.nanoTime() - startedAt;
+            String fleetSize = fleetSize(orders);
+
+            phaseNanos.forEach((phase, nanos) -> Timer.builder("greenlink.optimization.phase")
+                    .tag("mode", mode)
+                    .tag("engine", engine)
+                    .tag("fleet_size", fleetSize)
+                    .tag("phase", phase)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS));
+            Timer.builder("greenlink.optimization")
+                    .tag("mode", mode)
+                    .tag("engine", engine)
+                    .tag("fleet_size", fleetSize)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(totalNanos, TimeUnit.NANOSECONDS);
+
+            log.info("optimization organization={} mode={} engine={} outcome={} orders={} vehicles={} routes={} "
+                            + "assigned={} load_ms={} solve_ms={} save_ms={} total_ms={}",
+                    organizationId, mode, engine, outcome, orders, vehicles, routes, assigned,
+                    millis(phaseNanos.get("load")), millis(phaseNanos.get("solve")), millis(phaseNanos.get("save")),
+                    millis(totalNanos));
+        }
+
+        private static long millis(Long nanos) {
+            return nanos != null ? TimeUnit.NANOSECONDS.toMillis(nanos) : 0;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.greenlink.service;
+
+import com.greenlink.repository.OrderArchiveRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+// Keeps delivery_orders down to the current work: orders delivered more than app.orders.archive.min-age-hours
+// ago are moved to delivery_orders_history on a schedule, in batches of one statement each, so the
+// solver input and order listings no longer grow with the company's lifetime.
+@Service
+public class OrderArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderArchiveService.class);
+
+    private final OrderArchiveRepository orderArchiveRepository;
+    private final boolean enabled;
+    private final long minAgeHours;
+    private final int batchSize;
+    private final Counter archived;
+
+    public OrderArchiveService(
+            OrderArchiveRepository orderArchiveRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.orders.archive.enabled:true}") boolean enabled,
+            @Value("${app.orders.archive.min-age-hours:12}") long minAgeHours,
+            @Value("${app.orders.archive.batch-size:5000}") int batchSize
+    ) {
+        this.orderArchiveRepository = orderArchiveRepository;
+        this.enabled = enabled;
+        this.minAgeHours = minAgeHours;
+        this.batchSize = Math.max(1, batchSize);
+        this.archived = Counter.builder("greenlink.orders.archived").register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.orders.archive.cron:0 30 2 * * *}")
+    public void archiveScheduled() {
+        if (enabled) {
+            archiveDelivered();
+        }
+    }
+
+    public int archiveDelivered() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(minAgeHours);
+        for (YearMonth month : orderArchiveRepository.findArchivableMonths(cutoff)) {
+            try {
+                orderArchiveRepository.createMonthPartition(month);
+            } catch (DataAccessException ex) {
+                // Another instance created it at the same moment
+                log.debug("History partition {} not created: {}", month, ex.getMessage());
+            }
+        }
+
+        int total = 0;
+        int moved;
+        do {
+            moved = orderArchiveRepository.moveDelivered(cutoff, batchSize);
+            total += moved;
+            archived.increment(moved);
+        } while (moved == batchSize);
+
+        if (total > 0) {
+            log.info("Archived {} delivered orders (delivered before {})", total, cutoff);
+        }
+        return total;
+    }
+}
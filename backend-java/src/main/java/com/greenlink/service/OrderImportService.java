@@ -0,0 +1,367 @@
+package com.greenlink.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greenlink.dto.OrderImportResponse;
+import com.greenlink.dto.OrderImportRow;
+import com.greenlink.model.DeliveryOrder;
+import com.greenlink.repository.OrderBulkRepository;
+import com.greenlink.security.CurrentUserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+// Bulk order import from CSV (header row required) or NDJSON, read line by line from the request body.
+// Rows are processed in chunks: each distinct normalized address of a chunk is geocoded once, all lookups
+// in parallel (GeocodingService paces the actual Nominatim calls; its GeocodeCache serves addresses seen
+// in earlier chunks), then each chunk is written with one JDBC batch. Bad rows are skipped and reported by line number.
+@Service
+public class OrderImportService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final String DEFAULT_STATUS = "UNASSIGNED";
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final OrderBulkRepository orderBulkRepository;
+    private final GeocodingService geocodingService;
+    private final CurrentUserService currentUserService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public OrderImportService(
+            OrderBulkRepository orderBulkRepository,
+            GeocodingService geocodingService,
+            CurrentUserService currentUserService,
+            PlatformTransactionManager transactionManager,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.orders.import.chunk-size:500}") int chunkSize
+    ) {
+        this.orderBulkRepository = orderBulkRepository;
+        this.geocodingService = geocodingService;
+        this.currentUserService = currentUserService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public OrderImportResponse importOrders(InputStream body, String format) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+        Import state = new Import(organizationId);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            if (CSV.equals(format)) {
+                readCsv(reader, state);
+            } else if (NDJSON.equals(format)) {
+                readNdjson(reader, state);
+            } else {
+                throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Use text/csv or application/x-ndjson.");
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        flush(state);
+
+        // One event per import; subscribers reload the order list instead of receiving every row
+        if (state.imported > 0) {
+            eventPublisher.publishEvent(LiveUpdate.ordersImported(organizationId, state.imported));
+        }
+        return new OrderImportResponse(state.totalRows, state.imported, state.failed, state.errors);
+    }
+
+    private void readCsv(BufferedReader reader, Import state) throws IOException {
+        Map<String, Integer> columns = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = parseCsvLine(line);
+            if (columns == null) {
+                columns = csvColumns(fields);
+                if (!columns.containsKey("address") && !columns.containsKey("latitude")) {
+                    throw new ResponseStatusException(
+                            HttpStatus.BAD_REQUEST,
+                            "CSV header must contain an address column or latitude/longitude columns."
+                    );
+                }
+                continue;
+            }
+
+            state.totalRows++;
+            try {
+                OrderImportRow row = new OrderImportRow(
+                        field(fields, columns, "address"),
+                        parseDouble(field(fields, columns, "latitude"), "latitude"),
+                        parseDouble(field(fields, columns, "longitude"), "longitude"),
+                        parseInteger(field(fields, columns, "weightKg"), "weightKg"),
+                        parseInteger(field(fields, columns, "serviceDurationMin"), "serviceDurationMin"),
+                        parseInteger(field(fields, columns, "windowStartMin"), "windowStartMin"),
+                        parseInteger(field(fields, columns, "windowEndMin"), "windowEndMin")
+                );
+                accept(state, lineNumber, row);
+            } catch (IllegalArgumentException ex) {
+                state.reject(lineNumber, ex.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Import state) throws IOException {
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            state.totalRows++;
+            OrderImportRow row;
+            try {
+                row = objectMapper.readValue(line, OrderImportRow.class);
+            } catch (IOException ex) {
+                state.reject(lineNumber, "Invalid JSON object.");
+                continue;
+            }
+            accept(state, lineNumber, row);
+        }
+    }
+
+    private void accept(Import state, int lineNumber, OrderImportRow row) {
+        String address = row.getAddress() != null ? row.getAddress().trim() : null;
+        row.setAddress(address == null || address.isEmpty() ? null : address);
+
+        if ((row.getLatitude() == null) != (row.getLongitude() == null)) {
+            state.reject(lineNumber, "Latitude and longitude must be given together.");
+            return;
+        }
+        if (row.getLatitude() == null && row.getAddress() == null) {
+            state.reject(lineNumber, "Address or coordinates are required.");
+            return;
+        }
+        if (row.getWeightKg() == null || row.getWeightKg() < 0) {
+            state.reject(lineNumber, "weightKg is required and must not be negative.");
+            return;
+        }
+        if (row.getServiceDurationMin() == null || row.getServiceDurationMin() < 0) {
+            state.reject(lineNumber, "serviceDurationMin is required and must not be negative.");
+            return;
+        }
+        String windowError = OrderService.timeWindowError(row.getWindowStartMin(), row.getWindowEndMin());
+        if (windowError != null) {
+            state.reject(lineNumber, windowError);
+            return;
+        }
+
+        state.pendingLines.add(lineNumber);
+        state.pendingRows.add(row);
+        if (state.pendingRows.size() >= chunkSize) {
+            flush(state);
+        }
+    }
+
+    private void flush(Import state) {
+        if (state.pendingRows.isEmpty()) {
+            return;
+        }
+        Map<String, GeocodingService.GeocodeResult> geocoded = geocodePending(state);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<DeliveryOrder> orders = new ArrayList<>(state.pendingRows.size());
+        for (int i = 0; i < state.pendingRows.size(); i++) {
+            OrderImportRow row = state.pendingRows.get(i);
+            Double latitude = row.getLatitude();
+            Double longitude = row.getLongitude();
+            String address = row.getAddress();
+
+            if (latitude == null) {
+                GeocodingService.GeocodeResult result = geocoded.get(GeocodeCache.normalize(address));
+                if (result == null) {
+                    state.reject(state.pendingLines.get(i), "Unable to geocode the provided address.");
+                    continue;
+                }
+                latitude = result.latitude();
+                longitude = result.longitude();
+                if (result.address() != null && !result.address().isBlank()) {
+                    address = result.address();
+                }
+            }
+
+            DeliveryOrder order = new DeliveryOrder();
+            order.setId(UUID.randomUUID());
+            order.setOrganizationId(state.organizationId);
+            order.setCreatedAt(now);
+            order.setUpdatedAt(now);
+            order.setLatitude(latitude);
+            order.setLongitude(longitude);
+            order.setAddress(address);
+            order.setWeightKg(row.getWeightKg());
+            order.setServiceDurationMin(row.getServiceDurationMin());
+            order.setWindowStartMin(row.getWindowStartMin());
+            order.setWindowEndMin(row.getWindowEndMin());
+            order.setStatus(DEFAULT_STATUS);
+            orders.add(order);
+        }
+
+        if (!orders.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> orderBulkRepository.insertOrders(orders));
+            state.imported += orders.size();
+        }
+        state.pendingRows.clear();
+        state.pendingLines.clear();
+    }
+
+    // Looks up each distinct address of the chunk once. Normalized address -> result (null when it could not
+    // be geocoded); only the chunk's addresses are held, so memory stays flat however long the import is.
+    private Map<String, GeocodingService.GeocodeResult> geocodePending(Import state) {
+        Map<String, GeocodingService.GeocodeResult> geocoded = new HashMap<>();
+        Map<String, CompletableFuture<GeocodingService.GeocodeResult>> lookups = new HashMap<>();
+        for (OrderImportRow row : state.pendingRows) {
+            if (row.getLatitude() != null) {
+                continue;
+            }
+            String key = GeocodeCache.normalize(row.getAddress());
+            if (key == null || lookups.containsKey(key)) {
+                continue;
+            }
+            lookups.put(key, geocodingService.geocodeAddressAsync(row.getAddress()));
+        }
+
+        lookups.forEach((key, lookup) -> {
+            GeocodingService.GeocodeResult result;
+            try {
+                result = lookup.join();
+            } catch (RuntimeException ex) {
+                result = null;
+            }
+            geocoded.put(key, result);
+        });
+        return geocoded;
+    }
+
+    private static Map<String, Integer> csvColumns(List<String> header) {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim().toLowerCase(Locale.ROOT).replaceAll("[\\s_-]", "");
+            String column = switch (name) {
+                case "address" -> "address";
+                case "latitude", "lat" -> "latitude";
+                case "longitude", "lon", "lng" -> "longitude";
+                case "weightkg", "weight" -> "weightKg";
+                case "servicedurationmin", "serviceduration", "servicemin" -> "serviceDurationMin";
+                case "windowstartmin", "windowstart" -> "windowStartMin";
+                case "windowendmin", "windowend" -> "windowEndMin";
+                default -> null;
+            };
+            if (column != null) {
+                columns.putIfAbsent(column, i);
+            }
+        }
+        return columns;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Single-line RFC 4180 fields: commas inside double quotes, "" as an escaped quote.
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static Double parseDouble(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(column + " is not a number.");
+        }
+    }
+
+    private static Integer parseInteger(String value, String column) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return (int) Math.round(Double.parseDouble(value));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(column + " is not a number.");
+        }
+    }
+
+    private static final class Import {
+        private final UUID organizationId;
+        private final List<OrderImportRow> pendingRows = new ArrayList<>();
+        private final List<Integer> pendingLines = new ArrayList<>();
+        private final List<OrderImportResponse.RowError> errors = new ArrayList<>();
+        private int totalRows;
+        private int imported;
+        private int failed;
+
+        private Import(UUID organizationId) {
+            this.organizationId = organizationId;
+        }
+
+        private void reject(int line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new OrderImportResponse.RowError(line, message));
+            }
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.greenlink.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Incremental re-planning: inserts new orders into existing stop sequences without reordering them.
+// Nodes 0..vehicleCount-1 are depots, then the already planned stops, then the new orders.
+// Only the costs an insertion can touch are needed: every node to/from each new order, plus
+// the legs of the current routes (two planned stops are only ever adjacent on an original leg).
+// With time windows the same is kept for travel times, and every insertion is checked in O(1)
+// against the route's schedule; routes that are already late take no new orders.
+final class OrderInsertionPlanner {
+
+    private static final double EPSILON = 1e-6;
+    private static final int MAX_REPAIR_PASSES = 5;
+
+    private final int vehicleCount;
+    private final int firstNew;
+    private final int newCount;
+    private final int nodeCount;
+    // nodeCount x newCount: node -> new order
+    private final double[] toNew;
+    // newCount x nodeCount: new order -> node
+    private final double[] fromNew;
+    private final Map<Long, Double> plannedLegs = new HashMap<>();
+    private final double[] demand;
+    private final double[] capacity;
+    // Same layout as toNew / fromNew / plannedLegs, in seconds; all null when untimed
+    private final double[] toNewTime;
+    private final double[] fromNewTime;
+    private final Map<Long, Double> plannedLegTimes;
+    private final RouteSchedule[] schedules;
+
+    private final int[][] routes;
+    private final int[] lengths;
+    // Stops before this position are locked (delivered or already behind the driver)
+    private final int[] firstOpenGap;
+    private final double[] loads;
+    private final int[] routeOf;
+
+    OrderInsertionPlanner(int vehicleCount, int[][] plannedRoutes, int[] lockedStops, int newCount,
+                          double[] toNew, double[] fromNew, double[][] legCosts,
+                          double[] demand, double[] capacity) {
+        this(vehicleCount, plannedRoutes, lockedStops, newCount, toNew, fromNew, legCosts, demand, capacity,
+                null, null, null, null);
+    }
+
+    OrderInsertionPlanner(int vehicleCount, int[][] plannedRoutes, int[] lockedStops, int newCount,
+                          double[] toNew, double[] fromNew, double[][] legCosts,
+                          double[] demand, double[] capacity,
+                          double[] toNewTime, double[] fromNewTime, double[][] legTimes, RouteSchedule.Windows windows) {
+        this.vehicleCount = vehicleCount;
+        this.newCount = newCount;
+        this.nodeCount = demand.length;
+        this.firstNew = nodeCount - newCount;
+        this.toNew = toNew;
+        this.fromNew = fromNew;
+        this.demand = demand;
+        this.capacity = capacity;
+        this.toNewTime = toNewTime;
+        this.fromNewTime = fromNewTime;
+        this.plannedLegTimes = windows != null ? new HashMap<>() : null;
+
+        this.routes = new int[vehicleCount][];
+        this.lengths = new int[vehicleCount];
+        this.firstOpenGap = new int[vehicleCount];
+        this.loads = new double[vehicleCount];
+        this.routeOf = new int[nodeCount];
+        Arrays.fill(routeOf, -1);
+
+        for (int r = 0; r < vehicleCount; r++) {
+            int[] route = plannedRoutes[r];
+            routes[r] = Arrays.copyOf(route, route.length + Math.max(4, newCount));
+            lengths[r] = route.length;
+            firstOpenGap[r] = Math.min(lockedStops[r], route.length);
+            // legCosts[r] covers depot -> stops -> depot
+            for (int p = 0; p <= route.length; p++) {
+                int from = p == 0 ? r : route[p - 1];
+                int to = p == route.length ? r : route[p];
+                plannedLegs.put(legKey(from, to), legCosts[r][p]);
+                if (plannedLegTimes != null) {
+                    plannedLegTimes.put(legKey(from, to), legTimes[r][p]);
+                }
+            }
+            for (int node : route) {
+                routeOf[node] = r;
+                loads[r] += demand[node];
+            }
+        }
+
+        if (windows != null) {
+            this.schedules = new RouteSchedule[vehicleCount];
+            for (int r = 0; r < vehicleCount; r++) {
+                schedules[r] = new RouteSchedule(this::time, windows);
+                schedules[r].update(r, routes[r], lengths[r]);
+            }
+        } else {
+            this.schedules = null;
+        }
+    }
+
+    // Returns one node sequence per vehicle. New orders that fit nowhere are left out. Every new order is
+    // placed regardless of the deadline (System.nanoTime based); only the repair passes stop at it.
+    int[][] plan(long deadlineNanos) {
+        Integer[] byDemand = new Integer[newCount];
+        for (int k = 0; k < newCount; k++) {
+            byDemand[k] = firstNew + k;
+        }
+        Arrays.sort(byDemand, (x, y) -> Double.compare(demand[y], demand[x]));
+
+        for (int node : byDemand) {
+            Insertion best = cheapestInsertion(node);
+            if (best != null) {
+                insertAt(best.route, best.gap, node);
+            }
+        }
+
+        // Bounded repair: only new orders move, planned stops keep their relative order.
+        for (int pass = 0; pass < MAX_REPAIR_PASSES && System.nanoTime() < deadlineNanos; pass++) {
+            if (!relocateNewOrders()) {
+                break;
+            }
+        }
+
+        int[][] result = new int[vehicleCount][];
+        for (int r = 0; r < vehicleCount; r++) {
+            result[r] = Arrays.copyOf(routes[r], lengths[r]);
+        }
+        return result;
+    }
+
+    private boolean relocateNewOrders() {
+        boolean improved = false;
+        for (int node = firstNew; node < nodeCount; node++) {
+            int from = routeOf[node];
+            if (from < 0) {
+                continue;
+            }
+            int p = indexOf(from, node);
+            if (schedules != null && !schedules[from].canRemove(p)) {
+                continue;
+            }
+            int before = nodeAt(from, p - 1);
+            int after = nodeAt(from, p + 1);
+            double removeGain = dist(before, node) + dist(node, after) - dist(before, after);
+
+            removeAt(from, p);
+            Insertion best = cheapestInsertion(node);
+            if (best != null && best.cost < removeGain - EPSILON) {
+                insertAt(best.route, best.gap, node);
+                improved = true;
+            } else {
+                insertAt(from, p, node);
+            }
+        }
+        return improved;
+    }
+
+    private Insertion cheapestInsertion(int node) {
+        Insertion best = null;
+        for (int r = 0; r < vehicleCount; r++) {
+            if (loads[r] + demand[node] > capacity[r]) {
+                continue;
+            }
+            for (int gap = firstOpenGap[r]; gap <= lengths[r]; gap++) {
+                int left = nodeAt(r, gap - 1);
+                int right = nodeAt(r, gap);
+                double cost = dist(left, node) + dist(node, right) - dist(left, right);
+                if ((best == null || cost < best.cost) && (schedules == null || schedules[r].canInsert(gap, node))) {
+                    best = new Insertion(r, gap, cost);
+                }
+            }
+        }
+        return best;
+    }
+
+    private double dist(int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        if (to >= firstNew) {
+            return toNew[from * newCount + (to - firstNew)];
+        }
+        if (from >= firstNew) {
+            return fromNew[(from - firstNew) * nodeCount + to];
+        }
+        Double leg = plannedLegs.get(legKey(from, to));
+        if (leg == null) {
+            throw new IllegalStateException("No leg between planned nodes " + from + " and " + to);
+        }
+        return leg;
+    }
+
+    private double time(int from, int to) {
+        if (from == to) {
+            return 0;
+        }
+        if (to >= firstNew) {
+            return toNewTime[from * newCount + (to - firstNew)];
+        }
+        if (from >= firstNew) {
+            return fromNewTime[(from - firstNew) * nodeCount + to];
+        }
+        Double leg = plannedLegTimes.get(legKey(from, to));
+        if (leg == null) {
+            throw new IllegalStateException("No leg between planned nodes " + from + " and " + to);
+        }
+        return leg;
+    }
+
+    private long legKey(int from, int to) {
+        return (long) from * nodeCount + to;
+    }
+
+    private int nodeAt(int r, int p) {
+        return p < 0 || p >= lengths[r] ? r : routes[r][p];
+    }
+
+    private int indexOf(int r, int node) {
+        for (int p = firstOpenGap[r]; p < lengths[r]; p++) {
+            if (routes[r][p] == node) {
+                return p;
+            }
+        }
+        throw new IllegalStateException("Node " + node + " not found in route " + r);
+    }
+
+    private void removeAt(int r, int p) {
+        int node = routes[r][p];
+        System.arraycopy(routes[r], p + 1, routes[r], p, lengths[r] - p - 1);
+        lengths[r]--;
+        loads[r] -= demand[node];
+        routeOf[node] = -1;
+        if (schedules != null) {
+            schedules[r].update(r, routes[r], lengths[r]);
+        }
+    }
+
+    private void insertAt(int r, int gap, int node) {
+        if (lengths[r] == routes[r].length) {
+            routes[r] = Arrays.copyOf(routes[r], routes[r].length * 2);
+        }
+        System.arraycopy(routes[r], gap, routes[r], gap + 1, lengths[r] - gap);
+        routes[r][gap] = node;
+        lengths[r]++;
+        loads[r] += demand[node];
+        routeOf[node] = r;
+        if (schedules != null) {
+            schedules[r].update(r, routes[r], lengths[r]);
+        }
+    }
+
+    private record Insertion(int route, int gap, double cost) {}
+}
@@ -1,44 +1,158 @@
 package com.greenlink.service;
 
+import com.greenlink.dto.OrderCounts;
+import com.greenlink.dto.OrderSummary;
 import com.greenlink.model.DeliveryOrder;
+import com.greenlink.model.Vehicle;
+import com.greenlink.repository.OrderQueryRepository;
 import com.greenlink.repository.OrderRepository;
+import com.greenlink.repository.VehicleRepository;
 import com.greenlink.security.CurrentUserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class OrderService {
 
     private static final String DEFAULT_STATUS = "UNASSIGNED";
+    private static final Set<String> STATUSES = Set.of("UNASSIGNED", "ASSIGNED", "DELIVERED");
+    private static final int MINUTES_PER_DAY = 1440;
 
     private final OrderRepository orderRepository;
+    private final OrderQueryRepository orderQueryRepository;
+    private final VehicleRepository vehicleRepository;
     private final GeocodingService geocodingService;
     private final CurrentUserService currentUserService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final double maxNearbyRadiusMeters;
 
     public OrderService(
             OrderRepository orderRepository,
+            OrderQueryRepository orderQueryRepository,
+            VehicleRepository vehicleRepository,
             GeocodingService geocodingService,
-            CurrentUserService currentUserService
+            CurrentUserService currentUserService,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.orders.page-size:500}") int defaultPageSize,
+            @Value("${app.orders.max-page-size:2000}") int maxPageSize,
+            @Value("${app.orders.nearby.max-radius-meters:50000}") double maxNearbyRadiusMeters
     ) {
         this.orderRepository = orderRepository;
+        this.orderQueryRepository = orderQueryRepository;
+        this.vehicleRepository = vehicleRepository;
         this.geocodingService = geocodingService;
         this.currentUserService = currentUserService;
+        this.eventPublisher = eventPublisher;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.maxNearbyRadiusMeters = maxNearbyRadiusMeters;
     }
 
-    public List<DeliveryOrder> getAllOrders() {
-        return orderRepository.findByOrganizationId(currentUserService.requireOrganizationId());
+    // One page of the organization's orders, oldest first. nextCursor is null on the last page.
+    // The bounding box needs all four coordinates; every filter is optional.
+    public OrderPage listOrders(String status, UUID routeId, Double minLat, Double maxLat, Double minLon, Double maxLon,
+                                String cursor, Integer limit) {
+        String statusFilter = parseStatus(status);
+
+        OrderQueryRepository.BoundingBox box = null;
+        boolean anyCorner = minLat != null || maxLat != null || minLon != null || maxLon != null;
+        if (anyCorner) {
+            if (minLat == null || maxLat == null || minLon == null || maxLon == null || minLat > maxLat || minLon > maxLon) {
+                throw new ResponseStatusException(
+                        HttpStatus.BAD_REQUEST,
+                        "Bounding box needs minLat <= maxLat and minLon <= maxLon."
+                );
+            }
+            box = new OrderQueryRepository.BoundingBox(minLat, maxLat, minLon, maxLon);
+        }
+
+        int pageSize = pageSize(limit);
+
+        // One extra row tells whether another page follows
+        List<OrderSummary> rows = orderQueryRepository.findPage(new OrderQueryRepository.Filter(
+                currentUserService.requireOrganizationId(),
+                statusFilter,
+                routeId,
+                box,
+                cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null,
+                pageSize + 1
+        ));
+        if (rows.size() <= pageSize) {
+            return new OrderPage(rows, null);
+        }
+        List<OrderSummary> page = rows.subList(0, pageSize);
+        OrderSummary last = page.get(pageSize - 1);
+        return new OrderPage(page, encodeCursor(new OrderQueryRepository.Cursor(last.getCreatedAt(), last.getId())));
+    }
+
+    // Exact order counts of the organization, every known status included (zero when it has no orders)
+    public OrderCounts countOrders() {
+        Map<String, Long> byStatus = new TreeMap<>();
+        STATUSES.forEach(status -> byStatus.put(status, 0L));
+        byStatus.putAll(orderQueryRepository.countByStatus(currentUserService.requireOrganizationId()));
+        long total = byStatus.values().stream().mapToLong(Long::longValue).sum();
+        return new OrderCounts(total, byStatus);
+    }
+
+    // Orders within radiusMeters of a point, or of a vehicle's start location when vehicleId is given,
+    // nearest first.
+    public List<OrderSummary> findOrdersNear(Double lat, Double lon, UUID vehicleId, double radiusMeters,
+                                             String status, Integer limit) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+        if (!(radiusMeters > 0) || radiusMeters > maxNearbyRadiusMeters) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST,
+                    "radiusMeters must be between 0 and " + maxNearbyRadiusMeters + "."
+            );
+        }
+        String statusFilter = parseStatus(status);
+        int pageSize = pageSize(limit);
+
+        if (vehicleId != null) {
+            Vehicle vehicle = vehicleRepository.findByIdAndOrganizationId(vehicleId, organizationId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Vehicle not found."));
+            if (vehicle.getStartLat() == null || vehicle.getStartLon() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Vehicle has no start location.");
+            }
+            lat = vehicle.getStartLat();
+            lon = vehicle.getStartLon();
+        }
+        if (lat == null || lon == null || lat < -90 || lat > 90 || lon < -180 || lon > 180) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Valid lat and lon or a vehicleId are required.");
+        }
+        return orderQueryRepository.findWithinRadius(organizationId, lat, lon, radiusMeters, statusFilter, pageSize);
     }
 
-    public DeliveryOrder createOrder(DeliveryOrder order) {
+    // Geocoding runs on the geocoding executor; the returned future completes once the order is saved.
+    public CompletableFuture<DeliveryOrder> createOrder(DeliveryOrder order) {
         order.setOrganizationId(currentUserService.requireOrganizationId());
 
         if (order.getStatus() == null) {
             order.setStatus(DEFAULT_STATUS);
         }
+        String windowError = timeWindowError(order.getWindowStartMin(), order.getWindowEndMin());
+        if (windowError != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, windowError);
+        }
+        // Only delivered orders carry a delivery time (it drives archiving)
+        order.setDeliveredAt("DELIVERED".equals(order.getStatus()) ? LocalDateTime.now() : null);
 
         String address = order.getAddress();
         if (address != null) {
@@ -55,23 +169,32 @@ public class OrderService {
                 );
             }
 
-            GeocodingService.GeocodeResult result = geocodingService.geocodeAddress(address);
-            if (result == null) {
-                throw new ResponseStatusException(
-                        HttpStatus.BAD_REQUEST,
-                        "Unable to geocode the provided address."
-                );
-            }
+            return geocodingService.geocodeAddressAsync(address).thenApply(result -> {
+                if (result == null) {
+                    throw new ResponseStatusException(
+                            HttpStatus.BAD_REQUEST,
+                            "Unable to geocode the provided address."
+                    );
+                }
 
-            order.setLatitude(result.latitude());
-            order.setLongitude(result.longitude());
-            if (result.address() != null && !result.address().isBlank()) {
-                order.setAddress(result.address());
-            }
+                order.setLatitude(result.latitude());
+                order.setLongitude(result.longitude());
+                if (result.address() != null && !result.address().isBlank()) {
+                    order.setAddress(result.address());
+                }
+                return saveOrder(order);
+            });
         } else if (address == null || address.isBlank()) {
-            order.setAddress(geocodingService.getAddress(lat, lon));
+            return geocodingService.getAddressAsync(lat, lon).thenApply(resolved -> {
+                order.setAddress(resolved);
+                return saveOrder(order);
+            });
         }
 
+        return CompletableFuture.completedFuture(saveOrder(order));
+    }
+
+    private DeliveryOrder saveOrder(DeliveryOrder order) {
         if (order.getLatitude() == null || order.getLongitude() == null) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
@@ -79,15 +202,69 @@ public class OrderService {
             );
         }
 
-        return orderRepository.save(order);
+        DeliveryOrder saved = orderRepository.save(order);
+        eventPublisher.publishEvent(LiveUpdate.orderCreated(saved));
+        return saved;
+    }
+
+    // Same rule as chk_orders_time_window (V17); null when the window is valid
+    static String timeWindowError(Integer startMin, Integer endMin) {
+        if ((startMin != null && (startMin < 0 || startMin > MINUTES_PER_DAY))
+                || (endMin != null && (endMin < 0 || endMin > MINUTES_PER_DAY))) {
+            return "Time window bounds must be between 0 and " + MINUTES_PER_DAY + " minutes.";
+        }
+        if (startMin != null && endMin != null && startMin >= endMin) {
+            return "Time window must start before it ends.";
+        }
+        return null;
     }
 
     public void deleteOrder(java.util.UUID orderId) {
-        DeliveryOrder order = orderRepository.findByIdAndOrganizationId(
-                orderId,
-                currentUserService.requireOrganizationId()
-        ).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found."));
+        UUID organizationId = currentUserService.requireOrganizationId();
+        DeliveryOrder order = orderRepository.findByIdAndOrganizationId(orderId, organizationId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found."));
 
         orderRepository.delete(order);
+        eventPublisher.publishEvent(LiveUpdate.orderDeleted(organizationId, orderId));
     }
+
+    private static String parseStatus(String status) {
+        if (status == null || status.isBlank()) {
+            return null;
+        }
+        String normalized = status.trim().toUpperCase(Locale.ROOT);
+        if (!STATUSES.contains(normalized)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown order status.");
+        }
+        return normalized;
+    }
+
+    private int pageSize(Integer limit) {
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + maxPageSize + ".");
+        }
+        return pageSize;
+    }
+
+    // Opaque to clients: base64url of "<created_at>_<id>"
+    static String encodeCursor(OrderQueryRepository.Cursor cursor) {
+        String raw = cursor.createdAt() + "_" + cursor.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderQueryRepository.Cursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('_');
+            return new OrderQueryRepository.Cursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    UUID.fromString(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+        }
+    }
+
+    public record OrderPage(List<OrderSummary> orders, String nextCursor) {}
 }
@@ -0,0 +1,91 @@
+package com.greenlink.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greenlink.config.IoThreads;
+import com.greenlink.dto.RouteRequest;
+import com.greenlink.dto.RouteResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+
+@Service
+public class PythonRouteSolver implements RouteSolver {
+
+    public static final String NAME = "python";
+
+    private final RestClient restClient;
+    // POST /solve/compact with CompactSolverCodec instead of JSON to /solve
+    private final boolean compactProtocol;
+    // The body stream belongs to the HTTP client, Jackson must not close it
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    public PythonRouteSolver(
+            @Value("${app.solver.base-url:http://127.0.0.1:8000}") String solverBaseUrl,
+            @Value("${app.solver.compact-protocol:false}") boolean compactProtocol,
+            IoThreads ioThreads
+    ) {
+        this.compactProtocol = compactProtocol;
+        // Create HttpClient that uses HTTP/1.1 (not HTTP/2)
+        // This prevents protocol upgrade issues with FastAPI/Uvicorn
+        HttpClient httpClient = ioThreads.httpClientBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+
+        // Pointing to your Python FastAPI server
+        this.restClient = RestClient.builder()
+                .baseUrl(solverBaseUrl)
+                .requestFactory(requestFactory)
+                .build();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public RouteResponse solve(RouteRequest request) {
+        if (compactProtocol) {
+            return solveCompact(request);
+        }
+        // Serialized straight into the request body: no intermediate String for large fleets
+        return restClient.post()
+                .uri("/solve")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> objectMapper.writeValue(outputStream, request))
+                .retrieve()
+                .body(RouteResponse.class);
+    }
+
+    // Both directions are streamed: columns are written to the request body as they are encoded and the
+    // response is decoded from the body stream without buffering it.
+    private RouteResponse solveCompact(RouteRequest request) {
+        return restClient.post()
+                .uri("/solve/compact")
+                .contentType(MediaType.parseMediaType(CompactSolverCodec.CONTENT_TYPE))
+                .accept(MediaType.parseMediaType(CompactSolverCodec.CONTENT_TYPE))
+                .body(outputStream -> CompactSolverCodec.writeRequest(request, outputStream))
+                .exchange((clientRequest, clientResponse) -> {
+                    if (clientResponse.getStatusCode().isError()) {
+                        throw new RestClientResponseException(
+                                "Compact solve failed",
+                                clientResponse.getStatusCode(),
+                                clientResponse.getStatusText(),
+                                clientResponse.getHeaders(),
+                                clientResponse.getBody().readAllBytes(),
+                                null
+                        );
+                    }
+                    return CompactSolverCodec.readResponse(clientResponse.getBody(), request);
+                });
+    }
+}
@@ -0,0 +1,154 @@
+package com.greenlink.service;
+
+import com.greenlink.repository.RouteStopRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Remaining-time estimates of driver routes, keyed by route id. Each entry carries a fingerprint of the
+// open stops (order id and position); a read whose stops hash differently - re-planned route, delivery
+// handled by another instance - recomputes. Deliveries update the entry in place.
+// Remaining time = service of every open stop + planned legs after the first open stop (legs of the
+// planned sequence, so a stop delivered out of order still counts as a waypoint).
+@Component
+public class RouteEtaCache {
+
+    private static final String DELIVERED = "DELIVERED";
+
+    private final Map<UUID, Entry> entries;
+
+    public RouteEtaCache(@Value("${app.driver.eta-cache.size:10000}") int maxSize) {
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public int remainingMinutes(UUID routeId, List<RouteStopRepository.StopView> stops) {
+        long fingerprint = fingerprint(stops);
+        synchronized (entries) {
+            Entry cached = entries.get(routeId);
+            if (cached != null && cached.fingerprint == fingerprint) {
+                return cached.minutes();
+            }
+        }
+        Entry fresh = new Entry(stops, fingerprint);
+        synchronized (entries) {
+            entries.put(routeId, fresh);
+        }
+        return fresh.minutes();
+    }
+
+    // Drops the stop's service time and, when it was the next stop, the legs up to the new next stop.
+    public void delivered(UUID routeId, UUID orderId) {
+        synchronized (entries) {
+            Entry entry = entries.get(routeId);
+            if (entry != null && !entry.deliver(orderId)) {
+                entries.remove(routeId);
+            }
+        }
+    }
+
+    static int estimateRemainingMinutes(List<RouteStopRepository.StopView> stops) {
+        return new Entry(stops, 0).minutes();
+    }
+
+    static long fingerprint(List<RouteStopRepository.StopView> stops) {
+        long fingerprint = 0;
+        for (RouteStopRepository.StopView stop : stops) {
+            if (!DELIVERED.equals(stop.status())) {
+                fingerprint += mix(stop.orderId(), stop.stopIndex());
+            }
+        }
+        return fingerprint;
+    }
+
+    // Order-independent sum of per-stop hashes, so a delivery can be taken out without a rescan
+    private static long mix(UUID orderId, int stopIndex) {
+        long h = orderId.getMostSignificantBits() ^ Long.rotateLeft(orderId.getLeastSignificantBits(), 17)
+                ^ (stopIndex * 0x9E3779B97F4A7C15L);
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static final class Entry {
+        private final UUID[] orderIds;
+        private final int[] stopIndexes;
+        private final double[] legSeconds;
+        private final int[] serviceSeconds;
+        private final boolean[] open;
+        private final Map<UUID, Integer> positions;
+        private int firstOpen;
+        private double remainingSeconds;
+        private long fingerprint;
+
+        private Entry(List<RouteStopRepository.StopView> stops, long fingerprint) {
+            int size = stops.size();
+            this.orderIds = new UUID[size];
+            this.stopIndexes = new int[size];
+            this.legSeconds = new double[size];
+            this.serviceSeconds = new int[size];
+            this.open = new boolean[size];
+            this.positions = new HashMap<>(size * 2);
+            this.fingerprint = fingerprint;
+            this.firstOpen = size;
+
+            for (int p = 0; p < size; p++) {
+                RouteStopRepository.StopView stop = stops.get(p);
+                orderIds[p] = stop.orderId();
+                stopIndexes[p] = stop.stopIndex();
+                legSeconds[p] = stop.legDurationSeconds();
+                serviceSeconds[p] = stop.serviceDurationMin() * 60;
+                open[p] = !DELIVERED.equals(stop.status());
+                positions.put(stop.orderId(), p);
+
+                if (firstOpen < size) {
+                    remainingSeconds += legSeconds[p];
+                }
+                if (open[p]) {
+                    remainingSeconds += serviceSeconds[p];
+                    firstOpen = Math.min(firstOpen, p);
+                }
+            }
+        }
+
+        private int minutes() {
+            return (int) Math.round(Math.max(0, remainingSeconds) / 60.0);
+        }
+
+        // False when the order is not on this route (entry no longer trustworthy).
+        private boolean deliver(UUID orderId) {
+            Integer position = positions.get(orderId);
+            if (position == null) {
+                return false;
+            }
+            int p = position;
+            if (!open[p]) {
+                return true;
+            }
+            open[p] = false;
+            remainingSeconds -= serviceSeconds[p];
+            fingerprint -= mix(orderIds[p], stopIndexes[p]);
+
+            if (p == firstOpen) {
+                int next = p + 1;
+                while (next < open.length && !open[next]) {
+                    next++;
+                }
+                for (int q = p + 1; q <= Math.min(next, open.length - 1); q++) {
+                    remainingSeconds -= legSeconds[q];
+                }
+                firstOpen = next;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,365 @@
+package com.greenlink.service;
+
+import java.util.Arrays;
+
+// First-improvement local search over a multi-vehicle plan:
+// intra-route 2-opt and or-opt (segments of 1-3 stops), plus inter-route relocation
+// driven by the instance's nearest-neighbour lists. Every move is evaluated in O(1).
+// On timed instances relocations are checked against the routes' schedules in O(1) as well;
+// 2-opt and or-opt moves reorder a route, so only improving ones are re-simulated in O(n).
+final class RouteLocalSearch {
+
+    private static final double EPSILON = 1e-6;
+    private static final int MAX_PASSES = 100;
+    private static final int MAX_SEGMENT = 3;
+    // The clock is read every 64 nodes in relocation and every 64 start positions in 2-opt and or-opt
+    private static final int DEADLINE_CHECK_MASK = 63;
+
+    private final VrpInstance instance;
+    private final int[][] routes;
+    private final int[] lengths;
+    private final double[] loads;
+    private final int[] routeOf;
+    private final int[] position;
+    // Per vehicle, null when the instance is untimed
+    private final RouteSchedule[] schedules;
+
+    // Prefix sums of forward / backward edge costs for the route being 2-opted.
+    private double[] forward;
+    private double[] backward;
+
+    RouteLocalSearch(VrpInstance instance, int[][] initialRoutes) {
+        this.instance = instance;
+        int vehicles = instance.vehicleCount;
+        this.routes = new int[vehicles][];
+        this.lengths = new int[vehicles];
+        this.loads = new double[vehicles];
+        this.routeOf = new int[instance.size];
+        this.position = new int[instance.size];
+        Arrays.fill(routeOf, -1);
+
+        for (int r = 0; r < vehicles; r++) {
+            int[] route = initialRoutes[r];
+            routes[r] = Arrays.copyOf(route, Math.max(4, route.length + 4));
+            lengths[r] = route.length;
+            for (int p = 0; p < route.length; p++) {
+                int node = route[p];
+                routeOf[node] = r;
+                position[node] = p;
+                loads[r] += instance.demand[node];
+            }
+        }
+        this.forward = new double[16];
+        this.backward = new double[16];
+
+        if (instance.timed()) {
+            this.schedules = new RouteSchedule[vehicles];
+            for (int r = 0; r < vehicles; r++) {
+                schedules[r] = instance.schedule();
+                reschedule(r);
+            }
+        } else {
+            this.schedules = null;
+        }
+    }
+
+    // Improves the plan until a local optimum or the deadline (System.nanoTime based) is reached.
+    // Every applied move keeps the plan valid, so stopping at the deadline returns the best plan so far.
+    int[][] run(long deadlineNanos) {
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            boolean improved = false;
+            for (int r = 0; r < routes.length; r++) {
+                if (System.nanoTime() >= deadlineNanos) {
+                    return result();
+                }
+                improved |= twoOpt(r, deadlineNanos);
+                improved |= orOpt(r, deadlineNanos);
+            }
+            improved |= relocate(deadlineNanos);
+
+            if (!improved || System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+        }
+        return result();
+    }
+
+    int[][] result() {
+        int[][] result = new int[routes.length][];
+        for (int r = 0; r < routes.length; r++) {
+            result[r] = Arrays.copyOf(routes[r], lengths[r]);
+        }
+        return result;
+    }
+
+    double totalCost() {
+        double total = 0;
+        for (int r = 0; r < routes.length; r++) {
+            total += routeCost(instance, r, routes[r], lengths[r]);
+        }
+        return total;
+    }
+
+    static double routeCost(VrpInstance instance, int vehicle, int[] route, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        double cost = instance.dist(vehicle, route[0]);
+        for (int p = 0; p + 1 < length; p++) {
+            cost += instance.dist(route[p], route[p + 1]);
+        }
+        return cost + instance.dist(route[length - 1], vehicle);
+    }
+
+    private int nodeAt(int r, int p) {
+        // Positions -1 and length refer to the vehicle's depot at either end of the tour.
+        return p < 0 || p >= lengths[r] ? r : routes[r][p];
+    }
+
+    // Stops at the deadline between candidate moves; the route is always left in an applied, valid state.
+    private boolean twoOpt(int r, long deadlineNanos) {
+        int length = lengths[r];
+        if (length < 2) {
+            return false;
+        }
+        boolean improvedAny = false;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            buildPrefixSums(r);
+            int[] route = routes[r];
+
+            for (int i = 0; i < length - 1 && !improved; i++) {
+                if ((i & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() >= deadlineNanos) {
+                    return improvedAny;
+                }
+                int before = nodeAt(r, i - 1);
+                int first = route[i];
+                for (int j = i + 1; j < length; j++) {
+                    int last = route[j];
+                    int after = nodeAt(r, j + 1);
+                    double delta = instance.dist(before, last) + instance.dist(first, after)
+                            - instance.dist(before, first) - instance.dist(last, after)
+                            + (backward[j] - backward[i]) - (forward[j] - forward[i]);
+                    if (delta < -EPSILON) {
+                        reverse(r, i, j);
+                        if (!onTime(r)) {
+                            reverse(r, i, j);
+                            continue;
+                        }
+                        improved = true;
+                        improvedAny = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improvedAny;
+    }
+
+    private void buildPrefixSums(int r) {
+        int length = lengths[r];
+        if (forward.length < length) {
+            forward = new double[length * 2];
+            backward = new double[length * 2];
+        }
+        int[] route = routes[r];
+        forward[0] = 0;
+        backward[0] = 0;
+        for (int p = 1; p < length; p++) {
+            forward[p] = forward[p - 1] + instance.dist(route[p - 1], route[p]);
+            backward[p] = backward[p - 1] + instance.dist(route[p], route[p - 1]);
+        }
+    }
+
+    private void reverse(int r, int from, int to) {
+        int[] route = routes[r];
+        while (from < to) {
+            int node = route[from];
+            route[from] = route[to];
+            route[to] = node;
+            position[route[from]] = from;
+            position[route[to]] = to;
+            from++;
+            to--;
+        }
+    }
+
+    // Moves a segment of 1..3 consecutive stops to a better slot within the same route.
+    private boolean orOpt(int r, long deadlineNanos) {
+        boolean improvedAny = false;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            int length = lengths[r];
+            int[] route = routes[r];
+
+            for (int segment = 1; segment <= MAX_SEGMENT && !improved; segment++) {
+                for (int start = 0; start + segment <= length && !improved; start++) {
+                    if ((start & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() >= deadlineNanos) {
+                        return improvedAny;
+                    }
+                    int end = start + segment - 1;
+                    int before = nodeAt(r, start - 1);
+                    int after = nodeAt(r, end + 1);
+                    int first = route[start];
+                    int last = route[end];
+                    double removeGain = instance.dist(before, first) + instance.dist(last, after)
+                            - instance.dist(before, after);
+
+                    // Insert between gap (g-1, g) of the route with the segment removed.
+                    for (int gap = 0; gap <= length; gap++) {
+                        if (gap >= start && gap <= end + 1) {
+                            continue;
+                        }
+                        int left = nodeAt(r, gap - 1);
+                        int right = nodeAt(r, gap);
+                        double addCost = instance.dist(left, first) + instance.dist(last, right)
+                                - instance.dist(left, right);
+                        if (addCost - removeGain < -EPSILON) {
+                            moveSegment(r, start, end, gap);
+                            if (!onTime(r)) {
+                                undoMoveSegment(r, start, end, gap);
+                                continue;
+                            }
+                            improved = true;
+                            improvedAny = true;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        return improvedAny;
+    }
+
+    private void moveSegment(int r, int start, int end, int gap) {
+        int[] route = routes[r];
+        int segment = end - start + 1;
+        int[] moved = Arrays.copyOfRange(route, start, end + 1);
+        if (gap < start) {
+            System.arraycopy(route, gap, route, gap + segment, start - gap);
+            System.arraycopy(moved, 0, route, gap, segment);
+            reindex(r, gap, end);
+        } else {
+            int target = gap - segment;
+            System.arraycopy(route, end + 1, route, start, gap - end - 1);
+            System.arraycopy(moved, 0, route, target, segment);
+            reindex(r, start, gap - 1);
+        }
+    }
+
+    // Moves the segment moved by moveSegment(r, start, end, gap) back to where it was
+    private void undoMoveSegment(int r, int start, int end, int gap) {
+        int segment = end - start + 1;
+        if (gap < start) {
+            moveSegment(r, gap, gap + segment - 1, end + 1);
+        } else {
+            moveSegment(r, gap - segment, gap - 1, start);
+        }
+    }
+
+    // Full check of a reordered route; keeps its schedule current when it passes
+    private boolean onTime(int r) {
+        if (schedules == null) {
+            return true;
+        }
+        if (!instance.onTime(r, routes[r], lengths[r])) {
+            return false;
+        }
+        reschedule(r);
+        return true;
+    }
+
+    private void reschedule(int r) {
+        if (schedules != null) {
+            schedules[r].update(r, routes[r], lengths[r]);
+        }
+    }
+
+    // Relocates single stops into the route of one of their nearest neighbours.
+    private boolean relocate(long deadlineNanos) {
+        int[][] neighbours = instance.neighbours();
+        boolean improvedAny = false;
+
+        for (int node = instance.vehicleCount; node < instance.size; node++) {
+            if ((node & DEADLINE_CHECK_MASK) == 0 && System.nanoTime() >= deadlineNanos) {
+                break;
+            }
+            int from = routeOf[node];
+            if (from < 0) {
+                continue;
+            }
+            int p = position[node];
+            if (schedules != null && !schedules[from].canRemove(p)) {
+                continue;
+            }
+            int before = nodeAt(from, p - 1);
+            int after = nodeAt(from, p + 1);
+            double removeGain = instance.dist(before, node) + instance.dist(node, after)
+                    - instance.dist(before, after);
+            double demand = instance.demand[node];
+
+            int bestRoute = -1;
+            int bestGap = -1;
+            double bestDelta = -EPSILON;
+
+            for (int neighbour : neighbours[node]) {
+                int to = routeOf[neighbour];
+                if (to < 0 || to == from || loads[to] + demand > instance.capacity[to]) {
+                    continue;
+                }
+                int q = position[neighbour];
+                // Try both sides of the neighbour.
+                for (int gap = q; gap <= q + 1; gap++) {
+                    int left = nodeAt(to, gap - 1);
+                    int right = nodeAt(to, gap);
+                    double delta = instance.dist(left, node) + instance.dist(node, right)
+                            - instance.dist(left, right) - removeGain;
+                    if (delta < bestDelta && (schedules == null || schedules[to].canInsert(gap, node))) {
+                        bestDelta = delta;
+                        bestRoute = to;
+                        bestGap = gap;
+                    }
+                }
+            }
+
+            if (bestRoute >= 0) {
+                removeAt(from, p);
+                insertAt(bestRoute, bestGap, node);
+                reschedule(from);
+                reschedule(bestRoute);
+                improvedAny = true;
+            }
+        }
+        return improvedAny;
+    }
+
+    private void removeAt(int r, int p) {
+        int node = routes[r][p];
+        System.arraycopy(routes[r], p + 1, routes[r], p, lengths[r] - p - 1);
+        lengths[r]--;
+        loads[r] -= instance.demand[node];
+        routeOf[node] = -1;
+        reindex(r, p, lengths[r] - 1);
+    }
+
+    private void insertAt(int r, int gap, int node) {
+        if (lengths[r] == routes[r].length) {
+            routes[r] = Arrays.copyOf(routes[r], routes[r].length * 2);
+        }
+        System.arraycopy(routes[r], gap, routes[r], gap + 1, lengths[r] - gap);
+        routes[r][gap] = node;
+        lengths[r]++;
+        loads[r] += instance.demand[node];
+        routeOf[node] = r;
+        reindex(r, gap, lengths[r] - 1);
+    }
+
+    private void reindex(int r, int from, int to) {
+        int[] route = routes[r];
+        for (int p = from; p <= to; p++) {
+            position[route[p]] = p;
+        }
+    }
+}
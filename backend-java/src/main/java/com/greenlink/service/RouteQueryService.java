@@ -0,0 +1,120 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.OrderSummary;
+import com.greenlink.dto.RouteStopResponse;
+import com.greenlink.dto.RouteSummary;
+import com.greenlink.model.Route;
+import com.greenlink.repository.OrderQueryRepository;
+import com.greenlink.repository.RouteRepository;
+import com.greenlink.repository.RouteStopRepository;
+import com.greenlink.security.CurrentUserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Dispatcher-side reads of planned routes, served from the route_stops read model.
+@Service
+public class RouteQueryService {
+
+    private final RouteStopRepository routeStopRepository;
+    private final RouteRepository routeRepository;
+    private final OrderQueryRepository orderQueryRepository;
+    private final CurrentUserService currentUserService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public RouteQueryService(
+            RouteStopRepository routeStopRepository,
+            RouteRepository routeRepository,
+            OrderQueryRepository orderQueryRepository,
+            CurrentUserService currentUserService,
+            @Value("${app.routes.page-size:200}") int defaultPageSize,
+            @Value("${app.routes.max-page-size:1000}") int maxPageSize
+    ) {
+        this.routeStopRepository = routeStopRepository;
+        this.routeRepository = routeRepository;
+        this.orderQueryRepository = orderQueryRepository;
+        this.currentUserService = currentUserService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // One page of the organization's routes ordered by id, each with its vehicle and orders in stop order.
+    // Two queries per page whatever the number of routes: routes joined with vehicles, then all their orders.
+    public RoutePage listRoutes(String cursor, Integer limit) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+        int pageSize = limit != null ? limit : defaultPageSize;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limit must be between 1 and " + maxPageSize + ".");
+        }
+        // One extra row tells whether another page follows
+        PageRequest rows = PageRequest.of(0, pageSize + 1);
+        List<Route> routes = cursor != null && !cursor.isBlank()
+                ? routeRepository.findPageByOrganizationIdAfter(organizationId, decodeCursor(cursor), rows)
+                : routeRepository.findPageByOrganizationId(organizationId, rows);
+        boolean more = routes.size() > pageSize;
+        if (more) {
+            routes = routes.subList(0, pageSize);
+        }
+
+        UUID[] routeIds = routes.stream().map(Route::getId).toArray(UUID[]::new);
+        Map<UUID, List<OrderSummary>> ordersByRoute = new HashMap<>();
+        for (OrderSummary order : orderQueryRepository.findByRoutes(organizationId, routeIds)) {
+            ordersByRoute.computeIfAbsent(order.getRouteId(), id -> new ArrayList<>()).add(order);
+        }
+
+        List<RouteSummary> page = routes.stream()
+                .map(route -> new RouteSummary(
+                        route.getId(),
+                        route.getOrganizationId(),
+                        route.getCreatedAt(),
+                        route.getUpdatedAt(),
+                        route.getStatus(),
+                        route.getVehicle(),
+                        ordersByRoute.getOrDefault(route.getId(), List.of())
+                ))
+                .toList();
+        return new RoutePage(page, more ? routes.get(pageSize - 1).getId().toString() : null);
+    }
+
+    public List<RouteStopResponse> getStops(UUID routeId) {
+        UUID organizationId = currentUserService.requireOrganizationId();
+        List<RouteStopRepository.StopView> stops = routeStopRepository.findByRoute(routeId, organizationId);
+        // An empty result is either an empty route or an unknown one
+        if (stops.isEmpty() && !routeRepository.existsByIdAndOrganizationId(routeId, organizationId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Route not found.");
+        }
+        return stops.stream()
+                .map(stop -> new RouteStopResponse(
+                        stop.stopIndex(),
+                        stop.orderId().toString(),
+                        stop.address(),
+                        stop.latitude(),
+                        stop.longitude(),
+                        stop.status(),
+                        stop.serviceDurationMin(),
+                        (int) Math.round(stop.plannedArrivalSeconds() / 60.0),
+                        Math.round(stop.legDistanceMeters() / 100.0) / 10.0,
+                        (int) Math.round(stop.legDurationSeconds() / 60.0)
+                ))
+                .toList();
+    }
+
+    private static UUID decodeCursor(String cursor) {
+        try {
+            return UUID.fromString(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor.");
+        }
+    }
+
+    public record RoutePage(List<RouteSummary> routes, String nextCursor) {}
+}
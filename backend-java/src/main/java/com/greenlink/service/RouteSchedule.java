@@ -0,0 +1,126 @@
+package com.greenlink.service;
+
+// Time-window feasibility of one route: depot -> stops -> depot within the vehicle's shift.
+// Times are seconds after midnight; a stop may be reached early and wait for its window to open.
+// earliest[p] is the earliest service start at position p, latest[p] the latest service start that
+// still lets every later stop and the return to the depot make it (latest[length] = latest return).
+// With both kept per position, inserting or removing a stop is checked in O(1) (forward time slack)
+// instead of re-simulating the route; update() recomputes them in O(n) after the route changed.
+final class RouteSchedule {
+
+    interface TravelTime {
+        double seconds(int from, int to);
+    }
+
+    // Per node: service time, window start and window end (seconds after midnight). Depot nodes have
+    // no service; their window is the vehicle's shift.
+    record Windows(double[] service, double[] ready, double[] due) {}
+
+    private final TravelTime travelTime;
+    private final double[] service;
+    private final double[] ready;
+    private final double[] due;
+
+    private int depot;
+    private double shiftStart;
+    private double shiftEnd;
+    private int[] route;
+    private int length;
+    private boolean feasible;
+    private double[] earliest = new double[8];
+    private double[] latest = new double[8];
+
+    RouteSchedule(TravelTime travelTime, Windows windows) {
+        this.travelTime = travelTime;
+        this.service = windows.service();
+        this.ready = windows.ready();
+        this.due = windows.due();
+    }
+
+    // Route of the depot's own vehicle, within its shift
+    void update(int depot, int[] route, int length) {
+        update(depot, ready[depot], due[depot], route, length);
+    }
+
+    void update(int depot, double shiftStart, double shiftEnd, int[] route, int length) {
+        this.depot = depot;
+        this.shiftStart = shiftStart;
+        this.shiftEnd = shiftEnd;
+        this.route = route;
+        this.length = length;
+        if (earliest.length <= length) {
+            earliest = new double[(length + 1) * 2];
+            latest = new double[(length + 1) * 2];
+        }
+
+        feasible = true;
+        int previous = depot;
+        double departure = shiftStart;
+        for (int p = 0; p < length; p++) {
+            int node = route[p];
+            earliest[p] = Math.max(ready[node], departure + travelTime.seconds(previous, node));
+            feasible &= earliest[p] <= due[node];
+            departure = earliest[p] + service[node];
+            previous = node;
+        }
+        earliest[length] = departure + travelTime.seconds(previous, depot);
+        feasible &= earliest[length] <= shiftEnd;
+
+        latest[length] = shiftEnd;
+        int following = depot;
+        for (int p = length - 1; p >= 0; p--) {
+            int node = route[p];
+            latest[p] = Math.min(due[node], latest[p + 1] - service[node] - travelTime.seconds(node, following));
+            following = node;
+        }
+    }
+
+    boolean feasible() {
+        return feasible;
+    }
+
+    // Inserting node between positions gap - 1 and gap keeps the route within all windows and the shift.
+    // Infeasible routes take no new stops.
+    boolean canInsert(int gap, int node) {
+        if (!feasible) {
+            return false;
+        }
+        int previous = gap == 0 ? depot : route[gap - 1];
+        double departure = gap == 0 ? shiftStart : earliest[gap - 1] + service[previous];
+        double start = Math.max(ready[node], departure + travelTime.seconds(previous, node));
+        if (start > due[node]) {
+            return false;
+        }
+        int next = gap == length ? depot : route[gap];
+        return start + service[node] + travelTime.seconds(node, next) <= latest[gap];
+    }
+
+    // Removing the stop at position p keeps the rest on time (travel times need not obey the triangle
+    // inequality). Removing from an infeasible route is always allowed.
+    boolean canRemove(int p) {
+        if (!feasible) {
+            return true;
+        }
+        int previous = p == 0 ? depot : route[p - 1];
+        double departure = p == 0 ? shiftStart : earliest[p - 1] + service[previous];
+        int next = p == length - 1 ? depot : route[p + 1];
+        return departure + travelTime.seconds(previous, next) <= latest[p + 1];
+    }
+
+    // Full O(n) check without keeping any state, for moves that reorder the route
+    static boolean isFeasible(TravelTime travelTime, Windows windows, int depot, double shiftStart, double shiftEnd,
+                              int[] route, int length) {
+        int previous = depot;
+        double departure = shiftStart;
+        for (int p = 0; p < length; p++) {
+            int node = route[p];
+            double start = Math.max(windows.ready()[node], departure + travelTime.seconds(previous, node));
+            if (start > windows.due()[node]) {
+                return false;
+            }
+            departure = start + windows.service()[node];
+            previous = node;
+        }
+        return departure + travelTime.seconds(previous, depot) <= shiftEnd;
+    }
+}
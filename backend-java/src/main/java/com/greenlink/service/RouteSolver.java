@@ -0,0 +1,13 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.RouteRequest;
+import com.greenlink.dto.RouteResponse;
+
+// Strategy for turning orders + vehicles into per-vehicle stop sequences.
+// The active engine is picked by app.solver.engine.
+public interface RouteSolver {
+
+    String getName();
+
+    RouteResponse solve(RouteRequest request);
+}
@@ -1,6 +1,5 @@
 package com.greenlink.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.greenlink.dto.OrderDTO;
 import com.greenlink.dto.RouteRequest;
 import com.greenlink.dto.RouteResponse;
@@ -9,198 +8,663 @@ import com.greenlink.model.DeliveryOrder;
 import com.greenlink.model.Route;
 import com.greenlink.model.Vehicle;
 import com.greenlink.repository.OrderRepository;
-import com.greenlink.repository.RouteRepository;
+import com.greenlink.repository.RouteBulkRepository;
+import com.greenlink.repository.RouteStopRepository;
 import com.greenlink.repository.VehicleRepository;
 import com.greenlink.security.CurrentUserService;
-import org.springframework.http.MediaType;
-import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.annotation.PreDestroy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestClient;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.net.http.HttpClient;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 @Service
 public class RoutingService {
 
+    private static final Logger log = LoggerFactory.getLogger(RoutingService.class);
+
     private final VehicleRepository vehicleRepository;
     private final OrderRepository orderRepository;
-    private final RouteRepository routeRepository;
-    private final RestClient restClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RouteBulkRepository routeBulkRepository;
+    private final RouteStopRepository routeStopRepository;
+    private final TravelMatrixService travelMatrixService;
+    private final RouteSolver routeSolver;
+    private final SavingsRouteSolver savingsRouteSolver;
     private final CurrentUserService currentUserService;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimizationMetrics optimizationMetrics;
+    private final SolverTraceLogger solverTraceLogger;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long defaultTimeBudgetMs;
+    private final long maxTimeBudgetMs;
+    private final boolean backgroundImprovement;
+    private final long backgroundBudgetMs;
+    private final ThreadPoolExecutor improvementExecutor;
+    private final Map<UUID, PlanState> planStates = new ConcurrentHashMap<>();
 
     public RoutingService(VehicleRepository vehicleRepository,
                           OrderRepository orderRepository,
-                          RouteRepository routeRepository,
+                          RouteBulkRepository routeBulkRepository,
+                          RouteStopRepository routeStopRepository,
+                          TravelMatrixService travelMatrixService,
                           CurrentUserService currentUserService,
-                          @Value("${app.solver.base-url:http://127.0.0.1:8000}") String solverBaseUrl) {
+                          PlatformTransactionManager transactionManager,
+                          List<RouteSolver> routeSolvers,
+                          SavingsRouteSolver savingsRouteSolver,
+                          OptimizationMetrics optimizationMetrics,
+                          SolverTraceLogger solverTraceLogger,
+                          ApplicationEventPublisher eventPublisher,
+                          @Value("${app.solver.engine:native}") String solverEngine,
+                          @Value("${app.solver.time-budget-ms:10000}") long defaultTimeBudgetMs,
+                          @Value("${app.solver.max-time-budget-ms:60000}") long maxTimeBudgetMs,
+                          @Value("${app.solver.background-improvement:false}") boolean backgroundImprovement,
+                          @Value("${app.solver.background-budget-ms:60000}") long backgroundBudgetMs) {
         this.vehicleRepository = vehicleRepository;
         this.orderRepository = orderRepository;
-        this.routeRepository = routeRepository;
+        this.routeBulkRepository = routeBulkRepository;
+        this.routeStopRepository = routeStopRepository;
+        this.travelMatrixService = travelMatrixService;
         this.currentUserService = currentUserService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.savingsRouteSolver = savingsRouteSolver;
+        this.optimizationMetrics = optimizationMetrics;
+        this.solverTraceLogger = solverTraceLogger;
+        this.eventPublisher = eventPublisher;
+        this.routeSolver = routeSolvers.stream()
+                .filter(solver -> solver.getName().equalsIgnoreCase(solverEngine.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("Unknown solver engine: " + solverEngine));
+        this.defaultTimeBudgetMs = defaultTimeBudgetMs;
+        this.maxTimeBudgetMs = maxTimeBudgetMs;
+        this.backgroundImprovement = backgroundImprovement;
+        this.backgroundBudgetMs = backgroundBudgetMs;
+
+        // One improvement at a time; plans that cannot queue are simply kept as they are
+        this.improvementExecutor = new ThreadPoolExecutor(
+                1,
+                1,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(16),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "route-improver");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
 
-        // Create HttpClient that uses HTTP/1.1 (not HTTP/2)
-        // This prevents protocol upgrade issues with FastAPI/Uvicorn
-        HttpClient httpClient = HttpClient.newBuilder()
-                .version(HttpClient.Version.HTTP_1_1)
-                .build();
-
-        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+    @PreDestroy
+    void shutdown() {
+        improvementExecutor.shutdownNow();
+    }
 
-        // Pointing to your Python FastAPI server
-        this.restClient = RestClient.builder()
-            .baseUrl(solverBaseUrl)
-                .requestFactory(requestFactory)
-                .build();
+    // Solve budget for a request: the requested milliseconds, or app.solver.time-budget-ms when none was
+    // given (null when that is 0, i.e. unlimited).
+    public Long timeBudget(Long requestedMs) {
+        if (requestedMs == null) {
+            return defaultTimeBudgetMs > 0 ? defaultTimeBudgetMs : null;
+        }
+        if (requestedMs < 1 || requestedMs > maxTimeBudgetMs) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "timeBudgetMs must be between 1 and " + maxTimeBudgetMs + ".");
+        }
+        return requestedMs;
     }
 
-    @Transactional
     public List<Route> optimizeRoutes() {
-        System.out.println("=== OPTIMIZE ROUTES CALLED ===");
+        return optimizeRoutes(currentUserService.requireOrganizationId(), progress -> { });
+    }
 
-        UUID organizationId = currentUserService.requireOrganizationId();
+    public List<Route> optimizeRoutes(UUID organizationId, IntConsumer progress) {
+        return optimizeRoutes(organizationId, timeBudget(null), progress);
+    }
 
-        // 1. Fetch Data
-        List<DeliveryOrder> orders = orderRepository.findByOrganizationId(organizationId);
-        List<Vehicle> vehicles = vehicleRepository.findByOrganizationId(organizationId);
+    // Runs outside a transaction: loading and solving use short repository calls, and only the
+    // final write-back is transactional, so a long solve never pins a pooled connection.
+    // timeBudgetMs bounds the solve (null = unlimited): the solver returns its best plan when it runs out,
+    // and with app.solver.background-improvement that plan is improved further and republished later.
+    public List<Route> optimizeRoutes(UUID organizationId, Long timeBudgetMs, IntConsumer progress) {
+        OptimizationMetrics.Run run = optimizationMetrics.start(organizationId, OptimizationMetrics.FULL, routeSolver.getName());
+        try {
+            return optimizeRoutes(organizationId, timeBudgetMs, progress, run);
+        } catch (RuntimeException ex) {
+            run.ended("error");
+            throw ex;
+        }
+    }
 
-        System.out.println("Found " + orders.size() + " orders and " + vehicles.size() + " vehicles");
+    private List<Route> optimizeRoutes(UUID organizationId, Long timeBudgetMs, IntConsumer progress,
+                                       OptimizationMetrics.Run run) {
+        // 1. Fetch Data (delivered orders keep their status and are not re-planned)
+        List<DeliveryOrder> orders = orderRepository.findOpenByOrganizationId(organizationId);
+        List<Vehicle> vehicles = vehicleRepository.findByOrganizationId(organizationId);
+        run.loaded(orders.size(), vehicles.size());
 
-        // Safety check: Don't call Python if we have nothing to optimize
+        // Safety check: Don't call the solver if we have nothing to optimize
         if (orders.isEmpty() || vehicles.isEmpty()) {
-            System.out.println("WARNING: Cannot optimize - missing orders or vehicles");
+            run.ended("empty");
             return List.of();
         }
 
-        // 2. Map entities to DTOs (clean objects without JPA annotations)
-        List<OrderDTO> orderDTOs = orders.stream()
-                .map(order -> new OrderDTO(
-                        order.getId().toString(),  // Convert UUID to String
-                        order.getLatitude(),
-                        order.getLongitude(),
-                        order.getWeightKg().doubleValue(),  // Convert Integer to Double
-                        order.getServiceDurationMin().doubleValue()  // Convert Integer to Double
-                ))
-                .collect(Collectors.toList());
+        progress.accept(10);
 
+        // 2. Map entities to DTOs (clean objects without JPA annotations)
+        int nowMinute = currentMinute();
+        List<OrderDTO> orderDTOs = orders.stream().map(RoutingService::toOrderDTO).collect(Collectors.toList());
         List<VehicleDTO> vehicleDTOs = vehicles.stream()
-                .map(vehicle -> new VehicleDTO(
-                        vehicle.getId().toString(),  // Convert UUID to String
-                        vehicle.getCapacityKg().doubleValue(),  // Convert Integer to Double
-                        vehicle.getStartLat(),
-                        vehicle.getStartLon()
-                ))
+                .map(vehicle -> toVehicleDTO(vehicle, departureMinute(vehicle, nowMinute)))
                 .collect(Collectors.toList());
 
         // Create clean DTO request
-        RouteRequest request = new RouteRequest(orderDTOs, vehicleDTOs);
+        RouteRequest request = new RouteRequest(orderDTOs, vehicleDTOs, timeBudgetMs);
+
+        // 3. Solve (in-JVM savings solver or the Python service, see app.solver.engine)
+        progress.accept(20);
+        long solveStarted = System.nanoTime();
+        RouteResponse response = routeSolver.solve(request);
+        boolean budgetSpent = timeBudgetMs != null
+                && TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - solveStarted) >= timeBudgetMs;
+        run.solved();
+        solverTraceLogger.trace(organizationId, routeSolver.getName(), request, response);
+        progress.accept(80);
+
+        // Safety check: Ensure the solver actually returned routes
+        if (response == null || response.getRoutes() == null || response.getRoutes().isEmpty()) {
+            run.ended("empty");
+            return List.of();
+        }
+
+        Map<UUID, DeliveryOrder> orderMap = orders.stream()
+                .collect(Collectors.toMap(DeliveryOrder::getId, o -> o));
+        List<PlannedRoute> plans = planRoutes(response, orderMap, vehicles, true, nowMinute);
+        PlanState state = planState(organizationId);
+        List<Route> savedRoutes;
+        long generation;
+        synchronized (state) {
+            savedRoutes = transactionTemplate.execute(status ->
+                    saveRoutes(organizationId, plans, OptimizationMetrics.FULL, run));
+            generation = state.generation.get();
+        }
+        run.completed(savedRoutes.size());
+        if (budgetSpent && backgroundImprovement && SavingsRouteSolver.NAME.equals(routeSolver.getName())) {
+            scheduleImprovement(organizationId, request, response, generation, nowMinute);
+        }
+        progress.accept(100);
+        return savedRoutes;
+    }
+
+    // Any published change of the organization's orders or routes makes a plan that is being improved stale
+    @EventListener
+    void onLiveUpdate(LiveUpdate update) {
+        if (update.organizationId() != null) {
+            planState(update.organizationId()).generation.incrementAndGet();
+        }
+    }
+
+    private PlanState planState(UUID organizationId) {
+        return planStates.computeIfAbsent(organizationId, id -> new PlanState());
+    }
 
-        // DEBUG: Print the JSON that will be sent
+    private void scheduleImprovement(UUID organizationId, RouteRequest request, RouteResponse plan, long generation,
+                                     int nowMinute) {
+        RouteRequest improvement = new RouteRequest(request.getOrders(), request.getVehicles(),
+                backgroundBudgetMs > 0 ? backgroundBudgetMs : null);
         try {
-            String json = objectMapper.writeValueAsString(request);
-            System.out.println("=== SENDING TO PYTHON ===");
-            System.out.println(json);
-            System.out.println("=========================");
-        } catch (Exception e) {
-            System.err.println("Failed to serialize request: " + e.getMessage());
+            improvementExecutor.execute(() -> improveRoutes(organizationId, improvement, plan, generation, nowMinute));
+        } catch (RejectedExecutionException ex) {
+            log.warn("Skipping background route improvement for organization {}: queue is full", organizationId);
         }
+    }
 
-        // 3. Call Python API
-        // Manually serialize to JSON string to ensure proper formatting
-        String jsonBody;
+    // Continues the local search from a saved plan and replaces it only if nothing was published for the
+    // organization in the meantime (new, deleted or delivered orders, another optimization).
+    private void improveRoutes(UUID organizationId, RouteRequest request, RouteResponse plan, long generation,
+                               int nowMinute) {
+        OptimizationMetrics.Run run = optimizationMetrics.start(organizationId, OptimizationMetrics.IMPROVED, SavingsRouteSolver.NAME);
         try {
-            jsonBody = objectMapper.writeValueAsString(request);
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to serialize request", e);
+            PlanState state = planState(organizationId);
+            // Input comes from the foreground run; the reload below counts towards saving
+            run.loaded(request.getOrders().size(), request.getVehicles().size());
+            Optional<RouteResponse> improved = savingsRouteSolver.improve(request, plan);
+            run.solved();
+            if (improved.isEmpty()) {
+                run.ended("unchanged");
+                return;
+            }
+            if (state.generation.get() != generation) {
+                run.ended("stale");
+                return;
+            }
+
+            // Fresh entities: the ones of the foreground run were handed out with its result
+            List<DeliveryOrder> orders = orderRepository.findOpenOrRoutedByOrganizationId(organizationId);
+            List<Vehicle> vehicles = vehicleRepository.findByOrganizationId(organizationId);
+            Map<UUID, DeliveryOrder> orderMap = orders.stream()
+                    .collect(Collectors.toMap(DeliveryOrder::getId, o -> o));
+            List<PlannedRoute> plans = planRoutes(improved.get(), orderMap, vehicles, false, nowMinute);
+            // An order or vehicle of the plan is gone (changes that publish no live update)
+            int plannedStops = plans.stream().mapToInt(p -> p.stops().size()).sum();
+            int improvedStops = improved.get().getRoutes().stream().mapToInt(r -> r.getStops().size()).sum();
+            if (plannedStops != improvedStops) {
+                run.ended("stale");
+                return;
+            }
+
+            synchronized (state) {
+                if (state.generation.get() != generation) {
+                    run.ended("stale");
+                    return;
+                }
+                List<Route> savedRoutes = transactionTemplate.execute(status ->
+                        saveRoutes(organizationId, plans, OptimizationMetrics.IMPROVED, run));
+                run.completed(savedRoutes.size());
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Background route improvement failed for organization {}", organizationId, ex);
+            run.ended("error");
         }
+    }
 
-        RouteResponse response = restClient.post()
-                .uri("/solve")
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(jsonBody)  // Pass the JSON string directly
-                .retrieve()
-                .body(RouteResponse.class);
+    // Incremental mode: existing routes keep their stops and their persisted stop order (route_stops),
+    // and nothing is inserted before a delivered stop. Only orders without a route are placed, by cheapest insertion plus a short
+    // repair (native solver, whatever app.solver.engine says). Falls back to a full run when no
+    // routes exist yet.
+    public List<Route> reoptimizeRoutes(UUID organizationId, IntConsumer progress) {
+        return reoptimizeRoutes(organizationId, timeBudget(null), progress);
+    }
 
-        // Safety check: Ensure Python actually returned routes
-        if (response == null || response.getRoutes() == null || response.getRoutes().isEmpty()) {
+    public List<Route> reoptimizeRoutes(UUID organizationId, Long timeBudgetMs, IntConsumer progress) {
+        OptimizationMetrics.Run run = optimizationMetrics.start(organizationId, OptimizationMetrics.INCREMENTAL, SavingsRouteSolver.NAME);
+        try {
+            return reoptimizeRoutes(organizationId, timeBudgetMs, progress, run);
+        } catch (RuntimeException ex) {
+            run.ended("error");
+            throw ex;
+        }
+    }
+
+    private List<Route> reoptimizeRoutes(UUID organizationId, Long timeBudgetMs, IntConsumer progress,
+                                         OptimizationMetrics.Run run) {
+        List<DeliveryOrder> orders = orderRepository.findOpenOrRoutedByOrganizationId(organizationId);
+        List<Vehicle> vehicles = vehicleRepository.findByOrganizationId(organizationId);
+        run.loaded(orders.size(), vehicles.size());
+        if (orders.isEmpty() || vehicles.isEmpty()) {
+            run.ended("empty");
             return List.of();
         }
 
-        // 4. CLEAR EXISTING ROUTES
+        // Current plan: one route per vehicle (extra routes of a vehicle are left untouched)
+        Map<UUID, Route> routeByVehicle = new LinkedHashMap<>();
+        Map<UUID, List<DeliveryOrder>> stopsByRoute = new HashMap<>();
+        List<DeliveryOrder> unplanned = new ArrayList<>();
         for (DeliveryOrder order : orders) {
-            if (order.getRoute() != null) {
-                order.setRoute(null);
+            Route route = order.getRoute();
+            if (route == null) {
+                if (!"DELIVERED".equals(order.getStatus())) {
+                    unplanned.add(order);
+                }
+                continue;
+            }
+            if (route.getVehicle() == null) {
+                continue;
             }
-            if (!"UNASSIGNED".equals(order.getStatus())) {
-                order.setStatus("UNASSIGNED");
+            Route current = routeByVehicle.computeIfAbsent(route.getVehicle().getId(), id -> route);
+            if (current.getId().equals(route.getId())) {
+                stopsByRoute.computeIfAbsent(route.getId(), id -> new ArrayList<>()).add(order);
             }
         }
-        orderRepository.saveAll(orders);
-        List<Route> existingRoutes = routeRepository.findByOrganizationId(organizationId);
-        if (!existingRoutes.isEmpty()) {
-            routeRepository.deleteAll(existingRoutes);
+        if (routeByVehicle.isEmpty()) {
+            run.ended("fallback");
+            return optimizeRoutes(organizationId, timeBudgetMs, progress);
         }
+        progress.accept(10);
+
+        Map<UUID, Integer> stopIndexes = routeStopRepository.findStopIndexes(organizationId);
+        int nowMinute = currentMinute();
+        Map<String, List<String>> plannedStops = new HashMap<>();
+        Map<String, Integer> lockedStops = new HashMap<>();
+        List<OrderDTO> orderDTOs = new ArrayList<>();
+        for (Route route : routeByVehicle.values()) {
+            List<DeliveryOrder> stops = stopsByRoute.get(route.getId());
+            // Orders missing from the read model (planned before it existed) go last
+            stops.sort(Comparator.comparingInt(stop -> stopIndexes.getOrDefault(stop.getId(), Integer.MAX_VALUE)));
+            List<String> stopIds = new ArrayList<>(stops.size());
+            int locked = 0;
+            for (DeliveryOrder stop : stops) {
+                stopIds.add(stop.getId().toString());
+                if ("DELIVERED".equals(stop.getStatus())) {
+                    locked = stopIds.size();
+                }
+            }
+            // Delivered stops are behind the van: no service time and no window, and the schedule resumes
+            // at the last one no earlier than now (the same rule as addStopRows)
+            for (int i = 0; i < stops.size(); i++) {
+                OrderDTO order = toOrderDTO(stops.get(i));
+                if (i < locked) {
+                    order.setServiceDurationMin(0.0);
+                    order.setWindowStartMin(i == locked - 1 ? (double) nowMinute : null);
+                    order.setWindowEndMin(null);
+                }
+                orderDTOs.add(order);
+            }
+            plannedStops.put(route.getVehicle().getId().toString(), stopIds);
+            lockedStops.put(route.getVehicle().getId().toString(), locked);
+        }
+        unplanned.forEach(order -> orderDTOs.add(toOrderDTO(order)));
+        // A vehicle with deliveries left the depot at its shift start; the others leave now at the earliest
+        List<VehicleDTO> vehicleDTOs = vehicles.stream()
+                .map(vehicle -> toVehicleDTO(vehicle,
+                        lockedStops.getOrDefault(vehicle.getId().toString(), 0) > 0
+                                ? vehicle.getStartShiftMinutes()
+                                : departureMinute(vehicle, nowMinute)))
+                .collect(Collectors.toList());
 
-        // 5. SAVE TO DATABASE
+        progress.accept(20);
+        RouteRequest request = new RouteRequest(orderDTOs, vehicleDTOs, timeBudgetMs);
+        RouteResponse response = savingsRouteSolver.insertOrders(request, plannedStops, lockedStops);
+        run.solved();
+        solverTraceLogger.trace(organizationId, SavingsRouteSolver.NAME, request, response);
+        progress.accept(80);
 
         Map<UUID, DeliveryOrder> orderMap = orders.stream()
                 .collect(Collectors.toMap(DeliveryOrder::getId, o -> o));
-        Map<String, Vehicle> vehicleMap = vehicles.stream()
-                .collect(Collectors.toMap(v -> v.getId().toString(), v -> v));
+        List<PlannedRoute> plans = planRoutes(response, orderMap, vehicles, false, nowMinute);
+        PlanState state = planState(organizationId);
+        List<Route> savedRoutes;
+        synchronized (state) {
+            savedRoutes = transactionTemplate.execute(status ->
+                    saveInsertedOrders(organizationId, routeByVehicle, plans, run));
+        }
+        run.completed(savedRoutes.size());
+        progress.accept(100);
+        return savedRoutes;
+    }
 
-        List<Route> savedRoutes = new ArrayList<>();
+    // Writes only what changed: routes for vehicles that had none, assignments of the newly placed orders,
+    // and the stop sequences of every route in the plan.
+    private List<Route> saveInsertedOrders(UUID organizationId, Map<UUID, Route> routeByVehicle,
+                                           List<PlannedRoute> plans, OptimizationMetrics.Run run) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Route> resultRoutes = new ArrayList<>();
+        List<Route> createdRoutes = new ArrayList<>();
+        List<UUID> keptRouteIds = new ArrayList<>();
+        List<UUID> assignedOrderIds = new ArrayList<>();
+        List<UUID> assignedRouteIds = new ArrayList<>();
+        List<RouteStopRepository.StopRow> stopRows = new ArrayList<>();
+
+        for (PlannedRoute plan : plans) {
+            Vehicle vehicle = plan.vehicle();
+
+            // Fresh instances: the loaded routes are detached and their order collections are lazy
+            Route existing = routeByVehicle.get(vehicle.getId());
+            Route route = new Route();
+            route.setId(existing != null ? existing.getId() : UUID.randomUUID());
+            route.setStatus(existing != null ? existing.getStatus() : "PLANNED");
+            route.setVehicle(vehicle);
+            route.setOrganizationId(organizationId);
+            route.setCreatedAt(existing != null ? existing.getCreatedAt() : now);
+            route.setUpdatedAt(existing != null ? existing.getUpdatedAt() : now);
+            if (existing == null) {
+                createdRoutes.add(route);
+            } else {
+                keptRouteIds.add(route.getId());
+            }
 
-        for (RouteResponse.RoutePlan routePlan : response.getRoutes()) {
-            String vehicleId = routePlan.getVehicleId();
-            Vehicle vehicle = vehicleId != null ? vehicleMap.get(vehicleId) : null;
-            if (vehicle == null) {
-                vehicle = vehicles.get(0);
+            for (DeliveryOrder order : plan.stops()) {
+                if (order.getRoute() == null) {
+                    order.setStatus("ASSIGNED");
+                    assignedOrderIds.add(order.getId());
+                    assignedRouteIds.add(route.getId());
+                }
+                order.setRoute(route);
+                route.getOrders().add(order);
             }
+            addStopRows(stopRows, route, plan);
+            resultRoutes.add(route);
+        }
+
+        routeBulkRepository.insertRoutes(createdRoutes);
+        int assigned = routeBulkRepository.assignOrders(
+                organizationId,
+                assignedOrderIds.toArray(UUID[]::new),
+                assignedRouteIds.toArray(UUID[]::new),
+                "ASSIGNED"
+        );
+        routeStopRepository.deleteStops(organizationId, keptRouteIds.toArray(UUID[]::new));
+        routeStopRepository.insertStops(organizationId, stopRows);
+        run.assigned(assigned);
+        eventPublisher.publishEvent(LiveUpdate.routesChanged(organizationId, OptimizationMetrics.INCREMENTAL,
+                resultRoutes.stream().map(Route::getId).toList(), assigned));
+
+        return resultRoutes;
+    }
+
+    static OrderDTO toOrderDTO(DeliveryOrder order) {
+        return new OrderDTO(
+                order.getId().toString(),  // Convert UUID to String
+                order.getLatitude(),
+                order.getLongitude(),
+                order.getWeightKg().doubleValue(),  // Convert Integer to Double
+                order.getServiceDurationMin().doubleValue(),  // Convert Integer to Double
+                order.getWindowStartMin() != null ? order.getWindowStartMin().doubleValue() : null,
+                order.getWindowEndMin() != null ? order.getWindowEndMin().doubleValue() : null
+        );
+    }
+
+    static VehicleDTO toVehicleDTO(Vehicle vehicle) {
+        return toVehicleDTO(vehicle, vehicle.getStartShiftMinutes());
+    }
+
+    // departureMinute replaces the shift start: the time the route leaves the depot
+    static VehicleDTO toVehicleDTO(Vehicle vehicle, int departureMinute) {
+        return new VehicleDTO(
+                vehicle.getId().toString(),  // Convert UUID to String
+                vehicle.getCapacityKg().doubleValue(),  // Convert Integer to Double
+                vehicle.getStartLat(),
+                vehicle.getStartLon(),
+                (double) departureMinute,
+                vehicle.getEndShiftMinutes().doubleValue()
+        );
+    }
+
+    // Server time, like deliveredAt
+    private static int currentMinute() {
+        LocalTime now = LocalTime.now();
+        return now.getHour() * 60 + now.getMinute();
+    }
+
+    // A plan made during the shift cannot leave the depot before now. Overnight shifts (ending before
+    // they start) keep their start, minutes of the day are not compared across midnight.
+    static int departureMinute(Vehicle vehicle, int nowMinute) {
+        int start = vehicle.getStartShiftMinutes();
+        return vehicle.getEndShiftMinutes() >= start ? Math.max(start, nowMinute) : start;
+    }
+
+    // Replaces the organization's routes with set-based statements: one reset, one delete (route_stops
+    // cascade), one batched insert for the routes, one UPDATE ... FROM unnest(...) for all assignments
+    // and one INSERT ... FROM unnest(...) for the stop sequences.
+    private List<Route> saveRoutes(UUID organizationId, List<PlannedRoute> plans, String mode,
+                                   OptimizationMetrics.Run run) {
+        // 4. CLEAR EXISTING ROUTES
+        routeBulkRepository.resetAssignments(organizationId);
+        routeBulkRepository.deleteRoutes(organizationId);
+
+        // 5. SAVE TO DATABASE
+        LocalDateTime now = LocalDateTime.now();
+        List<Route> savedRoutes = new ArrayList<>();
+        List<UUID> assignedOrderIds = new ArrayList<>();
+        List<UUID> assignedRouteIds = new ArrayList<>();
+        List<RouteStopRepository.StopRow> stopRows = new ArrayList<>();
 
+        for (PlannedRoute plan : plans) {
             Route newRoute = new Route();
+            newRoute.setId(UUID.randomUUID());
             newRoute.setStatus("PLANNED");
-            newRoute.setVehicle(vehicle);
+            newRoute.setVehicle(plan.vehicle());
             newRoute.setOrganizationId(organizationId);
+            newRoute.setCreatedAt(now);
+            newRoute.setUpdatedAt(now);
+
+            for (DeliveryOrder order : plan.stops()) {
+                // Detached copies loaded before the solve: mirror the bulk update for the response
+                order.setRoute(newRoute);
+                order.setStatus("ASSIGNED");
+                newRoute.getOrders().add(order);
+                assignedOrderIds.add(order.getId());
+                assignedRouteIds.add(newRoute.getId());
+            }
+            addStopRows(stopRows, newRoute, plan);
+            savedRoutes.add(newRoute);
+        }
 
-            Route savedRoute = routeRepository.save(newRoute);
+        routeBulkRepository.insertRoutes(savedRoutes);
+        int assigned = routeBulkRepository.assignOrders(
+                organizationId,
+                assignedOrderIds.toArray(UUID[]::new),
+                assignedRouteIds.toArray(UUID[]::new),
+                "ASSIGNED"
+        );
+        routeStopRepository.insertStops(organizationId, stopRows);
+        run.assigned(assigned);
+        eventPublisher.publishEvent(LiveUpdate.routesChanged(organizationId, mode,
+                savedRoutes.stream().map(Route::getId).toList(), assigned));
 
-            List<Map<String, Object>> sortedStops = routePlan.getStops();
-            if (sortedStops == null) {
-                savedRoutes.add(savedRoute);
-                continue;
-            }
+        return savedRoutes;
+    }
 
-            for (Map<String, Object> stop : sortedStops) {
-                String idStr = (String) stop.get("id");
+    // Resolves the solver's plans to entities and fetches the leg data for route_stops. Runs before the
+    // write-back transaction; after a native solve the legs are matrix cache hits. Plans for an unknown
+    // vehicle go to the first vehicle (full runs) or are dropped (incremental runs).
+    private List<PlannedRoute> planRoutes(RouteResponse response, Map<UUID, DeliveryOrder> orderMap,
+                                          List<Vehicle> vehicles, boolean fallbackToFirstVehicle, int nowMinute) {
+        Map<String, Vehicle> vehicleMap = vehicles.stream()
+                .collect(Collectors.toMap(v -> v.getId().toString(), v -> v));
 
-                if (idStr != null) {
-                    try {
-                        UUID id = UUID.fromString(idStr);
-                        DeliveryOrder order = orderMap.get(id);
+        List<PlannedRoute> plans = new ArrayList<>(response.getRoutes().size());
+        for (RouteResponse.RoutePlan routePlan : response.getRoutes()) {
+            String vehicleId = routePlan.getVehicleId();
+            Vehicle vehicle = vehicleId != null ? vehicleMap.get(vehicleId) : null;
+            if (vehicle == null) {
+                if (!fallbackToFirstVehicle) {
+                    continue;
+                }
+                vehicle = vehicles.get(0);
+            }
 
-                        if (order != null) {
-                            order.setRoute(savedRoute);
-                            order.setStatus("ASSIGNED");
-                            orderRepository.save(order);
-                            savedRoute.getOrders().add(order);
-                        }
-                    } catch (IllegalArgumentException e) {
-                        System.err.println("Skipping invalid UUID from Python: " + idStr);
+            List<RouteResponse.Stop> sortedStops = routePlan.getStops() != null ? routePlan.getStops() : List.of();
+            List<DeliveryOrder> stops = new ArrayList<>(sortedStops.size());
+            for (RouteResponse.Stop stop : sortedStops) {
+                String idStr = stop.id();
+                if (idStr == null) {
+                    continue;
+                }
+                try {
+                    DeliveryOrder order = orderMap.get(UUID.fromString(idStr));
+                    if (order != null) {
+                        stops.add(order);
                     }
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping invalid order id from solver: {}", idStr);
                 }
             }
+            plans.add(withLegs(vehicle, stops, nowMinute));
+        }
+        return plans;
+    }
 
-            savedRoutes.add(savedRoute);
-            System.out.println("Route created for vehicle " + vehicle.getId() + " with " + savedRoute.getOrders().size() + " orders assigned");
+    // Depot -> first stop -> ... -> last stop, from one matrix lookup per route.
+    private PlannedRoute withLegs(Vehicle vehicle, List<DeliveryOrder> stops, int nowMinute) {
+        float[] distances = new float[stops.size()];
+        float[] durations = new float[stops.size()];
+        if (!stops.isEmpty()) {
+            double[] latitudes = new double[stops.size() + 1];
+            double[] longitudes = new double[stops.size() + 1];
+            latitudes[0] = vehicle.getStartLat() != null ? vehicle.getStartLat() : SavingsRouteSolver.DEFAULT_START_LAT;
+            longitudes[0] = vehicle.getStartLon() != null ? vehicle.getStartLon() : SavingsRouteSolver.DEFAULT_START_LON;
+            for (int i = 0; i < stops.size(); i++) {
+                latitudes[i + 1] = stops.get(i).getLatitude();
+                longitudes[i + 1] = stops.get(i).getLongitude();
+            }
+            TravelMatrix matrix = travelMatrixService.build(latitudes, longitudes);
+            for (int i = 0; i < stops.size(); i++) {
+                distances[i] = matrix.distance(i, i + 1);
+                durations[i] = matrix.duration(i, i + 1);
+            }
         }
+        return new PlannedRoute(vehicle, stops, distances, durations, nowMinute);
+    }
 
-        return savedRoutes;
+    // Planned arrival (seconds after the shift start) accumulates the legs and the service time of the
+    // earlier stops; a stop reached before its window opens is planned at the opening. A route without
+    // deliveries leaves the depot at departureMinute. With deliveries it left at the shift start, the
+    // delivered stops take no service time, and the rest resumes from the last one no earlier than now.
+    private static void addStopRows(List<RouteStopRepository.StopRow> rows, Route route, PlannedRoute plan) {
+        int lastDelivered = -1;
+        for (int i = 0; i < plan.stops().size(); i++) {
+            if ("DELIVERED".equals(plan.stops().get(i).getStatus())) {
+                lastDelivered = i;
+            }
+        }
+        double shiftStartSeconds = plan.vehicle().getStartShiftMinutes() * 60.0;
+        double clockSeconds = lastDelivered < 0
+                ? departureMinute(plan.vehicle(), plan.nowMinute()) * 60.0
+                : shiftStartSeconds;
+        for (int i = 0; i < plan.stops().size(); i++) {
+            DeliveryOrder order = plan.stops().get(i);
+            clockSeconds += plan.legDurations()[i];
+            if (i > lastDelivered && order.getWindowStartMin() != null) {
+                clockSeconds = Math.max(clockSeconds, order.getWindowStartMin() * 60.0);
+            }
+            rows.add(new RouteStopRepository.StopRow(
+                    route.getId(),
+                    i,
+                    order.getId(),
+                    (int) Math.round(clockSeconds - shiftStartSeconds),
+                    plan.legDistances()[i],
+                    plan.legDurations()[i]
+            ));
+            if (i == lastDelivered) {
+                clockSeconds = Math.max(clockSeconds, plan.nowMinute() * 60.0);
+            } else if (i > lastDelivered) {
+                clockSeconds += order.getServiceDurationMin() * 60.0;
+            }
+        }
+    }
+
+    // legDistances[i] / legDurations[i] describe the drive into stops[i] (from the depot for i == 0).
+    // nowMinute is the minute of the day the plan was made at.
+    private record PlannedRoute(Vehicle vehicle, List<DeliveryOrder> stops, float[] legDistances, float[] legDurations,
+                                int nowMinute) {}
+
+    // Per organization: counts published live updates, and is the lock around route write-backs so a
+    // background improvement cannot overwrite a plan saved after it checked the generation.
+    private static final class PlanState {
+        private final AtomicLong generation = new AtomicLong();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,663 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.OrderDTO;
+import com.greenlink.dto.RouteRequest;
+import com.greenlink.dto.RouteResponse;
+import com.greenlink.dto.VehicleDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+
+// In-JVM solver: Clarke-Wright savings construction followed by 2-opt / or-opt local search.
+// Instances above app.solver.decomposition.cluster-size orders are split into sweep clusters
+// (SweepPartitioner) that are solved in parallel, then repaired across cluster borders.
+// Delivery windows and vehicle shifts, when set, are hard constraints (RouteSchedule); orders that
+// cannot be served in time by any vehicle are left unrouted.
+// A request's timeLimitMs bounds the solve: construction always completes, local search stops at the
+// deadline with the best plan so far, and improve() can continue from that plan later.
+@Service
+public class SavingsRouteSolver implements RouteSolver {
+
+    public static final String NAME = "native";
+
+    // Same fallback depot as the Python solver (NYC City Hall)
+    static final double DEFAULT_START_LAT = 40.7128;
+    static final double DEFAULT_START_LON = -74.0060;
+
+    private static final double SECONDS_PER_DAY = 24 * 60 * 60;
+
+    // Orders near an order of another cluster (among its nearest few) mark their routes for repair
+    private static final int BORDER_NEIGHBOURS = 6;
+
+    private final TravelMatrixService travelMatrixService;
+    private final int clusterSize;
+    private final int repairMaxOrders;
+    private final ForkJoinPool pool;
+
+    public SavingsRouteSolver(
+            TravelMatrixService travelMatrixService,
+            @Value("${app.solver.decomposition.cluster-size:500}") int clusterSize,
+            @Value("${app.solver.decomposition.repair-max-orders:1200}") int repairMaxOrders,
+            @Value("${app.solver.parallelism:0}") int parallelism
+    ) {
+        this.travelMatrixService = travelMatrixService;
+        this.clusterSize = Math.max(1, clusterSize);
+        this.repairMaxOrders = repairMaxOrders;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public RouteResponse solve(RouteRequest request) {
+        List<OrderDTO> orders = request.getOrders() != null ? request.getOrders() : List.of();
+        List<VehicleDTO> vehicles = request.getVehicles() != null ? request.getVehicles() : List.of();
+
+        if (orders.isEmpty() || vehicles.isEmpty()) {
+            return toResponse(orders, vehicles, new int[0][]);
+        }
+
+        long deadline = deadline(request);
+        int[][] routes = orders.size() > clusterSize && vehicles.size() > 1
+                ? solveDecomposed(orders, vehicles, deadline)
+                : solveWhole(orders, vehicles, deadline);
+        return toResponse(orders, vehicles, routes);
+    }
+
+    // Anytime continuation: local search from an existing plan of this request (e.g. one returned when its
+    // time limit ran out) until it converges or the request's time limit passes. Routes are improved in
+    // groups of at most about cluster-size orders, neighbouring routes together, in parallel.
+    // Empty when no route changed.
+    public Optional<RouteResponse> improve(RouteRequest request, RouteResponse plan) {
+        List<OrderDTO> orders = request.getOrders() != null ? request.getOrders() : List.of();
+        List<VehicleDTO> vehicles = request.getVehicles() != null ? request.getVehicles() : List.of();
+        if (orders.isEmpty() || vehicles.isEmpty() || plan.getRoutes() == null) {
+            return Optional.empty();
+        }
+        long deadline = deadline(request);
+
+        Map<String, Integer> orderIndex = new HashMap<>();
+        for (int o = 0; o < orders.size(); o++) {
+            orderIndex.put(orders.get(o).getId(), o);
+        }
+        Map<String, Integer> vehicleIndex = new HashMap<>();
+        for (int v = 0; v < vehicles.size(); v++) {
+            vehicleIndex.putIfAbsent(vehicles.get(v).getId(), v);
+        }
+        int[][] routes = new int[vehicles.size()][];
+        Arrays.fill(routes, new int[0]);
+        boolean[] routed = new boolean[orders.size()];
+        for (RouteResponse.RoutePlan routePlan : plan.getRoutes()) {
+            Integer vehicle = vehicleIndex.get(routePlan.getVehicleId());
+            if (vehicle == null || routes[vehicle].length > 0 || routePlan.getStops() == null) {
+                continue;
+            }
+            int[] route = new int[routePlan.getStops().size()];
+            int length = 0;
+            for (RouteResponse.Stop stop : routePlan.getStops()) {
+                Integer order = orderIndex.get(stop.id());
+                if (order != null && !routed[order]) {
+                    routed[order] = true;
+                    route[length++] = order;
+                }
+            }
+            routes[vehicle] = Arrays.copyOf(route, length);
+        }
+
+        List<int[]> groups = sweepRoutes(routes, new Coordinates(orders, vehicles));
+        List<ForkJoinTask<int[][]>> tasks = new ArrayList<>(groups.size());
+        for (int[] group : groups) {
+            tasks.add(pool.submit(() -> improveRoutes(orders, vehicles, routes, group, deadline)));
+        }
+        int[][] improved = routes.clone();
+        for (int g = 0; g < groups.size(); g++) {
+            int[][] groupRoutes = tasks.get(g).join();
+            for (int r = 0; r < groups.get(g).length; r++) {
+                improved[groups.get(g)[r]] = groupRoutes[r];
+            }
+        }
+        return Arrays.deepEquals(improved, routes) ? Optional.empty() : Optional.of(toResponse(orders, vehicles, improved));
+    }
+
+    // Non-empty routes in groups of at most cluster-size orders (a longer route is a group of its own),
+    // swept by the angle of each route's centroid around the centre of the fleet's depots.
+    private List<int[]> sweepRoutes(int[][] routes, Coordinates at) {
+        List<Integer> used = new ArrayList<>();
+        double lat0 = 0;
+        double lon0 = 0;
+        for (int v = 0; v < routes.length; v++) {
+            if (routes[v].length > 0) {
+                used.add(v);
+                lat0 += at.vehicleLat[v];
+                lon0 += at.vehicleLon[v];
+            }
+        }
+        if (used.isEmpty()) {
+            return List.of();
+        }
+        lat0 /= used.size();
+        lon0 /= used.size();
+
+        double lonScale = Math.cos(Math.toRadians(lat0));
+        Map<Integer, Double> angle = new HashMap<>();
+        for (int v : used) {
+            double lat = 0;
+            double lon = 0;
+            for (int order : routes[v]) {
+                lat += at.orderLat[order];
+                lon += at.orderLon[order];
+            }
+            angle.put(v, Math.atan2(lat / routes[v].length - lat0, (lon / routes[v].length - lon0) * lonScale));
+        }
+        used.sort((a, b) -> Double.compare(angle.get(a), angle.get(b)));
+
+        List<int[]> groups = new ArrayList<>();
+        List<Integer> group = new ArrayList<>();
+        int groupOrders = 0;
+        for (int v : used) {
+            if (!group.isEmpty() && groupOrders + routes[v].length > clusterSize) {
+                groups.add(group.stream().mapToInt(Integer::intValue).toArray());
+                group = new ArrayList<>();
+                groupOrders = 0;
+            }
+            group.add(v);
+            groupOrders += routes[v].length;
+        }
+        groups.add(group.stream().mapToInt(Integer::intValue).toArray());
+        return groups;
+    }
+
+    // System.nanoTime deadline of the request's time limit, or none
+    private static long deadline(RouteRequest request) {
+        Long limitMs = request.getTimeLimitMs();
+        return limitMs != null && limitMs > 0
+                ? System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(limitMs)
+                : Long.MAX_VALUE;
+    }
+
+    private static RouteResponse toResponse(List<OrderDTO> orders, List<VehicleDTO> vehicles, int[][] routes) {
+        RouteResponse response = new RouteResponse();
+        response.setRoutes(new ArrayList<>());
+        for (int vehicle = 0; vehicle < routes.length; vehicle++) {
+            if (routes[vehicle].length == 0) {
+                continue;
+            }
+            List<RouteResponse.Stop> stops = new ArrayList<>(routes[vehicle].length);
+            for (int order : routes[vehicle]) {
+                stops.add(toStop(orders.get(order)));
+            }
+
+            RouteResponse.RoutePlan plan = new RouteResponse.RoutePlan();
+            plan.setVehicleId(vehicles.get(vehicle).getId());
+            plan.setStops(stops);
+            response.getRoutes().add(plan);
+        }
+        return response;
+    }
+
+    // Order indexes per vehicle
+    private int[][] solveWhole(List<OrderDTO> orders, List<VehicleDTO> vehicles, long deadline) {
+        VrpInstance instance = buildInstance(orders, vehicles);
+        int[][] initial = new ClarkeWrightBuilder(instance).build();
+        int[][] routes = new RouteLocalSearch(instance, initial).run(deadline);
+        for (int[] route : routes) {
+            for (int p = 0; p < route.length; p++) {
+                route[p] = instance.orderIndex(route[p]);
+            }
+        }
+        return routes;
+    }
+
+    // Clusters are solved on the fork-join pool, each with its own (much smaller) travel matrix. The
+    // routes along cluster borders are then improved together, and orders no cluster could carry are
+    // inserted wherever the fleet still has capacity. Past the deadline the border repair is skipped.
+    private int[][] solveDecomposed(List<OrderDTO> orders, List<VehicleDTO> vehicles, long deadline) {
+        Coordinates at = new Coordinates(orders, vehicles);
+        List<SweepPartitioner.Cluster> clusters = new SweepPartitioner(
+                at.vehicleLat, at.vehicleLon, at.capacity, at.orderLat, at.orderLon, at.demand
+        ).partition(clusterSize);
+
+        List<ForkJoinTask<int[][]>> tasks = new ArrayList<>(clusters.size());
+        for (SweepPartitioner.Cluster cluster : clusters) {
+            tasks.add(pool.submit(() -> solveCluster(orders, vehicles, cluster, deadline)));
+        }
+
+        int[][] routes = new int[vehicles.size()][];
+        Arrays.fill(routes, new int[0]);
+        int[] clusterOf = new int[orders.size()];
+        for (int c = 0; c < clusters.size(); c++) {
+            SweepPartitioner.Cluster cluster = clusters.get(c);
+            int[][] clusterRoutes = tasks.get(c).join();
+            for (int v = 0; v < cluster.vehicles().length; v++) {
+                routes[cluster.vehicles()[v]] = clusterRoutes[v];
+            }
+            for (int order : cluster.orders()) {
+                clusterOf[order] = c;
+            }
+        }
+
+        if (System.nanoTime() < deadline) {
+            routes = repairBorders(orders, vehicles, routes, clusterOf, at, deadline);
+        }
+        return insertUnrouted(orders, vehicles, routes, deadline);
+    }
+
+    private int[][] solveCluster(List<OrderDTO> orders, List<VehicleDTO> vehicles, SweepPartitioner.Cluster cluster,
+                                 long deadline) {
+        List<OrderDTO> clusterOrders = Arrays.stream(cluster.orders()).mapToObj(orders::get).toList();
+        List<VehicleDTO> clusterVehicles = Arrays.stream(cluster.vehicles()).mapToObj(vehicles::get).toList();
+        int[][] routes = solveWhole(clusterOrders, clusterVehicles, deadline);
+        for (int[] route : routes) {
+            for (int p = 0; p < route.length; p++) {
+                route[p] = cluster.orders()[route[p]];
+            }
+        }
+        return routes;
+    }
+
+    // Local search (relocate, 2-opt, or-opt) over the routes that serve orders next to another cluster.
+    // Each border between two clusters gets its routes with the most border contact, up to
+    // app.solver.decomposition.repair-max-orders orders; the groups share no route and run in parallel.
+    private int[][] repairBorders(List<OrderDTO> orders, List<VehicleDTO> vehicles, int[][] routes, int[] clusterOf,
+                                  Coordinates at, long deadline) {
+        int[] routeOf = new int[orders.size()];
+        Arrays.fill(routeOf, -1);
+        for (int v = 0; v < routes.length; v++) {
+            for (int order : routes[v]) {
+                routeOf[order] = v;
+            }
+        }
+
+        // Border (pair of cluster indexes) -> route -> contacts
+        SpatialGridIndex grid = new SpatialGridIndex(at.orderLat, at.orderLon, at.cellMeters(BORDER_NEIGHBOURS));
+        Map<Long, Map<Integer, Integer>> borders = new HashMap<>();
+        for (int order = 0; order < orders.size(); order++) {
+            if (routeOf[order] < 0) {
+                continue;
+            }
+            for (int neighbour : grid.nearest(at.orderLat[order], at.orderLon[order], BORDER_NEIGHBOURS + 1)) {
+                if (clusterOf[neighbour] == clusterOf[order] || routeOf[neighbour] < 0) {
+                    continue;
+                }
+                long border = ((long) Math.min(clusterOf[order], clusterOf[neighbour]) << 32)
+                        | Math.max(clusterOf[order], clusterOf[neighbour]);
+                Map<Integer, Integer> contacts = borders.computeIfAbsent(border, key -> new HashMap<>());
+                contacts.merge(routeOf[order], 1, Integer::sum);
+                contacts.merge(routeOf[neighbour], 1, Integer::sum);
+            }
+        }
+
+        List<Map<Integer, Integer>> byContacts = new ArrayList<>(borders.values());
+        byContacts.sort((a, b) -> Integer.compare(total(b), total(a)));
+        boolean[] taken = new boolean[routes.length];
+        List<int[]> groups = new ArrayList<>();
+        for (Map<Integer, Integer> contacts : byContacts) {
+            List<Integer> candidates = new ArrayList<>(contacts.keySet());
+            candidates.sort((a, b) -> Integer.compare(contacts.get(b), contacts.get(a)));
+            List<Integer> group = new ArrayList<>();
+            int groupOrders = 0;
+            for (int v : candidates) {
+                if (!taken[v] && groupOrders + routes[v].length <= repairMaxOrders) {
+                    group.add(v);
+                    groupOrders += routes[v].length;
+                }
+            }
+            if (group.size() >= 2) {
+                group.forEach(v -> taken[v] = true);
+                groups.add(group.stream().mapToInt(Integer::intValue).toArray());
+            }
+        }
+
+        List<ForkJoinTask<int[][]>> tasks = new ArrayList<>(groups.size());
+        for (int[] group : groups) {
+            tasks.add(pool.submit(() -> improveRoutes(orders, vehicles, routes, group, deadline)));
+        }
+        int[][] result = routes.clone();
+        for (int g = 0; g < groups.size(); g++) {
+            int[][] improved = tasks.get(g).join();
+            for (int r = 0; r < groups.get(g).length; r++) {
+                result[groups.get(g)[r]] = improved[r];
+            }
+        }
+        return result;
+    }
+
+    private static int total(Map<Integer, Integer> contacts) {
+        return contacts.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    // Local search over the given vehicles' routes only; returns their new routes (order indexes).
+    private int[][] improveRoutes(List<OrderDTO> orders, List<VehicleDTO> vehicles, int[][] routes, int[] group,
+                                  long deadline) {
+        List<VehicleDTO> groupVehicles = new ArrayList<>(group.length);
+        List<OrderDTO> groupOrders = new ArrayList<>();
+        List<Integer> orderIndex = new ArrayList<>();
+        int[][] initial = new int[group.length][];
+        for (int r = 0; r < group.length; r++) {
+            int[] route = routes[group[r]];
+            groupVehicles.add(vehicles.get(group[r]));
+            initial[r] = new int[route.length];
+            for (int p = 0; p < route.length; p++) {
+                initial[r][p] = group.length + groupOrders.size();
+                orderIndex.add(route[p]);
+                groupOrders.add(orders.get(route[p]));
+            }
+        }
+
+        VrpInstance instance = buildInstance(groupOrders, groupVehicles);
+        int[][] improved = new RouteLocalSearch(instance, initial).run(deadline);
+        for (int[] route : improved) {
+            for (int p = 0; p < route.length; p++) {
+                route[p] = orderIndex.get(instance.orderIndex(route[p]));
+            }
+        }
+        return improved;
+    }
+
+    // Cheapest insertion (plus repair) of orders the clusters left out, across the whole fleet.
+    private int[][] insertUnrouted(List<OrderDTO> orders, List<VehicleDTO> vehicles, int[][] routes, long deadline) {
+        int vehicleCount = vehicles.size();
+        boolean[] routed = new boolean[orders.size()];
+        List<OrderDTO> nodeOrders = new ArrayList<>(orders.size());
+        List<Integer> nodeOrderIndex = new ArrayList<>(orders.size());
+        int[][] plannedRoutes = new int[vehicleCount][];
+        for (int v = 0; v < vehicleCount; v++) {
+            plannedRoutes[v] = new int[routes[v].length];
+            for (int p = 0; p < routes[v].length; p++) {
+                int order = routes[v][p];
+                routed[order] = true;
+                plannedRoutes[v][p] = vehicleCount + nodeOrders.size();
+                nodeOrders.add(orders.get(order));
+                nodeOrderIndex.add(order);
+            }
+        }
+        int newCount = 0;
+        for (int order = 0; order < orders.size(); order++) {
+            if (!routed[order]) {
+                nodeOrders.add(orders.get(order));
+                nodeOrderIndex.add(order);
+                newCount++;
+            }
+        }
+        if (newCount == 0) {
+            return routes;
+        }
+
+        int[][] planned = buildInsertionPlanner(vehicles, nodeOrders, plannedRoutes, new int[vehicleCount], newCount)
+                .plan(deadline);
+        for (int[] route : planned) {
+            for (int p = 0; p < route.length; p++) {
+                route[p] = nodeOrderIndex.get(route[p] - vehicleCount);
+            }
+        }
+        return planned;
+    }
+
+    // Incremental re-planning. plannedStops maps a vehicle id to its current stop sequence (order ids),
+    // which is kept as-is; lockedStops gives per vehicle how many leading stops nothing may be inserted
+    // before. Every other order of the request is inserted with cheapest insertion and a short repair.
+    public RouteResponse insertOrders(RouteRequest request, Map<String, List<String>> plannedStops,
+                                      Map<String, Integer> lockedStops) {
+        List<OrderDTO> orders = request.getOrders() != null ? request.getOrders() : List.of();
+        List<VehicleDTO> vehicles = request.getVehicles() != null ? request.getVehicles() : List.of();
+        long deadline = deadline(request);
+
+        RouteResponse response = new RouteResponse();
+        response.setRoutes(new ArrayList<>());
+        if (vehicles.isEmpty()) {
+            return response;
+        }
+
+        Map<String, OrderDTO> ordersById = new HashMap<>();
+        for (OrderDTO order : orders) {
+            ordersById.put(order.getId(), order);
+        }
+
+        // Node layout: depots, then planned stops route by route, then new orders.
+        int vehicleCount = vehicles.size();
+        List<OrderDTO> nodeOrders = new ArrayList<>();
+        int[][] plannedRoutes = new int[vehicleCount][];
+        int[] locked = new int[vehicleCount];
+        Set<String> planned = new HashSet<>();
+        for (int v = 0; v < vehicleCount; v++) {
+            String vehicleId = vehicles.get(v).getId();
+            List<String> stopIds = plannedStops.getOrDefault(vehicleId, List.of());
+            int[] route = new int[stopIds.size()];
+            int length = 0;
+            for (String stopId : stopIds) {
+                OrderDTO order = ordersById.get(stopId);
+                if (order != null && planned.add(stopId)) {
+                    route[length++] = vehicleCount + nodeOrders.size();
+                    nodeOrders.add(order);
+                }
+            }
+            plannedRoutes[v] = Arrays.copyOf(route, length);
+            locked[v] = lockedStops.getOrDefault(vehicleId, 0);
+        }
+        int newCount = 0;
+        for (OrderDTO order : orders) {
+            if (!planned.contains(order.getId())) {
+                nodeOrders.add(order);
+                newCount++;
+            }
+        }
+
+        int[][] routes = plannedRoutes;
+        if (newCount > 0) {
+            routes = buildInsertionPlanner(vehicles, nodeOrders, plannedRoutes, locked, newCount).plan(deadline);
+        }
+
+        for (int vehicle = 0; vehicle < vehicleCount; vehicle++) {
+            if (routes[vehicle].length == 0) {
+                continue;
+            }
+            List<RouteResponse.Stop> stops = new ArrayList<>(routes[vehicle].length);
+            for (int node : routes[vehicle]) {
+                stops.add(toStop(nodeOrders.get(node - vehicleCount)));
+            }
+
+            RouteResponse.RoutePlan plan = new RouteResponse.RoutePlan();
+            plan.setVehicleId(vehicles.get(vehicle).getId());
+            plan.setStops(stops);
+            response.getRoutes().add(plan);
+        }
+        return response;
+    }
+
+    private OrderInsertionPlanner buildInsertionPlanner(List<VehicleDTO> vehicles, List<OrderDTO> nodeOrders,
+                                                        int[][] plannedRoutes, int[] locked, int newCount) {
+        int vehicleCount = vehicles.size();
+        int size = vehicleCount + nodeOrders.size();
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        double[] demand = new double[size];
+        double[] capacity = new double[vehicleCount];
+
+        for (int v = 0; v < vehicleCount; v++) {
+            VehicleDTO vehicle = vehicles.get(v);
+            latitudes[v] = vehicle.getStartLat() != null ? vehicle.getStartLat() : DEFAULT_START_LAT;
+            longitudes[v] = vehicle.getStartLon() != null ? vehicle.getStartLon() : DEFAULT_START_LON;
+            capacity[v] = vehicle.getCapacityKg() != null ? vehicle.getCapacityKg() : Double.POSITIVE_INFINITY;
+        }
+        for (int o = 0; o < nodeOrders.size(); o++) {
+            OrderDTO order = nodeOrders.get(o);
+            latitudes[vehicleCount + o] = order.getLatitude();
+            longitudes[vehicleCount + o] = order.getLongitude();
+            demand[vehicleCount + o] = order.getWeightKg() != null ? order.getWeightKg() : 0.0;
+        }
+
+        // Only the rows and columns of the new orders, not the full square
+        int firstNew = size - newCount;
+        double[] newLatitudes = Arrays.copyOfRange(latitudes, firstNew, size);
+        double[] newLongitudes = Arrays.copyOfRange(longitudes, firstNew, size);
+        TravelMatrix toNew = travelMatrixService.build(latitudes, longitudes, newLatitudes, newLongitudes);
+        TravelMatrix fromNew = travelMatrixService.build(newLatitudes, newLongitudes, latitudes, longitudes);
+        RouteSchedule.Windows windows = windows(vehicles, nodeOrders);
+
+        double[][] legCosts = new double[vehicleCount][];
+        double[][] legTimes = new double[vehicleCount][];
+        for (int v = 0; v < vehicleCount; v++) {
+            int[] route = plannedRoutes[v];
+            double[] legLatitudes = new double[route.length + 2];
+            double[] legLongitudes = new double[route.length + 2];
+            legLatitudes[0] = legLatitudes[route.length + 1] = latitudes[v];
+            legLongitudes[0] = legLongitudes[route.length + 1] = longitudes[v];
+            for (int p = 0; p < route.length; p++) {
+                legLatitudes[p + 1] = latitudes[route[p]];
+                legLongitudes[p + 1] = longitudes[route[p]];
+            }
+            TravelMatrix legs = travelMatrixService.build(legLatitudes, legLongitudes);
+            legCosts[v] = new double[route.length + 1];
+            legTimes[v] = new double[route.length + 1];
+            for (int p = 0; p <= route.length; p++) {
+                legCosts[v][p] = legs.distance(p, p + 1);
+                legTimes[v][p] = legs.duration(p, p + 1);
+            }
+        }
+
+        if (windows == null) {
+            return new OrderInsertionPlanner(vehicleCount, plannedRoutes, locked, newCount,
+                    toNew.distancesAsDouble(), fromNew.distancesAsDouble(), legCosts, demand, capacity);
+        }
+        return new OrderInsertionPlanner(vehicleCount, plannedRoutes, locked, newCount,
+                toNew.distancesAsDouble(), fromNew.distancesAsDouble(), legCosts, demand, capacity,
+                toNew.durationsAsDouble(), fromNew.durationsAsDouble(), legTimes, windows);
+    }
+
+    private VrpInstance buildInstance(List<OrderDTO> orders, List<VehicleDTO> vehicles) {
+        int vehicleCount = vehicles.size();
+        int size = vehicleCount + orders.size();
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        double[] demand = new double[size];
+        double[] capacity = new double[vehicleCount];
+
+        for (int v = 0; v < vehicleCount; v++) {
+            VehicleDTO vehicle = vehicles.get(v);
+            latitudes[v] = vehicle.getStartLat() != null ? vehicle.getStartLat() : DEFAULT_START_LAT;
+            longitudes[v] = vehicle.getStartLon() != null ? vehicle.getStartLon() : DEFAULT_START_LON;
+            capacity[v] = vehicle.getCapacityKg() != null ? vehicle.getCapacityKg() : Double.POSITIVE_INFINITY;
+        }
+        for (int o = 0; o < orders.size(); o++) {
+            OrderDTO order = orders.get(o);
+            latitudes[vehicleCount + o] = order.getLatitude();
+            longitudes[vehicleCount + o] = order.getLongitude();
+            demand[vehicleCount + o] = order.getWeightKg() != null ? order.getWeightKg() : 0.0;
+        }
+
+        // Road distances (meters) and travel times from OSRM, cached between runs
+        TravelMatrix matrix = travelMatrixService.build(latitudes, longitudes);
+        RouteSchedule.Windows windows = windows(vehicles, orders);
+        if (windows == null) {
+            return new VrpInstance(vehicleCount, orders.size(), matrix.distancesAsDouble(), demand, capacity);
+        }
+        return new VrpInstance(vehicleCount, orders.size(), matrix.distancesAsDouble(), demand, capacity,
+                matrix.durationsAsDouble(), windows);
+    }
+
+    // Service time and window (seconds after midnight) per node, depots first with the vehicle's shift;
+    // null when no vehicle has a shift and no order a window. Shifts ending before they start run overnight.
+    private static RouteSchedule.Windows windows(List<VehicleDTO> vehicles, List<OrderDTO> orders) {
+        boolean bounded = false;
+        for (VehicleDTO vehicle : vehicles) {
+            bounded |= vehicle.getShiftStartMin() != null || vehicle.getShiftEndMin() != null;
+        }
+        for (OrderDTO order : orders) {
+            bounded |= order.getWindowStartMin() != null || order.getWindowEndMin() != null;
+        }
+        if (!bounded) {
+            return null;
+        }
+
+        int vehicleCount = vehicles.size();
+        int size = vehicleCount + orders.size();
+        double[] service = new double[size];
+        double[] ready = new double[size];
+        double[] due = new double[size];
+        for (int v = 0; v < vehicleCount; v++) {
+            VehicleDTO vehicle = vehicles.get(v);
+            ready[v] = vehicle.getShiftStartMin() != null ? vehicle.getShiftStartMin() * 60 : 0;
+            due[v] = vehicle.getShiftEndMin() != null ? vehicle.getShiftEndMin() * 60 : Double.POSITIVE_INFINITY;
+            if (due[v] < ready[v]) {
+                due[v] += SECONDS_PER_DAY;
+            }
+        }
+        for (int o = 0; o < orders.size(); o++) {
+            OrderDTO order = orders.get(o);
+            int node = vehicleCount + o;
+            service[node] = order.getServiceDurationMin() != null ? order.getServiceDurationMin() * 60 : 0;
+            ready[node] = order.getWindowStartMin() != null ? order.getWindowStartMin() * 60 : 0;
+            due[node] = order.getWindowEndMin() != null ? order.getWindowEndMin() * 60 : Double.POSITIVE_INFINITY;
+        }
+        return new RouteSchedule.Windows(service, ready, due);
+    }
+
+    // Flat coordinate, demand and capacity arrays of a request (depot fallback applied)
+    private static final class Coordinates {
+        private final double[] vehicleLat;
+        private final double[] vehicleLon;
+        private final double[] capacity;
+        private final double[] orderLat;
+        private final double[] orderLon;
+        private final double[] demand;
+
+        private Coordinates(List<OrderDTO> orders, List<VehicleDTO> vehicles) {
+            vehicleLat = new double[vehicles.size()];
+            vehicleLon = new double[vehicles.size()];
+            capacity = new double[vehicles.size()];
+            for (int v = 0; v < vehicles.size(); v++) {
+                VehicleDTO vehicle = vehicles.get(v);
+                vehicleLat[v] = vehicle.getStartLat() != null ? vehicle.getStartLat() : DEFAULT_START_LAT;
+                vehicleLon[v] = vehicle.getStartLon() != null ? vehicle.getStartLon() : DEFAULT_START_LON;
+                capacity[v] = vehicle.getCapacityKg() != null ? vehicle.getCapacityKg() : Double.POSITIVE_INFINITY;
+            }
+            orderLat = new double[orders.size()];
+            orderLon = new double[orders.size()];
+            demand = new double[orders.size()];
+            for (int o = 0; o < orders.size(); o++) {
+                OrderDTO order = orders.get(o);
+                orderLat[o] = order.getLatitude();
+                orderLon[o] = order.getLongitude();
+                demand[o] = order.getWeightKg() != null ? order.getWeightKg() : 0.0;
+            }
+        }
+
+        // Grid cell size holding about perCell orders on average over the orders' bounding box
+        private double cellMeters(int perCell) {
+            double minLat = Arrays.stream(orderLat).min().orElse(0);
+            double maxLat = Arrays.stream(orderLat).max().orElse(0);
+            double minLon = Arrays.stream(orderLon).min().orElse(0);
+            double maxLon = Arrays.stream(orderLon).max().orElse(0);
+            double midLat = (minLat + maxLat) / 2;
+            double height = TravelMatrixService.haversineMeters(minLat, minLon, maxLat, minLon);
+            double width = TravelMatrixService.haversineMeters(midLat, minLon, midLat, maxLon);
+            double area = Math.max(1, height) * Math.max(1, width);
+            return Math.max(50, Math.sqrt(area * perCell / Math.max(1, orderLat.length)));
+        }
+    }
+
+    // Stops carry only the order id; RoutingService maps them back to the orders it loaded.
+    private static RouteResponse.Stop toStop(OrderDTO order) {
+        return new RouteResponse.Stop(order.getId());
+    }
+}
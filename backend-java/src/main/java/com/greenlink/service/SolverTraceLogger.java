@@ -0,0 +1,111 @@
+package com.greenlink.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.greenlink.dto.RouteRequest;
+import com.greenlink.dto.RouteResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Sampled traces of solver payloads, written to the "greenlink.solver.trace" logger (rotating file,
+// see logback-spring.xml). Off unless that logger is at DEBUG, which can be switched at runtime via
+// /actuator/loggers/greenlink.solver.trace. Each payload is cut at app.solver.trace.max-bytes;
+// serialization stops there, so a sampled 10k-order request costs at most that many bytes.
+@Component
+public class SolverTraceLogger {
+
+    private static final Logger trace = LoggerFactory.getLogger("greenlink.solver.trace");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    private final double sampleRate;
+    private final int maxBytes;
+
+    public SolverTraceLogger(
+            @Value("${app.solver.trace.sample-rate:0.1}") double sampleRate,
+            @Value("${app.solver.trace.max-bytes:65536}") int maxBytes
+    ) {
+        this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+        this.maxBytes = Math.max(256, maxBytes);
+    }
+
+    public void trace(UUID organizationId, String engine, RouteRequest request, RouteResponse response) {
+        if (!trace.isDebugEnabled() || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        String traceId = UUID.randomUUID().toString();
+        int orders = request.getOrders() != null ? request.getOrders().size() : 0;
+        int vehicles = request.getVehicles() != null ? request.getVehicles().size() : 0;
+        int routes = response != null && response.getRoutes() != null ? response.getRoutes().size() : 0;
+
+        Capped requestJson = capped(request);
+        trace.debug("trace={} organization={} engine={} direction=request orders={} vehicles={} truncated={} payload={}",
+                traceId, organizationId, engine, orders, vehicles, requestJson.truncated(), requestJson.json());
+        Capped responseJson = capped(response);
+        trace.debug("trace={} organization={} engine={} direction=response routes={} truncated={} payload={}",
+                traceId, organizationId, engine, routes, responseJson.truncated(), responseJson.json());
+    }
+
+    private Capped capped(Object payload) {
+        CappedOutputStream out = new CappedOutputStream(maxBytes);
+        try {
+            objectMapper.writeValue(out, payload);
+        } catch (CappedOutputStream.LimitReached ex) {
+            return new Capped(out.toString(StandardCharsets.UTF_8), true);
+        } catch (IOException ex) {
+            return new Capped("<unserializable: " + ex.getMessage() + ">", false);
+        }
+        return new Capped(out.toString(StandardCharsets.UTF_8), false);
+    }
+
+    private record Capped(String json, boolean truncated) {}
+
+    // Keeps the first maxBytes and then aborts the write.
+    private static final class CappedOutputStream extends OutputStream {
+        private final ByteArrayOutputStream buffer;
+        private final int maxBytes;
+
+        private CappedOutputStream(int maxBytes) {
+            this.buffer = new ByteArrayOutputStream(Math.min(maxBytes, 8192));
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (buffer.size() >= maxBytes) {
+                throw new LimitReached();
+            }
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int room = maxBytes - buffer.size();
+            buffer.write(b, off, Math.min(len, room));
+            if (len > room) {
+                throw new LimitReached();
+            }
+        }
+
+        private String toString(Charset charset) {
+            return buffer.toString(charset);
+        }
+
+        // IOException so Jackson passes it through instead of wrapping it
+        private static final class LimitReached extends IOException {
+            private LimitReached() {
+                super("Trace size limit reached", null);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.greenlink.service;
+
+import java.util.Arrays;
+
+// In-memory uniform grid over a fixed set of points for k-nearest lookups (the solver's partition
+// borders). Cells are about cellMeters on each side at the points' mean latitude. Points are stored
+// cell by cell in flat arrays (cells sorted by key), so a lookup only visits the cells around the
+// query. Results are point indexes, nearest first.
+final class SpatialGridIndex {
+
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * TravelMatrixService.EARTH_RADIUS_METERS;
+
+    private final double[] latitude;
+    private final double[] longitude;
+    private final double cellLat;
+    private final double cellLon;
+
+    // Occupied cells sorted by key; points of cellKeys[c] are points[cellStart[c]..cellStart[c+1])
+    private final long[] cellKeys;
+    private final int[] cellStart;
+    private final int[] points;
+    private final int minRow;
+    private final int maxRow;
+    private final int minCol;
+    private final int maxCol;
+
+    SpatialGridIndex(double[] latitude, double[] longitude, double cellMeters) {
+        if (latitude.length != longitude.length) {
+            throw new IllegalArgumentException("latitude and longitude must have the same length");
+        }
+        if (!(cellMeters > 0)) {
+            throw new IllegalArgumentException("cellMeters must be positive");
+        }
+        this.latitude = latitude;
+        this.longitude = longitude;
+        int count = latitude.length;
+
+        double meanLat = 0;
+        for (double lat : latitude) {
+            meanLat += lat;
+        }
+        meanLat = count > 0 ? meanLat / count : 0;
+        this.cellLat = cellMeters / METERS_PER_DEGREE;
+        this.cellLon = Math.min(360, cellLat / Math.max(0.01, Math.cos(Math.toRadians(meanLat))));
+
+        long[] keys = new long[count];
+        int rowLow = Integer.MAX_VALUE;
+        int rowHigh = Integer.MIN_VALUE;
+        int colLow = Integer.MAX_VALUE;
+        int colHigh = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            int row = row(latitude[i]);
+            int col = col(longitude[i]);
+            rowLow = Math.min(rowLow, row);
+            rowHigh = Math.max(rowHigh, row);
+            colLow = Math.min(colLow, col);
+            colHigh = Math.max(colHigh, col);
+            keys[i] = key(row, col);
+        }
+
+        // Distinct occupied cells in key order
+        long[] sortedKeys = keys.clone();
+        Arrays.sort(sortedKeys);
+        int cells = 0;
+        for (int p = 0; p < count; p++) {
+            if (p == 0 || sortedKeys[p] != sortedKeys[p - 1]) {
+                sortedKeys[cells++] = sortedKeys[p];
+            }
+        }
+        this.cellKeys = Arrays.copyOf(sortedKeys, cells);
+
+        // Sort points by (cell, index) packed into one long per point: cell position high, point index low
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) {
+            packed[i] = ((long) Arrays.binarySearch(cellKeys, keys[i]) << 32) | i;
+        }
+        Arrays.sort(packed);
+
+        this.points = new int[count];
+        this.cellStart = new int[cells + 1];
+        for (int p = 0; p < count; p++) {
+            points[p] = (int) packed[p];
+            int cell = (int) (packed[p] >>> 32);
+            if (p == 0 || cell != (int) (packed[p - 1] >>> 32)) {
+                cellStart[cell] = p;
+            }
+        }
+        cellStart[cells] = count;
+        this.minRow = rowLow;
+        this.maxRow = rowHigh;
+        this.minCol = colLow;
+        this.maxCol = colHigh;
+    }
+
+    int size() {
+        return latitude.length;
+    }
+
+    // Searches rings of cells around the query cell outwards until no unvisited cell can hold a point
+    // closer than the k-th best found so far.
+    int[] nearest(double lat, double lon, int k) {
+        int want = Math.min(k, size());
+        if (want <= 0) {
+            return new int[0];
+        }
+        int[] best = new int[want];
+        double[] bestDistance = new double[want];
+        int found = 0;
+
+        int centerRow = row(lat);
+        int centerCol = col(lon);
+        int maxRing = Math.max(
+                Math.max(Math.abs(centerRow - minRow), Math.abs(maxRow - centerRow)),
+                Math.max(Math.abs(centerCol - minCol), Math.abs(maxCol - centerCol))
+        );
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int row = centerRow - ring; row <= centerRow + ring; row++) {
+                boolean edgeRow = row == centerRow - ring || row == centerRow + ring;
+                int step = edgeRow || ring == 0 ? 1 : 2 * ring;
+                for (int col = centerCol - ring; col <= centerCol + ring; col += step) {
+                    int c = row < minRow || row > maxRow || col < minCol || col > maxCol
+                            ? -1
+                            : Arrays.binarySearch(cellKeys, key(row, col));
+                    if (c < 0) {
+                        continue;
+                    }
+                    for (int p = cellStart[c]; p < cellStart[c + 1]; p++) {
+                        int point = points[p];
+                        double meters = distance(lat, lon, point);
+                        if (found < want) {
+                            found = insertSorted(best, bestDistance, found, point, meters);
+                        } else if (meters < bestDistance[want - 1]) {
+                            insertSorted(best, bestDistance, want - 1, point, meters);
+                        }
+                    }
+                }
+            }
+            if (found == want && bestDistance[want - 1] <= distanceOutside(lat, lon, centerRow, centerCol, ring)) {
+                break;
+            }
+        }
+        return Arrays.copyOf(best, found);
+    }
+
+    // Lower bound of the distance from the query to any point outside the cells within `ring` of its cell
+    private double distanceOutside(double lat, double lon, int centerRow, int centerCol, int ring) {
+        double south = lat - (centerRow - ring) * cellLat;
+        double north = (centerRow + ring + 1) * cellLat - lat;
+        double west = lon - (centerCol - ring) * cellLon;
+        double east = (centerCol + ring + 1) * cellLon - lon;
+        double alongMeridian = Math.min(south, north) * METERS_PER_DEGREE;
+        // Great-circle distance to a meridian d degrees away is R * asin(cos(lat) * sin(d))
+        double toMeridian = Math.toRadians(Math.min(90, Math.min(west, east)));
+        double acrossMeridian = TravelMatrixService.EARTH_RADIUS_METERS
+                * Math.asin(Math.cos(Math.toRadians(lat)) * Math.sin(toMeridian));
+        return Math.min(alongMeridian, acrossMeridian);
+    }
+
+    private double distance(double lat, double lon, int point) {
+        return TravelMatrixService.haversineMeters(lat, lon, latitude[point], longitude[point]);
+    }
+
+    private int row(double lat) {
+        return (int) Math.floor(lat / cellLat);
+    }
+
+    private int col(double lon) {
+        return (int) Math.floor(lon / cellLon);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+
+    // Insertion into a small array sorted by distance; returns the new length.
+    private static int insertSorted(int[] points, double[] distances, int length, int point, double meters) {
+        int i = length - 1;
+        while (i >= 0 && distances[i] > meters) {
+            if (i + 1 < points.length) {
+                points[i + 1] = points[i];
+                distances[i + 1] = distances[i];
+            }
+            i--;
+        }
+        points[i + 1] = point;
+        distances[i + 1] = meters;
+        return Math.min(length + 1, points.length);
+    }
+}
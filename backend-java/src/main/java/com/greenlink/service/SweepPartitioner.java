@@ -0,0 +1,224 @@
+package com.greenlink.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Splits a large routing problem into independent clusters (vehicles + orders) for the native solver.
+// Orders go to the nearest depot that still has fleet capacity; each depot's orders are then swept by
+// angle around the depot and cut into sectors, one per bin of that depot's vehicles, with every sector's
+// demand proportional to its vehicles' capacity. Coordinates are straight-line, no travel matrix needed.
+final class SweepPartitioner {
+
+    // Two depots closer than this (meters) are the same yard
+    private static final double SAME_DEPOT_METERS = 1.0;
+
+    private final double[] vehicleLat;
+    private final double[] vehicleLon;
+    private final double[] capacity;
+    private final double[] orderLat;
+    private final double[] orderLon;
+    private final double[] demand;
+
+    SweepPartitioner(double[] vehicleLat, double[] vehicleLon, double[] capacity,
+                     double[] orderLat, double[] orderLon, double[] demand) {
+        this.vehicleLat = vehicleLat;
+        this.vehicleLon = vehicleLon;
+        this.capacity = capacity;
+        this.orderLat = orderLat;
+        this.orderLon = orderLon;
+        this.demand = demand;
+    }
+
+    // Clusters hold at most about maxOrders orders unless a depot has too few vehicles to split further.
+    // Vehicle and order indexes refer to the constructor arrays; every order is in exactly one cluster.
+    List<Cluster> partition(int maxOrders) {
+        List<int[]> depots = groupVehiclesByDepot();
+        List<int[]> depotOrders = assignOrdersToDepots(depots);
+
+        List<Cluster> clusters = new ArrayList<>();
+        for (int d = 0; d < depots.size(); d++) {
+            int[] vehicles = depots.get(d);
+            int[] orders = depotOrders.get(d);
+            if (orders.length == 0) {
+                continue;
+            }
+            int sectors = Math.min(vehicles.length, Math.max(1, (orders.length + maxOrders - 1) / maxOrders));
+            if (sectors == 1) {
+                clusters.add(new Cluster(vehicles, orders));
+            } else {
+                sweep(vehicles, orders, sectors, clusters);
+            }
+        }
+        return clusters;
+    }
+
+    private List<int[]> groupVehiclesByDepot() {
+        List<List<Integer>> groups = new ArrayList<>();
+        for (int v = 0; v < capacity.length; v++) {
+            List<Integer> match = null;
+            for (List<Integer> group : groups) {
+                int first = group.get(0);
+                if (TravelMatrixService.haversineMeters(vehicleLat[first], vehicleLon[first], vehicleLat[v], vehicleLon[v])
+                        < SAME_DEPOT_METERS) {
+                    match = group;
+                    break;
+                }
+            }
+            if (match == null) {
+                match = new ArrayList<>();
+                groups.add(match);
+            }
+            match.add(v);
+        }
+        List<int[]> result = new ArrayList<>(groups.size());
+        for (List<Integer> group : groups) {
+            result.add(group.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return result;
+    }
+
+    private List<int[]> assignOrdersToDepots(List<int[]> depots) {
+        int depotCount = depots.size();
+        double[] remaining = new double[depotCount];
+        for (int d = 0; d < depotCount; d++) {
+            for (int vehicle : depots.get(d)) {
+                remaining[d] += capacity[vehicle];
+            }
+        }
+
+        int[] depotOf = new int[orderLat.length];
+        int[] counts = new int[depotCount];
+        double[] distance = new double[depotCount];
+        Integer[] byDistance = new Integer[depotCount];
+        for (int o = 0; o < orderLat.length; o++) {
+            for (int d = 0; d < depotCount; d++) {
+                int depot = depots.get(d)[0];
+                distance[d] = TravelMatrixService.haversineMeters(vehicleLat[depot], vehicleLon[depot], orderLat[o], orderLon[o]);
+                byDistance[d] = d;
+            }
+            Arrays.sort(byDistance, (a, b) -> Double.compare(distance[a], distance[b]));
+
+            int chosen = byDistance[0];
+            for (int d : byDistance) {
+                if (remaining[d] >= demand[o]) {
+                    chosen = d;
+                    break;
+                }
+            }
+            remaining[chosen] -= demand[o];
+            depotOf[o] = chosen;
+            counts[chosen]++;
+        }
+
+        List<int[]> result = new ArrayList<>(depotCount);
+        int[] filled = new int[depotCount];
+        for (int d = 0; d < depotCount; d++) {
+            result.add(new int[counts[d]]);
+        }
+        for (int o = 0; o < orderLat.length; o++) {
+            result.get(depotOf[o])[filled[depotOf[o]]++] = o;
+        }
+        return result;
+    }
+
+    private void sweep(int[] vehicles, int[] orders, int sectors, List<Cluster> clusters) {
+        int depot = vehicles[0];
+        double lat0 = vehicleLat[depot];
+        double lon0 = vehicleLon[depot];
+        double lonScale = Math.cos(Math.toRadians(lat0));
+
+        int count = orders.length;
+        double[] angle = new double[count];
+        Integer[] byAngle = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            int order = orders[i];
+            angle[i] = Math.atan2(orderLat[order] - lat0, (orderLon[order] - lon0) * lonScale);
+            byAngle[i] = i;
+        }
+        Arrays.sort(byAngle, (a, b) -> Double.compare(angle[a], angle[b]));
+
+        // Start the sweep in the widest empty wedge so no dense area is cut at the seam. Only the gap
+        // that wraps around from the last angle to the first spans the seam; co-located orders have no gap.
+        int start = 0;
+        double widestGap = -1;
+        for (int i = 0; i < count; i++) {
+            double previous = angle[byAngle[(i + count - 1) % count]];
+            double gap = angle[byAngle[i]] - previous;
+            if (i == 0) {
+                gap += 2 * Math.PI;
+            }
+            if (gap > widestGap) {
+                widestGap = gap;
+                start = i;
+            }
+        }
+
+        // Vehicle bins of similar capacity: largest vehicle first into the emptiest bin
+        List<List<Integer>> bins = new ArrayList<>(sectors);
+        double[] binCapacity = new double[sectors];
+        int[] binSize = new int[sectors];
+        for (int s = 0; s < sectors; s++) {
+            bins.add(new ArrayList<>());
+        }
+        Integer[] byCapacity = Arrays.stream(vehicles).boxed().toArray(Integer[]::new);
+        Arrays.sort(byCapacity, (a, b) -> Double.compare(capacity[b], capacity[a]));
+        for (int vehicle : byCapacity) {
+            int emptiest = 0;
+            for (int s = 1; s < sectors; s++) {
+                if (binCapacity[s] < binCapacity[emptiest]
+                        || (binCapacity[s] == binCapacity[emptiest] && binSize[s] < binSize[emptiest])) {
+                    emptiest = s;
+                }
+            }
+            bins.get(emptiest).add(vehicle);
+            binCapacity[emptiest] += capacity[vehicle];
+            binSize[emptiest]++;
+        }
+
+        // Share of the depot's demand per sector: by capacity, or by vehicle count when unbounded
+        double[] share = new double[sectors];
+        double totalCapacity = Arrays.stream(binCapacity).sum();
+        for (int s = 0; s < sectors; s++) {
+            share[s] = Double.isInfinite(totalCapacity) || totalCapacity <= 0
+                    ? (double) binSize[s] / vehicles.length
+                    : binCapacity[s] / totalCapacity;
+        }
+
+        double totalWeight = 0;
+        for (int order : orders) {
+            totalWeight += demand[order];
+        }
+        boolean byCount = totalWeight <= 0;
+        if (byCount) {
+            totalWeight = count;
+        }
+
+        int position = 0;
+        double cumulative = 0;
+        double target = 0;
+        for (int s = 0; s < sectors; s++) {
+            target += share[s] * totalWeight;
+            List<Integer> sectorOrders = new ArrayList<>();
+            // The last sector takes whatever is left; the others stop at their share of the sweep
+            while (position < count && (s == sectors - 1 || cumulative < target || sectorOrders.isEmpty())) {
+                int order = orders[byAngle[(start + position) % count]];
+                double weight = byCount ? 1 : demand[order];
+                if (!sectorOrders.isEmpty() && s < sectors - 1 && cumulative + weight / 2 > target) {
+                    break;
+                }
+                sectorOrders.add(order);
+                cumulative += weight;
+                position++;
+            }
+            if (!sectorOrders.isEmpty()) {
+                clusters.add(new Cluster(
+                        bins.get(s).stream().mapToInt(Integer::intValue).toArray(),
+                        sectorOrders.stream().mapToInt(Integer::intValue).toArray()
+                ));
+            }
+        }
+    }
+
+    record Cluster(int[] vehicles, int[] orders) {}
+}
@@ -0,0 +1,37 @@
+package com.greenlink.service;
+
+import java.util.concurrent.TimeUnit;
+
+// Blocking token bucket: refills continuously at permitsPerSecond, holds at most `burst` tokens.
+// A caller takes a token immediately, running into debt when none is left, and then sleeps until
+// its token would have been refilled, so waiters are served in arrival order at the configured rate.
+final class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double burst;
+    private double tokens;
+    private long refilledAt;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        this.permitsPerNano = permitsPerSecond / 1e9;
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.refilledAt = System.nanoTime();
+    }
+
+    void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    // Takes one token and returns how long the caller has to wait for it.
+    synchronized long reserve() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * permitsPerNano);
+        refilledAt = now;
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / permitsPerNano);
+    }
+}
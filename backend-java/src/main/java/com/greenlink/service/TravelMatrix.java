@@ -0,0 +1,49 @@
+package com.greenlink.service;
+
+// Row-major rows x cols travel matrix: durations in seconds, distances in meters.
+public final class TravelMatrix {
+
+    private final int rows;
+    private final int cols;
+    private final float[] durations;
+    private final float[] distances;
+
+    TravelMatrix(int rows, int cols, float[] durations, float[] distances) {
+        this.rows = rows;
+        this.cols = cols;
+        this.durations = durations;
+        this.distances = distances;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int cols() {
+        return cols;
+    }
+
+    public float duration(int row, int col) {
+        return durations[row * cols + col];
+    }
+
+    public float distance(int row, int col) {
+        return distances[row * cols + col];
+    }
+
+    public double[] distancesAsDouble() {
+        double[] result = new double[distances.length];
+        for (int i = 0; i < distances.length; i++) {
+            result[i] = distances[i];
+        }
+        return result;
+    }
+
+    public double[] durationsAsDouble() {
+        double[] result = new double[durations.length];
+        for (int i = 0; i < durations.length; i++) {
+            result[i] = durations[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+package com.greenlink.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Dense, process-wide cache of travel times between known locations.
+// Locations are keyed by coordinates rounded to 5 decimals (~1 m) and mapped to slots;
+// cells live in two row-major float[] squares (NaN = unknown) that grow up to maxSlots.
+// When the slot table is full the whole cache is dropped and a new generation starts.
+final class TravelMatrixCache {
+
+    private static final int INITIAL_SLOTS = 256;
+
+    private final int maxSlots;
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private int capacity;
+    private float[] durations;
+    private float[] distances;
+    private long generation;
+
+    TravelMatrixCache(int maxSlots) {
+        this.maxSlots = maxSlots;
+        reset();
+    }
+
+    static long key(double latitude, double longitude) {
+        long lat = Math.round(latitude * 1e5);
+        long lon = Math.round(longitude * 1e5);
+        return (lat << 32) | (lon & 0xffffffffL);
+    }
+
+    static double keyLatitude(long key) {
+        return (key >> 32) / 1e5;
+    }
+
+    static double keyLongitude(long key) {
+        return ((int) key) / 1e5;
+    }
+
+    int maxSlots() {
+        return maxSlots;
+    }
+
+    // Maps row and column keys to slots; returns null when they cannot all fit in the cache.
+    synchronized Slots resolve(long[] rowKeys, long[] colKeys) {
+        Set<Long> distinct = new HashSet<>();
+        int missing = 0;
+        for (long[] keys : new long[][] { rowKeys, colKeys }) {
+            for (long key : keys) {
+                if (distinct.add(key) && !slots.containsKey(key)) {
+                    missing++;
+                }
+            }
+        }
+        if (distinct.size() > maxSlots) {
+            return null;
+        }
+        if (slots.size() + missing > maxSlots) {
+            reset();
+        }
+        return new Slots(slotsFor(rowKeys), slotsFor(colKeys), generation);
+    }
+
+    private int[] slotsFor(long[] keys) {
+        int[] result = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            Integer slot = slots.get(keys[i]);
+            if (slot == null) {
+                slot = slots.size();
+                ensureCapacity(slot + 1);
+                slots.put(keys[i], slot);
+            }
+            result[i] = slot;
+        }
+        return result;
+    }
+
+    // Copies known cells into the target arrays and flags the missing ones.
+    // Returns the number of missing cells, or -1 if the cache was reset since resolve().
+    synchronized int read(Slots resolved, float[] targetDurations, float[] targetDistances, boolean[] missingCells) {
+        if (resolved.generation() != generation) {
+            return -1;
+        }
+        int missing = 0;
+        int[] rowSlots = resolved.rows();
+        int[] colSlots = resolved.cols();
+        int cols = colSlots.length;
+        for (int i = 0; i < rowSlots.length; i++) {
+            int base = rowSlots[i] * capacity;
+            for (int j = 0; j < cols; j++) {
+                float duration = durations[base + colSlots[j]];
+                if (Float.isNaN(duration)) {
+                    missingCells[i * cols + j] = true;
+                    missing++;
+                    continue;
+                }
+                targetDurations[i * cols + j] = duration;
+                targetDistances[i * cols + j] = distances[base + colSlots[j]];
+            }
+        }
+        return missing;
+    }
+
+    // Writes are dropped if the cache was reset since the caller resolved its slots.
+    synchronized void write(long expectedGeneration, int from, int to, float duration, float distance) {
+        if (expectedGeneration != generation) {
+            return;
+        }
+        durations[from * capacity + to] = duration;
+        distances[from * capacity + to] = distance;
+    }
+
+    record Slots(int[] rows, int[] cols, long generation) {}
+
+    private void reset() {
+        slots.clear();
+        capacity = Math.min(INITIAL_SLOTS, maxSlots);
+        durations = new float[capacity * capacity];
+        distances = new float[capacity * capacity];
+        Arrays.fill(durations, Float.NaN);
+        generation++;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= capacity) {
+            return;
+        }
+        int grown = Math.min(maxSlots, Math.max(needed, capacity * 2));
+        float[] newDurations = new float[grown * grown];
+        float[] newDistances = new float[grown * grown];
+        Arrays.fill(newDurations, Float.NaN);
+        for (int row = 0; row < capacity; row++) {
+            System.arraycopy(durations, row * capacity, newDurations, row * grown, capacity);
+            System.arraycopy(distances, row * capacity, newDistances, row * grown, capacity);
+        }
+        durations = newDurations;
+        distances = newDistances;
+        capacity = grown;
+    }
+}
@@ -0,0 +1,358 @@
+package com.greenlink.service;
+
+import com.greenlink.config.IoThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Builds duration/distance matrices from OSRM /table requests.
+// Large matrices are split into chunkSize x chunkSize blocks that run in parallel, and every
+// answered cell is kept in a TravelMatrixCache so repeated optimizations and ETA polls are local.
+@Service
+public class TravelMatrixService {
+
+    private static final Logger log = LoggerFactory.getLogger(TravelMatrixService.class);
+
+    static final double EARTH_RADIUS_METERS = 6_371_000.0;
+    // Used when OSRM is unavailable: straight-line distance at urban driving speed (30 km/h)
+    private static final double FALLBACK_SPEED_MPS = 30.0 / 3.6;
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(3);
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(20);
+
+    private final RestClient restClient;
+    private final int chunkSize;
+    private final TravelMatrixCache cache;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
+    // Cells filled with the straight-line estimate (OSRM down, unroutable or not configured)
+    private final Counter estimatedCells;
+
+    public TravelMatrixService(
+            @Value("${app.osrm.base-url:}") String osrmBaseUrl,
+            @Value("${app.osrm.table-chunk-size:100}") int chunkSize,
+            @Value("${app.osrm.table-parallelism:4}") int parallelism,
+            @Value("${app.osrm.matrix-cache-slots:2048}") int cacheSlots,
+            IoThreads ioThreads,
+            MeterRegistry meterRegistry
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.estimatedCells = meterRegistry.counter("greenlink.osrm.estimated_cells");
+        if (osrmBaseUrl == null || osrmBaseUrl.isBlank()) {
+            this.restClient = null;
+        } else {
+            HttpClient httpClient = ioThreads.httpClientBuilder()
+                    .connectTimeout(CONNECT_TIMEOUT)
+                    .build();
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            requestFactory.setReadTimeout(READ_TIMEOUT);
+
+            this.restClient = RestClient.builder()
+                    .baseUrl(osrmBaseUrl)
+                    .requestFactory(requestFactory)
+                    .build();
+        }
+        this.chunkSize = Math.max(2, chunkSize);
+        this.cache = new TravelMatrixCache(Math.max(2, cacheSlots));
+        this.executor = ioThreads.fixedPool("osrm-table", parallelism);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public TravelMatrix build(double[] latitudes, double[] longitudes) {
+        return build(latitudes, longitudes, latitudes, longitudes);
+    }
+
+    public TravelMatrix build(double[] sourceLatitudes, double[] sourceLongitudes,
+                              double[] destinationLatitudes, double[] destinationLongitudes) {
+        int rows = sourceLatitudes.length;
+        int cols = destinationLatitudes.length;
+        float[] durations = new float[rows * cols];
+        float[] distances = new float[rows * cols];
+        boolean[] missing = new boolean[rows * cols];
+
+        long[] rowKeys = keys(sourceLatitudes, sourceLongitudes);
+        long[] colKeys = keys(destinationLatitudes, destinationLongitudes);
+
+        TravelMatrixCache.Slots slots = cache.resolve(rowKeys, colKeys);
+        int missingCount = slots != null ? cache.read(slots, durations, distances, missing) : -1;
+        if (missingCount < 0) {
+            // Too many distinct points to cache (or the cache was just reset): fetch everything directly.
+            slots = null;
+            Arrays.fill(missing, true);
+            missingCount = rows * cols;
+        }
+
+        if (missingCount > 0) {
+            fetchMissing(rowKeys, colKeys, missing, durations, distances, slots);
+        }
+        return new TravelMatrix(rows, cols, durations, distances);
+    }
+
+    // Travel seconds between consecutive points (legs.length == points - 1).
+    public float[] legDurations(double[] latitudes, double[] longitudes) {
+        if (latitudes.length < 2) {
+            return new float[0];
+        }
+        TravelMatrix matrix = build(latitudes, longitudes);
+        float[] legs = new float[latitudes.length - 1];
+        for (int i = 0; i < legs.length; i++) {
+            legs[i] = matrix.duration(i, i + 1);
+        }
+        return legs;
+    }
+
+    // Road meters between consecutive points (legs.length == points - 1).
+    public float[] legDistances(double[] latitudes, double[] longitudes) {
+        if (latitudes.length < 2) {
+            return new float[0];
+        }
+        TravelMatrix matrix = build(latitudes, longitudes);
+        float[] legs = new float[latitudes.length - 1];
+        for (int i = 0; i < legs.length; i++) {
+            legs[i] = matrix.distance(i, i + 1);
+        }
+        return legs;
+    }
+
+    private void fetchMissing(long[] rowKeys, long[] colKeys, boolean[] missing,
+                              float[] durations, float[] distances, TravelMatrixCache.Slots slots) {
+        // Work on distinct coordinates only: a fleet parked at one depot is a single OSRM point.
+        int[] rowIndex = new int[rowKeys.length];
+        int[] colIndex = new int[colKeys.length];
+        long[] distinctRows = distinct(rowKeys, rowIndex);
+        long[] distinctCols = distinct(colKeys, colIndex);
+        int distinctColCount = distinctCols.length;
+
+        boolean[] distinctMissing = new boolean[distinctRows.length * distinctColCount];
+        for (int i = 0; i < rowKeys.length; i++) {
+            for (int j = 0; j < colKeys.length; j++) {
+                if (missing[i * colKeys.length + j]) {
+                    distinctMissing[rowIndex[i] * distinctColCount + colIndex[j]] = true;
+                }
+            }
+        }
+
+        int[] distinctRowSlots = slots != null ? distinctSlots(slots.rows(), rowIndex, distinctRows.length) : null;
+        int[] distinctColSlots = slots != null ? distinctSlots(slots.cols(), colIndex, distinctColCount) : null;
+
+        float[] blockDurations = new float[distinctMissing.length];
+        float[] blockDistances = new float[distinctMissing.length];
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+        for (int r0 = 0; r0 < distinctRows.length; r0 += chunkSize) {
+            for (int c0 = 0; c0 < distinctColCount; c0 += chunkSize) {
+                int r1 = Math.min(distinctRows.length, r0 + chunkSize);
+                int c1 = Math.min(distinctColCount, c0 + chunkSize);
+                if (!anyMissing(distinctMissing, distinctColCount, r0, r1, c0, c1)) {
+                    continue;
+                }
+                int fromRow = r0;
+                int fromCol = c0;
+                pending.add(CompletableFuture.runAsync(() -> fillBlock(
+                        distinctRows, distinctCols, fromRow, r1, fromCol, c1,
+                        blockDurations, blockDistances, distinctRowSlots, distinctColSlots,
+                        slots != null ? slots.generation() : -1
+                ), executor));
+            }
+        }
+        CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+
+        for (int i = 0; i < rowKeys.length; i++) {
+            for (int j = 0; j < colKeys.length; j++) {
+                int cell = i * colKeys.length + j;
+                if (missing[cell]) {
+                    int distinctCell = rowIndex[i] * distinctColCount + colIndex[j];
+                    durations[cell] = blockDurations[distinctCell];
+                    distances[cell] = blockDistances[distinctCell];
+                }
+            }
+        }
+    }
+
+    private void fillBlock(long[] rowKeys, long[] colKeys, int r0, int r1, int c0, int c1,
+                           float[] durations, float[] distances, int[] rowSlots, int[] colSlots, long generation) {
+        int cols = colKeys.length;
+        OsrmTableResponse response = fetchTable(rowKeys, colKeys, r0, r1, c0, c1);
+        int estimated = 0;
+
+        for (int i = r0; i < r1; i++) {
+            for (int j = c0; j < c1; j++) {
+                Double duration = response != null ? valueAt(response.durations, i - r0, j - c0) : null;
+                Double distance = response != null ? valueAt(response.distances, i - r0, j - c0) : null;
+                int cell = i * cols + j;
+
+                if (duration == null || distance == null) {
+                    // Unroutable pair or OSRM failure: estimate, but don't cache the guess.
+                    double meters = haversineMeters(
+                            TravelMatrixCache.keyLatitude(rowKeys[i]), TravelMatrixCache.keyLongitude(rowKeys[i]),
+                            TravelMatrixCache.keyLatitude(colKeys[j]), TravelMatrixCache.keyLongitude(colKeys[j])
+                    );
+                    distances[cell] = (float) meters;
+                    durations[cell] = (float) (meters / FALLBACK_SPEED_MPS);
+                    estimated++;
+                    continue;
+                }
+
+                durations[cell] = duration.floatValue();
+                distances[cell] = distance.floatValue();
+                if (rowSlots != null) {
+                    cache.write(generation, rowSlots[i], colSlots[j], durations[cell], distances[cell]);
+                }
+            }
+        }
+        if (estimated > 0) {
+            estimatedCells.increment(estimated);
+        }
+    }
+
+    private OsrmTableResponse fetchTable(long[] rowKeys, long[] colKeys, int r0, int r1, int c0, int c1) {
+        if (restClient == null) {
+            return null;
+        }
+
+        // One coordinate list per request; points that are both source and destination are sent once.
+        Map<Long, Integer> coordinateIndex = new HashMap<>();
+        StringJoiner coordinates = new StringJoiner(";");
+        StringJoiner sources = new StringJoiner(";");
+        StringJoiner destinations = new StringJoiner(";");
+        for (int i = r0; i < r1; i++) {
+            sources.add(Integer.toString(indexOf(rowKeys[i], coordinateIndex, coordinates)));
+        }
+        for (int j = c0; j < c1; j++) {
+            destinations.add(Integer.toString(indexOf(colKeys[j], coordinateIndex, coordinates)));
+        }
+
+        String tablePath = "/table/v1/driving/" + coordinates
+                + "?sources=" + sources
+                + "&destinations=" + destinations
+                + "&annotations=duration,distance";
+        long start = System.nanoTime();
+        try {
+            OsrmTableResponse response = restClient.get()
+                    .uri(tablePath)
+                    .retrieve()
+                    .body(OsrmTableResponse.class);
+            if (response == null || !"Ok".equals(response.code)) {
+                recordRequest("rejected", start);
+                log.warn("OSRM table request returned {}", response != null ? response.code : "no body");
+                return null;
+            }
+            recordRequest("success", start);
+            return response;
+        } catch (Exception ex) {
+            recordRequest("error", start);
+            log.warn("OSRM table request failed ({} x {}): {}", r1 - r0, c1 - c0, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void recordRequest(String outcome, long startNanos) {
+        Timer.builder("greenlink.osrm.requests")
+                .tag("endpoint", "table")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static int indexOf(long key, Map<Long, Integer> coordinateIndex, StringJoiner coordinates) {
+        Integer index = coordinateIndex.get(key);
+        if (index == null) {
+            index = coordinateIndex.size();
+            coordinateIndex.put(key, index);
+            coordinates.add(String.format(
+                    Locale.US,
+                    "%.5f,%.5f",
+                    TravelMatrixCache.keyLongitude(key),
+                    TravelMatrixCache.keyLatitude(key)
+            ));
+        }
+        return index;
+    }
+
+    private static Double valueAt(List<List<Double>> rows, int row, int col) {
+        if (rows == null || row >= rows.size()) {
+            return null;
+        }
+        List<Double> values = rows.get(row);
+        return values != null && col < values.size() ? values.get(col) : null;
+    }
+
+    private static boolean anyMissing(boolean[] missing, int cols, int r0, int r1, int c0, int c1) {
+        for (int i = r0; i < r1; i++) {
+            for (int j = c0; j < c1; j++) {
+                if (missing[i * cols + j]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static long[] keys(double[] latitudes, double[] longitudes) {
+        long[] keys = new long[latitudes.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = TravelMatrixCache.key(latitudes[i], longitudes[i]);
+        }
+        return keys;
+    }
+
+    private static long[] distinct(long[] keys, int[] indexOut) {
+        Map<Long, Integer> seen = new HashMap<>();
+        long[] result = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            Integer index = seen.get(keys[i]);
+            if (index == null) {
+                index = seen.size();
+                seen.put(keys[i], index);
+                result[index] = keys[i];
+            }
+            indexOut[i] = index;
+        }
+        return Arrays.copyOf(result, seen.size());
+    }
+
+    private static int[] distinctSlots(int[] slots, int[] index, int distinctCount) {
+        int[] result = new int[distinctCount];
+        for (int i = 0; i < slots.length; i++) {
+            result[index[i]] = slots[i];
+        }
+        return result;
+    }
+
+    static double haversineMeters(double fromLat, double fromLon, double toLat, double toLon) {
+        double sinLat = Math.sin(Math.toRadians(toLat - fromLat) / 2);
+        double sinLon = Math.sin(Math.toRadians(toLon - fromLon) / 2);
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(fromLat)) * Math.cos(Math.toRadians(toLat)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    private static class OsrmTableResponse {
+        public String code;
+        public List<List<Double>> durations;
+        public List<List<Double>> distances;
+    }
+}
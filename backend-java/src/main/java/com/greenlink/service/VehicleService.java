@@ -1,6 +1,7 @@
 package com.greenlink.service;
 
 import com.greenlink.model.Vehicle;
+import com.greenlink.repository.OrderQueryRepository;
 import com.greenlink.repository.RouteRepository;
 import com.greenlink.repository.VehicleRepository;
 import com.greenlink.security.CurrentUserService;
@@ -9,8 +10,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class VehicleService {
@@ -36,7 +39,27 @@ public class VehicleService {
         return vehicleRepository.findByOrganizationId(currentUserService.requireOrganizationId());
     }
 
-    public Vehicle createVehicle(Vehicle vehicle) {
+    // Vehicles starting within radiusMeters of the point, nearest first.
+    public List<Vehicle> findVehiclesNear(double lat, double lon, double radiusMeters) {
+        if (lat < -90 || lat > 90 || lon < -180 || lon > 180 || !(radiusMeters > 0)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Valid lat, lon and radiusMeters are required.");
+        }
+        OrderQueryRepository.BoundingBox box = OrderQueryRepository.BoundingBox.around(lat, lon, radiusMeters);
+        return vehicleRepository.findStartingWithin(
+                        currentUserService.requireOrganizationId(),
+                        box.minLatitude(), box.maxLatitude(), box.minLongitude(), box.maxLongitude()
+                ).stream()
+                .filter(vehicle -> distanceMeters(vehicle, lat, lon) <= radiusMeters)
+                .sorted(Comparator.comparingDouble(vehicle -> distanceMeters(vehicle, lat, lon)))
+                .toList();
+    }
+
+    private static double distanceMeters(Vehicle vehicle, double lat, double lon) {
+        return TravelMatrixService.haversineMeters(lat, lon, vehicle.getStartLat(), vehicle.getStartLon());
+    }
+
+    // Geocoding runs on the geocoding executor; the returned future completes once the vehicle is saved.
+    public CompletableFuture<Vehicle> createVehicle(Vehicle vehicle) {
         vehicle.setOrganizationId(currentUserService.requireOrganizationId());
 
         String address = vehicle.getAddress();
@@ -47,22 +70,29 @@ public class VehicleService {
         Double lat = vehicle.getStartLat();
         Double lon = vehicle.getStartLon();
 
+        CompletableFuture<Vehicle> located = CompletableFuture.completedFuture(vehicle);
         if ((lat == null || lon == null) && address != null && !address.isBlank()) {
-            GeocodingService.GeocodeResult result = geocodingService.geocodeAddress(address);
-            if (result == null) {
-                throw new ResponseStatusException(
-                        HttpStatus.BAD_REQUEST,
-                        "Unable to geocode the provided address."
-                );
-            }
+            located = geocodingService.geocodeAddressAsync(address).thenApply(result -> {
+                if (result == null) {
+                    throw new ResponseStatusException(
+                            HttpStatus.BAD_REQUEST,
+                            "Unable to geocode the provided address."
+                    );
+                }
 
-            vehicle.setStartLat(result.latitude());
-            vehicle.setStartLon(result.longitude());
-            if (result.address() != null && !result.address().isBlank()) {
-                vehicle.setAddress(result.address());
-            }
+                vehicle.setStartLat(result.latitude());
+                vehicle.setStartLon(result.longitude());
+                if (result.address() != null && !result.address().isBlank()) {
+                    vehicle.setAddress(result.address());
+                }
+                return vehicle;
+            });
         }
 
+        return located.thenCompose(this::resolveAddress).thenApply(vehicleRepository::save);
+    }
+
+    private CompletableFuture<Vehicle> resolveAddress(Vehicle vehicle) {
         if (vehicle.getStartLat() == null || vehicle.getStartLon() == null) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST,
@@ -71,10 +101,13 @@ public class VehicleService {
         }
 
         if (vehicle.getAddress() == null || vehicle.getAddress().isBlank()) {
-            vehicle.setAddress(geocodingService.getAddress(vehicle.getStartLat(), vehicle.getStartLon()));
+            return geocodingService.getAddressAsync(vehicle.getStartLat(), vehicle.getStartLon())
+                    .thenApply(resolved -> {
+                        vehicle.setAddress(resolved);
+                        return vehicle;
+                    });
         }
-
-        return vehicleRepository.save(vehicle);
+        return CompletableFuture.completedFuture(vehicle);
     }
 
     @Transactional
@@ -89,7 +122,9 @@ public class VehicleService {
                 if (route.getOrders() != null) {
                     for (var order : route.getOrders()) {
                         order.setRoute(null);
-                        order.setStatus("UNASSIGNED");
+                        if (!"DELIVERED".equals(order.getStatus())) {
+                            order.setStatus("UNASSIGNED");
+                        }
                     }
                 }
                 route.setVehicle(null);
@@ -0,0 +1,183 @@
+package com.greenlink.service;
+
+import java.util.Arrays;
+
+// Primitive, index-based view of a routing problem used by the native solver.
+// Nodes 0..vehicleCount-1 are vehicle depots, the rest are orders. Instances with delivery windows
+// or vehicle shifts also carry travel times and the windows (see RouteSchedule).
+final class VrpInstance {
+
+    private static final int DEFAULT_NEIGHBOURS = 30;
+
+    final int vehicleCount;
+    final int orderCount;
+    final int size;
+
+    // Row-major size x size travel cost (meters)
+    final double[] distance;
+    // Demand per node (0 for depots)
+    final double[] demand;
+    // Capacity per vehicle
+    final double[] capacity;
+    // Row-major size x size travel time (seconds) and windows per node; both null when untimed
+    final double[] duration;
+    final RouteSchedule.Windows windows;
+
+    private final RouteSchedule.TravelTime travelTime = this::time;
+    private int[][] neighbours;
+
+    VrpInstance(int vehicleCount, int orderCount, double[] distance, double[] demand, double[] capacity) {
+        this(vehicleCount, orderCount, distance, demand, capacity, null, null);
+    }
+
+    VrpInstance(int vehicleCount, int orderCount, double[] distance, double[] demand, double[] capacity,
+                double[] duration, RouteSchedule.Windows windows) {
+        this.vehicleCount = vehicleCount;
+        this.orderCount = orderCount;
+        this.size = vehicleCount + orderCount;
+        if (distance.length != size * size) {
+            throw new IllegalArgumentException("Distance matrix must be " + size + "x" + size);
+        }
+        this.distance = distance;
+        this.demand = demand;
+        this.capacity = capacity;
+        if ((duration == null) != (windows == null) || (duration != null && duration.length != size * size)) {
+            throw new IllegalArgumentException("Duration matrix must be " + size + "x" + size + " and come with windows");
+        }
+        this.duration = duration;
+        this.windows = windows;
+    }
+
+    double dist(int from, int to) {
+        return distance[from * size + to];
+    }
+
+    boolean timed() {
+        return windows != null;
+    }
+
+    double time(int from, int to) {
+        return duration[from * size + to];
+    }
+
+    RouteSchedule schedule() {
+        return new RouteSchedule(travelTime, windows);
+    }
+
+    // Whether the vehicle's route meets every window and ends within its shift (always true when untimed)
+    boolean onTime(int vehicle, int[] route, int length) {
+        return !timed() || RouteSchedule.isFeasible(travelTime, windows, vehicle,
+                windows.ready()[vehicle], windows.due()[vehicle], route, length);
+    }
+
+    boolean isDepot(int node) {
+        return node < vehicleCount;
+    }
+
+    int orderNode(int orderIndex) {
+        return vehicleCount + orderIndex;
+    }
+
+    int orderIndex(int node) {
+        return node - vehicleCount;
+    }
+
+    // K nearest order nodes for every order node (depot rows are empty), built lazily.
+    int[][] neighbours() {
+        if (neighbours == null) {
+            neighbours = buildNeighbours(Math.min(DEFAULT_NEIGHBOURS, Math.max(0, orderCount - 1)));
+        }
+        return neighbours;
+    }
+
+    private int[][] buildNeighbours(int k) {
+        int[][] result = new int[size][];
+        int[] heap = new int[k];
+        double[] heapCost = new double[k];
+
+        for (int i = 0; i < size; i++) {
+            if (isDepot(i) || k == 0) {
+                result[i] = new int[0];
+                continue;
+            }
+
+            // Bounded max-heap keeps the k cheapest neighbours without sorting the whole row.
+            int count = 0;
+            for (int j = vehicleCount; j < size; j++) {
+                if (j == i) {
+                    continue;
+                }
+                double cost = dist(i, j) + dist(j, i);
+                if (count < k) {
+                    heap[count] = j;
+                    heapCost[count] = cost;
+                    siftUp(heap, heapCost, count++);
+                } else if (cost < heapCost[0]) {
+                    heap[0] = j;
+                    heapCost[0] = cost;
+                    siftDown(heap, heapCost, 0, count);
+                }
+            }
+
+            int[] row = Arrays.copyOf(heap, count);
+            double[] rowCost = Arrays.copyOf(heapCost, count);
+            sortByCost(row, rowCost);
+            result[i] = row;
+        }
+        return result;
+    }
+
+    private static void siftUp(int[] heap, double[] cost, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (cost[parent] >= cost[index]) {
+                return;
+            }
+            swap(heap, cost, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, double[] cost, int index, int count) {
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= count) {
+                return;
+            }
+            int largest = left;
+            int right = left + 1;
+            if (right < count && cost[right] > cost[left]) {
+                largest = right;
+            }
+            if (cost[index] >= cost[largest]) {
+                return;
+            }
+            swap(heap, cost, index, largest);
+            index = largest;
+        }
+    }
+
+    private static void sortByCost(int[] nodes, double[] cost) {
+        for (int i = 1; i < nodes.length; i++) {
+            int node = nodes[i];
+            double value = cost[i];
+            int j = i - 1;
+            while (j >= 0 && cost[j] > value) {
+                nodes[j + 1] = nodes[j];
+                cost[j + 1] = cost[j];
+                j--;
+            }
+            nodes[j + 1] = node;
+            cost[j + 1] = value;
+        }
+    }
+
+    private static void swap(int[] heap, double[] cost, int a, int b) {
+        int node = heap[a];
+        heap[a] = heap[b];
+        heap[b] = node;
+        double value = cost[a];
+        cost[a] = cost[b];
+        cost[b] = value;
+    }
+}
@@ -0,0 +1,19 @@
+-- Persistent tier of the geocoding cache (in-memory LRU sits in front of it)
+
+-- Forward lookups keyed by the normalized address text
+CREATE TABLE geocode_forward_cache (
+    address_key VARCHAR(500) PRIMARY KEY,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    formatted_address VARCHAR(1000),
+    resolved_at TIMESTAMP NOT NULL
+);
+
+-- Reverse lookups keyed by coordinates rounded to 4 decimals (~11 m), stored as integers
+CREATE TABLE geocode_reverse_cache (
+    lat_key INTEGER NOT NULL,
+    lon_key INTEGER NOT NULL,
+    address VARCHAR(1000) NOT NULL,
+    resolved_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (lat_key, lon_key)
+);
@@ -0,0 +1,31 @@
+-- Read model of planned routes: one row per stop in driving order, written when routes are optimized.
+-- Leg values describe the drive into the stop (from the depot for stop 0); planned arrival is
+-- seconds after the route leaves the depot, including service time at the earlier stops.
+CREATE TABLE route_stops (
+    route_id UUID NOT NULL REFERENCES routes(id) ON DELETE CASCADE,
+    stop_index INTEGER NOT NULL,
+    order_id UUID NOT NULL REFERENCES delivery_orders(id) ON DELETE CASCADE,
+    organization_id UUID NOT NULL,
+    planned_arrival_s INTEGER NOT NULL,
+    leg_distance_m DOUBLE PRECISION NOT NULL,
+    leg_duration_s DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (route_id, stop_index)
+);
+
+CREATE INDEX idx_route_stops_order ON route_stops(order_id);
+CREATE INDEX idx_route_stops_org ON route_stops(organization_id);
+
+-- Driver portal resolves its route by vehicle
+CREATE INDEX idx_routes_vehicle_org ON routes(vehicle_id, organization_id);
+
+-- Routes planned before this migration: keep their current order, without leg data until the next run
+INSERT INTO route_stops (route_id, stop_index, order_id, organization_id, planned_arrival_s, leg_distance_m, leg_duration_s)
+SELECT route_id,
+       (row_number() OVER (PARTITION BY route_id ORDER BY created_at, id) - 1)::INTEGER,
+       id,
+       organization_id,
+       0,
+       0,
+       0
+FROM delivery_orders
+WHERE route_id IS NOT NULL;
@@ -0,0 +1,8 @@
+-- Keyset pagination of GET /api/orders: every filter combination walks (created_at, id) in index order.
+-- The organization and route indexes become prefixes of the composite ones.
+CREATE INDEX idx_orders_org_created ON delivery_orders(organization_id, created_at, id);
+CREATE INDEX idx_orders_org_status_created ON delivery_orders(organization_id, status, created_at, id);
+CREATE INDEX idx_orders_route_created ON delivery_orders(route_id, created_at, id);
+
+DROP INDEX idx_orders_org;
+DROP INDEX idx_orders_route_id;
@@ -0,0 +1,30 @@
+-- Order lifecycle: delivered orders are moved out of the hot table by OrderArchiveService.
+ALTER TABLE delivery_orders ADD COLUMN delivered_at TIMESTAMP;
+
+UPDATE delivery_orders
+SET delivered_at = COALESCE(updated_at, created_at)
+WHERE status = 'DELIVERED';
+
+-- Solver input and listings only ever look at open orders
+CREATE INDEX idx_orders_org_open ON delivery_orders(organization_id) WHERE status <> 'DELIVERED';
+CREATE INDEX idx_orders_delivered_at ON delivery_orders(delivered_at) WHERE status = 'DELIVERED';
+
+-- Archive partitioned by month of delivery, each month hash-partitioned by organization.
+-- Monthly partitions are created by the archiver before it moves rows into them.
+CREATE TABLE delivery_orders_history (
+    id UUID NOT NULL,
+    organization_id UUID NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    delivered_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    address VARCHAR(500),
+    weight_kg INTEGER NOT NULL,
+    service_duration_min INTEGER NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    -- No foreign key: routes are replaced on every full optimization
+    route_id UUID,
+    PRIMARY KEY (organization_id, delivered_at, id)
+) PARTITION BY RANGE (delivered_at);
@@ -0,0 +1,6 @@
+-- Proximity lookups (radius, map viewport) on the built-in geometric point type; no PostGIS needed.
+-- Queries must use the same expression, point(longitude, latitude), for the planner to pick these up.
+CREATE INDEX idx_orders_location ON delivery_orders USING gist (point(longitude, latitude));
+
+CREATE INDEX idx_vehicles_start_location ON vehicles USING gist (point(start_lon, start_lat))
+    WHERE start_lat IS NOT NULL AND start_lon IS NOT NULL;
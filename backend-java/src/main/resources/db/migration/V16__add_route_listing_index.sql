@@ -0,0 +1,2 @@
+-- GET /api/routes pages through an organization's routes by id
+CREATE INDEX idx_routes_org_id ON routes(organization_id, id);
@@ -0,0 +1,14 @@
+-- Delivery time windows in minutes after midnight, like vehicles.start_shift_minutes; NULL = any time
+ALTER TABLE delivery_orders
+    ADD COLUMN window_start_min INTEGER,
+    ADD COLUMN window_end_min INTEGER,
+    ADD CONSTRAINT chk_orders_time_window CHECK (
+        (window_start_min IS NULL OR window_start_min BETWEEN 0 AND 1440)
+        AND (window_end_min IS NULL OR window_end_min BETWEEN 0 AND 1440)
+        AND (window_start_min IS NULL OR window_end_min IS NULL OR window_start_min < window_end_min)
+    );
+
+-- Archived orders keep their window (added to every partition)
+ALTER TABLE delivery_orders_history
+    ADD COLUMN window_start_min INTEGER,
+    ADD COLUMN window_end_min INTEGER;
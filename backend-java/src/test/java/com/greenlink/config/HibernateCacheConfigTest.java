@@ -0,0 +1,137 @@
+package com.greenlink.config;
+
+import com.greenlink.dto.DriverRequest;
+import com.greenlink.model.Driver;
+import com.greenlink.model.Vehicle;
+import com.greenlink.security.CurrentUserService;
+import com.greenlink.service.DriverService;
+import com.greenlink.service.VehicleService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+// Runs against the configured database, like the application context test. Not transactional: the query
+// cache is only used and invalidated across committed transactions, so the rows are removed afterwards.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class HibernateCacheConfigTest {
+
+    @Autowired
+    private VehicleService vehicleService;
+    @Autowired
+    private DriverService driverService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @MockitoBean
+    private CurrentUserService currentUserService;
+
+    private final UUID organizationId = UUID.randomUUID();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        when(currentUserService.requireOrganizationId()).thenReturn(organizationId);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void removeRows() {
+        jdbcTemplate.update("DELETE FROM drivers WHERE organization_id = ?", organizationId);
+        jdbcTemplate.update("DELETE FROM vehicles WHERE organization_id = ?", organizationId);
+    }
+
+    @Test
+    void repeatedVehicleListingIsServedFromTheCacheUntilAVehicleIsSaved() {
+        Vehicle first = vehicleService.createVehicle(vehicle("van-1")).join();
+
+        statistics.clear();
+        assertThat(vehicleService.getAllVehicles()).extracting(Vehicle::getId).containsExactly(first.getId());
+        assertThat(queries("vehicles").getMissCount()).isEqualTo(1);
+        assertThat(queries("vehicles").getPutCount()).isEqualTo(1);
+        long entityMisses = entities("vehicles").getMissCount();
+
+        // Ids from the query region, the vehicle itself from the entity region: no database round trip
+        assertThat(vehicleService.getAllVehicles()).extracting(Vehicle::getId).containsExactly(first.getId());
+        assertThat(queries("vehicles").getHitCount()).isEqualTo(1);
+        assertThat(queries("vehicles").getMissCount()).isEqualTo(1);
+        assertThat(entities("vehicles").getMissCount()).isEqualTo(entityMisses);
+
+        Vehicle second = vehicleService.createVehicle(vehicle("van-2")).join();
+
+        statistics.clear();
+        assertThat(vehicleService.getAllVehicles()).extracting(Vehicle::getId)
+                .containsExactlyInAnyOrder(first.getId(), second.getId());
+        assertThat(queries("vehicles").getHitCount()).isZero();
+        assertThat(queries("vehicles").getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    void driverSaveInvalidatesTheCachedListing() {
+        Driver driver = driverService.createDriver(driverRequest("Ada"));
+
+        statistics.clear();
+        driverService.getAllDrivers();
+        long entityMisses = entities("drivers").getMissCount();
+        assertThat(driverService.getAllDrivers()).extracting(Driver::getName).containsExactly("Ada");
+        assertThat(queries("drivers").getHitCount()).isEqualTo(1);
+        assertThat(queries("drivers").getMissCount()).isEqualTo(1);
+        assertThat(entities("drivers").getMissCount()).isEqualTo(entityMisses);
+
+        DriverRequest rename = new DriverRequest();
+        rename.setName("Grace");
+        driverService.updateDriver(driver.getId(), rename);
+
+        statistics.clear();
+        List<Driver> drivers = driverService.getAllDrivers();
+        assertThat(drivers).extracting(Driver::getName).containsExactly("Grace");
+        assertThat(queries("drivers").getHitCount()).isZero();
+        assertThat(queries("drivers").getMissCount()).isEqualTo(1);
+    }
+
+    // Per region, so other work sharing the session factory does not affect the counts
+    private CacheRegionStatistics queries(String table) {
+        return statistics.getQueryRegionStatistics(table + ".queries");
+    }
+
+    private CacheRegionStatistics entities(String table) {
+        return statistics.getDomainDataRegionStatistics(table);
+    }
+
+    private static Vehicle vehicle(String name) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setName(name);
+        vehicle.setCapacityKg(1000);
+        vehicle.setStartShiftMinutes(480);
+        vehicle.setEndShiftMinutes(1020);
+        // Coordinates and address given, so nothing is geocoded
+        vehicle.setStartLat(40.70);
+        vehicle.setStartLon(-74.00);
+        vehicle.setAddress("Depot");
+        return vehicle;
+    }
+
+    private static DriverRequest driverRequest(String name) {
+        DriverRequest request = new DriverRequest();
+        request.setName(name);
+        request.setLicenseId("L-" + name);
+        request.setPhone("555-0100");
+        request.setHomeBase("Depot");
+        request.setStatus("AVAILABLE");
+        return request;
+    }
+}
@@ -0,0 +1,26 @@
+package com.greenlink.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderArchiveRepositoryTest {
+
+    @Test
+    void monthPartitionCoversTheMonthAndIsSplitByOrganization() {
+        List<String> statements = OrderArchiveRepository.monthPartitionStatements(YearMonth.of(2025, 12));
+
+        assertThat(statements).hasSize(OrderArchiveRepository.ORGANIZATION_PARTITIONS + 1);
+        assertThat(statements.get(0)).isEqualTo(
+                "CREATE TABLE IF NOT EXISTS delivery_orders_history_2025_12 PARTITION OF delivery_orders_history "
+                        + "FOR VALUES FROM ('2025-12-01') TO ('2026-01-01') PARTITION BY HASH (organization_id)");
+        assertThat(statements.get(1)).isEqualTo(
+                "CREATE TABLE IF NOT EXISTS delivery_orders_history_2025_12_h0 PARTITION OF delivery_orders_history_2025_12 "
+                        + "FOR VALUES WITH (MODULUS 8, REMAINDER 0)");
+        assertThat(statements.get(8)).endsWith("_h7 PARTITION OF delivery_orders_history_2025_12 "
+                + "FOR VALUES WITH (MODULUS 8, REMAINDER 7)");
+    }
+}
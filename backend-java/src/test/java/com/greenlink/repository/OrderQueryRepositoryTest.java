@@ -0,0 +1,44 @@
+package com.greenlink.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs against the configured database, like the application context test; every test rolls back.
+@SpringBootTest
+@Transactional
+class OrderQueryRepositoryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private OrderQueryRepository orderQueryRepository;
+
+    private final UUID organizationId = UUID.randomUUID();
+
+    @Test
+    void countsTheOrganizationsOrdersPerStatus() {
+        insertOrder(organizationId, "UNASSIGNED");
+        insertOrder(organizationId, "UNASSIGNED");
+        insertOrder(organizationId, "DELIVERED");
+        insertOrder(UUID.randomUUID(), "UNASSIGNED");
+
+        assertThat(orderQueryRepository.countByStatus(organizationId))
+                .isEqualTo(Map.of("UNASSIGNED", 2L, "DELIVERED", 1L));
+        assertThat(orderQueryRepository.countByStatus(UUID.randomUUID())).isEmpty();
+    }
+
+    private void insertOrder(UUID organization, String status) {
+        jdbcTemplate.update("INSERT INTO delivery_orders (id, organization_id, created_at, latitude, longitude, "
+                        + "weight_kg, service_duration_min, status) "
+                        + "VALUES (?, ?, now(), 40.71, -74.00, 10, 5, ?)",
+                UUID.randomUUID(), organization, status);
+    }
+}
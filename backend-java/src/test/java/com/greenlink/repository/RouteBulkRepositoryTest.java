@@ -0,0 +1,106 @@
+package com.greenlink.repository;
+
+import com.greenlink.model.Route;
+import com.greenlink.model.Vehicle;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs against the configured database, like the application context test; every test rolls back.
+@SpringBootTest
+@Transactional
+class RouteBulkRepositoryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private RouteBulkRepository routeBulkRepository;
+    @Autowired
+    private RouteStopRepository routeStopRepository;
+
+    private final UUID organizationId = UUID.randomUUID();
+
+    @Test
+    void fullSaveKeepsAnOrderDeliveredBetweenLoadAndSave() {
+        UUID vehicleId = insertVehicle();
+        UUID oldRouteId = insertRoute(vehicleId);
+        UUID open = insertOrder(oldRouteId);
+        UUID delivered = insertOrder(oldRouteId);
+
+        // Both orders were loaded and planned; the driver delivers one while the solver runs
+        jdbcTemplate.update("UPDATE delivery_orders SET status = 'DELIVERED' WHERE id = ?", delivered);
+
+        routeBulkRepository.resetAssignments(organizationId);
+        routeBulkRepository.deleteRoutes(organizationId);
+        Route route = newRoute(vehicleId);
+        routeBulkRepository.insertRoutes(List.of(route));
+        int assigned = routeBulkRepository.assignOrders(
+                organizationId,
+                new UUID[]{open, delivered},
+                new UUID[]{route.getId(), route.getId()},
+                "ASSIGNED"
+        );
+        int stops = routeStopRepository.insertStops(organizationId, List.of(
+                new RouteStopRepository.StopRow(route.getId(), 0, open, 60, 500, 60),
+                new RouteStopRepository.StopRow(route.getId(), 1, delivered, 180, 700, 90)
+        ));
+
+        assertThat(assigned).isEqualTo(1);
+        assertThat(stops).isEqualTo(1);
+        Map<String, Object> deliveredRow = jdbcTemplate.queryForMap(
+                "SELECT status, route_id FROM delivery_orders WHERE id = ?", delivered);
+        assertThat(deliveredRow.get("status")).isEqualTo("DELIVERED");
+        assertThat(deliveredRow.get("route_id")).isNull();
+        assertThat(jdbcTemplate.queryForObject("SELECT route_id FROM delivery_orders WHERE id = ?", UUID.class, open))
+                .isEqualTo(route.getId());
+        assertThat(jdbcTemplate.queryForList("SELECT order_id FROM route_stops WHERE route_id = ?", UUID.class,
+                route.getId())).containsExactly(open);
+    }
+
+    private UUID insertVehicle() {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO vehicles (id, organization_id, created_at, name, capacity_kg, "
+                        + "start_shift_minutes, end_shift_minutes, start_lat, start_lon) "
+                        + "VALUES (?, ?, now(), 'van-1', 1000, 480, 1020, 40.70, -74.00)",
+                id, organizationId);
+        return id;
+    }
+
+    private UUID insertRoute(UUID vehicleId) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO routes (id, organization_id, status, vehicle_id, created_at, updated_at) "
+                + "VALUES (?, ?, 'PLANNED', ?, now(), now())", id, organizationId, vehicleId);
+        return id;
+    }
+
+    private UUID insertOrder(UUID routeId) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO delivery_orders (id, organization_id, created_at, latitude, longitude, "
+                        + "weight_kg, service_duration_min, status, route_id) "
+                        + "VALUES (?, ?, now(), 40.71, -74.00, 10, 5, 'ASSIGNED', ?)",
+                id, organizationId, routeId);
+        return id;
+    }
+
+    private Route newRoute(UUID vehicleId) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(vehicleId);
+        Route route = new Route();
+        route.setId(UUID.randomUUID());
+        route.setOrganizationId(organizationId);
+        route.setStatus("PLANNED");
+        route.setVehicle(vehicle);
+        route.setCreatedAt(LocalDateTime.now());
+        route.setUpdatedAt(LocalDateTime.now());
+        return route;
+    }
+}
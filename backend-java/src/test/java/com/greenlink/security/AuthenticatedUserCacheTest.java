@@ -0,0 +1,57 @@
+package com.greenlink.security;
+
+import com.greenlink.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthenticatedUserCacheTest {
+
+    @Test
+    void loadsOncePerUsernameUntilInvalidated() {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache(60, 100);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, UserDetails> loader = username -> {
+            loads.incrementAndGet();
+            User user = new User();
+            user.setUsername(username);
+            return user;
+        };
+
+        UserDetails first = cache.get("driver@example.com", loader);
+        UserDetails second = cache.get("driver@example.com", loader);
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+
+        cache.invalidate("driver@example.com");
+        cache.get("driver@example.com", loader);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSize() {
+        AuthenticatedUserCache cache = new AuthenticatedUserCache(60, 2);
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, UserDetails> loader = username -> {
+            loads.incrementAndGet();
+            User user = new User();
+            user.setUsername(username);
+            return user;
+        };
+
+        cache.get("a", loader);
+        cache.get("b", loader);
+        cache.get("a", loader);
+        cache.get("c", loader);
+        assertThat(loads).hasValue(3);
+
+        cache.get("a", loader);
+        assertThat(loads).hasValue(3);
+        cache.get("b", loader);
+        assertThat(loads).hasValue(4);
+    }
+}
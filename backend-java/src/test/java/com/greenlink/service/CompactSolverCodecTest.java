@@ -0,0 +1,116 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.OrderDTO;
+import com.greenlink.dto.RouteRequest;
+import com.greenlink.dto.RouteResponse;
+import com.greenlink.dto.VehicleDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactSolverCodecTest {
+
+    private static final RouteRequest REQUEST = new RouteRequest(
+            List.of(
+                    new OrderDTO("order-a", 40.712345, -74.0012, 3.5, 5.0),
+                    new OrderDTO("order-b", 40.72, -73.99, 1.0, 2.0),
+                    new OrderDTO("order-c", 40.73, -73.98, 2.0, 4.0)
+            ),
+            List.of(
+                    new VehicleDTO("van-1", 100.0, 40.7, -74.0),
+                    new VehicleDTO("van-2", null, null, null)
+            )
+    );
+
+    @Test
+    void writesColumnsInFixedPointAndPlaceholders() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompactSolverCodec.writeRequest(REQUEST, bytes);
+
+        // Header plus 16 bytes per order and 12 per vehicle
+        assertThat(bytes.size()).isEqualTo(12 + 3 * 16 + 2 * 12);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        assertThat(in.readInt()).isEqualTo(CompactSolverCodec.REQUEST_MAGIC);
+        assertThat(in.readInt()).isEqualTo(3);
+        assertThat(in.readInt()).isEqualTo(2);
+        assertThat(in.readInt()).isEqualTo(40_712_345);
+        in.skipBytes(2 * 4);
+        assertThat(in.readInt()).isEqualTo(-74_001_200);
+        in.skipBytes(2 * 4);
+        assertThat(in.readFloat()).isEqualTo(3.5f);
+        in.skipBytes(2 * 4 + 3 * 4);
+        assertThat(in.readInt()).isEqualTo(40_700_000);
+        assertThat(in.readInt()).isEqualTo(CompactSolverCodec.NO_COORDINATE);
+        in.skipBytes(2 * 4);
+        assertThat(in.readFloat()).isEqualTo(100f);
+        assertThat(in.readFloat()).isNaN();
+    }
+
+    @Test
+    void appendsTheTimeLimitOnlyWhenSet() throws IOException {
+        RouteRequest limited = new RouteRequest(REQUEST.getOrders(), REQUEST.getVehicles(), 1500L);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CompactSolverCodec.writeRequest(limited, bytes);
+
+        assertThat(bytes.size()).isEqualTo(12 + 3 * 16 + 2 * 12 + 4);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        in.skipBytes(12 + 3 * 16 + 2 * 12);
+        assertThat(in.readInt()).isEqualTo(1500);
+    }
+
+    @Test
+    void readsStopIndexesBackAsRequestIds() throws IOException {
+        byte[] body = response(out -> {
+            out.writeInt(1);
+            out.writeInt(1);
+            out.writeInt(3);
+            out.writeInt(2);
+            out.writeInt(0);
+            out.writeInt(1);
+        });
+
+        RouteResponse response = CompactSolverCodec.readResponse(new ByteArrayInputStream(body), REQUEST);
+
+        assertThat(response.getRoutes()).hasSize(1);
+        RouteResponse.RoutePlan plan = response.getRoutes().get(0);
+        assertThat(plan.getVehicleId()).isEqualTo("van-2");
+        assertThat(plan.getStops()).extracting(RouteResponse.Stop::id).containsExactly("order-c", "order-a", "order-b");
+    }
+
+    @Test
+    void rejectsUnknownOrderIndex() {
+        byte[] body = response(out -> {
+            out.writeInt(1);
+            out.writeInt(0);
+            out.writeInt(1);
+            out.writeInt(7);
+        });
+
+        assertThatThrownBy(() -> CompactSolverCodec.readResponse(new ByteArrayInputStream(body), REQUEST))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static byte[] response(Body body) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(CompactSolverCodec.RESPONSE_MAGIC);
+            body.write(out);
+            return bytes.toByteArray();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private interface Body {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
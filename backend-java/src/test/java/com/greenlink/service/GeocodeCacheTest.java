@@ -0,0 +1,62 @@
+package com.greenlink.service;
+
+import com.greenlink.repository.GeocodeCacheRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GeocodeCacheTest {
+
+    @Test
+    void normalizesCaseWhitespaceAndTrailingPunctuation() {
+        assertThat(GeocodeCache.normalize("  350 Fifth Ave ,  New   York, NY. "))
+                .isEqualTo("350 fifth ave, new york, ny");
+        assertThat(GeocodeCache.normalize("   ")).isNull();
+        assertThat(GeocodeCache.normalize(null)).isNull();
+    }
+
+    @Test
+    void servesRepeatedLookupsFromMemory() {
+        GeocodeCacheRepository repository = mock(GeocodeCacheRepository.class);
+        when(repository.findForward(eq("350 fifth ave"), any()))
+                .thenReturn(Optional.of(new GeocodeCacheRepository.ForwardEntry(40.7484, -73.9857, "Empire State Building")));
+        GeocodeCache cache = new GeocodeCache(repository, 30, 100);
+
+        assertThat(cache.getForward("350 fifth ave")).map(GeocodingService.GeocodeResult::latitude).contains(40.7484);
+        assertThat(cache.getForward("350 fifth ave")).isPresent();
+        verify(repository, times(1)).findForward(eq("350 fifth ave"), any());
+
+        cache.putReverse(40.74841, -73.98571, "Empire State Building");
+        assertThat(cache.getReverse(40.74839, -73.98569)).contains("Empire State Building");
+        verify(repository, never()).findReverse(anyInt(), anyInt(), any());
+
+        assertThat(cache.stats()).isEqualTo(new GeocodeCache.Stats(2, 1, 0));
+    }
+
+    @Test
+    void exportsLookupCountersToMicrometer() {
+        GeocodeCache cache = new GeocodeCache(mock(GeocodeCacheRepository.class), 30, 100);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.putReverse(40.7484, -73.9857, "Empire State Building");
+        cache.getReverse(40.7484, -73.9857);
+        cache.getForward("unknown street");
+
+        assertThat(registry.get("greenlink.geocoding.cache.lookups").tag("result", "memory_hit").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("greenlink.geocoding.cache.lookups").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+}
@@ -0,0 +1,203 @@
+package com.greenlink.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveUpdateBroadcasterTest {
+
+    private final UUID organizationId = UUID.randomUUID();
+    private AnnotationConfigApplicationContext context;
+    private LiveUpdateBroadcaster broadcaster;
+
+    @AfterEach
+    void close() {
+        if (context != null) {
+            context.close();
+        } else if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    void publishesOnlyAfterTheTransactionCommits() {
+        context = new AnnotationConfigApplicationContext(TransactionalConfig.class);
+        broadcaster = context.getBean(LiveUpdateBroadcaster.class);
+        TransactionTemplate transactions = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        RecordingEmitter emitter = new RecordingEmitter();
+        broadcaster.subscribe(organizationId, emitter);
+
+        transactions.executeWithoutResult(status -> {
+            context.publishEvent(LiveUpdate.ordersImported(organizationId, 3));
+            // Delivered straight away, so it arrives before anything held back until commit
+            broadcaster.publish(LiveUpdate.orderDeleted(organizationId, UUID.randomUUID()));
+        });
+        awaitEvents(emitter, 3);
+        assertThat(emitter.names()).containsExactly("ready", LiveUpdate.ORDER_DELETED, LiveUpdate.ORDERS_IMPORTED);
+
+        transactions.executeWithoutResult(status -> {
+            context.publishEvent(LiveUpdate.ordersImported(organizationId, 4));
+            status.setRollbackOnly();
+        });
+        // Events of one subscriber are sent in order: once this one is in, a rolled-back one would be too
+        context.publishEvent(LiveUpdate.orderDeleted(organizationId, UUID.randomUUID()));
+        awaitEvents(emitter, 4);
+        assertThat(emitter.names()).containsExactly(
+                "ready", LiveUpdate.ORDER_DELETED, LiveUpdate.ORDERS_IMPORTED, LiveUpdate.ORDER_DELETED);
+    }
+
+    @Test
+    void keepsOrganizationsApart() {
+        broadcaster = new LiveUpdateBroadcaster(new SimpleMeterRegistry(), 16, 10, 30, 3600);
+        UUID otherOrganizationId = UUID.randomUUID();
+        RecordingEmitter emitter = new RecordingEmitter();
+        RecordingEmitter otherEmitter = new RecordingEmitter();
+        broadcaster.subscribe(organizationId, emitter);
+        broadcaster.subscribe(otherOrganizationId, otherEmitter);
+
+        broadcaster.publish(LiveUpdate.ordersImported(organizationId, 5));
+        broadcaster.publish(LiveUpdate.orderDeleted(otherOrganizationId, UUID.randomUUID()));
+
+        awaitEvents(emitter, 2);
+        awaitEvents(otherEmitter, 2);
+        assertThat(emitter.names()).containsExactly("ready", LiveUpdate.ORDERS_IMPORTED);
+        assertThat(emitter.sent.get(1)).contains("\"imported\":5");
+        assertThat(otherEmitter.names()).containsExactly("ready", LiveUpdate.ORDER_DELETED);
+    }
+
+    @Test
+    void replacesAnOverflowingBufferWithOneResync() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        broadcaster = new LiveUpdateBroadcaster(registry, 2, 10, 30, 3600);
+        RecordingEmitter slow = new RecordingEmitter(new CountDownLatch(1));
+        RecordingEmitter fast = new RecordingEmitter();
+        broadcaster.subscribe(organizationId, slow);
+        broadcaster.subscribe(organizationId, fast);
+        // The slow client is stuck sending "ready", its buffer (2 events) is empty
+        assertThat(slow.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 1; i <= 3; i++) {
+            broadcaster.publish(LiveUpdate.ordersImported(organizationId, i));
+        }
+        awaitEvents(fast, 4);
+        slow.release.countDown();
+        awaitEvents(slow, 2);
+        broadcaster.publish(LiveUpdate.ordersImported(organizationId, 4));
+        awaitEvents(slow, 3);
+
+        assertThat(slow.names()).containsExactly("ready", LiveUpdate.RESYNC, LiveUpdate.ORDERS_IMPORTED);
+        assertThat(fast.names()).startsWith("ready", LiveUpdate.ORDERS_IMPORTED, LiveUpdate.ORDERS_IMPORTED,
+                LiveUpdate.ORDERS_IMPORTED);
+        assertThat(registry.get("greenlink.live.resyncs").counter().count()).isEqualTo(1.0);
+    }
+
+    private static void awaitEvents(RecordingEmitter emitter, int count) {
+        await(() -> emitter.sent.size() >= count);
+        assertThat(emitter.sent).hasSizeGreaterThanOrEqualTo(count);
+    }
+
+    private static void await(Supplier<Boolean> condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.get() && System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // Keeps each event as its wire text ("id:..", "event:..", "data:..") instead of writing a response
+    private static final class RecordingEmitter extends SseEmitter {
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch release;
+
+        private RecordingEmitter() {
+            this(new CountDownLatch(0));
+        }
+
+        private RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            entered.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+            sent.add(builder.build().stream()
+                    .map(part -> String.valueOf(part.getData()))
+                    .collect(Collectors.joining()));
+        }
+
+        private List<String> names() {
+            return sent.stream()
+                    .flatMap(text -> text.lines().filter(line -> line.startsWith("event:")))
+                    .map(line -> line.substring("event:".length()))
+                    .toList();
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionalConfig {
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new SynchronizingTransactionManager();
+        }
+
+        @Bean
+        LiveUpdateBroadcaster liveUpdateBroadcaster() {
+            return new LiveUpdateBroadcaster(new SimpleMeterRegistry(), 16, 10, 30, 3600);
+        }
+    }
+
+    // No resource behind it; only drives transaction synchronization, which the listener relies on
+    private static final class SynchronizingTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
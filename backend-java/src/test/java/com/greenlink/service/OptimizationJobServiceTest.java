@@ -0,0 +1,203 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.OptimizationJobResponse;
+import com.greenlink.model.Route;
+import com.greenlink.security.CurrentUserService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OptimizationJobServiceTest {
+
+    private final RoutingService routingService = mock(RoutingService.class);
+    private final CurrentUserService currentUserService = mock(CurrentUserService.class);
+    private final UUID organization = UUID.randomUUID();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private OptimizationJobService service;
+
+    @AfterEach
+    void shutdown() {
+        release.countDown();
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void runsOneJobPerOrganizationAtATimeAndCoalescesQueuedSubmits() throws Exception {
+        service = new OptimizationJobService(routingService, currentUserService, 2, 10, 60);
+        when(currentUserService.requireOrganizationId()).thenReturn(organization);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(routingService.optimizeRoutes(eq(organization), any(), any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            running.decrementAndGet();
+            return List.of();
+        });
+
+        OptimizationJobResponse first = service.submit(false, null);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        OptimizationJobResponse second = service.submit(false, null);
+        // Waiting behind the running job: a further submit, full or incremental, returns the queued one
+        OptimizationJobResponse third = service.submit(true, null);
+
+        assertThat(second.getStatus()).isEqualTo(OptimizationJobService.QUEUED);
+        assertThat(third.getJobId()).isEqualTo(second.getJobId());
+        assertThat(service.getJob(first.getJobId()).getStatus()).isEqualTo(OptimizationJobService.RUNNING);
+
+        release.countDown();
+        awaitStatus(first.getJobId(), OptimizationJobService.COMPLETED);
+        awaitStatus(second.getJobId(), OptimizationJobService.COMPLETED);
+        assertThat(maxRunning.get()).isEqualTo(1);
+        verify(routingService, times(2)).optimizeRoutes(eq(organization), any(), any());
+    }
+
+    @Test
+    void fullSubmitUpgradesAQueuedIncrementalJob() throws Exception {
+        service = new OptimizationJobService(routingService, currentUserService, 2, 10, 60);
+        when(currentUserService.requireOrganizationId()).thenReturn(organization);
+        when(routingService.optimizeRoutes(eq(organization), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        OptimizationJobResponse first = service.submit(false, null);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        OptimizationJobResponse incremental = service.submit(true, null);
+        OptimizationJobResponse full = service.submit(false, null);
+
+        // Still one job waiting behind the running one, now a full run
+        assertThat(full.getJobId()).isEqualTo(incremental.getJobId());
+        assertThat(full.getStatus()).isEqualTo(OptimizationJobService.QUEUED);
+
+        release.countDown();
+        awaitStatus(first.getJobId(), OptimizationJobService.COMPLETED);
+        awaitStatus(incremental.getJobId(), OptimizationJobService.COMPLETED);
+        verify(routingService, times(2)).optimizeRoutes(eq(organization), any(), any());
+        verify(routingService, never()).reoptimizeRoutes(any(), any(), any());
+    }
+
+    @Test
+    void rejectsSubmitsWithServiceUnavailableWhenThePoolIsFull() throws Exception {
+        service = new OptimizationJobService(routingService, currentUserService, 1, 1, 60);
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(currentUserService.requireOrganizationId()).thenReturn(organization, second, third);
+        when(routingService.optimizeRoutes(any(), any(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        service.submit(false, null);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        // The only worker is busy and the second organization's job fills the queue
+        service.submit(false, null);
+
+        assertThatThrownBy(() -> service.submit(false, null))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    }
+
+    @Test
+    void reportsProgressThenCompletesWithTheRoutes() throws Exception {
+        service = new OptimizationJobService(routingService, currentUserService, 1, 10, 60);
+        when(currentUserService.requireOrganizationId()).thenReturn(organization);
+        Route route = new Route();
+        when(routingService.optimizeRoutes(eq(organization), eq(5000L), any())).thenAnswer(invocation -> {
+            invocation.<IntConsumer>getArgument(2).accept(40);
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(route);
+        });
+
+        OptimizationJobResponse job = service.submit(false, 5000L);
+        assertThat(job.getStatus()).isIn(OptimizationJobService.QUEUED, OptimizationJobService.RUNNING);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        OptimizationJobResponse running = service.getJob(job.getJobId());
+        assertThat(running.getStatus()).isEqualTo(OptimizationJobService.RUNNING);
+        assertThat(running.getProgress()).isEqualTo(40);
+        assertThat(running.getStartedAt()).isNotNull();
+        assertThat(running.getFinishedAt()).isNull();
+
+        release.countDown();
+        OptimizationJobResponse completed = awaitStatus(job.getJobId(), OptimizationJobService.COMPLETED);
+        assertThat(completed.getProgress()).isEqualTo(100);
+        assertThat(completed.getMessage()).isEqualTo("Created 1 routes.");
+        assertThat(completed.getRoutes()).containsExactly(route);
+        assertThat(completed.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    void failsWithTheSolverErrorMessage() throws Exception {
+        service = new OptimizationJobService(routingService, currentUserService, 1, 10, 60);
+        when(currentUserService.requireOrganizationId()).thenReturn(organization);
+        when(routingService.reoptimizeRoutes(eq(organization), any(), any()))
+                .thenThrow(new IllegalStateException("Solver unavailable"));
+
+        OptimizationJobResponse job = service.submit(true, null);
+
+        OptimizationJobResponse failed = awaitStatus(job.getJobId(), OptimizationJobService.FAILED);
+        assertThat(failed.getMessage()).isEqualTo("Solver unavailable");
+        assertThat(failed.getRoutes()).isNull();
+    }
+
+    @Test
+    void purgesFinishedJobsAfterTheRetentionAndHidesOtherOrganizations() throws Exception {
+        service = new OptimizationJobService(routingService, currentUserService, 1, 10, 0);
+        when(currentUserService.requireOrganizationId()).thenReturn(organization);
+        when(routingService.optimizeRoutes(eq(organization), any(), any())).thenReturn(List.of());
+
+        OptimizationJobResponse job = service.submit(false, null);
+        awaitStatus(job.getJobId(), OptimizationJobService.COMPLETED);
+
+        when(currentUserService.requireOrganizationId()).thenReturn(UUID.randomUUID());
+        assertThatThrownBy(() -> service.getJob(job.getJobId()))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+
+        // Zero retention: the next submit purges every job that has finished by then
+        when(currentUserService.requireOrganizationId()).thenReturn(organization);
+        Thread.sleep(5);
+        OptimizationJobResponse next = service.submit(false, null);
+
+        assertThatThrownBy(() -> service.getJob(job.getJobId()))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+        assertThat(service.getJob(next.getJobId())).isNotNull();
+    }
+
+    private OptimizationJobResponse awaitStatus(UUID jobId, String status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        OptimizationJobResponse job = service.getJob(jobId);
+        while (!status.equals(job.getStatus()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            job = service.getJob(jobId);
+        }
+        assertThat(job.getStatus()).isEqualTo(status);
+        return job;
+    }
+}
@@ -0,0 +1,152 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.OrderImportResponse;
+import com.greenlink.model.DeliveryOrder;
+import com.greenlink.repository.OrderBulkRepository;
+import com.greenlink.security.CurrentUserService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderImportServiceTest {
+
+    private final OrderBulkRepository orderBulkRepository = mock(OrderBulkRepository.class);
+    private final GeocodingService geocodingService = mock(GeocodingService.class);
+    private final CurrentUserService currentUserService = mock(CurrentUserService.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final UUID organizationId = UUID.randomUUID();
+
+    @Test
+    void parsesQuotedCsvFields() {
+        assertThat(OrderImportService.parseCsvLine("\"350 Fifth Ave, New York\",12,\"say \"\"hi\"\"\",,5"))
+                .containsExactly("350 Fifth Ave, New York", "12", "say \"hi\"", "", "5");
+    }
+
+    @Test
+    void writesOneBatchPerChunkAndPublishesOneEvent() {
+        OrderImportResponse response = service(2).importOrders(body(
+                "latitude,longitude,weightKg,serviceDurationMin",
+                "40.71,-74.00,10,5",
+                "40.72,-74.00,10,5",
+                "40.73,-74.00,10,5",
+                "40.74,-74.00,10,5",
+                "40.75,-74.00,10,5"
+        ), OrderImportService.CSV);
+
+        assertThat(response.getTotalRows()).isEqualTo(5);
+        assertThat(response.getImported()).isEqualTo(5);
+        assertThat(response.getFailed()).isZero();
+        assertThat(insertedChunks()).extracting(List::size).containsExactly(2, 2, 1);
+        verify(geocodingService, never()).geocodeAddressAsync(anyString());
+        verify(eventPublisher).publishEvent(LiveUpdate.ordersImported(organizationId, 5));
+    }
+
+    @Test
+    void geocodesEachDistinctAddressOncePerChunkAndKeepsGivenCoordinates() {
+        when(geocodingService.geocodeAddressAsync(anyString())).thenReturn(CompletableFuture.completedFuture(
+                new GeocodingService.GeocodeResult(40.7484, -73.9857, "Empire State Building")));
+
+        OrderImportResponse response = service(2).importOrders(body(
+                "{\"address\":\"350 Fifth Ave\",\"weightKg\":1,\"serviceDurationMin\":5}",
+                "{\"address\":\" 350 fifth ave. \",\"weightKg\":2,\"serviceDurationMin\":5}",
+                // Next chunk: looked up again, GeocodingService's cache answers it
+                "{\"address\":\"350  Fifth Ave\",\"weightKg\":3,\"serviceDurationMin\":5}",
+                "{\"address\":\"Depot\",\"latitude\":40.70,\"longitude\":-74.01,\"weightKg\":4,\"serviceDurationMin\":5}"
+        ), OrderImportService.NDJSON);
+
+        assertThat(response.getImported()).isEqualTo(4);
+        verify(geocodingService, times(2)).geocodeAddressAsync(anyString());
+        assertThat(insertedChunks().stream().flatMap(List::stream).toList())
+                .extracting(DeliveryOrder::getWeightKg, DeliveryOrder::getLatitude, DeliveryOrder::getAddress)
+                .containsExactly(
+                        tuple(1, 40.7484, "Empire State Building"),
+                        tuple(2, 40.7484, "Empire State Building"),
+                        tuple(3, 40.7484, "Empire State Building"),
+                        tuple(4, 40.70, "Depot")
+                );
+    }
+
+    @Test
+    void reportsRejectedRowsByLineAndImportsTheRest() {
+        when(geocodingService.geocodeAddressAsync("Nowhere")).thenReturn(CompletableFuture.completedFuture(null));
+        when(geocodingService.geocodeAddressAsync("Broken St"))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Nominatim unavailable")));
+
+        OrderImportResponse response = service(500).importOrders(body(
+                "address,latitude,longitude,weightKg,serviceDurationMin",
+                ",40.71,-74.00,10,5",
+                ",40.71,,10,5",
+                "Nowhere,,,10,5",
+                ",40.72,-74.01,abc,5",
+                "",
+                "Broken St,,,10,5",
+                ",40.73,-74.02,-1,5"
+        ), OrderImportService.CSV);
+
+        assertThat(response.getTotalRows()).isEqualTo(6);
+        assertThat(response.getImported()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(5);
+        assertThat(response.getErrors())
+                .extracting(OrderImportResponse.RowError::getLine, OrderImportResponse.RowError::getMessage)
+                .containsExactlyInAnyOrder(
+                        tuple(3, "Latitude and longitude must be given together."),
+                        tuple(4, "Unable to geocode the provided address."),
+                        tuple(5, "weightKg is not a number."),
+                        tuple(7, "Unable to geocode the provided address."),
+                        tuple(8, "weightKg is required and must not be negative.")
+                );
+        assertThat(insertedChunks()).singleElement().satisfies(chunk ->
+                assertThat(chunk).extracting(DeliveryOrder::getLatitude).containsExactly(40.71));
+        verify(eventPublisher).publishEvent(LiveUpdate.ordersImported(organizationId, 1));
+    }
+
+    @Test
+    void publishesNothingWhenEveryRowIsRejected() {
+        OrderImportResponse response = service(500).importOrders(body(
+                "{\"weightKg\":1,\"serviceDurationMin\":5}",
+                "not json"
+        ), OrderImportService.NDJSON);
+
+        assertThat(response.getImported()).isZero();
+        assertThat(response.getErrors()).extracting(OrderImportResponse.RowError::getMessage)
+                .containsExactly("Address or coordinates are required.", "Invalid JSON object.");
+        verify(orderBulkRepository, never()).insertOrders(any());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    private OrderImportService service(int chunkSize) {
+        when(currentUserService.requireOrganizationId()).thenReturn(organizationId);
+        // Without a real transaction manager the template simply runs the callback
+        return new OrderImportService(orderBulkRepository, geocodingService, currentUserService,
+                mock(PlatformTransactionManager.class), eventPublisher, chunkSize);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<DeliveryOrder>> insertedChunks() {
+        ArgumentCaptor<List<DeliveryOrder>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(orderBulkRepository, atLeast(0)).insertOrders(chunks.capture());
+        return chunks.getAllValues();
+    }
+
+    private static ByteArrayInputStream body(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,34 @@
+package com.greenlink.service;
+
+import com.greenlink.repository.OrderQueryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderServiceTest {
+
+    @Test
+    void cursorRoundTripsCreatedAtAndId() {
+        OrderQueryRepository.Cursor cursor = new OrderQueryRepository.Cursor(
+                LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_793_000), UUID.randomUUID());
+
+        assertThat(OrderService.decodeCursor(OrderService.encodeCursor(cursor))).isEqualTo(cursor);
+
+        OrderQueryRepository.Cursor wholeMinute = new OrderQueryRepository.Cursor(
+                LocalDateTime.of(2025, 3, 14, 9, 26), UUID.randomUUID());
+        assertThat(OrderService.decodeCursor(OrderService.encodeCursor(wholeMinute))).isEqualTo(wholeMinute);
+    }
+
+    @Test
+    void malformedCursorIsABadRequest() {
+        assertThatThrownBy(() -> OrderService.decodeCursor("not-a-cursor"))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> OrderService.decodeCursor("%%%"))
+                .isInstanceOf(ResponseStatusException.class);
+    }
+}
@@ -0,0 +1,86 @@
+package com.greenlink.service;
+
+import com.greenlink.repository.RouteStopRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RouteEtaCacheTest {
+
+    private static final UUID ROUTE = UUID.randomUUID();
+
+    @Test
+    void remainingTimeCountsOpenServiceAndLegsAfterTheFirstOpenStop() {
+        List<RouteStopRepository.StopView> stops = List.of(
+                stop(0, "DELIVERED", 10, 600),
+                stop(1, "ASSIGNED", 5, 300),
+                stop(2, "ASSIGNED", 5, 240),
+                stop(3, "ASSIGNED", 10, 360)
+        );
+
+        // 20 min service + 4 + 6 min of legs; the leg into the first open stop is already being driven
+        assertThat(RouteEtaCache.estimateRemainingMinutes(stops)).isEqualTo(30);
+    }
+
+    @Test
+    void stopDeliveredOutOfOrderStaysAWaypoint() {
+        List<RouteStopRepository.StopView> stops = List.of(
+                stop(0, "ASSIGNED", 5, 300),
+                stop(1, "DELIVERED", 5, 120),
+                stop(2, "ASSIGNED", 5, 180)
+        );
+
+        assertThat(RouteEtaCache.estimateRemainingMinutes(stops)).isEqualTo(15);
+    }
+
+    @Test
+    void finishedRouteHasNothingLeft() {
+        assertThat(RouteEtaCache.estimateRemainingMinutes(List.of(stop(0, "DELIVERED", 5, 300)))).isZero();
+        assertThat(RouteEtaCache.estimateRemainingMinutes(List.of())).isZero();
+    }
+
+    @Test
+    void deliveriesUpdateTheCachedEstimateLikeAFullRecompute() {
+        RouteEtaCache cache = new RouteEtaCache(100);
+        List<RouteStopRepository.StopView> stops = new ArrayList<>(List.of(
+                stop(0, "ASSIGNED", 10, 600),
+                stop(1, "ASSIGNED", 5, 300),
+                stop(2, "ASSIGNED", 5, 240),
+                stop(3, "ASSIGNED", 10, 360)
+        ));
+        assertThat(cache.remainingMinutes(ROUTE, stops)).isEqualTo(45);
+
+        // Out of order first: stop 2 stays a waypoint, only its service time goes
+        for (int index : new int[] {2, 0, 1, 3}) {
+            RouteStopRepository.StopView done = stops.get(index);
+            cache.delivered(ROUTE, done.orderId());
+            stops.set(index, new RouteStopRepository.StopView(ROUTE, index, done.orderId(), done.address(),
+                    done.latitude(), done.longitude(), "DELIVERED", done.serviceDurationMin(), 0,
+                    done.legDistanceMeters(), done.legDurationSeconds()));
+
+            // Same fingerprint as the stored rows, so this is a cache hit with the updated value
+            assertThat(cache.remainingMinutes(ROUTE, stops))
+                    .isEqualTo(RouteEtaCache.estimateRemainingMinutes(stops));
+        }
+        assertThat(cache.remainingMinutes(ROUTE, stops)).isZero();
+    }
+
+    @Test
+    void replannedRouteIsRecomputed() {
+        RouteEtaCache cache = new RouteEtaCache(100);
+        List<RouteStopRepository.StopView> stops = List.of(stop(0, "ASSIGNED", 10, 600), stop(1, "ASSIGNED", 5, 300));
+        assertThat(cache.remainingMinutes(ROUTE, stops)).isEqualTo(20);
+
+        List<RouteStopRepository.StopView> replanned = List.of(stops.get(0), stops.get(1), stop(2, "ASSIGNED", 5, 120));
+        assertThat(cache.remainingMinutes(ROUTE, replanned)).isEqualTo(27);
+    }
+
+    private static RouteStopRepository.StopView stop(int index, String status, int serviceMin, double legSeconds) {
+        return new RouteStopRepository.StopView(ROUTE, index, UUID.randomUUID(), "Stop " + index,
+                40.7, -74.0, status, serviceMin, 0, legSeconds * 10, legSeconds);
+    }
+}
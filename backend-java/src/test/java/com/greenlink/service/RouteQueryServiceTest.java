@@ -0,0 +1,135 @@
+package com.greenlink.service;
+
+import com.greenlink.dto.OrderSummary;
+import com.greenlink.dto.RouteSummary;
+import com.greenlink.model.Route;
+import com.greenlink.repository.OrderQueryRepository;
+import com.greenlink.repository.RouteRepository;
+import com.greenlink.repository.RouteStopRepository;
+import com.greenlink.security.CurrentUserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+class RouteQueryServiceTest {
+
+    private final RouteStopRepository routeStopRepository = mock(RouteStopRepository.class);
+    private final RouteRepository routeRepository = mock(RouteRepository.class);
+    private final OrderQueryRepository orderQueryRepository = mock(OrderQueryRepository.class);
+    private final CurrentUserService currentUserService = mock(CurrentUserService.class);
+    private final UUID organizationId = UUID.randomUUID();
+    private final RouteQueryService service = new RouteQueryService(
+            routeStopRepository, routeRepository, orderQueryRepository, currentUserService, 2, 5);
+
+    @Test
+    void readsAPageWithTwoQueriesWhateverTheNumberOfRoutes() {
+        when(currentUserService.requireOrganizationId()).thenReturn(organizationId);
+        Route first = route(1);
+        Route second = route(2);
+        when(routeRepository.findPageByOrganizationId(organizationId, PageRequest.of(0, 3)))
+                .thenReturn(List.of(first, second));
+        when(orderQueryRepository.findByRoutes(eq(organizationId), any())).thenReturn(List.of(
+                order(first, 11), order(second, 21), order(first, 12)));
+
+        RouteQueryService.RoutePage page = service.listRoutes(null, null);
+
+        assertThat(page.nextCursor()).isNull();
+        assertThat(page.routes()).extracting(RouteSummary::getId).containsExactly(first.getId(), second.getId());
+        assertThat(page.routes().get(0).getOrders()).extracting(OrderSummary::getId)
+                .containsExactly(id(11), id(12));
+        assertThat(page.routes().get(1).getOrders()).extracting(OrderSummary::getId).containsExactly(id(21));
+        // One query for the routes with their vehicles, one for all of their orders
+        verify(routeRepository).findPageByOrganizationId(organizationId, PageRequest.of(0, 3));
+        verify(orderQueryRepository).findByRoutes(organizationId, new UUID[]{first.getId(), second.getId()});
+        verifyNoMoreInteractions(routeRepository, orderQueryRepository);
+        verifyNoInteractions(routeStopRepository);
+    }
+
+    @Test
+    void continuesAfterTheLastRouteOfThePreviousPage() {
+        when(currentUserService.requireOrganizationId()).thenReturn(organizationId);
+        Route first = route(1);
+        Route second = route(2);
+        Route third = route(3);
+        // The extra row only tells that another page follows
+        when(routeRepository.findPageByOrganizationId(organizationId, PageRequest.of(0, 3)))
+                .thenReturn(List.of(first, second, third));
+        when(routeRepository.findPageByOrganizationIdAfter(organizationId, second.getId(), PageRequest.of(0, 3)))
+                .thenReturn(List.of(third));
+        when(orderQueryRepository.findByRoutes(eq(organizationId), any())).thenReturn(List.of());
+
+        RouteQueryService.RoutePage page = service.listRoutes(null, null);
+
+        assertThat(page.routes()).extracting(RouteSummary::getId).containsExactly(first.getId(), second.getId());
+        assertThat(page.nextCursor()).isEqualTo(second.getId().toString());
+        verify(orderQueryRepository).findByRoutes(organizationId, new UUID[]{first.getId(), second.getId()});
+
+        RouteQueryService.RoutePage next = service.listRoutes(page.nextCursor(), null);
+
+        assertThat(next.routes()).extracting(RouteSummary::getId).containsExactly(third.getId());
+        assertThat(next.nextCursor()).isNull();
+        verify(orderQueryRepository).findByRoutes(organizationId, new UUID[]{third.getId()});
+    }
+
+    @Test
+    void scopesEveryQueryToTheCallersOrganization() {
+        UUID otherOrganizationId = UUID.randomUUID();
+        when(currentUserService.requireOrganizationId()).thenReturn(otherOrganizationId);
+        when(routeRepository.findPageByOrganizationIdAfter(eq(otherOrganizationId), any(), any())).thenReturn(List.of());
+        when(orderQueryRepository.findByRoutes(eq(otherOrganizationId), any())).thenReturn(List.of());
+
+        // A cursor taken from another organization's page still only reads the caller's routes
+        RouteQueryService.RoutePage page = service.listRoutes(route(1).getId().toString(), 1);
+
+        assertThat(page.routes()).isEmpty();
+        verify(routeRepository).findPageByOrganizationIdAfter(otherOrganizationId, id(1), PageRequest.of(0, 2));
+        verify(orderQueryRepository).findByRoutes(otherOrganizationId, new UUID[0]);
+        verifyNoMoreInteractions(routeRepository, orderQueryRepository);
+    }
+
+    @Test
+    void rejectsMalformedCursorsAndOversizedPages() {
+        when(currentUserService.requireOrganizationId()).thenReturn(organizationId);
+
+        assertThatThrownBy(() -> service.listRoutes("not-a-route", null))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> service.listRoutes(null, 6))
+                .isInstanceOfSatisfying(ResponseStatusException.class, ex ->
+                        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        verifyNoInteractions(routeRepository, orderQueryRepository);
+    }
+
+    private Route route(int n) {
+        Route route = new Route();
+        route.setId(id(n));
+        route.setOrganizationId(organizationId);
+        route.setStatus("PLANNED");
+        return route;
+    }
+
+    private OrderSummary order(Route route, int n) {
+        return new OrderSummary(id(n), organizationId, LocalDateTime.now(), LocalDateTime.now(), 40.71, -74.00,
+                null, 10, 5, null, null, "ASSIGNED", route.getId());
+    }
+
+    // Ids in a known order, as the pages are ordered by id
+    private static UUID id(int n) {
+        return new UUID(0L, n);
+    }
+}
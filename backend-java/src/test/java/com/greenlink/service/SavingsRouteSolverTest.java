@@ -0,0 +1,211 @@
+package com.greenlink.service;
+
+import com.greenlink.config.IoThreads;
+import com.greenlink.dto.OrderDTO;
+import com.greenlink.dto.RouteRequest;
+import com.greenlink.dto.RouteResponse;
+import com.greenlink.dto.VehicleDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SavingsRouteSolverTest {
+
+    // No OSRM base URL: the matrix service falls back to straight-line estimates
+    private final TravelMatrixService travelMatrixService =
+            new TravelMatrixService("", 100, 1, 2048, new IoThreads(false), new SimpleMeterRegistry());
+    private final SavingsRouteSolver solver = new SavingsRouteSolver(travelMatrixService, 400, 1200, 2);
+
+    @Test
+    void assignsEveryOrderOnceWithinCapacity() {
+        Random random = new Random(42);
+        List<OrderDTO> orders = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            orders.add(new OrderDTO(
+                    "order-" + i,
+                    40.65 + random.nextDouble() * 0.2,
+                    -74.05 + random.nextDouble() * 0.2,
+                    (double) (5 + random.nextInt(20)),
+                    10.0
+            ));
+        }
+        List<VehicleDTO> vehicles = List.of(
+                new VehicleDTO("van-1", 1500.0, 40.75, -73.98),
+                new VehicleDTO("van-2", 1500.0, 40.75, -73.98),
+                new VehicleDTO("van-3", 1500.0, 40.70, -74.01)
+        );
+
+        RouteResponse response = solver.solve(new RouteRequest(orders, vehicles));
+
+        assertEveryOrderOnceWithinCapacity(response, orders, 1500.0);
+    }
+
+    @Test
+    void decomposedSolveAssignsEveryOrderOnceWithinCapacity() {
+        // Two depots, clusters of at most 40 orders: the sweep, border repair and insertion all run
+        SavingsRouteSolver decomposed = new SavingsRouteSolver(travelMatrixService, 40, 300, 2);
+        Random random = new Random(11);
+        List<OrderDTO> orders = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            orders.add(new OrderDTO(
+                    "order-" + i,
+                    40.60 + random.nextDouble() * 0.3,
+                    -74.10 + random.nextDouble() * 0.3,
+                    (double) (5 + random.nextInt(20)),
+                    10.0
+            ));
+        }
+        List<VehicleDTO> vehicles = new ArrayList<>();
+        for (int v = 0; v < 8; v++) {
+            vehicles.add(new VehicleDTO("van-" + v, 1000.0, v < 5 ? 40.75 : 40.65, v < 5 ? -73.98 : -74.05));
+        }
+
+        RouteResponse response = decomposed.solve(new RouteRequest(orders, vehicles));
+        decomposed.shutdown();
+
+        assertThat(response.getRoutes()).hasSizeGreaterThan(2);
+        assertEveryOrderOnceWithinCapacity(response, orders, 1000.0);
+    }
+
+    @Test
+    void returnsACompletePlanWhenTheTimeLimitRunsOutAndImprovesItLater() {
+        SavingsRouteSolver decomposed = new SavingsRouteSolver(travelMatrixService, 40, 300, 2);
+        Random random = new Random(5);
+        List<OrderDTO> orders = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            orders.add(new OrderDTO(
+                    "order-" + i,
+                    40.60 + random.nextDouble() * 0.3,
+                    -74.10 + random.nextDouble() * 0.3,
+                    (double) (5 + random.nextInt(20)),
+                    10.0
+            ));
+        }
+        List<VehicleDTO> vehicles = new ArrayList<>();
+        for (int v = 0; v < 6; v++) {
+            vehicles.add(new VehicleDTO("van-" + v, 1000.0, 40.75, -73.98));
+        }
+
+        // Construction always completes; local search and border repair stop at once
+        RouteResponse first = decomposed.solve(new RouteRequest(orders, vehicles, 1L));
+        assertEveryOrderOnceWithinCapacity(first, orders, 1000.0);
+
+        RouteResponse improved = decomposed.improve(new RouteRequest(orders, vehicles), first).orElse(first);
+        decomposed.shutdown();
+        assertEveryOrderOnceWithinCapacity(improved, orders, 1000.0);
+    }
+
+    @Test
+    void leavesOrdersUnassignedWhenFleetIsFull() {
+        List<OrderDTO> orders = List.of(
+                new OrderDTO("a", 40.71, -74.00, 60.0, 5.0),
+                new OrderDTO("b", 40.72, -74.00, 60.0, 5.0)
+        );
+        List<VehicleDTO> vehicles = List.of(new VehicleDTO("van-1", 100.0, 40.70, -74.00));
+
+        RouteResponse response = solver.solve(new RouteRequest(orders, vehicles));
+
+        assertThat(response.getRoutes()).hasSize(1);
+        assertThat(response.getRoutes().get(0).getStops()).hasSize(1);
+    }
+
+    @Test
+    void insertsNewOrdersWithoutReorderingPlannedStops() {
+        List<OrderDTO> orders = List.of(
+                new OrderDTO("p1", 40.71, -74.00, 10.0, 5.0),
+                new OrderDTO("p2", 40.72, -74.00, 10.0, 5.0),
+                new OrderDTO("p3", 40.73, -74.00, 10.0, 5.0),
+                // Would fit best before p1, but p1 is already delivered
+                new OrderDTO("new-1", 40.705, -74.00, 10.0, 5.0),
+                // On the leg between p2 and p3
+                new OrderDTO("new-2", 40.725, -74.00, 10.0, 5.0)
+        );
+        List<VehicleDTO> vehicles = List.of(new VehicleDTO("van-1", 100.0, 40.70, -74.01));
+
+        RouteResponse response = solver.insertOrders(
+                new RouteRequest(orders, vehicles),
+                Map.of("van-1", List.of("p1", "p2", "p3")),
+                Map.of("van-1", 1)
+        );
+
+        assertThat(response.getRoutes()).hasSize(1);
+        List<String> ids = response.getRoutes().get(0).getStops().stream().map(RouteResponse.Stop::id).toList();
+        assertThat(ids).hasSize(5).startsWith("p1");
+        assertThat(ids.indexOf("p2")).isLessThan(ids.indexOf("p3"));
+        assertThat(ids.indexOf("new-2")).isBetween(ids.indexOf("p2"), ids.indexOf("p3"));
+    }
+
+    @Test
+    void servesOrdersWithinTheirWindowsAndTheShift() {
+        // Straight-line fallback at 30 km/h: "far" is about 4.5 minutes from the depot, "near" about 1
+        List<OrderDTO> orders = List.of(
+                new OrderDTO("near", 40.705, -74.00, 10.0, 5.0, 580.0, 600.0),
+                new OrderDTO("far", 40.72, -74.00, 10.0, 5.0, 540.0, 560.0),
+                // Only opens after the vehicle's shift has ended
+                new OrderDTO("evening", 40.71, -74.00, 10.0, 5.0, 700.0, 760.0)
+        );
+        List<VehicleDTO> vehicles = List.of(new VehicleDTO("van-1", 100.0, 40.70, -74.00, 540.0, 630.0));
+
+        RouteResponse response = solver.solve(new RouteRequest(orders, vehicles));
+
+        assertThat(response.getRoutes()).hasSize(1);
+        assertThat(response.getRoutes().get(0).getStops()).extracting(RouteResponse.Stop::id)
+                .containsExactly("far", "near");
+    }
+
+    @Test
+    void doesNotInsertOrdersWhoseWindowCannotBeMet() {
+        List<OrderDTO> orders = List.of(
+                new OrderDTO("p1", 40.71, -74.00, 10.0, 5.0),
+                // Closes before the van can get there from its 9:00 start
+                new OrderDTO("missed", 40.75, -74.00, 10.0, 5.0, 540.0, 545.0),
+                new OrderDTO("later", 40.72, -74.00, 10.0, 5.0, 600.0, 660.0)
+        );
+        List<VehicleDTO> vehicles = List.of(new VehicleDTO("van-1", 100.0, 40.70, -74.00, 540.0, 1020.0));
+
+        RouteResponse response = solver.insertOrders(
+                new RouteRequest(orders, vehicles),
+                Map.of("van-1", List.of("p1")),
+                Map.of()
+        );
+
+        assertThat(response.getRoutes().get(0).getStops()).extracting(RouteResponse.Stop::id)
+                .containsExactlyInAnyOrder("p1", "later");
+    }
+
+    @Test
+    void returnsNoRoutesWithoutVehicles() {
+        RouteResponse response = solver.solve(new RouteRequest(
+                List.of(new OrderDTO("a", 40.71, -74.00, 1.0, 5.0)),
+                List.of()
+        ));
+
+        assertThat(response.getRoutes()).isEmpty();
+    }
+
+    private static void assertEveryOrderOnceWithinCapacity(RouteResponse response, List<OrderDTO> orders, double capacity) {
+        Map<String, Double> weights = new HashMap<>();
+        orders.forEach(order -> weights.put(order.getId(), order.getWeightKg()));
+
+        Set<String> seen = new HashSet<>();
+        for (RouteResponse.RoutePlan plan : response.getRoutes()) {
+            double load = 0;
+            for (RouteResponse.Stop stop : plan.getStops()) {
+                String id = stop.id();
+                assertThat(seen.add(id)).as("order %s assigned twice", id).isTrue();
+                load += weights.get(id);
+            }
+            assertThat(load).isLessThanOrEqualTo(capacity);
+        }
+        assertThat(seen).hasSize(orders.size());
+    }
+}
@@ -0,0 +1,48 @@
+package com.greenlink.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpatialGridIndexTest {
+
+    private static final int POINTS = 2000;
+
+    private final Random random = new Random(7);
+    private final double[] lat = new double[POINTS];
+    private final double[] lon = new double[POINTS];
+    private final SpatialGridIndex index;
+
+    SpatialGridIndexTest() {
+        // Roughly a city: 0.3 x 0.5 degrees around Berlin
+        for (int i = 0; i < POINTS; i++) {
+            lat[i] = 52.35 + random.nextDouble() * 0.3;
+            lon[i] = 13.2 + random.nextDouble() * 0.5;
+        }
+        index = new SpatialGridIndex(lat, lon, 1000);
+    }
+
+    @Test
+    void nearestMatchesAFullScanInsideAndOutsideTheGrid() {
+        double[][] queries = {{52.5, 13.45}, {52.36, 13.21}, {51.0, 12.0}};
+        for (double[] query : queries) {
+            int[] expected = IntStream.range(0, POINTS)
+                    .boxed()
+                    .sorted(Comparator.comparingDouble(i -> distance(query[0], query[1], i)))
+                    .limit(25)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+
+            assertThat(index.nearest(query[0], query[1], 25)).containsExactly(expected);
+        }
+        assertThat(index.nearest(52.5, 13.45, POINTS + 10)).hasSize(POINTS);
+    }
+
+    private double distance(double fromLat, double fromLon, int point) {
+        return TravelMatrixService.haversineMeters(fromLat, fromLon, lat[point], lon[point]);
+    }
+}
@@ -0,0 +1,53 @@
+package com.greenlink.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SweepPartitionerTest {
+
+    @Test
+    void keepsCoLocatedOrdersInOneSector() {
+        // Two vehicles at one depot; three orders at one address east of it, three at one address north
+        double[] vehicleLat = {0.0, 0.0};
+        double[] vehicleLon = {0.0, 0.0};
+        double[] capacity = {10, 10};
+        double[] orderLat = {0.0, 0.0, 0.0, 0.01, 0.01, 0.01};
+        double[] orderLon = {0.01, 0.01, 0.01, 0.0, 0.0, 0.0};
+        double[] demand = {1, 1, 1, 1, 1, 1};
+
+        List<SweepPartitioner.Cluster> clusters = new SweepPartitioner(
+                vehicleLat, vehicleLon, capacity, orderLat, orderLon, demand).partition(3);
+
+        // The seam belongs in the wide empty wedge, not between orders that share an address
+        assertThat(clusters).hasSize(2);
+        assertThat(clusters).extracting(cluster -> sorted(cluster.orders()))
+                .containsExactlyInAnyOrder(new int[]{0, 1, 2}, new int[]{3, 4, 5});
+        assertThat(clusters).extracting(cluster -> cluster.vehicles().length).containsExactly(1, 1);
+    }
+
+    @Test
+    void putsEveryOrderInExactlyOneCluster() {
+        double[] orderLat = IntStream.range(0, 40).mapToDouble(i -> 0.01 * Math.sin(i)).toArray();
+        double[] orderLon = IntStream.range(0, 40).mapToDouble(i -> 0.01 * Math.cos(i / 4)).toArray();
+        double[] demand = new double[40];
+        Arrays.fill(demand, 2);
+
+        List<SweepPartitioner.Cluster> clusters = new SweepPartitioner(
+                new double[]{0.0, 0.0, 0.0, 0.0}, new double[]{0.0, 0.0, 0.0, 0.0}, new double[]{30, 30, 30, 30},
+                orderLat, orderLon, demand).partition(10);
+
+        assertThat(clusters.stream().flatMapToInt(cluster -> Arrays.stream(cluster.orders())).sorted().toArray())
+                .containsExactly(IntStream.range(0, 40).toArray());
+    }
+
+    private static int[] sorted(int[] values) {
+        int[] copy = values.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+}
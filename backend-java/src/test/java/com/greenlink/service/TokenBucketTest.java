@@ -0,0 +1,23 @@
+package com.greenlink.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    @Test
+    void burstIsFreeThenCallersQueueAtTheRefillRate() {
+        TokenBucket bucket = new TokenBucket(1, 2);
+
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.reserve()).isZero();
+
+        long third = bucket.reserve();
+        long fourth = bucket.reserve();
+        assertThat(third).isBetween(TimeUnit.MILLISECONDS.toNanos(900), TimeUnit.SECONDS.toNanos(1));
+        assertThat(fourth).isBetween(TimeUnit.MILLISECONDS.toNanos(1900), TimeUnit.SECONDS.toNanos(2));
+    }
+}
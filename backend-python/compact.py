@@ -0,0 +1,96 @@
+"""
+Compact binary solve protocol (POST /solve/compact), mirroring CompactSolverCodec on the Java side.
+
+All values are big-endian. Orders and vehicles are identified by their position, ids never travel.
+
+Request:  "GLR1", int32 order count, int32 vehicle count,
+          int32[orders] latitude, int32[orders] longitude (microdegrees),
+          float32[orders] weightKg, float32[orders] serviceDurationMin,
+          int32[vehicles] startLat, int32[vehicles] startLon (microdegrees, INT32_MIN = none),
+          float32[vehicles] capacityKg (NaN = unlimited),
+          optionally int32 timeLimitMs (absent = no limit)
+Response: "GLS1", int32 route count, then per route:
+          int32 vehicle index, int32 stop count, int32[stops] order index in driving order
+"""
+import math
+import struct
+import sys
+from array import array
+from typing import Dict, List, Optional, Tuple
+
+REQUEST_MAGIC = b"GLR1"
+RESPONSE_MAGIC = b"GLS1"
+MICRODEGREES = 1_000_000
+NO_COORDINATE = -(2 ** 31)
+
+_HEADER = struct.Struct(">4sii")
+_RESPONSE_HEADER = struct.Struct(">4si")
+_ROUTE_HEADER = struct.Struct(">ii")
+_TIME_LIMIT = struct.Struct(">i")
+
+
+def _column(body: bytes, offset: int, code: str, count: int) -> Tuple[array, int]:
+    values = array(code)
+    end = offset + values.itemsize * count
+    values.frombytes(body[offset:end])
+    if sys.byteorder == "little":
+        values.byteswap()
+    return values, end
+
+
+def _coordinate(value: int):
+    return None if value == NO_COORDINATE else value / MICRODEGREES
+
+
+def decode_request(body: bytes) -> Tuple[List[Dict], List[Dict], Optional[int]]:
+    if len(body) < _HEADER.size:
+        raise ValueError("Compact request too short")
+    magic, order_count, vehicle_count = _HEADER.unpack_from(body)
+    if magic != REQUEST_MAGIC or order_count < 0 or vehicle_count < 0:
+        raise ValueError("Not a compact solve request")
+    columns_end = _HEADER.size + 16 * order_count + 12 * vehicle_count
+    if len(body) not in (columns_end, columns_end + _TIME_LIMIT.size):
+        raise ValueError("Compact request length does not match its counts")
+
+    offset = _HEADER.size
+    lat, offset = _column(body, offset, "i", order_count)
+    lon, offset = _column(body, offset, "i", order_count)
+    weight, offset = _column(body, offset, "f", order_count)
+    duration, offset = _column(body, offset, "f", order_count)
+    start_lat, offset = _column(body, offset, "i", vehicle_count)
+    start_lon, offset = _column(body, offset, "i", vehicle_count)
+    capacity, offset = _column(body, offset, "f", vehicle_count)
+
+    orders = [
+        {
+            "id": i,
+            "latitude": lat[i] / MICRODEGREES,
+            "longitude": lon[i] / MICRODEGREES,
+            "weightKg": weight[i],
+            "serviceDurationMin": duration[i],
+        }
+        for i in range(order_count)
+    ]
+    vehicles = [
+        {
+            "id": v,
+            "capacityKg": None if math.isnan(capacity[v]) else capacity[v],
+            "startLat": _coordinate(start_lat[v]),
+            "startLon": _coordinate(start_lon[v]),
+        }
+        for v in range(vehicle_count)
+    ]
+    time_limit_ms = _TIME_LIMIT.unpack_from(body, columns_end)[0] if len(body) > columns_end else None
+    return orders, vehicles, time_limit_ms
+
+
+def encode_response(routes: List[Dict]) -> bytes:
+    """routes as returned by solver.solve_multi_vehicle for decode_request input (ids are indexes)."""
+    out = bytearray(_RESPONSE_HEADER.pack(RESPONSE_MAGIC, len(routes)))
+    for route in routes:
+        stops = array("i", (stop["id"] for stop in route["stops"]))
+        if sys.byteorder == "little":
+            stops.byteswap()
+        out += _ROUTE_HEADER.pack(route["vehicleId"], len(stops))
+        out += stops.tobytes()
+    return bytes(out)
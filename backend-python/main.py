@@ -1,33 +1,30 @@
-from fastapi import FastAPI, HTTPException, Request
+from fastapi import FastAPI, HTTPException, Request, Response
+from fastapi.concurrency import run_in_threadpool
 from pydantic import BaseModel, Field, ConfigDict
 from typing import List, Optional
+import compact
 import solver
-import json
+import logging
+import time
 
 app = FastAPI()
 
-# Add middleware to log all incoming requests
+logger = logging.getLogger("greenlink.solver")
+logging.basicConfig(level=logging.INFO, format="%(asctime)s %(levelname)s %(name)s %(message)s")
+
+# One line per request: method, path, status and duration. Bodies are never logged here;
+# payload traces are sampled on the Java side.
 @app.middleware("http")
 async def log_requests(request: Request, call_next):
-    print(f"\n=== INCOMING REQUEST ===")
-    print(f"Method: {request.method}")
-    print(f"URL: {request.url}")
-    print(f"Headers: {dict(request.headers)}")
-
-    # Read the body
-    body = await request.body()
-    print(f"Raw Body Length: {len(body)} bytes")
-    print(f"Raw Body: {body[:500]}")  # First 500 bytes
-
-    # Important: We need to create a new request with the body for downstream processing
-    async def receive():
-        return {"type": "http.request", "body": body}
-
-    request._receive = receive
-
+    started = time.perf_counter()
     response = await call_next(request)
-    print(f"Response Status: {response.status_code}")
-    print(f"======================\n")
+    logger.info(
+        "request method=%s path=%s status=%d duration_ms=%.1f",
+        request.method,
+        request.url.path,
+        response.status_code,
+        (time.perf_counter() - started) * 1000,
+    )
     return response
 
 class Order(BaseModel):
@@ -50,28 +47,56 @@ class RouteRequest(BaseModel):
     # This matches your RouteRequest.java fields exactly
     orders: List[Order]
     vehicles: List[Vehicle]
+    # Wall-clock budget; routes are finished by straight line once it runs out
+    timeLimitMs: Optional[float] = None
     model_config = ConfigDict(extra="allow")
 
 @app.post("/solve")
 def solve(data: RouteRequest):
     try:
-        print(f"--- Received request with {len(data.orders)} orders and {len(data.vehicles)} vehicles ---")
-
         # 1. Convert models to dictionaries for solver.py
         orders_list = [o.model_dump() for o in data.orders]
         vehicles_list = [v.model_dump() for v in data.vehicles]
 
-        print(f"Sample order: {orders_list[0] if orders_list else 'None'}")
-        print(f"Vehicles: {len(vehicles_list)}")
-
         # 2. Call solver.py
-        result = solver.solve_multi_vehicle(orders_list, vehicles_list)
-
-        print(f"--- Optimization complete: {len(result)} routes ---")
+        started = time.perf_counter()
+        result = solver.solve_multi_vehicle(orders_list, vehicles_list, data.timeLimitMs)
+        logger.info(
+            "solve orders=%d vehicles=%d routes=%d solve_ms=%.1f",
+            len(orders_list),
+            len(vehicles_list),
+            len(result),
+            (time.perf_counter() - started) * 1000,
+        )
 
         # 3. Return multi-route structure
         return {"routes": result}
 
     except Exception as e:
-        print(f"Solver Error: {e}")
-        raise HTTPException(status_code=500, detail=str(e))
\ No newline at end of file
+        logger.exception("solve failed orders=%d vehicles=%d", len(data.orders), len(data.vehicles))
+        raise HTTPException(status_code=500, detail=str(e))
+
+
+# Same solve over the compact binary protocol (see compact.py): columnar, index-based, about an order
+# of magnitude smaller than the JSON exchange for large fleets.
+@app.post("/solve/compact")
+async def solve_compact(request: Request):
+    try:
+        orders_list, vehicles_list, time_limit_ms = compact.decode_request(await request.body())
+    except ValueError as e:
+        raise HTTPException(status_code=400, detail=str(e))
+
+    try:
+        started = time.perf_counter()
+        result = await run_in_threadpool(solver.solve_multi_vehicle, orders_list, vehicles_list, time_limit_ms)
+        logger.info(
+            "solve protocol=compact orders=%d vehicles=%d routes=%d solve_ms=%.1f",
+            len(orders_list),
+            len(vehicles_list),
+            len(result),
+            (time.perf_counter() - started) * 1000,
+        )
+        return Response(content=compact.encode_response(result), media_type="application/octet-stream")
+    except Exception as e:
+        logger.exception("compact solve failed orders=%d vehicles=%d", len(orders_list), len(vehicles_list))
+        raise HTTPException(status_code=500, detail=str(e))
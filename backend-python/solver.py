@@ -1,10 +1,23 @@
+import logging
 import math
+import os
+import time
+from concurrent.futures import ThreadPoolExecutor
 import requests # <--- New Library to talk to OSRM
-from typing import List, Dict
+from typing import List, Dict, Optional
 
 # Configuration: Pointing to your local Docker OSRM server
 OSRM_URL = "http://localhost:5000/route/v1/driving"
 
+logger = logging.getLogger("greenlink.solver")
+
+# Fallback depot (NYC City Hall) for vehicles without a start location
+DEFAULT_START_LAT = 40.7128
+DEFAULT_START_LON = -74.0060
+EARTH_RADIUS_METERS = 6_371_000.0
+# Vehicles routed concurrently (each route is a series of OSRM requests)
+ROUTING_WORKERS = int(os.environ.get("SOLVER_ROUTING_WORKERS", "8"))
+
 def get_osrm_distance(lat1, lon1, lat2, lon2):
     """
     Calls the local OSRM server to get the real-world driving distance.
@@ -20,25 +33,31 @@ def get_osrm_distance(lat1, lon1, lat2, lon2):
             # "routes"[0]["distance"] is the driving distance in meters
             return data["routes"][0]["distance"]
         else:
-            print(f"OSRM Error: {response.status_code}")
+            logger.warning("OSRM route request returned %d", response.status_code)
             return 999999999 # Return huge number if route fails so we don't pick it
     except Exception as e:
-        print(f"Connection Error to OSRM: {e}")
+        logger.warning("OSRM route request failed: %s", e)
         return 999999999
 
-def solve_route(orders: List[Dict], vehicle: Dict):
+def solve_route(orders: List[Dict], vehicle: Dict, deadline: Optional[float] = None):
+    # deadline (time.monotonic()) bounds the OSRM calls: once it has passed, the remaining orders are
+    # appended by straight-line nearest neighbour so a route is always complete.
     # 1. Start at the Vehicle's Depot
     # (If vehicle has no start location, default to NYC City Hall)
-    current_lat = vehicle.get("startLat") if vehicle.get("startLat") else 40.7128
-    current_lon = vehicle.get("startLon") if vehicle.get("startLon") else -74.0060
+    current_lat, current_lon = _depot(vehicle)
 
     unvisited = orders.copy()
     route_path = []
 
-    print(f"--- Starting Optimization for {len(orders)} orders (Using OSRM) ---")
+    logger.debug("nearest-neighbour route for %d orders", len(orders))
 
     # 2. Greedy Algorithm (Nearest Neighbor)
     while unvisited:
+        if deadline is not None and time.monotonic() >= deadline:
+            logger.info("time limit reached, %d orders routed by straight line", len(unvisited))
+            route_path.extend(_straight_line_route(unvisited, current_lat, current_lon))
+            break
+
         nearest_order = None
         min_distance = float('inf')
 
@@ -63,95 +82,140 @@ def solve_route(orders: List[Dict], vehicle: Dict):
             current_lat = nearest_order['latitude']
             current_lon = nearest_order['longitude']
             
-            print(f" -> Added Order {nearest_order['id']} ({min_distance:.1f} meters)")
+            logger.debug("added order %s (%.1f m)", nearest_order["id"], min_distance)
 
     return route_path
 
 
-def solve_multi_vehicle(orders: List[Dict], vehicles: List[Dict]):
-    unassigned = orders.copy()
-    routes = []
-
-    # 1) Global assignment: pick the nearest vehicle start for each order (capacity-aware).
-    vehicle_state = []
-    for vehicle in vehicles:
-        capacity = vehicle.get("capacityKg")
-        remaining_capacity = capacity if capacity is not None else float("inf")
-        start_lat = vehicle.get("startLat") if vehicle.get("startLat") else 40.7128
-        start_lon = vehicle.get("startLon") if vehicle.get("startLon") else -74.0060
-        vehicle_state.append({
-            "vehicle": vehicle,
-            "remaining_capacity": remaining_capacity,
-            "start_lat": start_lat,
-            "start_lon": start_lon,
-            "assigned": []
-        })
-
-    while unassigned:
-        best = None
-        best_distance = float("inf")
-
-        for order in unassigned:
-            order_weight = order.get("weightKg") or order.get("weight") or 0
-            for state in vehicle_state:
-                if order_weight > state["remaining_capacity"]:
-                    continue
-
-                dist = get_osrm_distance(
-                    state["start_lat"], state["start_lon"],
-                    order["latitude"], order["longitude"]
-                )
-
-                if dist < best_distance:
-                    best_distance = dist
-                    best = (order, state)
-
-        if best is None:
-            break
+def _straight_line_route(orders: List[Dict], lat, lon):
+    unvisited = orders.copy()
+    path = []
+    while unvisited:
+        nearest = min(unvisited, key=lambda o: _straight_line_meters(lat, lon, o["latitude"], o["longitude"]))
+        path.append(nearest)
+        unvisited.remove(nearest)
+        lat, lon = nearest["latitude"], nearest["longitude"]
+    return path
 
-        order, state = best
-        state["assigned"].append(order)
-        order_weight = order.get("weightKg") or order.get("weight") or 0
-        state["remaining_capacity"] -= order_weight
-        unassigned.remove(order)
-
-    # 2) Build per-vehicle routes with nearest-neighbor on assigned orders.
-    for state in vehicle_state:
-        vehicle = state["vehicle"]
-        assigned = state["assigned"]
-        if not assigned:
-            continue
 
-        current_lat = state["start_lat"]
-        current_lon = state["start_lon"]
-        unvisited = assigned.copy()
-        vehicle_route = []
+def _depot(vehicle: Dict):
+    lat = vehicle.get("startLat") if vehicle.get("startLat") else DEFAULT_START_LAT
+    lon = vehicle.get("startLon") if vehicle.get("startLon") else DEFAULT_START_LON
+    return lat, lon
 
-        while unvisited:
-            nearest_order = None
-            min_distance = float("inf")
 
-            for order in unvisited:
-                dist = get_osrm_distance(
-                    current_lat, current_lon,
-                    order["latitude"], order["longitude"]
-                )
+def _weight(order: Dict):
+    return order.get("weightKg") or order.get("weight") or 0
 
-                if dist < min_distance:
-                    min_distance = dist
-                    nearest_order = order
 
-            if nearest_order is None:
-                break
+def _capacity(vehicle: Dict):
+    capacity = vehicle.get("capacityKg")
+    return capacity if capacity is not None else float("inf")
 
-            vehicle_route.append(nearest_order)
-            unvisited.remove(nearest_order)
-            current_lat = nearest_order["latitude"]
-            current_lon = nearest_order["longitude"]
 
-        routes.append({
-            "vehicleId": vehicle.get("id"),
-            "stops": vehicle_route
-        })
+def _straight_line_meters(lat1, lon1, lat2, lon2):
+    d_lat = math.radians(lat2 - lat1)
+    d_lon = math.radians(lon2 - lon1)
+    a = math.sin(d_lat / 2) ** 2 + math.cos(math.radians(lat1)) * math.cos(math.radians(lat2)) * math.sin(d_lon / 2) ** 2
+    return 2 * EARTH_RADIUS_METERS * math.asin(min(1.0, math.sqrt(a)))
 
-    return routes
\ No newline at end of file
+
+def cluster_orders(orders: List[Dict], vehicles: List[Dict]):
+    """
+    Sweep clustering: returns one list of orders per vehicle (same order as `vehicles`).
+    Orders go to the nearest depot (straight line) that still has fleet capacity. Each depot's
+    orders are swept by angle around it, starting in the widest empty wedge, and cut into one
+    sector per vehicle sized by the vehicle's share of the depot's capacity. Orders cut off at a
+    full sector go to the nearest vehicle with room; orders that fit no vehicle are left out.
+    """
+    depots = {}
+    for index, vehicle in enumerate(vehicles):
+        depots.setdefault(_depot(vehicle), []).append(index)
+
+    remaining = {depot: sum(_capacity(vehicles[i]) for i in members) for depot, members in depots.items()}
+    depot_orders = {depot: [] for depot in depots}
+    for order in orders:
+        by_distance = sorted(
+            depots,
+            key=lambda d: _straight_line_meters(d[0], d[1], order["latitude"], order["longitude"]),
+        )
+        chosen = next((d for d in by_distance if remaining[d] >= _weight(order)), by_distance[0])
+        remaining[chosen] -= _weight(order)
+        depot_orders[chosen].append(order)
+
+    clusters = [[] for _ in vehicles]
+    loads = [0.0 for _ in vehicles]
+    leftovers = []
+    for (lat0, lon0), members in depots.items():
+        swept = sorted(
+            depot_orders[(lat0, lon0)],
+            key=lambda o: math.atan2(o["latitude"] - lat0, (o["longitude"] - lon0) * math.cos(math.radians(lat0))),
+        )
+        if not swept:
+            continue
+        angles = [math.atan2(o["latitude"] - lat0, (o["longitude"] - lon0) * math.cos(math.radians(lat0))) for o in swept]
+        # Only the wrap-around gap (last angle to first) spans the seam; co-located orders have no gap
+        gaps = [angles[i] - angles[i - 1] + (2 * math.pi if i == 0 else 0) for i in range(len(swept))]
+        start = max(range(len(swept)), key=lambda i: gaps[i])
+        swept = swept[start:] + swept[:start]
+
+        capacities = [_capacity(vehicles[i]) for i in members]
+        bounded = all(math.isfinite(c) for c in capacities)
+        total_capacity = sum(capacities) if bounded else len(members)
+        # Sectors are cut by weight, or by order count when no order has a weight
+        by_count = sum(_weight(o) for o in swept) == 0
+        total_weight = len(swept) if by_count else sum(_weight(o) for o in swept)
+        shares = [(c if bounded else 1) / total_capacity for c in capacities]
+
+        position = 0
+        target = 0.0
+        cumulative = 0.0
+        for slot, vehicle_index in enumerate(members):
+            target += shares[slot] * total_weight
+            last = slot == len(members) - 1
+            while position < len(swept):
+                order = swept[position]
+                weight = 1 if by_count else _weight(order)
+                if loads[vehicle_index] + _weight(order) > capacities[slot]:
+                    break
+                if clusters[vehicle_index] and not last and cumulative + weight / 2 > target:
+                    break
+                clusters[vehicle_index].append(order)
+                loads[vehicle_index] += _weight(order)
+                cumulative += weight
+                position += 1
+        leftovers.extend(swept[position:])
+
+    # Orders cut off at a full sector: nearest vehicle that still has room
+    for order in leftovers:
+        fitting = [i for i, vehicle in enumerate(vehicles) if loads[i] + _weight(order) <= _capacity(vehicle)]
+        if not fitting:
+            continue
+        chosen = min(fitting, key=lambda i: _straight_line_meters(*_depot(vehicles[i]), order["latitude"], order["longitude"]))
+        clusters[chosen].append(order)
+        loads[chosen] += _weight(order)
+    return clusters
+
+
+def solve_multi_vehicle(orders: List[Dict], vehicles: List[Dict], time_limit_ms: Optional[float] = None):
+    """
+    Clusters orders per vehicle (sweep), then routes every vehicle's orders independently.
+    Routing is bound by OSRM round trips, so the vehicles are routed concurrently.
+    With time_limit_ms, routes still being built when it runs out are finished by straight line.
+    """
+    deadline = time.monotonic() + time_limit_ms / 1000 if time_limit_ms else None
+    clusters = cluster_orders(orders, vehicles)
+    assigned = sum(len(cluster) for cluster in clusters)
+    if assigned < len(orders):
+        logger.warning("%d orders exceed the fleet capacity and stay unassigned", len(orders) - assigned)
+
+    work = [(vehicle, cluster) for vehicle, cluster in zip(vehicles, clusters) if cluster]
+    if not work:
+        return []
+    with ThreadPoolExecutor(max_workers=min(ROUTING_WORKERS, len(work))) as pool:
+        paths = list(pool.map(lambda item: solve_route(item[1], item[0], deadline), work))
+
+    return [
+        {"vehicleId": vehicle.get("id"), "stops": path}
+        for (vehicle, _), path in zip(work, paths)
+    ]
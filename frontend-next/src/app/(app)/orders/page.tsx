@@ -1,18 +1,27 @@
 "use client";
 
-import { useEffect, useMemo, useState, type FormEvent } from "react";
-import { Order, Route, Vehicle } from "@/lib/types";
-import { fetchOrders, deleteOrder, createOrder, fetchRoutes } from "@/lib/api";
+import { useEffect, useMemo, useRef, useState, type ChangeEvent, type FormEvent } from "react";
+import { Order, OrderImportResult, Route, Vehicle } from "@/lib/types";
+import { fetchOrdersPage, deleteOrder, createOrder, fetchRoutes, importOrders } from "@/lib/api";
 import OrderTable from "@/components/orders/OrderTable";
-import { Plus } from "lucide-react";
+import { Plus, Upload } from "lucide-react";
+
+// Rejected rows listed under the import summary; the rest are only counted
+const SHOWN_IMPORT_ERRORS = 5;
 
 export default function OrdersPage() {
   const [orders, setOrders] = useState<Order[]>([]);
   const [routes, setRoutes] = useState<Route[]>([]);
   const [loading, setLoading] = useState(true);
+  const [ordersCursor, setOrdersCursor] = useState<string | null>(null);
+  const [loadingMoreOrders, setLoadingMoreOrders] = useState(false);
   const [isCreateOpen, setIsCreateOpen] = useState(false);
   const [isSubmitting, setIsSubmitting] = useState(false);
   const [formError, setFormError] = useState<string | null>(null);
+  const [isImporting, setIsImporting] = useState(false);
+  const [importResult, setImportResult] = useState<OrderImportResult | null>(null);
+  const [importError, setImportError] = useState<string | null>(null);
+  const importInputRef = useRef<HTMLInputElement>(null);
   const [formState, setFormState] = useState({
     street: "",
     city: "",
@@ -29,12 +38,13 @@ export default function OrdersPage() {
   const loadOrders = async () => {
     try {
       setLoading(true);
-      const [orderData, routeData] = await Promise.all([
-        fetchOrders(),
+      const [orderPage, routePage] = await Promise.all([
+        fetchOrdersPage(),
         fetchRoutes(),
       ]);
-      setOrders(orderData);
-      setRoutes(routeData);
+      setOrders(orderPage.orders);
+      setOrdersCursor(orderPage.nextCursor);
+      setRoutes(routePage.routes);
     } catch (error) {
       console.error("Failed to load orders", error);
     } finally {
@@ -42,6 +52,23 @@ export default function OrdersPage() {
     }
   };
 
+  const loadMoreOrders = async () => {
+    if (!ordersCursor) return;
+    try {
+      setLoadingMoreOrders(true);
+      const page = await fetchOrdersPage(undefined, ordersCursor);
+      setOrders((prev) => {
+        const seen = new Set(prev.map((order) => order.id));
+        return [...prev, ...page.orders.filter((order) => !seen.has(order.id))];
+      });
+      setOrdersCursor(page.nextCursor);
+    } catch (error) {
+      console.error("Failed to load more orders", error);
+    } finally {
+      setLoadingMoreOrders(false);
+    }
+  };
+
   const assignedVehicleByOrderId = useMemo(() => {
     const map = new Map<string, Vehicle>();
     for (const route of routes) {
@@ -77,6 +104,34 @@ export default function OrdersPage() {
     }
   };
 
+  const handleImportFile = async (event: ChangeEvent<HTMLInputElement>) => {
+    const file = event.target.files?.[0];
+    // Reset so choosing the same file again triggers another import
+    event.target.value = "";
+    if (!file) return;
+
+    setImportResult(null);
+    setImportError(null);
+    try {
+      setIsImporting(true);
+      const result = await importOrders(file);
+      setImportResult(result);
+      if (result.imported > 0) {
+        await loadOrders();
+      }
+    } catch (error) {
+      console.error("Failed to import orders", error);
+      const maybeMessage =
+        typeof error === "object" &&
+        error !== null &&
+        "response" in error &&
+        (error as { response?: { data?: { message?: string } } }).response?.data?.message;
+      setImportError(maybeMessage || "Failed to import orders. Please check the file and try again.");
+    } finally {
+      setIsImporting(false);
+    }
+  };
+
   const handleOpenCreate = () => {
     setFormError(null);
     setIsCreateOpen(true);
@@ -162,23 +217,91 @@ export default function OrdersPage() {
           <h1 className="text-2xl font-bold text-slate-900">Order Management</h1>
           <p className="text-slate-500">View and manage all delivery requests.</p>
         </div>
-        <button
-          onClick={handleOpenCreate}
-          className="flex w-full items-center justify-center gap-2 rounded-lg bg-emerald-600 px-4 py-2 font-medium text-white shadow-sm transition-colors hover:bg-emerald-700 sm:w-auto"
-        >
-          <Plus size={20} />
-          New Order
-        </button>
+        <div className="flex flex-col gap-3 sm:flex-row">
+          <input
+            ref={importInputRef}
+            type="file"
+            accept=".csv,.ndjson,.jsonl,text/csv,application/x-ndjson"
+            className="hidden"
+            onChange={handleImportFile}
+          />
+          <button
+            onClick={() => importInputRef.current?.click()}
+            disabled={isImporting}
+            className="flex w-full items-center justify-center gap-2 rounded-lg border border-slate-200 bg-white px-4 py-2 font-medium text-slate-700 shadow-sm transition-colors hover:bg-slate-100 disabled:opacity-60 sm:w-auto"
+          >
+            <Upload size={20} />
+            {isImporting ? "Importing..." : "Import CSV"}
+          </button>
+          <button
+            onClick={handleOpenCreate}
+            className="flex w-full items-center justify-center gap-2 rounded-lg bg-emerald-600 px-4 py-2 font-medium text-white shadow-sm transition-colors hover:bg-emerald-700 sm:w-auto"
+          >
+            <Plus size={20} />
+            New Order
+          </button>
+        </div>
       </div>
 
+      {importError ? (
+        <div className="rounded-lg border border-red-200 bg-red-50 px-4 py-3 text-sm text-red-700">{importError}</div>
+      ) : null}
+      {importResult ? (
+        <div
+          className={`rounded-lg border px-4 py-3 text-sm ${
+            importResult.failed > 0
+              ? "border-amber-200 bg-amber-50 text-amber-800"
+              : "border-emerald-200 bg-emerald-50 text-emerald-800"
+          }`}
+        >
+          <div className="flex items-start justify-between gap-4">
+            <p>
+              Imported {importResult.imported} of {importResult.totalRows} rows
+              {importResult.failed > 0 ? `, ${importResult.failed} rejected` : ""}.
+            </p>
+            <button
+              onClick={() => setImportResult(null)}
+              className="text-xs font-medium underline-offset-2 hover:underline"
+            >
+              Dismiss
+            </button>
+          </div>
+          {importResult.errors.length > 0 ? (
+            <ul className="mt-2 list-disc space-y-0.5 pl-5">
+              {importResult.errors.slice(0, SHOWN_IMPORT_ERRORS).map((rowError) => (
+                <li key={rowError.line}>
+                  Line {rowError.line}: {rowError.message}
+                </li>
+              ))}
+              {importResult.failed > SHOWN_IMPORT_ERRORS ? (
+                <li>and {importResult.failed - SHOWN_IMPORT_ERRORS} more</li>
+              ) : null}
+            </ul>
+          ) : null}
+        </div>
+      ) : null}
+
       {loading ? (
         <div className="text-center py-12 text-slate-500">Loading orders...</div>
       ) : (
-        <OrderTable
-          orders={orders}
-          onDelete={handleDelete}
-          assignedVehicleByOrderId={assignedVehicleByOrderId}
-        />
+        <div className="space-y-4">
+          <OrderTable
+            orders={orders}
+            onDelete={handleDelete}
+            assignedVehicleByOrderId={assignedVehicleByOrderId}
+          />
+          {ordersCursor ? (
+            <div className="flex justify-center">
+              <button
+                onClick={loadMoreOrders}
+                disabled={loadingMoreOrders}
+                className="rounded-lg border border-slate-200 bg-white px-4 py-2 text-sm font-medium text-slate-700 shadow-sm hover:bg-slate-100 disabled:opacity-60"
+              >
+                {loadingMoreOrders ? "Loading..." : "Load more orders"}
+              </button>
+            </div>
+          ) : null}
+        </div>
       )}
 
       {isCreateOpen ? (
@@ -3,7 +3,7 @@
 import { useEffect, useMemo, useState } from "react";
 import { Plus } from "lucide-react";
 import { Driver, Order, Route, Vehicle } from "@/lib/types";
-import { fetchVehicles, createVehicle, deleteVehicle, fetchRoutes, fetchOrders, fetchDrivers } from "@/lib/api";
+import { fetchVehicles, createVehicle, deleteVehicle, fetchRoutes, fetchDrivers } from "@/lib/api";
 import VehicleTable from "@/components/vehicles/VehicleTable";
 import NewVehicleModal from "@/components/vehicles/NewVehicleModal";
 
@@ -13,7 +13,6 @@ const DEFAULT_END_SHIFT = 1020;
 export default function VehiclesPage() {
   const [vehicles, setVehicles] = useState<Vehicle[]>([]);
   const [routes, setRoutes] = useState<Route[]>([]);
-  const [orders, setOrders] = useState<Order[]>([]);
   const [drivers, setDrivers] = useState<Driver[]>([]);
   const [loading, setLoading] = useState(true);
   const [error, setError] = useState<string | null>(null);
@@ -27,15 +26,14 @@ export default function VehiclesPage() {
   const loadVehicles = async () => {
     try {
       setLoading(true);
-      const [vehicleData, routeData, orderData, driverData] = await Promise.all([
+      // Route rows carry their orders in stop order, so the orders themselves are not fetched here
+      const [vehicleData, routePage, driverData] = await Promise.all([
         fetchVehicles(),
         fetchRoutes(),
-        fetchOrders(),
         fetchDrivers(),
       ]);
       setVehicles(vehicleData);
-      setRoutes(routeData);
-      setOrders(orderData);
+      setRoutes(routePage.routes);
       setDrivers(driverData);
       setError(null);
     } catch (err) {
@@ -47,30 +45,14 @@ export default function VehiclesPage() {
 
   const assignedOrdersByVehicleId = useMemo(() => {
     const map = new Map<string, Order[]>();
-    const orderLookup = new Map(orders.map((order) => [order.id, order]));
     for (const route of routes) {
       const vehicleId = route.vehicle?.id || route.vehicleId;
       if (!vehicleId) continue;
       const orders: Order[] = [];
       const stops = route.orders || route.stops || [];
       for (const stop of stops) {
-        if (!stop) continue;
-        if (typeof stop === "string") {
-          const match = orderLookup.get(stop);
-          if (match) orders.push(match);
-          continue;
-        }
-        if (typeof stop === "object") {
-          const id = "id" in stop ? stop.id : undefined;
-          const orderId = "orderId" in stop ? stop.orderId : undefined;
-          const resolvedId = orderId || id;
-          if (resolvedId && orderLookup.has(String(resolvedId))) {
-            orders.push(orderLookup.get(String(resolvedId))!);
-            continue;
-          }
-          if ("latitude" in stop && "longitude" in stop) {
-            orders.push(stop as Order);
-          }
+        if (stop && typeof stop === "object" && "latitude" in stop && "longitude" in stop) {
+          orders.push(stop as Order);
         }
       }
       if (orders.length > 0) {
@@ -78,7 +60,7 @@ export default function VehiclesPage() {
       }
     }
     return map;
-  }, [routes, orders]);
+  }, [routes]);
 
   const assignedDriverByVehicleId = useMemo(() => {
     const map = new Map<string, Driver>();
@@ -3,6 +3,7 @@
 import { useEffect, useMemo, useState } from "react";
 import { useRouter } from "next/navigation";
 import { fetchAccountProfile, fetchDriverRoute, markOrderDelivered } from "@/lib/api";
+import { subscribeLiveUpdates } from "@/lib/live";
 import { Route, Order } from "@/lib/types";
 import dynamic from "next/dynamic";
 import { CheckCircle2, MapPin, Navigation } from "lucide-react";
@@ -26,6 +27,7 @@ export default function DriverPortalPage() {
   const [focusedStopId, setFocusedStopId] = useState<string | null>(null);
   const [etaMinutes, setEtaMinutes] = useState<number | null>(null);
   const [currentToken, setCurrentToken] = useState<string | null>(null);
+  const [liveConnected, setLiveConnected] = useState(false);
 
   const mapOrders = useMemo(
     () => orders.filter((order) => Number.isFinite(order.latitude) && Number.isFinite(order.longitude)),
@@ -55,13 +57,34 @@ export default function DriverPortalPage() {
 
   useEffect(() => {
     loadRoute(false);
+  }, []);
 
-    // Auto-refresh route data every 10 seconds to sync with dispatcher updates
+  // Re-planning and deliveries arrive as live updates; poll every 10 seconds only while the stream is down
+  useEffect(() => {
+    if (liveConnected) {
+      return;
+    }
     const intervalId = setInterval(() => {
       loadRoute(true); // silent mode - don't show loading state
     }, 10000); // 10 seconds
 
     return () => clearInterval(intervalId);
+  }, [liveConnected]);
+
+  useEffect(() => {
+    return subscribeLiveUpdates(
+      (event) => {
+        if (event.type === "order.delivered" || event.type === "routes.changed" || event.type === "resync") {
+          loadRoute(true);
+        }
+      },
+      (connected, reconnected) => {
+        setLiveConnected(connected);
+        if (reconnected) {
+          loadRoute(true);
+        }
+      }
+    );
   }, []);
 
   // Detect token changes (new user logged in) and reload all data
@@ -1,8 +1,17 @@
 "use client";
 
 import OrderList from "@/components/dashboard/OrderList";
-import { Order, Route, Vehicle } from "@/lib/types";
-import { fetchOrders, fetchVehicles, fetchRoutes, optimizeRoutes } from "@/lib/api";
+import { Order, Route, RouteStop, Vehicle } from "@/lib/types";
+import {
+  fetchOrderCounts,
+  fetchOrdersPage,
+  fetchVehicles,
+  fetchRoutes,
+  fetchRoutesPage,
+  optimizeRoutes,
+  OrderCounts,
+} from "@/lib/api";
+import { subscribeLiveUpdates, toOrder } from "@/lib/live";
 import { useState, useEffect, useCallback } from "react";
 import { Zap, RefreshCw } from "lucide-react";
 import dynamic from "next/dynamic";
@@ -19,7 +28,14 @@ const Map = dynamic(() => import("@/components/dashboard/Map"), {
 
 export default function DashboardPage() {
   const [orders, setOrders] = useState<Order[]>([]);
+  // Orders load a page at a time; set while the server has more
+  const [ordersCursor, setOrdersCursor] = useState<string | null>(null);
+  const [loadingMoreOrders, setLoadingMoreOrders] = useState(false);
+  // Exact totals from the server; orders only holds the pages loaded so far
+  const [orderCounts, setOrderCounts] = useState<OrderCounts | null>(null);
   const [routes, setRoutes] = useState<Route[]>([]);
+  const [routesCursor, setRoutesCursor] = useState<string | null>(null);
+  const [loadingMoreRoutes, setLoadingMoreRoutes] = useState(false);
   const [vehicles, setVehicles] = useState<Vehicle[]>([]);
   const [loading, setLoading] = useState(true);
   const [optimizing, setOptimizing] = useState(false);
@@ -28,7 +44,9 @@ export default function DashboardPage() {
   const [isMobile, setIsMobile] = useState(false);
   const [lastUpdated, setLastUpdated] = useState<Date | null>(null);
   const [currentToken, setCurrentToken] = useState<string | null>(null);
+  const [liveConnected, setLiveConnected] = useState(false);
 
+  // Fallback polling, only while the live-update stream is down
   const liveRefreshMs = 15000;
 
   const loadData = useCallback(async (options?: { silent?: boolean }) => {
@@ -37,14 +55,19 @@ export default function DashboardPage() {
       if (!silent) {
         setLoading(true);
       }
-      const [orderData, vehicleData, routeData] = await Promise.all([
-        fetchOrders(),
+      // A refresh goes back to the first page rather than re-reading every page loaded so far
+      const [orderPage, counts, vehicleData, routePage] = await Promise.all([
+        fetchOrdersPage(),
+        fetchOrderCounts(),
         fetchVehicles(),
         fetchRoutes(),
       ]);
-      setOrders(orderData);
+      setOrders(orderPage.orders);
+      setOrdersCursor(orderPage.nextCursor);
+      setOrderCounts(counts);
       setVehicles(vehicleData);
-      setRoutes(routeData);
+      setRoutes(routePage.routes);
+      setRoutesCursor(routePage.nextCursor);
       setLastUpdated(new Date());
     } catch (error) {
       console.error("Failed to load orders:", error);
@@ -58,6 +81,48 @@ export default function DashboardPage() {
     }
   }, []);
 
+  const refreshCounts = useCallback(async () => {
+    try {
+      setOrderCounts(await fetchOrderCounts());
+    } catch (error) {
+      console.error("Failed to load order counts:", error);
+    }
+  }, []);
+
+  const loadMoreOrders = async () => {
+    if (!ordersCursor) return;
+    try {
+      setLoadingMoreOrders(true);
+      const page = await fetchOrdersPage(undefined, ordersCursor);
+      setOrders((prev) => {
+        const seen = new Set(prev.map((order) => order.id));
+        return [...prev, ...page.orders.filter((order) => !seen.has(order.id))];
+      });
+      setOrdersCursor(page.nextCursor);
+    } catch (error) {
+      console.error("Failed to load more orders:", error);
+    } finally {
+      setLoadingMoreOrders(false);
+    }
+  };
+
+  const loadMoreRoutes = async () => {
+    if (!routesCursor) return;
+    try {
+      setLoadingMoreRoutes(true);
+      const page = await fetchRoutesPage(routesCursor);
+      setRoutes((prev) => {
+        const seen = new Set(prev.map((route) => route.id));
+        return [...prev, ...page.routes.filter((route) => !seen.has(route.id))];
+      });
+      setRoutesCursor(page.nextCursor);
+    } catch (error) {
+      console.error("Failed to load more routes:", error);
+    } finally {
+      setLoadingMoreRoutes(false);
+    }
+  };
+
   useEffect(() => {
     setIsClient(true);
 
@@ -73,12 +138,60 @@ export default function DashboardPage() {
   }, [loadData]);
 
   useEffect(() => {
+    if (liveConnected) {
+      return;
+    }
     const intervalId = window.setInterval(() => {
       loadData({ silent: true });
     }, liveRefreshMs);
 
     return () => window.clearInterval(intervalId);
-  }, [loadData, liveRefreshMs]);
+  }, [loadData, liveRefreshMs, liveConnected]);
+
+  // Small order deltas are applied in place; imports, re-planning and resyncs touch many rows, so those reload
+  useEffect(() => {
+    const markDelivered = (stop: RouteStop, id: string): RouteStop =>
+      typeof stop === "object" && stop !== null && "status" in stop && stop.id === id
+        ? { ...stop, status: "DELIVERED" }
+        : stop;
+
+    return subscribeLiveUpdates(
+      (event) => {
+        switch (event.type) {
+          case "order.created": {
+            const created = toOrder(event.data);
+            setOrders((prev) => [...prev.filter((order) => order.id !== created.id), created]);
+            break;
+          }
+          case "order.delivered": {
+            const delivered = toOrder(event.data);
+            setOrders((prev) => prev.map((order) => (order.id === delivered.id ? delivered : order)));
+            setRoutes((prev) =>
+              prev.map((route) => ({
+                ...route,
+                orders: route.orders?.map((stop) => markDelivered(stop, delivered.id)),
+              }))
+            );
+            break;
+          }
+          case "order.deleted":
+            setOrders((prev) => prev.filter((order) => order.id !== event.data.id));
+            break;
+          default:
+            loadData({ silent: true });
+            return;
+        }
+        refreshCounts();
+        setLastUpdated(new Date());
+      },
+      (connected, reconnected) => {
+        setLiveConnected(connected);
+        if (reconnected) {
+          loadData({ silent: true });
+        }
+      }
+    );
+  }, [loadData, refreshCounts]);
 
   // Detect token changes (new user logged in) and reload all data
   useEffect(() => {
@@ -88,8 +201,11 @@ export default function DashboardPage() {
       setCurrentToken(token);
       // Clear previous user's data when token changes
       setOrders([]);
+      setOrdersCursor(null);
+      setOrderCounts(null);
       setVehicles([]);
       setRoutes([]);
+      setRoutesCursor(null);
       setLastUpdated(null);
       // Reload with new token
       loadData();
@@ -112,7 +228,9 @@ export default function DashboardPage() {
         console.log("First route orders:", optimizedRoutes[0].orders);
       }
 
+      // The job returns the whole new plan, so there is no further page to follow
       setRoutes(optimizedRoutes);
+      setRoutesCursor(null);
 
       const allStops = optimizedRoutes.flatMap((route) => route.stops || route.orders || []);
       console.log("All stops extracted:", allStops);
@@ -153,6 +271,7 @@ export default function DashboardPage() {
         return updated;
       });
 
+      refreshCounts();
       alert(`Optimization Successful! Created ${optimizedRoutes.length} routes.`);
     } catch (error) {
       console.error("Optimization failed:", error);
@@ -162,9 +281,9 @@ export default function DashboardPage() {
     }
   };
 
-  const totalOrders = orders.length;
-  const assignedOrders = orders.filter((order) => order.status === "ASSIGNED").length;
-  const deliveredOrders = orders.filter((order) => order.status === "DELIVERED").length;
+  const totalOrders = orderCounts?.total ?? 0;
+  const assignedOrders = orderCounts?.byStatus.ASSIGNED ?? 0;
+  const deliveredOrders = orderCounts?.byStatus.DELIVERED ?? 0;
   const unassignedOrders = totalOrders - assignedOrders - deliveredOrders;
   const availableVehicles = vehicles.filter((vehicle) => (vehicle.status || "AVAILABLE") === "AVAILABLE").length;
   const inTransitVehicles = vehicles.filter((vehicle) => vehicle.status === "IN_TRANSIT").length;
@@ -233,6 +352,15 @@ export default function DashboardPage() {
             ? `Last refreshed ${lastUpdated.toLocaleTimeString([], { hour: "2-digit", minute: "2-digit" })}`
             : "Waiting for first refresh"}
         </span>
+        {routesCursor ? (
+          <button
+            onClick={loadMoreRoutes}
+            disabled={loadingMoreRoutes}
+            className="inline-flex items-center rounded-full border border-slate-200 bg-white px-3 py-1 font-medium text-slate-600 hover:bg-slate-100 disabled:cursor-not-allowed disabled:opacity-60"
+          >
+            {loadingMoreRoutes ? "Loading routes..." : `Showing ${routes.length} routes, load more`}
+          </button>
+        ) : null}
       </div>
 
       <div className="flex items-center gap-2 rounded-lg border border-slate-200 bg-white p-1 shadow-sm md:hidden">
@@ -269,7 +397,13 @@ export default function DashboardPage() {
               Loading Orders...
             </div>
           ) : (
-            <OrderList orders={orders} />
+            <OrderList
+              orders={orders}
+              hasMore={Boolean(ordersCursor)}
+              loadingMore={loadingMoreOrders}
+              onLoadMore={loadMoreOrders}
+              total={orderCounts?.total}
+            />
           )}
         </div>
         <div
@@ -6,9 +6,15 @@ import clsx from "clsx";
 
 interface OrderListProps {
   orders: Order[];
+  // Set while the server has further pages; the list then ends with a "Load more" button
+  hasMore?: boolean;
+  loadingMore?: boolean;
+  onLoadMore?: () => void;
+  // Exact count from the server; without it the badge counts the loaded orders
+  total?: number;
 }
 
-export default function OrderList({ orders }: OrderListProps) {
+export default function OrderList({ orders, hasMore = false, loadingMore = false, onLoadMore, total }: OrderListProps) {
   return (
     <div className="bg-white rounded-lg shadow-sm border border-slate-200 flex flex-col h-full md:h-[600px]">
       {/* Header */}
@@ -18,7 +24,8 @@ export default function OrderList({ orders }: OrderListProps) {
           Unassigned Orders
         </h2>
         <span className="text-xs font-medium bg-slate-200 text-slate-600 px-2 py-1 rounded-full">
-          {orders.length}
+          {total ?? orders.length}
+          {total === undefined && hasMore ? "+" : ""}
         </span>
       </div>
 
@@ -62,6 +69,15 @@ export default function OrderList({ orders }: OrderListProps) {
             </div>
           ))
         )}
+        {hasMore && onLoadMore ? (
+          <button
+            onClick={onLoadMore}
+            disabled={loadingMore}
+            className="w-full rounded-lg border border-slate-200 py-2 text-sm font-medium text-slate-600 hover:bg-slate-50 disabled:cursor-not-allowed disabled:opacity-60"
+          >
+            {loadingMore ? "Loading..." : "Load more orders"}
+          </button>
+        ) : null}
       </div>
     </div>
   );
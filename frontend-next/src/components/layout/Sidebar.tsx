@@ -7,6 +7,7 @@ import { LayoutDashboard, Package, Truck, MapPin, LogOut, Menu, X, Sparkles, Use
 import clsx from "clsx";
 import Image from "next/image"; // Import the Image component
 import { fetchRoutes, fetchVehicles } from "@/lib/api";
+import { subscribeLiveUpdates } from "@/lib/live";
 import { Route, Vehicle } from "@/lib/types";
 
 const navItems = [
@@ -25,7 +26,9 @@ export default function Sidebar() {
   const [routes, setRoutes] = useState<Route[]>([]);
   const [loadingVehicles, setLoadingVehicles] = useState(true);
   const [loadingRoutes, setLoadingRoutes] = useState(true);
+  const [liveConnected, setLiveConnected] = useState(false);
 
+  // Fallback polling, only while the live-update stream is down
   const liveRefreshMs = 15000;
 
   const handleSignOut = () => {
@@ -42,12 +45,13 @@ export default function Sidebar() {
         setLoadingVehicles(true);
         setLoadingRoutes(true);
       }
-      const [vehicleData, routeData] = await Promise.all([
+      // Route progress of the first page; a default page covers one route per vehicle of most fleets
+      const [vehicleData, routePage] = await Promise.all([
         fetchVehicles(),
         fetchRoutes(),
       ]);
       setVehicles(vehicleData);
-      setRoutes(routeData);
+      setRoutes(routePage.routes);
     } catch (error) {
       console.warn("Unable to load vehicles", error);
     } finally {
@@ -63,12 +67,32 @@ export default function Sidebar() {
   }, [loadDispatchData]);
 
   useEffect(() => {
+    if (liveConnected) {
+      return;
+    }
     const intervalId = window.setInterval(() => {
       loadDispatchData({ silent: true });
     }, liveRefreshMs);
 
     return () => window.clearInterval(intervalId);
-  }, [loadDispatchData, liveRefreshMs]);
+  }, [loadDispatchData, liveRefreshMs, liveConnected]);
+
+  // Route progress only changes with deliveries and re-planning
+  useEffect(() => {
+    return subscribeLiveUpdates(
+      (event) => {
+        if (event.type === "order.delivered" || event.type === "routes.changed" || event.type === "resync") {
+          loadDispatchData({ silent: true });
+        }
+      },
+      (connected, reconnected) => {
+        setLiveConnected(connected);
+        if (reconnected) {
+          loadDispatchData({ silent: true });
+        }
+      }
+    );
+  }, [loadDispatchData]);
 
   const routeStatsByVehicleId = routes.reduce((acc, route) => {
     const vehicleId = route.vehicleId || route.vehicle?.id;
@@ -1,5 +1,5 @@
 import axios from "axios";
-import { AccountProfile, Driver, Order, Route, Vehicle } from "./types";
+import { AccountProfile, Driver, OptimizationJob, Order, OrderImportResult, Route, Vehicle } from "./types";
 
 const apiRoot = (() => {
     if (typeof window !== "undefined") {
@@ -11,7 +11,7 @@ const apiRoot = (() => {
 
     return process.env.NEXT_PUBLIC_API_BASE_URL ?? "http://localhost:8080";
 })();
-const API_BASE_URL = `${apiRoot.replace(/\/$/, "")}/api`;
+export const API_BASE_URL = `${apiRoot.replace(/\/$/, "")}/api`;
 
 const apiClient = axios.create({
   baseURL: API_BASE_URL,
@@ -37,26 +37,95 @@ export const fetchVehicles = async (): Promise<Vehicle[]> => {
     return response.data;
 };
 
-export const fetchOrders = async (): Promise<Order[]> => {
-    const response = await apiClient.get<Order[]>('/orders');
+export interface OrderFilters {
+    status?: Order["status"];
+    routeId?: string;
+    minLat?: number;
+    maxLat?: number;
+    minLon?: number;
+    maxLon?: number;
+    limit?: number;
+}
+
+// One keyset page, oldest first; nextCursor is null on the last page.
+// Callers ask for the next page on demand ("Load more") rather than walking the whole organization.
+export const fetchOrdersPage = async (
+    filters?: OrderFilters,
+    cursor?: string
+): Promise<{ orders: Order[]; nextCursor: string | null }> => {
+    const response = await apiClient.get<Order[]>('/orders', { params: { ...filters, cursor } });
+    return { orders: response.data, nextCursor: response.headers['x-next-cursor'] ?? null };
+};
+
+export interface OrderCounts {
+    total: number;
+    byStatus: Record<string, number>;
+}
+
+// Exact totals per status, counted on the server
+export const fetchOrderCounts = async (): Promise<OrderCounts> => {
+    const response = await apiClient.get<OrderCounts>('/orders/counts');
     return response.data;
 };
 
-export const fetchRoutes = async (): Promise<Route[]> => {
-    // Lets assume I have a GET /api/routes endpoint. 
-    // If not, I can create one in Java later, or just return empty for now.
+export const fetchRoutesPage = async (
+    cursor?: string
+): Promise<{ routes: Route[]; nextCursor: string | null }> => {
+    const response = await apiClient.get<Route[]>('/routes', { params: { cursor } });
+    return { routes: response.data, nextCursor: response.headers['x-next-cursor'] ?? null };
+};
+
+// First page of the organization's routes with vehicle and orders (in stop order); an empty page when
+// routes are unavailable. Later pages are fetched with fetchRoutesPage only when the user asks for them.
+export const fetchRoutes = async (): Promise<{ routes: Route[]; nextCursor: string | null }> => {
     try {
-        const response = await apiClient.get<Route[]>('/routes');
-        return response.data;
+        return await fetchRoutesPage();
     } catch (error) {
         console.warn("Could not fetch routes", error);
-        return [];
+        return { routes: [], nextCursor: null };
     }
 };
 
-export const optimizeRoutes = async (): Promise<Route[]> => {
-    //Trigger Python solver via Java endpoint.
-    const response = await apiClient.post<Route[]>('/routes/optimize');
+const OPTIMIZATION_POLL_MS = 1000;
+
+export const fetchOptimizationJob = async (jobId: string): Promise<OptimizationJob> => {
+    const response = await apiClient.get<OptimizationJob>(`/routes/optimize/${jobId}`);
+    return response.data;
+};
+
+export const optimizeRoutes = async (
+    onProgress?: (job: OptimizationJob) => void,
+    incremental = false,
+    timeBudgetMs?: number
+): Promise<Route[]> => {
+    // The backend queues the optimization and returns a job; poll it until it finishes.
+    // incremental keeps the current routes and only places orders that have no route yet.
+    // timeBudgetMs caps the solve (server default when omitted); the best plan found by then is returned,
+    // and a later improvement arrives as a "routes.changed" live update with mode "improved".
+    let job = (await apiClient.post<OptimizationJob>('/routes/optimize', null, {
+        params: {
+            ...(incremental ? { incremental: true } : {}),
+            ...(timeBudgetMs !== undefined ? { timeBudgetMs } : {}),
+        },
+    })).data;
+    while (job.status === 'QUEUED' || job.status === 'RUNNING') {
+        onProgress?.(job);
+        await new Promise((resolve) => setTimeout(resolve, OPTIMIZATION_POLL_MS));
+        job = await fetchOptimizationJob(job.jobId);
+    }
+    onProgress?.(job);
+    if (job.status === 'FAILED') {
+        throw new Error(job.message ?? 'Route optimization failed.');
+    }
+    return job.routes ?? [];
+};
+
+export const importOrders = async (file: File): Promise<OrderImportResult> => {
+    // CSV needs a header row (address, latitude, longitude, weightKg, serviceDurationMin); anything else is sent as NDJSON.
+    const isCsv = file.name.toLowerCase().endsWith('.csv') || file.type === 'text/csv';
+    const response = await apiClient.post<OrderImportResult>('/orders/import', file, {
+        headers: { 'Content-Type': isCsv ? 'text/csv' : 'application/x-ndjson' },
+    });
     return response.data;
 };
 
@@ -153,6 +222,7 @@ export async function fetchDriverRoute(): Promise<{
         longitude: number | null;
         status: string;
         serviceDurationMin?: number | null;
+        plannedArrivalMin?: number | null;
     }>;
 }> {
     const response = await apiClient.get('/driver/route');
@@ -0,0 +1,147 @@
+import { API_BASE_URL } from "./api";
+import { Order } from "./types";
+
+// Order as sent in live updates (nullable fields come through as null)
+export type LiveOrder = Omit<Order, "address" | "routeId"> & {
+    address?: string | null;
+    routeId?: string | null;
+};
+
+export type LiveEvent =
+    | { type: "order.created" | "order.delivered"; data: LiveOrder }
+    | { type: "order.deleted"; data: { id: string } }
+    | { type: "orders.imported"; data: { imported: number } }
+    | { type: "routes.changed"; data: { mode: "full" | "incremental" | "improved"; routeIds: string[]; assignedOrders: number } }
+    // Some updates were dropped (client too slow): reload the full state
+    | { type: "resync"; data: Record<string, never> };
+
+type Listener = {
+    onEvent: (event: LiveEvent) => void;
+    // connected=true after every (re)connect; reconnected=true when updates may have been missed meanwhile
+    onStatus?: (connected: boolean, reconnected: boolean) => void;
+};
+
+const MAX_RETRY_MS = 30000;
+
+const listeners = new Set<Listener>();
+let connection: AbortController | null = null;
+
+export const toOrder = (order: LiveOrder): Order => ({
+    ...order,
+    address: order.address ?? undefined,
+    routeId: order.routeId ?? undefined,
+});
+
+// One shared GET /api/live stream per tab. EventSource cannot send the Authorization header, so the
+// stream is read with fetch. Returns the unsubscribe function; the stream closes with the last listener.
+export function subscribeLiveUpdates(
+    onEvent: Listener["onEvent"],
+    onStatus?: Listener["onStatus"]
+): () => void {
+    const listener: Listener = { onEvent, onStatus };
+    listeners.add(listener);
+    if (!connection) {
+        connection = new AbortController();
+        void connect(connection.signal);
+    }
+    return () => {
+        listeners.delete(listener);
+        if (listeners.size === 0 && connection) {
+            connection.abort();
+            connection = null;
+        }
+    };
+}
+
+async function connect(signal: AbortSignal) {
+    let retryMs = 1000;
+    let connectedBefore = false;
+    while (!signal.aborted) {
+        try {
+            const token = localStorage.getItem("gl_token");
+            const response = await fetch(`${API_BASE_URL}/live`, {
+                headers: {
+                    Accept: "text/event-stream",
+                    ...(token ? { Authorization: `Bearer ${token}` } : {}),
+                },
+                cache: "no-store",
+                signal,
+            });
+            if (!response.ok || !response.body) {
+                throw new Error(`Live updates unavailable (${response.status})`);
+            }
+            await readEvents(response.body, signal, (type, data) => {
+                if (type === "ready") {
+                    retryMs = 1000;
+                    listeners.forEach((listener) => listener.onStatus?.(true, connectedBefore));
+                    connectedBefore = true;
+                    return;
+                }
+                const event = { type, data } as LiveEvent;
+                listeners.forEach((listener) => listener.onEvent(event));
+            });
+        } catch {
+            // Network error or abort; retried below unless aborted
+        }
+        if (signal.aborted) {
+            return;
+        }
+        listeners.forEach((listener) => listener.onStatus?.(false, false));
+        await new Promise((resolve) => setTimeout(resolve, retryMs));
+        retryMs = Math.min(retryMs * 2, MAX_RETRY_MS);
+    }
+}
+
+async function readEvents(
+    body: ReadableStream<Uint8Array>,
+    signal: AbortSignal,
+    emit: (type: string, data: unknown) => void
+) {
+    const reader = body.getReader();
+    const decoder = new TextDecoder();
+    let buffer = "";
+    while (!signal.aborted) {
+        const { value, done } = await reader.read();
+        if (done) {
+            return;
+        }
+        buffer += decoder.decode(value, { stream: true }).replace(/\r\n?/g, "\n");
+        let boundary = buffer.indexOf("\n\n");
+        while (boundary >= 0) {
+            const frame = buffer.slice(0, boundary);
+            buffer = buffer.slice(boundary + 2);
+            dispatchFrame(frame, emit);
+            boundary = buffer.indexOf("\n\n");
+        }
+    }
+}
+
+// Only the event and data fields are used; comment lines are heartbeats.
+function dispatchFrame(frame: string, emit: (type: string, data: unknown) => void) {
+    let type = "message";
+    const data: string[] = [];
+    for (const line of frame.split("\n")) {
+        if (!line || line.startsWith(":")) {
+            continue;
+        }
+        const colon = line.indexOf(":");
+        const field = colon < 0 ? line : line.slice(0, colon);
+        let value = colon < 0 ? "" : line.slice(colon + 1);
+        if (value.startsWith(" ")) {
+            value = value.slice(1);
+        }
+        if (field === "event") {
+            type = value;
+        } else if (field === "data") {
+            data.push(value);
+        }
+    }
+    if (data.length === 0) {
+        return;
+    }
+    try {
+        emit(type, JSON.parse(data.join("\n")));
+    } catch {
+        // Ignore malformed frames
+    }
+}
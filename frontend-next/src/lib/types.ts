@@ -5,6 +5,8 @@ export interface Order {
   organizationId: string; // From V2
   weightKg: number;
   serviceDurationMin: number;
+  windowStartMin?: number | null; // From V17, minutes after midnight
+  windowEndMin?: number | null;
   latitude: number;
   longitude: number;
   address?: string;
@@ -38,6 +40,24 @@ export interface Route {
   // totalTimeMinutes?: number;    To be considered in the future, but not currently defined in V3 SQL
 }
 
+export interface OrderImportResult {
+  totalRows: number;
+  imported: number;
+  failed: number;
+  errors: { line: number; message: string }[]; // First 1000 rejected rows
+}
+
+export interface OptimizationJob {
+  jobId: string;
+  status: "QUEUED" | "RUNNING" | "COMPLETED" | "FAILED";
+  progress: number; // 0-100
+  message?: string | null;
+  submittedAt: string;
+  startedAt?: string | null;
+  finishedAt?: string | null;
+  routes?: Route[] | null; // Set once the job has completed
+}
+
 export interface Driver {
   id: string;
   name: string;
@@ -0,0 +1,58 @@
+// k6 load test: driver-portal polling (GET /api/driver/route).
+//
+// Each virtual user is one driver app polling every POLL_INTERVAL_S seconds, ramping up to PEAK_VUS.
+// Run it twice against the same data, once per backend mode, and compare the stage at which
+// http_req_duration p95 or http_req_failed crosses the thresholds:
+//
+//   VIRTUAL_THREADS=false java -jar app.jar   ->  k6 run -e DRIVER_EMAIL=... -e DRIVER_PASSWORD=... loadtest/driver-portal-poll.js
+//   VIRTUAL_THREADS=true  java -jar app.jar   ->  (same command)
+//
+// Sustained poll rate ~= active VUs / POLL_INTERVAL_S requests per second.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const POLL_INTERVAL_S = Number(__ENV.POLL_INTERVAL_S || 5);
+const PEAK_VUS = Number(__ENV.PEAK_VUS || 2000);
+
+export const options = {
+  scenarios: {
+    polls: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '1m', target: Math.round(PEAK_VUS / 4) },
+        { duration: '1m', target: Math.round(PEAK_VUS / 2) },
+        { duration: '2m', target: PEAK_VUS },
+        { duration: '30s', target: 0 },
+      ],
+      gracefulRampDown: '10s',
+    },
+  },
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+    'http_req_duration{name:driver-route}': ['p(95)<1000'],
+  },
+};
+
+// One login for the whole run; the driver portal only reads, so all VUs can share the token.
+export function setup() {
+  const res = http.post(
+    `${BASE_URL}/api/auth/login`,
+    JSON.stringify({ email: __ENV.DRIVER_EMAIL, password: __ENV.DRIVER_PASSWORD }),
+    { headers: { 'Content-Type': 'application/json' } },
+  );
+  if (res.status !== 200) {
+    throw new Error(`Driver login failed with status ${res.status}`);
+  }
+  return { token: res.json('token') };
+}
+
+export default function (data) {
+  const res = http.get(`${BASE_URL}/api/driver/route`, {
+    headers: { Authorization: `Bearer ${data.token}` },
+    tags: { name: 'driver-route' },
+  });
+  check(res, { 'status is 200': (r) => r.status === 200 });
+  sleep(POLL_INTERVAL_S);
+}